@@ -0,0 +1,35 @@
+package pl.projekt.tui.component;
+
+import java.io.OutputStream;
+
+/**
+ * Builds the screens measured by the benchmarks. Sizes are given as {@code WIDTHxHEIGHT}, e.g. {@code 80x24}.
+ */
+final class BenchmarkScreens {
+
+    private BenchmarkScreens() {
+    }
+
+    static int width(String size) {
+        return Integer.parseInt(size.substring(0, size.indexOf('x')));
+    }
+
+    static int height(String size) {
+        return Integer.parseInt(size.substring(size.indexOf('x') + 1));
+    }
+
+    /**
+     * Creates a screen with the layers a session uses and a background, like {@code ClientHandler.init}.
+     */
+    static TUIScreen screen(String size) {
+        return CalculatorSession.screen(width(size), height(size));
+    }
+
+    /**
+     * Creates a manager showing the bundled calculator screen, the same content a new session renders.
+     * Output is discarded, so the benchmarks measure building the frame and not the I/O.
+     */
+    static TUIManager calculator(TUIScreen screen) {
+        return CalculatorSession.start(screen, OutputStream.nullOutputStream());
+    }
+}
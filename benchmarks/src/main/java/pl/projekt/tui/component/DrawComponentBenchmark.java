@@ -0,0 +1,100 @@
+package pl.projekt.tui.component;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pl.projekt.tui.model.color.Colors;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link TUIComponent#drawComponent(TUIManager)} of every component type. Sized components fill most
+ * of the screen, so the cost grows with the {@code size} parameter the way it does when a window is maximized.
+ * <p>
+ * Run with {@code -prof gc} to see how many bytes drawing a component allocates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DrawComponentBenchmark {
+
+    @Param({"80x24", "200x60", "400x120"})
+    public String size;
+
+    @Param({"tab", "label", "textField", "button", "checkBox", "border", "progressBar", "table", "list", "dialog"})
+    public String component;
+
+    private TUIManager manager;
+    private TUIComponent target;
+
+    @Setup
+    public void setUp() {
+        TUIScreen screen = BenchmarkScreens.screen(size);
+        manager = new TUIManager(screen, OutputStream.nullOutputStream());
+        target = create(component, screen.getWidth(), screen.getHeight());
+    }
+
+    @Benchmark
+    public TUIComponent drawComponent() {
+        target.drawComponent(manager);
+        return target;
+    }
+
+    private TUIComponent create(String type, int width, int height) {
+        int innerWidth = width - 4;
+        int innerHeight = height - 4;
+        switch (type) {
+            case "tab":
+                TUITab tab = new TUITab("F1 Benchmark", 0, 0, width, height, 0, manager);
+                tab.setActive(true);
+                return tab;
+            case "label":
+                return new TUILabel("x".repeat(innerWidth), 2, 2, 1, Colors.BG_BRIGHT_YELLOW.getColor(), manager);
+            case "textField":
+                TUITextField field = new TUITextField(2, 2, innerWidth, 1, 1, manager);
+                field.setActive(true);
+                return field;
+            case "button":
+                return new TUIButton(2, 2, innerWidth, 1, 1, "Calculate", null, manager);
+            case "checkBox":
+                return new TUICheckBox(2, 2, 1, 1, "Show as table", "table", manager, new TUIRadioButtonGroup(manager));
+            case "border":
+                return new TUIBorder(2, 2, innerWidth, innerHeight, 1, manager);
+            case "progressBar":
+                TUIProgressBar progressBar = new TUIProgressBar(2, 2, innerWidth, 1, 1, manager);
+                progressBar.setProgress(0.5);
+                return progressBar;
+            case "table":
+                int columns = Math.max(1, innerWidth / 12);
+                return new TUITable(2, 2, columns, cells(columns * (innerHeight / 2)), 1, manager.getScreen(), manager);
+            case "list":
+                return new TUIList(2, 2, 1, manager.getScreen(), manager, cells(innerHeight));
+            case "dialog":
+                return new TUIDialog(2, 2, innerWidth, innerHeight, 2, "Result", 1234.5, manager, null);
+            default:
+                throw new IllegalArgumentException("Unknown component " + type);
+        }
+    }
+
+    private static List<String> cells(int count) {
+        List<String> cells = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cells.add("Row " + i);
+        }
+        return cells;
+    }
+}
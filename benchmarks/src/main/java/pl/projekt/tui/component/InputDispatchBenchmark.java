@@ -0,0 +1,75 @@
+package pl.projekt.tui.component;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pl.projekt.tui.model.keys.KeyInfo;
+import pl.projekt.tui.model.keys.KeyLabel;
+import pl.projekt.tui.model.keys.KeyboardHandler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the input path of a session showing the calculator screen, from a decoded key to the frame written
+ * to the terminal: {@link TUIManager#handleKeyboardInput(KeyInfo)} bubbles the key through the focused
+ * {@link TUITextField} and the tab, and renders the screen when the key changed it.
+ * <p>
+ * Every invocation types a digit into the focused field and deletes it again, so the field stays the same and the
+ * score is the time per keystroke. {@link #decodeAndDispatch()} also decodes the bytes of the keys first.
+ * Run with {@code -prof gc} to see the allocation per keystroke.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputDispatchBenchmark {
+
+    private static final byte[] DIGIT = {'7'};
+    private static final byte[] DELETE = {127};
+
+    @Param({"140x30", "200x60"})  // The calculator screen needs 140 columns
+    public String size;
+
+    private final KeyboardHandler keyboardHandler = new KeyboardHandler();
+    private final KeyInfo digit = new KeyInfo("7", KeyLabel.DIGIT_7);
+    private final KeyInfo delete = new KeyInfo(KeyLabel.DELETE);
+    private TUIManager manager;
+
+    @Setup
+    public void setUp() {
+        manager = BenchmarkScreens.calculator(BenchmarkScreens.screen(size));
+        manager.handleKeyboardInput(new KeyInfo(KeyLabel.F2));  // The credit tab, the main tab has no fields
+        manager.handleKeyboardInput(new KeyInfo(KeyLabel.ARROW_DOWN));  // Focus the first field of the tab
+        TUIComponent focused = manager.getTabs().get(manager.getCurrentTab()).getFocusedComponent();
+        if (!(focused instanceof TUITextField)) {
+            throw new IllegalStateException("Expected a focused text field, got " + focused);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public TUIManager dispatch() {
+        manager.handleKeyboardInput(digit);
+        manager.handleKeyboardInput(delete);
+        return manager;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public TUIManager decodeAndDispatch() {
+        manager.handleKeyboardInput(keyboardHandler.getKeyInfo(KeyboardHandler.toKeyCodes(DIGIT)));
+        manager.handleKeyboardInput(keyboardHandler.getKeyInfo(KeyboardHandler.toKeyCodes(DELETE)));
+        return manager;
+    }
+}
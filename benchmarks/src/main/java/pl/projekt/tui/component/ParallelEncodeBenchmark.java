@@ -0,0 +1,99 @@
+package pl.projekt.tui.component;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pl.projekt.tui.model.color.Colors;
+import pl.projekt.tui.terminal.TerminalCapabilities;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares encoding a frame serially with encoding it in parallel bands of rows, to see from which frame size the
+ * bands pay off on a machine; {@code bands=1} is the serial path. {@link #fullFrame()} encodes every cell, as the
+ * first frame of a session or a frame for a new viewer; {@link #changes()} encodes the tenth of the cells that
+ * changed since the previous frame. The cells are random runs of text and box drawing in a few colors.
+ * <p>
+ * Bands above the number of cores cannot run at the same time, so only compare them on a machine with that many.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelEncodeBenchmark {
+
+    @Param({"200x60", "400x120", "800x240", "1600x480"})
+    public String size;
+
+    @Param({"1", "2", "4", "8"})
+    public int bands;
+
+    private int width;
+    private int height;
+    private TUIScreenCell[][] first;
+    private TUIScreenCell[][] second;  // The first frame with a tenth of the cells changed
+    private boolean showSecond;
+    private final FrameEncoder full = new FrameEncoder();
+    private final FrameEncoder diff = new FrameEncoder();
+
+    @Setup
+    public void setUp() {
+        width = BenchmarkScreens.width(size);
+        height = BenchmarkScreens.height(size);
+        Random random = new Random(1);
+        first = randomCells(random);
+        second = new TUIScreenCell[height][];
+        for (int y = 0; y < height; y++) {
+            second[y] = first[y].clone();
+        }
+        for (int i = width * height / 10; i > 0; i--) {
+            second[random.nextInt(height)][random.nextInt(width)] = new TUIScreenCell('*', Colors.TEXT_RED.getColor(), Colors.BG_WHITE.getColor());
+        }
+
+        TerminalCapabilities xterm = TerminalCapabilities.detect(Map.of("TERM", "xterm-256color", "LANG", "C.UTF-8"));
+        for (FrameEncoder encoder : new FrameEncoder[]{full, diff}) {
+            encoder.setCapabilities(xterm);
+            encoder.setParallelism(bands == 1 ? Integer.MAX_VALUE : 0, bands);
+        }
+        diff.encode(first, width, height);
+    }
+
+    private TUIScreenCell[][] randomCells(Random random) {
+        int[] backgrounds = {Colors.BG_BRIGHT_WHITE.getColor(), Colors.BG_BLUE.getColor(), Colors.BG_WHITE.getColor()};
+        String characters = " ─│Ab1";
+        TUIScreenCell[][] cells = new TUIScreenCell[height][width];
+        for (TUIScreenCell[] row : cells) {
+            for (int x = 0; x < width; ) {
+                TUIScreenCell cell = new TUIScreenCell(characters.charAt(random.nextInt(characters.length())),
+                        Colors.TEXT_BLACK.getColor(), backgrounds[random.nextInt(backgrounds.length)]);
+                for (int run = 1 + random.nextInt(12); run > 0 && x < width; run--) {
+                    row[x++] = cell;
+                }
+            }
+        }
+        return cells;
+    }
+
+    @Benchmark
+    public int fullFrame() {
+        return full.encodeFull(first, width, height);
+    }
+
+    @Benchmark
+    public int changes() {
+        showSecond = !showSecond;
+        return diff.encode(showSecond ? second : first, width, height);
+    }
+}
@@ -0,0 +1,105 @@
+package pl.projekt.tui.component;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pl.projekt.tui.model.color.Colors;
+import pl.projekt.tui.terminal.TerminalCapabilities;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the stages of producing a frame from the layers of a {@link TUIScreen} showing the calculator screen:
+ * merging the layers, encoding the merged cells, the whole {@link TUIScreen#refresh(OutputStream)} and a full
+ * {@link TUIManager#render()} that also draws every component. The screen is set up for an xterm, which can move
+ * the cursor, so {@link #encodeFull()} encodes every cell, as for a new viewer, and {@link #encodeChanges()} encodes
+ * the tenth of the cells that changed since the previous frame.
+ * <p>
+ * The calculator screen needs 140 columns, so at 80x24 the cost of {@link #render()} includes the warnings logged
+ * for cells drawn outside the screen. Run with {@code -prof gc} to see the allocation rate per frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScreenBenchmark {
+
+    @Param({"80x24", "200x60", "400x120"})
+    public String size;
+
+    private TUIScreen screen;
+    private TUIManager manager;
+    private final OutputStream out = OutputStream.nullOutputStream();
+    private int[] changedX, changedY;  // Cells changed before every encodeChanges call, a tenth of the screen
+    private TUIScreenCell[] shownCells;  // Cells of the calculator at those positions
+    private final TUIScreenCell changedCell = new TUIScreenCell('*', Colors.TEXT_RED.getColor(), Colors.BG_WHITE.getColor());
+    private boolean showChanged;
+
+    @Setup
+    public void setUp() {
+        screen = BenchmarkScreens.screen(size);
+        screen.setCapabilities(TerminalCapabilities.detect(Map.of("TERM", "xterm-256color", "LANG", "C.UTF-8")));
+        manager = BenchmarkScreens.calculator(screen);
+
+        TUIScreenCell[][] merged = screen.getMergedLayer();
+        int width = screen.getWidth();
+        int height = screen.getHeight();
+        Random random = new Random(1);
+        changedX = new int[width * height / 10];
+        changedY = new int[changedX.length];
+        shownCells = new TUIScreenCell[changedX.length];
+        for (int i = 0; i < changedX.length; i++) {
+            changedX[i] = random.nextInt(width);
+            changedY[i] = random.nextInt(height);
+            shownCells[i] = merged[changedY[i]][changedX[i]];
+        }
+    }
+
+    @Benchmark
+    public TUIScreen mergeLayers() {
+        screen.mergeLayers();
+        return screen;
+    }
+
+    @Benchmark
+    public int encodeFull() {
+        return screen.encodeFull();
+    }
+
+    @Benchmark
+    public int encodeChanges() {
+        showChanged = !showChanged;
+        TUIScreenCell[][] merged = screen.getMergedLayer();
+        for (int i = 0; i < changedX.length; i++) {
+            merged[changedY[i]][changedX[i]] = showChanged ? changedCell : shownCells[i];
+        }
+        return screen.encode();
+    }
+
+    @Benchmark
+    public TUIScreen refresh() throws IOException {
+        screen.refresh(out);
+        return screen;
+    }
+
+    @Benchmark
+    public TUIManager render() {
+        manager.refresh();
+        manager.render();
+        return manager;
+    }
+}
@@ -0,0 +1,68 @@
+package pl.projekt.tui.model.keys;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures decoding one read from the terminal into a {@link KeyInfo}, the way the session's interpreter does it:
+ * the bytes are converted with {@link KeyboardHandler#toKeyCodes(byte[])} and looked up with
+ * {@link KeyboardHandler#getKeyInfo(int[])}.
+ * <p>
+ * The {@code input} parameter covers single keys (a digit, an arrow and a five byte function key), a read with
+ * several coalesced key presses and a pasted number. Coalesced reads and pastes are looked up as one sequence,
+ * so they measure the cost of a miss. Run with {@code -prof gc} to see the allocation per read.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputDecodingBenchmark {
+
+    @Param({"digit", "arrow", "functionKey", "coalesced", "paste"})
+    public String input;
+
+    private final KeyboardHandler keyboardHandler = new KeyboardHandler();
+    private byte[] data;
+
+    @Setup
+    public void setUp() {
+        switch (input) {
+            case "digit":
+                data = new byte[]{'7'};
+                break;
+            case "arrow":
+                data = new byte[]{27, 91, 66};
+                break;
+            case "functionKey":
+                data = new byte[]{27, 91, 49, 55, 126};
+                break;
+            case "coalesced":
+                data = new byte[]{'1', '2', 27, 91, 66, '3'};
+                break;
+            case "paste":
+                data = "1234567.89".repeat(8).getBytes(StandardCharsets.US_ASCII);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown input " + input);
+        }
+    }
+
+    @Benchmark
+    public KeyInfo decode() {
+        return keyboardHandler.getKeyInfo(KeyboardHandler.toKeyCodes(data));
+    }
+}
@@ -0,0 +1,106 @@
+package pl.projekt.tui.ssh;
+
+import java.io.OutputStream;
+
+/**
+ * Output of a benchmark client's shell channel. Counts the bytes received and the frames finished, a frame ends with
+ * the sequence the session's terminal type makes the server write last. Terminals without cursor movement get full
+ * frames, which end after the last row; terminals that can move the cursor get frames of the changed cells, which
+ * only end with a known sequence when the terminal also supports synchronized updates.
+ */
+class FrameCounter extends OutputStream {
+
+    static final byte[] FULL_FRAME_END = "\033[E\033[0m".getBytes();  // Last line break and attribute reset
+    static final byte[] SYNC_FRAME_END = "\033[?2026l".getBytes();  // End of the synchronized update around a frame
+
+    private final byte[] frameEnd;
+
+    private long bytes;  // Bytes received
+    private long frames;  // Frames finished
+    private int matched;  // Length of the frame end matched so far
+    private long lastReceived = System.nanoTime();  // When the last bytes arrived
+
+    /**
+     * Creates a counter of the frames ending with the given sequence.
+     *
+     * @param frameEnd {@link #FULL_FRAME_END} or {@link #SYNC_FRAME_END}.
+     */
+    FrameCounter(byte[] frameEnd) {
+        this.frameEnd = frameEnd;
+    }
+
+    @Override
+    public synchronized void write(int b) {
+        bytes++;
+        received();
+        match((byte) b);
+    }
+
+    @Override
+    public synchronized void write(byte[] data, int offset, int length) {
+        bytes += length;
+        received();
+        for (int i = offset; i < offset + length; i++) {
+            match(data[i]);
+        }
+    }
+
+    private void received() {
+        lastReceived = System.nanoTime();
+    }
+
+    private void match(byte b) {
+        if (b == frameEnd[matched]) {
+            matched++;
+        } else {
+            matched = b == frameEnd[0] ? 1 : 0;
+        }
+        if (matched == frameEnd.length) {
+            matched = 0;
+            frames++;
+            notifyAll();
+        }
+    }
+
+    synchronized long getBytes() {
+        return bytes;
+    }
+
+    synchronized long getFrames() {
+        return frames;
+    }
+
+    /**
+     * Waits until more than the given number of frames have been received.
+     *
+     * @param seen     Frames received before the key was sent.
+     * @param timeoutNanos Maximum time to wait.
+     * @return True if a new frame arrived, false on timeout.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    synchronized boolean awaitFrame(long seen, long timeoutNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (frames <= seen) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) {
+                return false;
+            }
+            wait(left / 1_000_000, (int) (left % 1_000_000));
+        }
+        return true;
+    }
+
+    /**
+     * Waits until no bytes have arrived for the given time. A key can cause more than one frame, the next key is
+     * sent only when the output has settled so its latency is not measured against a late frame of the previous one.
+     *
+     * @param quietNanos Time without output that counts as settled.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    synchronized void awaitQuiet(long quietNanos) throws InterruptedException {
+        long left;
+        while ((left = lastReceived + quietNanos - System.nanoTime()) > 0) {
+            wait(left / 1_000_000, (int) (left % 1_000_000));
+        }
+    }
+}
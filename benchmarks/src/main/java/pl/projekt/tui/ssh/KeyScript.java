@@ -0,0 +1,138 @@
+package pl.projekt.tui.ssh;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scripted key sequences of the calculator screen, encoded the way an xterm compatible terminal sends them.
+ * Every key of a script causes a frame.
+ */
+final class KeyScript {
+
+    static final byte[] ARROW_DOWN = {27, 91, 66};
+    static final byte[] ARROW_RIGHT = {27, 91, 67};
+    static final byte[] ARROW_LEFT = {27, 91, 68};
+    static final byte[] ENTER = {13};
+    static final byte[] SPACE = {32};
+    static final byte[] DELETE = {127};
+    static final byte[] CTRL_C = {3};
+
+    private KeyScript() {
+    }
+
+    /**
+     * Returns the bytes of a function key from F1 to F7, the keys switching between the tabs of the calculator.
+     */
+    static byte[] functionKey(int number) {
+        switch (number) {
+            case 1: return new byte[]{27, 79, 80};
+            case 2: return new byte[]{27, 79, 81};
+            case 3: return new byte[]{27, 79, 82};
+            case 4: return new byte[]{27, 79, 83};
+            case 5: return new byte[]{27, 91, 49, 53, 126};
+            case 6: return new byte[]{27, 91, 49, 55, 126};
+            case 7: return new byte[]{27, 91, 49, 56, 126};
+            default: throw new IllegalArgumentException("No tab for F" + number);
+        }
+    }
+
+    /**
+     * Fills the three fields of the credit tab, presses Calculate, closes the result dialog with its Cancel
+     * button and clears the fields again, then visits the other tabs. The script leaves the screen as it found it,
+     * so it can be repeated in one session.
+     */
+    static List<byte[]> creditWorkflow() {
+        List<byte[]> keys = new ArrayList<>();
+        calculate(keys, 2, "250000", "7.5", "30");
+        keys.add(ARROW_DOWN);  // Back on the Calculate button, the next round wraps around to the first field
+        for (int tab = 3; tab <= 7; tab++) {
+            keys.add(functionKey(tab));
+        }
+        keys.add(functionKey(1));
+        return keys;
+    }
+
+    /**
+     * Returns one workflow per tab, F1 to F7, as a user of the calculator performs them. Each workflow expects
+     * its tab to be opened for the first time in the session.
+     * <p>
+     * The currency and investment calculations are not started: the currency calculation downloads exchange rates
+     * and the investment result opens a table, so those workflows only fill the form.
+     */
+    static List<List<byte[]>> tabWorkflows() {
+        List<List<byte[]>> workflows = new ArrayList<>();
+
+        workflows.add(List.of(functionKey(1)));
+
+        List<byte[]> credit = new ArrayList<>();
+        calculate(credit, 2, "250000", "7.5", "30");
+        workflows.add(credit);
+
+        List<byte[]> savings = new ArrayList<>();
+        calculate(savings, 3, "500", "4", "10");
+        workflows.add(savings);
+
+        List<byte[]> investment = new ArrayList<>();
+        investment.add(functionKey(4));
+        fill(investment, "10000", "5", "6.5");
+        investment.add(ARROW_DOWN);  // Calculate button
+        investment.add(ARROW_LEFT);  // Show as list
+        investment.add(SPACE);
+        workflows.add(investment);
+
+        List<byte[]> currency = new ArrayList<>();
+        currency.add(functionKey(5));
+        currency.add(ARROW_DOWN);  // Source EUR
+        currency.add(SPACE);
+        currency.add(ARROW_RIGHT);  // Target EUR
+        currency.add(SPACE);
+        currency.add(ARROW_RIGHT);  // Amount
+        type(currency, "100");
+        workflows.add(currency);
+
+        List<byte[]> tax = new ArrayList<>();
+        calculate(tax, 6, "85000", "12");
+        workflows.add(tax);
+
+        List<byte[]> pension = new ArrayList<>();
+        calculate(pension, 7, "35", "400000", "67");
+        workflows.add(pension);
+
+        return workflows;
+    }
+
+    /**
+     * Opens a tab, fills its fields, presses the Calculate button below them, closes the result dialog with its
+     * Cancel button and clears the fields. Ends with the focus on the last field.
+     */
+    private static void calculate(List<byte[]> keys, int tab, String... values) {
+        keys.add(functionKey(tab));
+        fill(keys, values);
+        keys.add(ARROW_DOWN);  // Calculate button
+        keys.add(ENTER);
+        keys.add(ARROW_DOWN);  // Result dialog
+        keys.add(ARROW_LEFT);  // OK
+        keys.add(ARROW_LEFT);  // Cancel
+        keys.add(SPACE);
+        for (String value : values) {
+            keys.add(ARROW_DOWN);
+            for (int i = 0; i < value.length(); i++) {
+                keys.add(DELETE);
+            }
+        }
+    }
+
+    private static void fill(List<byte[]> keys, String... values) {
+        for (String value : values) {
+            keys.add(ARROW_DOWN);
+            type(keys, value);
+        }
+    }
+
+    static void type(List<byte[]> keys, String text) {
+        for (byte b : text.getBytes(StandardCharsets.US_ASCII)) {
+            keys.add(new byte[]{b});
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package pl.projekt.tui.ssh;
+
+import org.apache.sshd.client.SshClient;
+import org.apache.sshd.client.keyverifier.AcceptAllServerKeyVerifier;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * End-to-end keystroke latency harness. Starts the SSH server of {@link Server} on an ephemeral port, connects
+ * in-process SSH clients and times every scripted key from writing its bytes to receiving the end of the frame
+ * it causes. Everything runs on the loopback interface, no network or external tools are needed.
+ * <p>
+ * Usage: {@code java -cp benchmarks/target/benchmarks.jar pl.projekt.tui.ssh.LatencyHarness [clients] [rounds] [WIDTHxHEIGHT]},
+ * by default 4 clients, 20 rounds of {@link KeyScript#creditWorkflow()} and a 140x40 terminal.
+ */
+public class LatencyHarness {
+
+    private static final String USER = "bench";
+    private static final long FRAME_TIMEOUT_MILLIS = 5000;
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        String size = args.length > 2 ? args[2] : "140x40";
+        int width = Integer.parseInt(size.substring(0, size.indexOf('x')));
+        int height = Integer.parseInt(size.substring(size.indexOf('x') + 1));
+
+        SshServer server = Server.createSshServer(0, new SimpleGeneratorHostKeyProvider(), Map.of(USER, USER));
+        server.start();
+        SshClient client = SshClient.setUpDefaultClient();
+        client.setServerKeyVerifier(AcceptAllServerKeyVerifier.INSTANCE);
+        client.start();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<Result>> futures = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> run(client, server.getPort(), width, height, rounds)));
+            }
+            Result total = new Result();
+            for (Future<Result> future : futures) {
+                total.add(future.get());
+            }
+            total.print(clients, rounds, size);
+            if (total.keys > 0 && total.latencies.getCount() == 0) {
+                throw new IllegalStateException("No key produced a frame, the frame latency was not measured");
+            }
+        } finally {
+            executor.shutdownNow();
+            client.stop();
+            server.stop(true);
+        }
+    }
+
+    private static Result run(SshClient client, int port, int width, int height, int rounds) throws Exception {
+        Result result = new Result();
+        List<byte[]> script = KeyScript.creditWorkflow();
+        try (TuiSession session = new TuiSshClient(client, port, USER, USER, width, height)) {
+            session.awaitFirstFrame();
+            long initialBytes = session.getBytesReceived();
+            for (int round = 0; round < rounds; round++) {
+                for (byte[] key : script) {
+                    long latency = session.sendKey(key, FRAME_TIMEOUT_MILLIS);
+                    if (latency < 0) {
+                        result.missed++;
+                    } else {
+                        result.latencies.record(latency);
+                    }
+                }
+            }
+            result.keys = (long) rounds * script.size();
+            result.bytes = session.getBytesReceived() - initialBytes;
+        }
+        return result;
+    }
+
+    /**
+     * Latencies and byte counts of one or more clients.
+     */
+    private static final class Result {
+        private final LatencyRecorder latencies = new LatencyRecorder();
+        private long keys;
+        private long missed;  // Keys without a frame within the timeout
+        private long bytes;
+
+        void add(Result other) {
+            latencies.add(other.latencies);
+            keys += other.keys;
+            missed += other.missed;
+            bytes += other.bytes;
+        }
+
+        void print(int clients, int rounds, String size) {
+            long[] sorted = latencies.sorted();
+            System.out.printf("clients=%d rounds=%d size=%s keys=%d missed=%d%n", clients, rounds, size, keys, missed);
+            System.out.printf("latency p50=%.3f ms p99=%.3f ms p999=%.3f ms max=%.3f ms%n",
+                    LatencyRecorder.percentileMillis(sorted, 0.50), LatencyRecorder.percentileMillis(sorted, 0.99),
+                    LatencyRecorder.percentileMillis(sorted, 0.999), LatencyRecorder.percentileMillis(sorted, 1.0));
+            System.out.printf("bytes per key=%.1f%n", keys == 0 ? 0.0 : (double) bytes / keys);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package pl.projekt.tui.ssh;
+
+import java.util.Arrays;
+
+/**
+ * Collects latencies in nanoseconds and reports percentiles. Every client thread records into its own recorder,
+ * the recorders are merged for the report.
+ */
+class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+
+    void record(long latency) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latency;
+    }
+
+    void add(LatencyRecorder other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.latencies[i]);
+        }
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the latencies in ascending order.
+     */
+    long[] sorted() {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Returns a percentile of sorted latencies in milliseconds.
+     *
+     * @param sorted   Latencies from {@link #sorted()}.
+     * @param quantile Quantile between 0 and 1, e.g. 0.99.
+     * @return The latency in milliseconds, 0 if nothing was recorded.
+     */
+    static double percentileMillis(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+}
@@ -0,0 +1,197 @@
+package pl.projekt.tui.ssh;
+
+import org.apache.sshd.client.SshClient;
+import org.apache.sshd.client.keyverifier.AcceptAllServerKeyVerifier;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Synthetic load generator. Starts the SSH and telnet servers of {@link Server} on ephemeral ports and runs
+ * simulated users against them for a fixed time. Every user connects, performs the workflows of the F1-F7 tabs in
+ * random order with exponentially distributed think times between keys, leaves with CTRL + C and connects again.
+ * <p>
+ * While the load runs, the process CPU, heap, thread count and GC pauses are sampled. At the end a capacity report
+ * of {@code name=value} lines is printed, and written to a file with {@code --report}, so runs of different releases
+ * can be compared with diff.
+ * <p>
+ * Options, all optional: {@code --ssh=100 --telnet=0 --duration=60 --ramp=10 --think=300 --size=140x40
+ * --seed=1 --report=capacity.txt}. Durations are in seconds, the think time in milliseconds. Telnet sessions
+ * report the size with NAWS.
+ */
+public class LoadGenerator {
+
+    private static final String USER = "load";
+    private static final long FRAME_TIMEOUT_MILLIS = 10_000;
+
+    private final int sshUsers;
+    private final int telnetUsers;
+    private final long durationMillis;
+    private final long rampMillis;
+    private final long thinkMillis;
+    private final int width;
+    private final int height;
+    private final long seed;
+
+    private final LatencyRecorder latencies = new LatencyRecorder();
+    private final AtomicLong keys = new AtomicLong();
+    private final AtomicLong missed = new AtomicLong();  // Keys without a frame within the timeout
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong sessions = new AtomicLong();  // Sessions completed
+    private final AtomicLong failures = new AtomicLong();  // Sessions that could not connect or broke
+
+    private LoadGenerator(Map<String, String> options) {
+        sshUsers = Integer.parseInt(options.getOrDefault("ssh", "100"));
+        telnetUsers = Integer.parseInt(options.getOrDefault("telnet", "0"));
+        durationMillis = Long.parseLong(options.getOrDefault("duration", "60")) * 1000;
+        rampMillis = Long.parseLong(options.getOrDefault("ramp", "10")) * 1000;
+        thinkMillis = Long.parseLong(options.getOrDefault("think", "300"));
+        String size = options.getOrDefault("size", "140x40");
+        width = Integer.parseInt(size.substring(0, size.indexOf('x')));
+        height = Integer.parseInt(size.substring(size.indexOf('x') + 1));
+        seed = Long.parseLong(options.getOrDefault("seed", "1"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        LoadGenerator generator = new LoadGenerator(options);
+        String report = generator.run();
+        System.out.print(report);
+        if (options.containsKey("report")) {
+            Files.write(Paths.get(options.get("report")), report.getBytes(StandardCharsets.UTF_8));
+        }
+        if (generator.keys.get() > 0 && generator.latencies.getCount() == 0) {
+            System.err.println("No key produced a frame, the frame latency was not measured");
+            System.exit(1);
+        }
+        System.exit(0);  // The telnet acceptor and sessions closed by the server in the background are not daemons
+    }
+
+    private String run() throws Exception {
+        SshServer sshServer = Server.createSshServer(0, new SimpleGeneratorHostKeyProvider(), Map.of(USER, USER));
+        sshServer.start();
+        ServerSocket telnetServer = Server.startTelnetServer(0);
+        SshClient client = SshClient.setUpDefaultClient();
+        client.setServerKeyVerifier(AcceptAllServerKeyVerifier.INSTANCE);
+        client.start();
+
+        ServerSampler sampler = new ServerSampler();
+        sampler.start();
+        long start = System.currentTimeMillis();
+        long deadline = start + durationMillis;
+        List<Thread> users = new ArrayList<>();
+        int total = sshUsers + telnetUsers;
+        try {
+            for (int i = 0; i < total; i++) {
+                boolean ssh = i < sshUsers;
+                long startDelay = total == 0 ? 0 : rampMillis * i / total;
+                Random random = new Random(seed + i);
+                Thread user = new Thread(() -> runUser(ssh, client, sshServer.getPort(), telnetServer.getLocalPort(), startDelay, deadline, random),
+                        (ssh ? "ssh-user-" : "telnet-user-") + i);
+                user.setDaemon(true);
+                users.add(user);
+                user.start();
+            }
+            for (Thread user : users) {
+                user.join(Math.max(1, deadline - System.currentTimeMillis() + 2 * FRAME_TIMEOUT_MILLIS));
+            }
+        } finally {
+            sampler.close();
+            client.stop();
+            telnetServer.close();
+            sshServer.stop(true);
+        }
+        return report(sampler, System.currentTimeMillis() - start);
+    }
+
+    private void runUser(boolean ssh, SshClient client, int sshPort, int telnetPort, long startDelay, long deadline, Random random) {
+        LatencyRecorder recorded = new LatencyRecorder();
+        try {
+            Thread.sleep(startDelay);
+            while (System.currentTimeMillis() < deadline) {
+                List<List<byte[]>> workflows = new ArrayList<>(KeyScript.tabWorkflows());
+                Collections.shuffle(workflows, random);
+                try (TuiSession session = ssh ? new TuiSshClient(client, sshPort, USER, USER, width, height) : new TuiTelnetClient(telnetPort, width, height)) {
+                    session.awaitFirstFrame();
+                    long initialBytes = session.getBytesReceived();
+                    for (List<byte[]> workflow : workflows) {
+                        for (byte[] key : workflow) {
+                            if (System.currentTimeMillis() >= deadline) {
+                                break;
+                            }
+                            Thread.sleep(think(random));
+                            long latency = session.sendKey(key, FRAME_TIMEOUT_MILLIS);
+                            keys.incrementAndGet();
+                            if (latency < 0) {
+                                missed.incrementAndGet();
+                            } else {
+                                recorded.record(latency);
+                            }
+                        }
+                    }
+                    bytes.addAndGet(session.getBytesReceived() - initialBytes);
+                    sessions.incrementAndGet();
+                } catch (IOException e) {
+                    failures.incrementAndGet();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (latencies) {
+                latencies.add(recorded);
+            }
+        }
+    }
+
+    /**
+     * Returns an exponentially distributed think time with the configured mean, capped at five times the mean.
+     */
+    private long think(Random random) {
+        double sample = -thinkMillis * Math.log(1.0 - random.nextDouble());
+        return (long) Math.min(sample, 5.0 * thinkMillis);
+    }
+
+    private String report(ServerSampler sampler, long elapsedMillis) {
+        long[] sorted;
+        synchronized (latencies) {
+            sorted = latencies.sorted();
+        }
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("users.ssh=%d%n", sshUsers));
+        report.append(String.format("users.telnet=%d%n", telnetUsers));
+        report.append(String.format("duration=%.1f s%n", elapsedMillis / 1000.0));
+        report.append(String.format("think.mean=%d ms%n", thinkMillis));
+        report.append(String.format("size=%dx%d%n", width, height));
+        report.append(String.format("sessions.completed=%d%n", sessions.get()));
+        report.append(String.format("sessions.failed=%d%n", failures.get()));
+        report.append(String.format("keys=%d%n", keys.get()));
+        report.append(String.format("keys.per.second=%.1f%n", keys.get() * 1000.0 / Math.max(1, elapsedMillis)));
+        report.append(String.format("frames.missed=%d%n", missed.get()));
+        report.append(String.format("frame.latency.p50=%.3f ms%n", LatencyRecorder.percentileMillis(sorted, 0.50)));
+        report.append(String.format("frame.latency.p99=%.3f ms%n", LatencyRecorder.percentileMillis(sorted, 0.99)));
+        report.append(String.format("frame.latency.p999=%.3f ms%n", LatencyRecorder.percentileMillis(sorted, 0.999)));
+        report.append(String.format("frame.latency.max=%.3f ms%n", LatencyRecorder.percentileMillis(sorted, 1.0)));
+        report.append(String.format("bytes.per.key=%.1f%n", keys.get() == 0 ? 0.0 : (double) bytes.get() / keys.get()));
+        sampler.report(report);
+        return report.toString();
+    }
+}
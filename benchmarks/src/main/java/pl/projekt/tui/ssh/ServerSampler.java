@@ -0,0 +1,101 @@
+package pl.projekt.tui.ssh;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.OperatingSystemMXBean;
+
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.Closeable;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the process the server runs in: CPU load, used heap and live threads once per second, and the duration
+ * of every garbage collection from the GC notifications. The load generator runs the server in process,
+ * so the samples include the work of the simulated clients too.
+ */
+class ServerSampler implements Closeable {
+
+    private final OperatingSystemMXBean os = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "server-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final LatencyRecorder gcPauses = new LatencyRecorder();
+    private final NotificationListener gcListener = (notification, handback) -> {
+        if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            recordPause(TimeUnit.MILLISECONDS.toNanos(info.getGcInfo().getDuration()));
+        }
+    };
+
+    private int samples;
+    private double cpuSum;
+    private double cpuMax;
+    private long heapMax;
+    private int threadsMax;
+
+    void start() {
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(gcListener, null, null);
+            }
+        }
+        scheduler.scheduleAtFixedRate(this::sample, 0, 1, TimeUnit.SECONDS);
+    }
+
+    private synchronized void recordPause(long nanos) {
+        gcPauses.record(nanos);
+    }
+
+    private synchronized void sample() {
+        double cpu = Math.max(0.0, os.getProcessCpuLoad());
+        samples++;
+        cpuSum += cpu;
+        cpuMax = Math.max(cpuMax, cpu);
+        heapMax = Math.max(heapMax, memory.getHeapMemoryUsage().getUsed());
+        threadsMax = Math.max(threadsMax, threads.getThreadCount());
+    }
+
+    /**
+     * Appends the sampled values to the capacity report.
+     */
+    synchronized void report(StringBuilder report) {
+        long[] pauses = gcPauses.sorted();
+        long pauseTotal = 0;
+        for (long pause : pauses) {
+            pauseTotal += pause;
+        }
+        report.append(String.format("server.cpu.avg=%.1f%%%n", samples == 0 ? 0.0 : 100 * cpuSum / samples));
+        report.append(String.format("server.cpu.max=%.1f%%%n", 100 * cpuMax));
+        report.append(String.format("server.heap.max=%.1f MB%n", heapMax / (1024.0 * 1024.0)));
+        report.append(String.format("server.threads.max=%d%n", threadsMax));
+        report.append(String.format("server.gc.count=%d%n", pauses.length));
+        report.append(String.format("server.gc.pause.total=%.1f ms%n", pauseTotal / 1e6));
+        report.append(String.format("server.gc.pause.p99=%.1f ms%n", LatencyRecorder.percentileMillis(pauses, 0.99)));
+        report.append(String.format("server.gc.pause.max=%.1f ms%n", LatencyRecorder.percentileMillis(pauses, 1.0)));
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter emitter) {
+                try {
+                    emitter.removeNotificationListener(gcListener);
+                } catch (javax.management.ListenerNotFoundException e) {
+                    // Not registered
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package pl.projekt.tui.ssh;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A benchmark client connected to the TUI. Keys are written as the bytes a terminal sends,
+ * frames are detected in the output by a {@link FrameCounter}.
+ */
+abstract class TuiSession implements Closeable {
+
+    static final long CONNECT_TIMEOUT_MILLIS = 30_000;
+    private static final long QUIET_NANOS = TimeUnit.MILLISECONDS.toNanos(20);  // Output pause ending the frames of a key
+
+    protected final FrameCounter output;
+
+    /**
+     * Creates a session whose frames end with the given sequence.
+     *
+     * @param frameEnd Sequence the server writes at the end of every frame for the session's terminal type.
+     */
+    protected TuiSession(byte[] frameEnd) {
+        output = new FrameCounter(frameEnd);
+    }
+
+    /**
+     * Returns the stream the keys are written to.
+     */
+    protected abstract OutputStream keys();
+
+    /**
+     * Waits for the frame drawn when the session starts and for the output to settle.
+     *
+     * @throws IOException If no frame arrives.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    void awaitFirstFrame() throws IOException, InterruptedException {
+        if (!output.awaitFrame(0, TimeUnit.MILLISECONDS.toNanos(CONNECT_TIMEOUT_MILLIS))) {
+            throw new IOException("No frame received after connecting");
+        }
+        output.awaitQuiet(QUIET_NANOS);
+    }
+
+    /**
+     * Sends a key and waits for the frame it causes, then for the output to settle.
+     *
+     * @param key           Bytes of the key.
+     * @param timeoutMillis Maximum time to wait for the frame.
+     * @return Nanoseconds from sending the key to the end of its first frame, or -1 if no frame arrived in time.
+     * @throws IOException If the key cannot be sent.
+     * @throws InterruptedException If the thread is interrupted.
+     */
+    long sendKey(byte[] key, long timeoutMillis) throws IOException, InterruptedException {
+        long seen = output.getFrames();
+        long start = System.nanoTime();
+        keys().write(key);
+        keys().flush();
+        if (!output.awaitFrame(seen, TimeUnit.MILLISECONDS.toNanos(timeoutMillis))) {
+            return -1;
+        }
+        long latency = System.nanoTime() - start;
+        output.awaitQuiet(QUIET_NANOS);
+        return latency;
+    }
+
+    /**
+     * Returns the number of bytes received since the session started.
+     */
+    long getBytesReceived() {
+        return output.getBytes();
+    }
+
+    /**
+     * Ends the session with CTRL + C, like a user leaving the application.
+     */
+    protected void quit() {
+        try {
+            keys().write(KeyScript.CTRL_C);
+            keys().flush();
+        } catch (IOException e) {
+            // The server already closed the connection
+        }
+    }
+}
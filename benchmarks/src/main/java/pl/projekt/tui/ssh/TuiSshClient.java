@@ -0,0 +1,50 @@
+package pl.projekt.tui.ssh;
+
+import org.apache.sshd.client.SshClient;
+import org.apache.sshd.client.channel.ChannelShell;
+import org.apache.sshd.client.session.ClientSession;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+
+/**
+ * Benchmark session over SSH: a shell channel with a pseudo terminal of the given size. The terminal type supports
+ * synchronized updates, so every frame, also one of only the changed cells, ends with a known sequence.
+ */
+class TuiSshClient extends TuiSession {
+
+    private static final Duration TIMEOUT = Duration.ofMillis(CONNECT_TIMEOUT_MILLIS);
+    private static final String TERM = "xterm-kitty";  // Can move the cursor and supports DEC mode 2026
+
+    private final ClientSession session;
+    private final ChannelShell channel;
+    private final OutputStream keys;
+
+    TuiSshClient(SshClient client, int port, String user, String password, int width, int height) throws IOException {
+        super(FrameCounter.SYNC_FRAME_END);
+        session = client.connect(user, "localhost", port).verify(TIMEOUT).getSession();
+        session.addPasswordIdentity(password);
+        session.auth().verify(TIMEOUT);
+        channel = session.createShellChannel();
+        channel.setPtyType(TERM);
+        channel.setPtyColumns(width);
+        channel.setPtyLines(height);
+        channel.setOut(output);
+        channel.setErr(OutputStream.nullOutputStream());
+        channel.open().verify(TIMEOUT);
+        keys = channel.getInvertedIn();
+    }
+
+    @Override
+    protected OutputStream keys() {
+        return keys;
+    }
+
+    @Override
+    public void close() throws IOException {
+        quit();
+        channel.close(true);
+        session.close(true);
+    }
+}
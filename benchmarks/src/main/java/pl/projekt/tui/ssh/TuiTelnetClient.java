@@ -0,0 +1,70 @@
+package pl.projekt.tui.ssh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * Benchmark session over the telnet port: a plain socket that reports the given window size with NAWS, as the
+ * server asks for it. A daemon thread copies the output, which starts with the server's NAWS request,
+ * into the {@link FrameCounter}. Telnet clients send no terminal type, so the server writes full frames.
+ */
+class TuiTelnetClient extends TuiSession {
+
+    private final Socket socket;
+    private final OutputStream keys;
+
+    TuiTelnetClient(int port, int width, int height) throws IOException {
+        super(FrameCounter.FULL_FRAME_END);
+        socket = new Socket();
+        socket.connect(new InetSocketAddress("localhost", port), (int) CONNECT_TIMEOUT_MILLIS);
+        keys = socket.getOutputStream();
+        keys.write(windowSize(width, height));
+        InputStream in = socket.getInputStream();
+        Thread reader = new Thread(() -> copy(in), "telnet-client-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Encodes the NAWS reply: IAC WILL NAWS and IAC SB NAWS with the 16 bit sizes, IAC SE.
+     */
+    private static byte[] windowSize(int width, int height) {
+        ByteArrayOutputStream naws = new ByteArrayOutputStream();
+        naws.writeBytes(new byte[]{(byte) 255, (byte) 251, 31, (byte) 255, (byte) 250, 31});
+        for (int value : new int[]{width >> 8, width & 0xFF, height >> 8, height & 0xFF}) {
+            naws.write(value);
+            if (value == 255) {
+                naws.write(255);  // Escaped as IAC IAC
+            }
+        }
+        naws.writeBytes(new byte[]{(byte) 255, (byte) 240});
+        return naws.toByteArray();
+    }
+
+    private void copy(InputStream in) {
+        byte[] buf = new byte[64 * 1024];
+        try {
+            int read;
+            while ((read = in.read(buf)) != -1) {
+                output.write(buf, 0, read);
+            }
+        } catch (IOException e) {
+            // Connection closed
+        }
+    }
+
+    @Override
+    protected OutputStream keys() {
+        return keys;
+    }
+
+    @Override
+    public void close() throws IOException {
+        quit();
+        socket.close();
+    }
+}
@@ -0,0 +1,772 @@
+package pl.projekt.tui.component;
+
+import pl.projekt.tui.model.color.ColorMode;
+import pl.projekt.tui.model.color.Palette;
+import pl.projekt.tui.terminal.TerminalCapabilities;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Encodes the merged cells of a {@link TUIScreen} into the bytes of a frame, using only what the session's
+ * {@link TerminalCapabilities} allow:
+ * <ul>
+ *     <li>colors in the terminal's {@link ColorMode}, written only when they differ from the previous cell,</li>
+ *     <li>UTF-8 characters, or ASCII replacements for box drawing and accented letters,</li>
+ *     <li>REP for runs of identical cells and EL for blank ends of rows, when they are shorter than the cells,</li>
+ *     <li>only the changed cells when the terminal can move the cursor, see {@link #encode},</li>
+ *     <li>rows that moved up or down, e.g. of a scrolled table, shifted inside a scroll region instead of rewritten,</li>
+ *     <li>a synchronized update (DEC mode 2026) around every frame, so the terminal shows it at once.</li>
+ * </ul>
+ * Frames of at least {@value #PARALLEL_THRESHOLD} cells, e.g. of wall displays, are split into bands of rows that
+ * are encoded in parallel on the common {@link ForkJoinPool}, see {@link #writeBands}; smaller frames are encoded
+ * by the calling thread alone.
+ * The cursor is hidden by the first frame and stays hidden until {@link #encodeRestore} gives the terminal back.
+ * The frame buffer and the cells shown by the terminal are kept between frames, so an encoder belongs to a single
+ * screen.
+ */
+class FrameEncoder {
+
+    private static final byte[] CURSOR_HOME = {0x1B, '[', 'H'};  // Move cursor to the top left corner of the screen
+    private static final byte[] NEXT_LINE = {0x1B, '[', 'E'};  // Move cursor to the beginning of the next line
+    private static final byte[] ERASE_LINE = {0x1B, '[', 'K'};  // Erase to the end of the line with the current background
+    private static final byte[] RESET = {0x1B, '[', '0', 'm'};  // Reset text attributes
+    private static final byte[] CSI = {0x1B, '['};  // Start of a control sequence with parameters
+    private static final byte[] SYNC_BEGIN = {0x1B, '[', '?', '2', '0', '2', '6', 'h'};  // Hold drawing until SYNC_END
+    private static final byte[] SYNC_END = {0x1B, '[', '?', '2', '0', '2', '6', 'l'};
+    private static final byte[] HIDE_CURSOR = {0x1B, '[', '?', '2', '5', 'l'};
+    private static final byte[] SHOW_CURSOR = {0x1B, '[', '?', '2', '5', 'h'};
+    private static final byte[] REVERSE_INDEX = {0x1B, 'M'};  // Cursor up, scrolling down at the top of the region
+    private static final int MAX_SCROLL = 32;  // Largest shift of rows looked for, in rows
+    private static final int SCROLL_COST = 24;  // Bytes of setting and resetting a scroll region and moving into it
+    private static final TUIScreenCell ERASED = new TUIScreenCell(' ', Palette.DEFAULT, Palette.DEFAULT);  // Scrolled in row
+    private static final int MOVE_ABSOLUTE = 0;  // Ways of reaching the next changed cell, see moveTo
+    private static final int MOVE_RELATIVE = 1;
+    private static final int MOVE_NEXT_LINE = 2;
+    private static final int MOVE_OVERPRINT = 3;
+    private static final int NO_COLOR = Integer.MIN_VALUE;  // Pen color before the first cell of a frame
+    private static final char[] LATIN_TO_ASCII = latinToAscii();  // ASCII replacements of U+0080-U+017F
+    private static final int PARALLEL_THRESHOLD = 32_768;  // Cells of the smallest frame encoded in bands
+    private static final int MIN_BAND_CELLS = 8_192;  // Smaller bands cost more to hand over than they save
+
+    private final ByteArrayOutputStream frame = new ByteArrayOutputStream(8192);  // Encoded frame, reused between frames
+    private TerminalCapabilities capabilities = TerminalCapabilities.DEFAULT;
+    private int foreground;  // Pen colors while encoding
+    private int background;
+    private int cursorX;  // Cursor position while encoding changes, -1 when unknown
+    private int cursorY;
+    private TUIScreenCell[][] shown = new TUIScreenCell[0][0];  // Cells the terminal shows, reused between sizes
+    private int shownWidth = -1;  // Size of the shown frame, -1 when the next frame has to be full
+    private int shownHeight = -1;
+    private boolean cursorHidden;  // Whether a frame already hid the cursor
+    private int[] rowHashes = new int[0];  // Hashes of the rows being encoded and of the shown rows, while scrolling
+    private int[] shownHashes = new int[0];
+    private int parallelThreshold = PARALLEL_THRESHOLD;
+    private int maxBands = Runtime.getRuntime().availableProcessors();
+    private FrameEncoder[] bandEncoders = new FrameEncoder[0];  // Encode the bands after the first, created when needed
+
+    /**
+     * Encodes the next frame into the frame buffer, replacing the previous one. When the terminal can move the cursor
+     * and shows the previous frame of the same size, the frame only contains the cells that changed, reached by the
+     * cheapest of CUP, CUU/CUD/CUF/CUB/CHA, CR and LF or by writing the unchanged cells in between again. The first
+     * frame, a frame after {@link #invalidate()} and frames for terminals without cursor movement are full.
+     * @param cells Merged cells, by row.
+     * @param width Number of columns to encode.
+     * @param height Number of rows to encode.
+     * @return Size of the frame in bytes, 0 if nothing changed.
+     */
+    int encode(TUIScreenCell[][] cells, int width, int height) {
+        boolean sync = capabilities.isSynchronizedOutput();
+        frame.reset();
+        if (sync) {
+            frame.writeBytes(SYNC_BEGIN);
+        }
+        if (!cursorHidden) {
+            frame.writeBytes(HIDE_CURSOR);
+        }
+        int start = frame.size();
+        if (capabilities.isCursorMovement() && shownWidth == width && shownHeight == height) {
+            writeChanges(cells, width, height);
+        } else {
+            writeFull(cells, width, height);
+            if (shown.length < height || shown.length > 0 && shown[0].length < width) {
+                shown = new TUIScreenCell[height][width];
+            }
+            shownWidth = width;
+            shownHeight = height;
+            for (int i = 0; i < height; i++) {
+                System.arraycopy(cells[i], 0, shown[i], 0, width);
+            }
+        }
+        if (frame.size() == start) {
+            frame.reset();  // Nothing changed, nothing is sent
+            return 0;
+        }
+        if (sync) {
+            frame.writeBytes(SYNC_END);
+        }
+        cursorHidden = true;
+        return frame.size();
+    }
+
+    /**
+     * Encodes a full frame into the frame buffer without remembering it as shown, so it does not change what the
+     * next {@link #encode} sends.
+     * @param cells Merged cells, by row.
+     * @param width Number of columns to encode.
+     * @param height Number of rows to encode.
+     * @return Size of the frame in bytes.
+     */
+    int encodeFull(TUIScreenCell[][] cells, int width, int height) {
+        frame.reset();
+        writeFull(cells, width, height);
+        return frame.size();
+    }
+
+    /**
+     * Encodes what gives the terminal back when the session ends: the cursor is shown again on the last row
+     * and the colors are reset.
+     * @param height Number of rows of the screen.
+     * @return Size of the sequence in bytes.
+     */
+    int encodeRestore(int height) {
+        frame.reset();
+        frame.writeBytes(CSI);
+        writeNumber(height);
+        frame.write('H');
+        frame.writeBytes(RESET);
+        frame.writeBytes(SHOW_CURSOR);
+        cursorHidden = false;
+        invalidate();
+        return frame.size();
+    }
+
+    private void writeFull(TUIScreenCell[][] cells, int width, int height) {
+        frame.writeBytes(CURSOR_HOME);
+        foreground = NO_COLOR;
+        background = NO_COLOR;
+        writeBands(cells, width, height, true);
+        frame.writeBytes(RESET);
+    }
+
+    private void writeFullRows(TUIScreenCell[][] cells, int width, int from, int to) {
+        ColorMode colorMode = capabilities.getColorMode();
+        boolean unicode = capabilities.isUnicode();
+        boolean erase = capabilities.isBackgroundColorErase();
+        for (int i = from; i < to; i++) {
+            TUIScreenCell[] row = cells[i];
+            int end = erase ? blankTail(row, width) : width;  // Cells from end on are erased instead of written
+            for (int j = 0; j < end; ) {
+                j += writeRun(row, j, end, colorMode, unicode);
+            }
+            if (end < width) {
+                setPen(row[end], colorMode);
+                frame.writeBytes(ERASE_LINE);
+            }
+            frame.writeBytes(NEXT_LINE);
+        }
+    }
+
+    private void writeChanges(TUIScreenCell[][] cells, int width, int height) {
+        int start = frame.size();
+        foreground = NO_COLOR;
+        background = NO_COLOR;
+        cursorX = -1;  // The first move of a frame is absolute, so a lost cursor position is not carried over
+        cursorY = -1;
+        if (capabilities.isScrollRegion()) {
+            scroll(cells, width, height);
+        }
+        writeBands(cells, width, height, false);
+        if (frame.size() > start) {
+            frame.writeBytes(RESET);
+        }
+    }
+
+    private void writeChangedRows(TUIScreenCell[][] cells, int width, int from, int to) {
+        ColorMode colorMode = capabilities.getColorMode();
+        boolean unicode = capabilities.isUnicode();
+        boolean erase = capabilities.isBackgroundColorErase();
+        boolean repeat = capabilities.isRepeat();
+        for (int y = from; y < to; y++) {
+            TUIScreenCell[] row = cells[y];
+            TUIScreenCell[] old = shown[y];
+            int end = erase ? blankTail(row, width) : width;
+            for (int x = 0; x < width; ) {
+                if (row[x].equals(old[x])) {
+                    x++;
+                    continue;
+                }
+                moveTo(x, y, row, colorMode, unicode);
+                if (x >= end && width - x > ERASE_LINE.length) {
+                    setPen(row[x], colorMode);
+                    frame.writeBytes(ERASE_LINE);
+                    System.arraycopy(row, x, old, x, width - x);
+                    break;
+                }
+                int limit = x < end ? end : width;
+                int erased = erase && !repeat ? eraseCharacters(row, x, limit, colorMode) : 0;
+                if (erased > 0) {
+                    System.arraycopy(row, x, old, x, erased);  // ECH does not move the cursor
+                    x += erased;
+                    continue;
+                }
+                int written = writeRun(row, x, limit, colorMode, unicode);
+                System.arraycopy(row, x, old, x, written);
+                x += written;
+                cursorX = x < width ? x : -1;  // After the last column the cursor waits to wrap
+            }
+        }
+    }
+
+    /**
+     * Writes the rows of a full frame or the changes of a frame. Frames of at least the parallel threshold are split
+     * into bands of rows: the first band is written by this encoder, the others by band encoders on the common
+     * {@link ForkJoinPool}, each into its own buffer, and the buffers are appended in order. A band starts with the
+     * pen the rows before it leave: in a full frame that is the colors of the last cell of the previous row, so the
+     * frame is the same as a serial one; in a frame of changes the pen and the cursor position are unknown, so the
+     * band sets the colors and moves absolutely before its first cell.
+     * @param full Whether all cells are written or only the changed ones.
+     */
+    private void writeBands(TUIScreenCell[][] cells, int width, int height, boolean full) {
+        long area = (long) width * height;
+        int bands = area < parallelThreshold ? 1 : (int) Math.min(maxBands, Math.min(height, area / MIN_BAND_CELLS));
+        if (bands <= 1) {
+            writeRows(cells, width, 0, height, full);
+            return;
+        }
+        int rows = (height + bands - 1) / bands;
+        bands = (height + rows - 1) / rows;
+        if (bandEncoders.length < bands - 1) {
+            bandEncoders = Arrays.copyOf(bandEncoders, bands - 1);
+        }
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[bands - 1];
+        for (int k = 1; k < bands; k++) {
+            if (bandEncoders[k - 1] == null) {
+                bandEncoders[k - 1] = new FrameEncoder();
+            }
+            FrameEncoder band = bandEncoders[k - 1];
+            int from = k * rows;
+            int to = Math.min(height, from + rows);
+            band.startBand(this, full ? cells[from - 1][width - 1] : null);
+            tasks[k - 1] = ForkJoinPool.commonPool().submit(() -> band.writeRows(cells, width, from, to, full));
+        }
+        writeRows(cells, width, 0, rows, full);
+        for (int k = 1; k < bands; k++) {
+            tasks[k - 1].join();
+            FrameEncoder band = bandEncoders[k - 1];
+            try {
+                band.frame.writeTo(frame);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);  // Writing to a ByteArrayOutputStream does not fail
+            }
+            foreground = band.foreground;  // The pen and cursor the last band leaves
+            background = band.background;
+            cursorX = band.cursorX;
+            cursorY = band.cursorY;
+        }
+    }
+
+    private void writeRows(TUIScreenCell[][] cells, int width, int from, int to, boolean full) {
+        if (full) {
+            writeFullRows(cells, width, from, to);
+        } else {
+            writeChangedRows(cells, width, from, to);
+        }
+    }
+
+    /**
+     * Prepares a band encoder for the next band of a frame.
+     * @param frameEncoder Encoder of the whole frame, whose capabilities and shown cells the band uses.
+     * @param pen Cell whose colors the pen has at the start of the band, null if they are unknown.
+     */
+    private void startBand(FrameEncoder frameEncoder, TUIScreenCell pen) {
+        frame.reset();
+        capabilities = frameEncoder.capabilities;
+        shown = frameEncoder.shown;
+        foreground = pen == null ? NO_COLOR : pen.getTextColor();
+        background = pen == null ? NO_COLOR : pen.getBackgroundColor();
+        cursorX = -1;
+        cursorY = -1;
+    }
+
+    /**
+     * Sets when frames are encoded in bands, for tests and benchmarks.
+     * @param threshold Cells of the smallest frame encoded in bands.
+     * @param bands Largest number of bands, 1 to always encode serially.
+     */
+    void setParallelism(int threshold, int bands) {
+        this.parallelThreshold = threshold;
+        this.maxBands = bands;
+    }
+
+    /**
+     * Finds the longest run of rows that equal shown rows a few rows above or below and, if shifting them saves more
+     * than it costs, scrolls them inside a scroll region and shifts the shown rows the same way. The rows scrolled
+     * in are erased with the default colors, the previous frame ended with a reset; the changes written after the
+     * scroll fill them.
+     */
+    private void scroll(TUIScreenCell[][] cells, int width, int height) {
+        if (rowHashes.length < height) {
+            rowHashes = new int[height];
+            shownHashes = new int[height];
+        }
+        for (int y = 0; y < height; y++) {
+            rowHashes[y] = hash(cells[y], width);
+            shownHashes[y] = hash(shown[y], width);
+        }
+        int bestShift = 0;
+        int bestStart = 0;
+        int bestEnd = -1;
+        int bestScore = 0;
+        for (int shift = -Math.min(MAX_SCROLL, height - 1); shift <= Math.min(MAX_SCROLL, height - 1); shift++) {
+            if (shift == 0) {
+                continue;
+            }
+            int start = -1;
+            int score = 0;  // Rows of the run that changed and would not have to be written
+            for (int y = 0; y <= height; y++) {
+                int from = y + shift;  // Shown row that would move to row y
+                if (y < height && from >= 0 && from < height && rowHashes[y] == shownHashes[from]) {
+                    if (start < 0) {
+                        start = y;
+                        score = 0;
+                    }
+                    if (rowHashes[y] != shownHashes[y]) {
+                        score++;
+                    }
+                } else if (start >= 0) {
+                    if (score > bestScore) {
+                        bestScore = score;
+                        bestShift = shift;
+                        bestStart = start;
+                        bestEnd = y - 1;
+                    }
+                    start = -1;
+                }
+            }
+        }
+        if (bestScore < 2) {
+            return;
+        }
+        int top = bestShift > 0 ? bestStart : bestStart + bestShift;  // Region holding the run before and after
+        int bottom = bestShift > 0 ? bestEnd + bestShift : bestEnd;
+        if (changedCells(cells, width, top, bottom, 0) - changedCells(cells, width, top, bottom, bestShift) <= SCROLL_COST) {
+            return;
+        }
+
+        frame.writeBytes(CSI);
+        writeNumber(top + 1);
+        frame.write(';');
+        writeNumber(bottom + 1);
+        frame.write('r');
+        frame.writeBytes(CSI);
+        writeNumber((bestShift > 0 ? bottom : top) + 1);
+        frame.write('H');
+        for (int i = 0; i < Math.abs(bestShift); i++) {
+            if (bestShift > 0) {
+                frame.write('\n');  // At the bottom margin LF scrolls the region up
+            } else {
+                frame.writeBytes(REVERSE_INDEX);
+            }
+        }
+        frame.writeBytes(CSI);
+        frame.write('r');  // Margins back to the whole screen, which also moves the cursor home
+
+        TUIScreenCell[][] exposed = new TUIScreenCell[Math.abs(bestShift)][];
+        if (bestShift > 0) {
+            System.arraycopy(shown, top, exposed, 0, bestShift);
+            System.arraycopy(shown, top + bestShift, shown, top, bottom - top + 1 - bestShift);
+            System.arraycopy(exposed, 0, shown, bottom - bestShift + 1, bestShift);
+        } else {
+            System.arraycopy(shown, bottom + bestShift + 1, exposed, 0, -bestShift);
+            System.arraycopy(shown, top, shown, top - bestShift, bottom - top + 1 + bestShift);
+            System.arraycopy(exposed, 0, shown, top, -bestShift);
+        }
+        for (TUIScreenCell[] row : exposed) {
+            Arrays.fill(row, 0, width, ERASED);
+        }
+    }
+
+    /**
+     * Counts the cells of rows top to bottom that differ from the shown rows after scrolling them by shift rows.
+     */
+    private int changedCells(TUIScreenCell[][] cells, int width, int top, int bottom, int shift) {
+        int changed = 0;
+        for (int y = top; y <= bottom; y++) {
+            int from = y + shift;
+            TUIScreenCell[] old = from >= top && from <= bottom ? shown[from] : null;
+            for (int x = 0; x < width; x++) {
+                if (!cells[y][x].equals(old != null ? old[x] : ERASED)) {
+                    changed++;
+                }
+            }
+        }
+        return changed;
+    }
+
+    private static int hash(TUIScreenCell[] row, int width) {
+        int hash = 1;
+        for (int x = 0; x < width; x++) {
+            hash = 31 * hash + row[x].hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * Makes the next frame full, e.g. because the terminal was resized and no longer shows the previous frame.
+     */
+    void invalidate() {
+        shownWidth = -1;
+        shownHeight = -1;
+    }
+
+    /**
+     * Writes a cell and, with REP, the identical cells following it up to the limit.
+     * @return Number of cells written.
+     */
+    private int writeRun(TUIScreenCell[] row, int x, int limit, ColorMode colorMode, boolean unicode) {
+        TUIScreenCell cell = row[x];
+        setPen(cell, colorMode);
+        int bytes = writeCharacter(unicode ? cell.getCharacter() : toAscii(cell.getCharacter()));
+        int run = 0;
+        if (capabilities.isRepeat()) {
+            while (x + 1 + run < limit && row[x + 1 + run].equals(cell)) {
+                run++;
+            }
+            if (run * bytes > 3 + digits(run)) {
+                frame.writeBytes(CSI);
+                writeNumber(run);
+                frame.write('b');
+            } else {
+                run = 0;
+            }
+        }
+        return 1 + run;
+    }
+
+    /**
+     * Erases a run of identical blank cells with ECH if that and moving past the run is shorter than writing it.
+     * @return Number of cells erased, 0 if the run is written.
+     */
+    private int eraseCharacters(TUIScreenCell[] row, int x, int limit, ColorMode colorMode) {
+        TUIScreenCell cell = row[x];
+        if (cell.getCharacter() != ' ') {
+            return 0;
+        }
+        int run = 1;
+        while (x + run < limit && row[x + run].equals(cell)) {
+            run++;
+        }
+        if (run <= 2 * stepCost(run)) {
+            return 0;
+        }
+        setPen(cell, colorMode);
+        writeStep(run, 'X');
+        return run;
+    }
+
+    /**
+     * Moves the cursor to a cell of the row being encoded in the fewest bytes.
+     */
+    private void moveTo(int x, int y, TUIScreenCell[] row, ColorMode colorMode, boolean unicode) {
+        if (x == cursorX && y == cursorY) {
+            return;
+        }
+        int plan = MOVE_ABSOLUTE;
+        int best = positionCost(x, y);
+        if (cursorY >= 0) {
+            int dy = y - cursorY;
+            int relative = verticalCost(dy) + horizontalCost(cursorX, x);
+            if (relative < best) {
+                plan = MOVE_RELATIVE;
+                best = relative;
+            }
+            if (dy > 0 && x == 0 && stepCost(dy) < best) {
+                plan = MOVE_NEXT_LINE;
+                best = stepCost(dy);
+            }
+            if (dy == 0 && cursorX >= 0 && cursorX < x && overprintCost(row, cursorX, x, colorMode, unicode, best) < best) {
+                plan = MOVE_OVERPRINT;
+            }
+        }
+        switch (plan) {
+            case MOVE_ABSOLUTE:
+                frame.writeBytes(CSI);
+                if (x > 0 || y > 0) {
+                    writeNumber(y + 1);
+                }
+                if (x > 0) {
+                    frame.write(';');
+                    writeNumber(x + 1);
+                }
+                frame.write('H');
+                break;
+            case MOVE_RELATIVE:
+                writeVertical(y - cursorY);
+                writeHorizontal(cursorX, x);
+                break;
+            case MOVE_NEXT_LINE:
+                writeStep(y - cursorY, 'E');
+                break;
+            default:
+                for (int i = cursorX; i < x; i++) {
+                    setPen(row[i], colorMode);
+                    writeCharacter(unicode ? row[i].getCharacter() : toAscii(row[i].getCharacter()));
+                }
+        }
+        cursorX = x;
+        cursorY = y;
+    }
+
+    private static int positionCost(int x, int y) {
+        if (x == 0) {
+            return y == 0 ? CURSOR_HOME.length : 3 + digits(y + 1);
+        }
+        return 4 + digits(y + 1) + digits(x + 1);
+    }
+
+    /**
+     * Returns the bytes of moving the cursor dy rows down (LF or CUD) or up (CUU).
+     */
+    private static int verticalCost(int dy) {
+        return dy == 0 ? 0 : dy > 0 ? Math.min(dy, stepCost(dy)) : stepCost(-dy);
+    }
+
+    private void writeVertical(int dy) {
+        if (dy > 0 && dy <= stepCost(dy)) {
+            for (int i = 0; i < dy; i++) {
+                frame.write('\n');  // LF keeps the column and cannot scroll, the target row is on the screen
+            }
+        } else if (dy > 0) {
+            writeStep(dy, 'B');
+        } else if (dy < 0) {
+            writeStep(-dy, 'A');
+        }
+    }
+
+    /**
+     * Returns the bytes of moving the cursor within a row with CR, CUF/CUB, CHA or CR followed by CUF.
+     * @param from Current column, -1 if unknown.
+     * @param to Target column.
+     */
+    private static int horizontalCost(int from, int to) {
+        if (from == to) {
+            return 0;
+        }
+        if (to == 0) {
+            return 1;
+        }
+        int cost = Math.min(3 + digits(to + 1), 1 + stepCost(to));
+        return from < 0 ? cost : Math.min(stepCost(Math.abs(to - from)), cost);
+    }
+
+    private void writeHorizontal(int from, int to) {
+        int cost = horizontalCost(from, to);
+        if (cost == 0) {
+            return;
+        }
+        if (to == 0) {
+            frame.write('\r');
+        } else if (from >= 0 && cost == stepCost(Math.abs(to - from))) {
+            writeStep(Math.abs(to - from), to > from ? 'C' : 'D');
+        } else if (cost == 3 + digits(to + 1)) {
+            writeStep(to + 1, 'G');
+        } else {
+            frame.write('\r');
+            writeStep(to, 'C');
+        }
+    }
+
+    /**
+     * Returns the bytes of writing the unchanged cells between the cursor and the next changed cell again,
+     * or the limit once it is reached.
+     */
+    private int overprintCost(TUIScreenCell[] row, int from, int to, ColorMode colorMode, boolean unicode, int limit) {
+        int penForeground = foreground;
+        int penBackground = background;
+        int cost = 0;
+        for (int i = from; i < to && cost < limit; i++) {
+            TUIScreenCell cell = row[i];
+            if (cell.getBackgroundColor() != penBackground) {
+                penBackground = cell.getBackgroundColor();
+                cost += Palette.background(penBackground, colorMode).length;
+            }
+            if (cell.getTextColor() != penForeground) {
+                penForeground = cell.getTextColor();
+                cost += Palette.foreground(penForeground, colorMode).length;
+            }
+            cost += characterBytes(unicode ? cell.getCharacter() : toAscii(cell.getCharacter()));
+        }
+        return cost;
+    }
+
+    /**
+     * Returns the bytes of a control sequence with a count, which is left out when it is 1.
+     */
+    private static int stepCost(int n) {
+        return n == 1 ? 3 : 3 + digits(n);
+    }
+
+    private void writeStep(int n, char command) {
+        frame.writeBytes(CSI);
+        if (n != 1) {
+            writeNumber(n);
+        }
+        frame.write(command);
+    }
+
+    /**
+     * Returns where the run of identical blank cells ending a row starts, or the width if erasing the run would
+     * not be shorter than writing it.
+     */
+    private static int blankTail(TUIScreenCell[] row, int width) {
+        TUIScreenCell last = row[width - 1];
+        if (last.getCharacter() != ' ') {
+            return width;
+        }
+        int start = width - 1;
+        while (start > 0 && row[start - 1].equals(last)) {
+            start--;
+        }
+        return width - start > ERASE_LINE.length ? start : width;
+    }
+
+    private void setPen(TUIScreenCell cell, ColorMode colorMode) {
+        if (cell.getBackgroundColor() != background) {
+            background = cell.getBackgroundColor();
+            frame.writeBytes(Palette.background(background, colorMode));
+        }
+        if (cell.getTextColor() != foreground) {
+            foreground = cell.getTextColor();
+            frame.writeBytes(Palette.foreground(foreground, colorMode));
+        }
+    }
+
+    /**
+     * Writes a character to the frame buffer as UTF-8.
+     * @return Number of bytes written.
+     */
+    private int writeCharacter(char c) {
+        if (c < 0x80) {
+            frame.write(c);
+            return 1;
+        } else if (c < 0x800) {
+            frame.write(0xC0 | c >> 6);
+            frame.write(0x80 | c & 0x3F);
+            return 2;
+        } else if (Character.isSurrogate(c)) {
+            frame.write('?');  // A cell holds one char, a lone surrogate cannot be encoded
+            return 1;
+        } else {
+            frame.write(0xE0 | c >> 12);
+            frame.write(0x80 | c >> 6 & 0x3F);
+            frame.write(0x80 | c & 0x3F);
+            return 3;
+        }
+    }
+
+    private static int characterBytes(char c) {
+        return c < 0x80 || Character.isSurrogate(c) ? 1 : c < 0x800 ? 2 : 3;
+    }
+
+    private void writeNumber(int n) {
+        if (n >= 10) {
+            writeNumber(n / 10);
+        }
+        frame.write('0' + n % 10);
+    }
+
+    private static int digits(int n) {
+        return n < 10 ? 1 : n < 100 ? 2 : n < 1000 ? 3 : 4;
+    }
+
+    /**
+     * Returns the character a terminal without UTF-8 shows instead of a character: lines of box drawing become
+     * '-', '|' and '+', accented letters lose their accents and anything else becomes '?'.
+     * @param c The character.
+     * @return An ASCII character.
+     */
+    static char toAscii(char c) {
+        if (c < 0x80) {
+            return c;
+        }
+        if (c < 0x180) {
+            return LATIN_TO_ASCII[c - 0x80];
+        }
+        if (c >= 0x2500 && c <= 0x257F) {
+            switch (c) {
+                case '─': case '━': case '┄': case '┅': case '┈': case '┉': case '╌': case '╍': case '═':
+                case '╴': case '╶': case '╸': case '╺': case '╼': case '╾':
+                    return '-';
+                case '│': case '┃': case '┆': case '┇': case '┊': case '┋': case '╎': case '╏': case '║':
+                case '╵': case '╷': case '╹': case '╻': case '╽': case '╿':
+                    return '|';
+                default:
+                    return '+';
+            }
+        }
+        if (c >= 0x2580 && c <= 0x259F) {
+            return '#';  // Block elements
+        }
+        return '?';
+    }
+
+    private static char[] latinToAscii() {
+        char[] table = new char[0x100];
+        for (int i = 0; i < table.length; i++) {
+            String decomposed = Normalizer.normalize(String.valueOf((char) (0x80 + i)), Normalizer.Form.NFD);
+            char base = decomposed.charAt(0);
+            table[i] = base < 0x80 && Character.isLetter(base) ? base : '?';
+        }
+        table['\u00A0' - 0x80] = ' ';  // No-break space
+        table['ł' - 0x80] = 'l';  // Letters with a stroke do not decompose
+        table['Ł' - 0x80] = 'L';
+        table['đ' - 0x80] = 'd';
+        table['Đ' - 0x80] = 'D';
+        table['ø' - 0x80] = 'o';
+        table['Ø' - 0x80] = 'O';
+        return table;
+    }
+
+    /**
+     * Writes the last encoded frame.
+     * @param out Stream to write to.
+     * @throws IOException If writing fails.
+     */
+    void writeTo(OutputStream out) throws IOException {
+        frame.writeTo(out);
+    }
+
+    /**
+     * Returns the last encoded frame as text.
+     * @return The frame.
+     */
+    @Override
+    public String toString() {
+        return frame.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sets what the terminal understands.
+     * @param capabilities Capabilities of the session's terminal.
+     */
+    void setCapabilities(TerminalCapabilities capabilities) {
+        this.capabilities = capabilities;
+        invalidate();  // The terminal shows the previous frame in other colors or characters
+    }
+
+    /**
+     * Returns what the terminal understands.
+     * @return Capabilities of the session's terminal.
+     */
+    TerminalCapabilities getCapabilities() {
+        return capabilities;
+    }
+}
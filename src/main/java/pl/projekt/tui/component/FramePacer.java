@@ -0,0 +1,76 @@
+package pl.projekt.tui.component;
+
+/**
+ * Paces the frames of a session to what its link carries. A write that blocks, because the SSH window or the TCP
+ * send buffer is full, tells how fast the link drains frames; from the measured throughput and the usual frame size
+ * the pacer derives the interval the link needs per frame. Writes that return at once mean the link keeps up, so the
+ * interval shrinks with every one of them until the frames are no longer paced.
+ * <p>
+ * When the link cannot carry {@value #REDUCE_BELOW_FPS} frames per second the pacer asks for reduced quality, frames
+ * without details that cost bytes but no information; quality is restored once the link carries
+ * {@value #RESTORE_ABOVE_FPS} frames per second, and not before it was reduced for {@value #MIN_REDUCED_MILLIS} ms,
+ * so the smaller frames of reduced quality do not make it flip back and forth.
+ */
+class FramePacer {
+
+    static final int REDUCE_BELOW_FPS = 10;
+    static final int RESTORE_ABOVE_FPS = 25;
+    static final long MIN_REDUCED_MILLIS = 2_000;
+    private static final long MIN_MEASURED_NANOS = 2_000_000L;  // Shorter writes went into buffers and tell nothing
+    private static final long MAX_INTERVAL_NANOS = 1_000_000_000L;  // At least one frame per second
+    private static final double SMOOTHING = 0.3;  // Weight of the newest measurement
+    private static final double PROBE = 0.8;  // Interval kept after a write that did not block
+
+    private double bytesPerNano;  // Throughput of the blocking writes, 0 while the link keeps up
+    private double frameBytes;  // Usual size of the frames of the blocking writes
+    private long interval;  // Nanoseconds the link needs per frame, 0 while frames are not paced
+    private boolean reduced;
+    private long reducedAt;  // System.nanoTime() when quality was reduced
+
+    /**
+     * Records the write of a frame.
+     * @param bytes Size of the frame, 0 if nothing was written.
+     * @param nanos Time the write and flush took.
+     * @param now System.nanoTime() when the write completed.
+     */
+    void recordWrite(int bytes, long nanos, long now) {
+        if (bytes == 0) {
+            return;
+        }
+        if (nanos >= MIN_MEASURED_NANOS) {
+            double rate = (double) bytes / nanos;
+            bytesPerNano = bytesPerNano == 0 ? rate : bytesPerNano + SMOOTHING * (rate - bytesPerNano);
+            frameBytes = frameBytes == 0 ? bytes : frameBytes + SMOOTHING * (bytes - frameBytes);
+            interval = (long) Math.min(MAX_INTERVAL_NANOS, frameBytes / bytesPerNano);
+        } else {
+            interval = (long) (interval * PROBE);
+            if (interval < MIN_MEASURED_NANOS) {
+                interval = 0;
+                bytesPerNano = 0;
+                frameBytes = 0;
+            }
+        }
+        if (!reduced && interval > 1_000_000_000L / REDUCE_BELOW_FPS) {
+            reduced = true;
+            reducedAt = now;
+        } else if (reduced && interval < 1_000_000_000L / RESTORE_ABOVE_FPS && now - reducedAt >= MIN_REDUCED_MILLIS * 1_000_000L) {
+            reduced = false;
+        }
+    }
+
+    /**
+     * Returns the time the link needs per frame.
+     * @return Nanoseconds between the end of a frame and the start of the next one, 0 if frames are not paced.
+     */
+    long getInterval() {
+        return interval;
+    }
+
+    /**
+     * Returns whether frames should leave out details until the link is faster again.
+     * @return True while the quality is reduced.
+     */
+    boolean isReduced() {
+        return reduced;
+    }
+}
@@ -8,7 +8,7 @@ import pl.projekt.tui.model.color.Colors;
  * The TUIBorder class represents a border component in a Text User Interface (TUI).
  * It implements the TUIComponent interface and handles drawing the border on the screen.
  */
-public class TUIBorder implements TUIComponent {
+public class TUIBorder implements TUILayoutable {
 
     Logger logger = LoggerFactory.getLogger(TUIBorder.class);
 
@@ -26,8 +26,8 @@ public class TUIBorder implements TUIComponent {
     private int zIndex;
 
     // Colors for the border
-    private String bgColor = Colors.BG_BLUE.getCode();
-    private String textColor = Colors.TEXT_WHITE.getCode();
+    private int bgColor = Colors.BG_BLUE.getColor();
+    private int textColor = Colors.TEXT_WHITE.getColor();
 
     // Text content to be displayed inside the border
     private String textContent;
@@ -60,18 +60,18 @@ public class TUIBorder implements TUIComponent {
     /**
      * Sets the background color of the border.
      *
-     * @param bgColor The background color code.
+     * @param bgColor The background palette color.
      */
-    public void setBgColor(String bgColor) {
+    public void setBgColor(int bgColor) {
         this.bgColor = bgColor;
     }
 
     /**
      * Sets the text color of the border.
      *
-     * @param textColor The text color code.
+     * @param textColor The text palette color.
      */
-    public void setTextColor(String textColor) {
+    public void setTextColor(int textColor) {
         this.textColor = textColor;
     }
 
@@ -81,7 +81,7 @@ public class TUIBorder implements TUIComponent {
      * @param uiTab The tab to which the text label will be added.
      */
     public void setTextInBorder(TUITab uiTab) {
-        TUILabel label = new TUILabel(this.textContent, this.x + 3, this.y + 1, 0, Colors.BG_BRIGHT_BLUE.getCode(), tuiManager);
+        TUILabel label = new TUILabel(this.textContent, this.x + 3, this.y + 1, 0, Colors.BG_BRIGHT_BLUE.getColor(), tuiManager);
         uiTab.addComponent(label);
     }
 
@@ -92,7 +92,7 @@ public class TUIBorder implements TUIComponent {
      */
     @Override
     public void drawComponent(TUIManager uiManager) {
-        logger.debug("Drawing border");
+        logger.trace("Drawing border");
         TUIScreen screen = uiManager.getScreen();
         for (int i = x; i < x + width; i++) {
             screen.addPixelToLayer(i, y, zIndex, new TUIScreenCell(HORIZONTAL_BORDER, textColor, bgColor));
@@ -269,9 +269,45 @@ public class TUIBorder implements TUIComponent {
     /**
      * Returns the background color of the border.
      *
-     * @return The background color code.
+     * @return The background palette color.
      */
-    public String getBgColor() {
+    public int getBgColor() {
         return bgColor;
     }
+
+    /**
+     * Returns the width the border was created with.
+     *
+     * @return The preferred width.
+     */
+    @Override
+    public int getPreferredWidth() {
+        return initialW;
+    }
+
+    /**
+     * Returns the height the border was created with.
+     *
+     * @return The preferred height.
+     */
+    @Override
+    public int getPreferredHeight() {
+        return initialH;
+    }
+
+    /**
+     * Moves and resizes the border.
+     *
+     * @param x      The new x-coordinate.
+     * @param y      The new y-coordinate.
+     * @param width  The new width.
+     * @param height The new height.
+     */
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
 }
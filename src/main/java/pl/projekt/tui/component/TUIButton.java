@@ -10,16 +10,17 @@ import pl.projekt.tui.model.color.Colors;
  * setting its properties, and performing actions when the button is interacted with.
  */
 @Slf4j
-public class TUIButton implements TUIComponent {
+public class TUIButton implements TUILayoutable {
 
     protected String text;
     private final Runnable action;
     private int x, y, width, height;
+    private final int preferredWidth, preferredHeight;
 
     @Setter
-    private String backgroundColor = Colors.BG_RED.getCode();
+    private int backgroundColor = Colors.BG_RED.getColor();
     @Setter
-    private String textColor = Colors.TEXT_WHITE.getCode();
+    private int textColor = Colors.TEXT_WHITE.getColor();
 
     private TextAlign textAlign = TextAlign.CENTER;
     private final int layerIndex;
@@ -53,6 +54,8 @@ public class TUIButton implements TUIComponent {
         this.y = y;
         this.width = width;
         this.height = height;
+        this.preferredWidth = width;
+        this.preferredHeight = height;
         this.layerIndex = layerIndex;
         this.tuiManager = tuiManager;
     }
@@ -90,7 +93,7 @@ public class TUIButton implements TUIComponent {
      */
     @Override
     public void drawComponent(TUIManager uiManager) {
-        log.debug("Drawing button");
+        log.trace("Drawing button");
         String paddedText = switch (textAlign) {
             case LEFT -> String.format("%-" + width + "s", text);
             case RIGHT -> String.format("%" + width + "s", text);
@@ -115,6 +118,15 @@ public class TUIButton implements TUIComponent {
         }
     }
 
+    /**
+     * Sets the background color of the button.
+     *
+     * @param bgColor The background palette color.
+     */
+    public void setBgColor(int bgColor) {
+        this.backgroundColor = bgColor;
+    }
+
     /**
      * Sets the text alignment of the button.
      *
@@ -200,8 +212,8 @@ public class TUIButton implements TUIComponent {
     @Override
     public void highlightComponent() {
         log.debug("Highlighting button");
-        setBackgroundColor(Colors.BG_YELLOW.getCode());
-        setTextColor(Colors.TEXT_BLACK.getCode());
+        setBackgroundColor(Colors.BG_YELLOW.getColor());
+        setTextColor(Colors.TEXT_BLACK.getColor());
         tuiManager.refresh();
     }
 
@@ -210,8 +222,8 @@ public class TUIButton implements TUIComponent {
      */
     @Override
     public void resetHighlightComponent() {
-        setBackgroundColor(Colors.BG_RED.getCode());
-        setTextColor(Colors.TEXT_WHITE.getCode());
+        setBackgroundColor(Colors.BG_RED.getColor());
+        setTextColor(Colors.TEXT_WHITE.getColor());
         tuiManager.refresh();
     }
 
@@ -222,7 +234,7 @@ public class TUIButton implements TUIComponent {
         this.active = false;
         if (tuiManager != null) {
             tuiManager.removeComponent(this);
-            log.info("Delete button logger in Button class");
+            log.debug("Button {} removed", text);
         }
     }
 
@@ -232,7 +244,7 @@ public class TUIButton implements TUIComponent {
     public void hideInDialog() {
         if (tuiManager != null) {
             tuiManager.removeComponent(this);
-            log.info("Delete button logger in Button class");
+            log.debug("Button {} removed", text);
         }
     }
 
@@ -288,18 +300,51 @@ public class TUIButton implements TUIComponent {
     /**
      * Returns the background color of the button.
      *
-     * @return The background color code.
+     * @return The background palette color.
      */
-    public String getBackgroundColor() {
+    public int getBackgroundColor() {
         return backgroundColor;
     }
 
     /**
      * Returns the text color of the button.
      *
-     * @return The text color code.
+     * @return The text palette color.
      */
-    public String getTextColor() {
+    public int getTextColor() {
         return textColor;
     }
+
+    /**
+     * Returns the width the button was created with.
+     *
+     * @return The preferred width.
+     */
+    @Override
+    public int getPreferredWidth() {
+        return preferredWidth;
+    }
+
+    /**
+     * Returns the height the button was created with.
+     *
+     * @return The preferred height.
+     */
+    @Override
+    public int getPreferredHeight() {
+        return preferredHeight;
+    }
+
+    /**
+     * Moves and resizes the button, same as {@link #setPositionAndSize(int, int, int, int)}.
+     *
+     * @param x      The x-coordinate of the top-left corner of the button.
+     * @param y      The y-coordinate of the top-left corner of the button.
+     * @param width  The width of the button.
+     * @param height The height of the button.
+     */
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        setPositionAndSize(x, y, width, height);
+    }
 }
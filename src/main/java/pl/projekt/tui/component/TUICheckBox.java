@@ -11,23 +11,25 @@ import pl.projekt.tui.model.color.Colors;
  * It implements the TUIComponent interface and handles drawing the checkbox on the screen,
  * toggling its checked state, and interacting with the user via keyboard input.
  */
-public class TUICheckBox implements TUIComponent {
+public class TUICheckBox implements TUILayoutable {
 
     private static final Logger logger = LoggerFactory.getLogger(TUICheckBox.class);
 
-    private final String label;
+    private String label;
     private boolean isChecked;
-    private final int x;
-    private final int y;
-    private final int height;
-    private String bgColor = Colors.BG_BLUE.getCode();
-    private String textColor = Colors.TEXT_WHITE.getCode();
+    private int x;
+    private int y;
+    private int height;
+    private final int preferredHeight;
+    private int bgColor = Colors.BG_BLUE.getColor();
+    private int textColor = Colors.TEXT_WHITE.getColor();
     private final int zIndex;
     private boolean isActive;
     private final TUIScreen screen;
     private final TUIManager tuiManager;
     private final TUIRadioButtonGroup radioButtonGroup;
     private final String value;
+    private Runnable sizeListener = () -> {};  // Notified when a new label changes the width of the frame
 
     /**
      * Constructor to initialize the TUICheckBox with specified properties.
@@ -45,6 +47,7 @@ public class TUICheckBox implements TUIComponent {
         this.x = x;
         this.y = y;
         this.height = height;
+        this.preferredHeight = height;
         this.zIndex = zIndex;
         this.screen = tuiManager.getScreen();
         this.label = label;
@@ -81,6 +84,20 @@ public class TUICheckBox implements TUIComponent {
         return label;
     }
 
+    /**
+     * Sets the label of the checkbox. The frame drawn around it follows the label, so a checkbox
+     * placed by a layout asks for a new layout.
+     *
+     * @param label The new label.
+     */
+    public void setLabel(String label) {
+        if (label.equals(this.label)) {
+            return;
+        }
+        this.label = label;
+        sizeListener.run();
+    }
+
     /**
      * Draws the checkbox on the TUI screen using the specified manager.
      *
@@ -232,7 +249,7 @@ public class TUICheckBox implements TUIComponent {
      */
     @Override
     public void highlightComponent() {
-        bgColor = Colors.BG_BRIGHT_BLUE.getCode();
+        bgColor = Colors.BG_BRIGHT_BLUE.getColor();
         tuiManager.refresh();
     }
 
@@ -241,7 +258,7 @@ public class TUICheckBox implements TUIComponent {
      */
     @Override
     public void resetHighlightComponent() {
-        bgColor = Colors.BG_BLUE.getCode();
+        bgColor = Colors.BG_BLUE.getColor();
         tuiManager.refresh();
     }
 
@@ -291,4 +308,64 @@ public class TUICheckBox implements TUIComponent {
     public boolean isChecked() {
         return isChecked;
     }
+
+    /**
+     * Returns the width of the frame drawn around the label.
+     *
+     * @return The preferred width.
+     */
+    @Override
+    public int getPreferredWidth() {
+        return label.length() + 10;
+    }
+
+    /**
+     * Returns the height the checkbox was created with.
+     *
+     * @return The preferred height.
+     */
+    @Override
+    public int getPreferredHeight() {
+        return preferredHeight;
+    }
+
+    /**
+     * Sets the callback run when a new label changes the width of the checkbox.
+     *
+     * @param listener The callback to run.
+     */
+    @Override
+    public void setSizeListener(Runnable listener) {
+        this.sizeListener = listener;
+    }
+
+    /**
+     * Moves the checkbox and changes its height. The width of the frame always follows the label.
+     *
+     * @param x      The new x-coordinate.
+     * @param y      The new y-coordinate.
+     * @param width  Ignored, the width follows the label.
+     * @param height The new height.
+     */
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.height = height;
+    }
+
+    /**
+     * Toggles the checkbox on SPACE, other keys bubble to the tab.
+     *
+     * @param keyInfo The pressed key.
+     * @return True if the key was consumed.
+     */
+    @Override
+    public boolean handleKey(KeyInfo keyInfo) {
+        if (keyInfo.getLabel() != KeyLabel.SPACE) {
+            return false;
+        }
+        toggleCheck();
+        return true;
+    }
 }
@@ -1,5 +1,7 @@
 package pl.projekt.tui.component;
 
+import pl.projekt.tui.model.keys.KeyInfo;
+
 /**
  * The TUIComponent interface represents a generic component in a Text User Interface (TUI).
  * It provides methods to draw the component, manage its properties and state, handle user interaction,
@@ -102,4 +104,15 @@ public interface TUIComponent {
      * Hides the component.
      */
     void hide();
+
+    /**
+     * Handles a key pressed while the component has the focus. Keys the component does not consume
+     * bubble to the tab and then to the manager.
+     *
+     * @param keyInfo The pressed key.
+     * @return True if the key was consumed, false to let it bubble.
+     */
+    default boolean handleKey(KeyInfo keyInfo) {
+        return false;
+    }
 }
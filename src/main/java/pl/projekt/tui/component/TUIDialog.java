@@ -2,8 +2,11 @@ package pl.projekt.tui.component;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pl.projekt.tui.metrics.TraceEvent;
 import pl.projekt.tui.model.color.Colors;
+import pl.projekt.tui.model.keys.KeyBindings;
 import pl.projekt.tui.model.keys.KeyInfo;
+import pl.projekt.tui.model.keys.KeyLabel;
 
 import java.text.DecimalFormat;
 import java.util.ArrayList;
@@ -12,7 +15,7 @@ import java.util.List;
 /**
  * The TUIDialog class represents a dialog window component in a text-based user interface (TUI).
  */
-public class TUIDialog implements TUIComponent {
+public class TUIDialog implements TUILayoutable {
 
     // Logger for logging messages related to TUIDialog
     Logger logger = LoggerFactory.getLogger(TUIDialog.class);
@@ -33,10 +36,11 @@ public class TUIDialog implements TUIComponent {
     private String message = "";
     private Double score = 0.0;
     private int x, y, width, height, currentActiveButton = -1;
+    private int initialX, initialY, initialWidth, initialHeight;  // Bounds requested by the owner
     private String title;
     private List<TUIButton> buttons;
-    private String bgColor = Colors.BG_WHITE.getCode();
-    private String textColor = Colors.TEXT_BLACK.getCode();
+    private int bgColor = Colors.BG_WHITE.getColor();
+    private int textColor = Colors.TEXT_BLACK.getColor();
     private int zIndex;
     private TUIScreen screen;
     private TUIManager tuiManager;
@@ -46,6 +50,7 @@ public class TUIDialog implements TUIComponent {
 
     private TUIComponent tuiComponent;
     private Runnable function;
+    private final KeyBindings keyBindings = new KeyBindings();  // Keys handled while the dialog has the focus
 
     /**
      * Constructor for TUIDialog.
@@ -63,7 +68,12 @@ public class TUIDialog implements TUIComponent {
         this.tuiManager = tuiManager;
         this.tuiTab = tuiTab; // Initialize reference to TUITab
         this.cancelled = false; // Initialize cancelled flag
+        this.initialX = x;
+        this.initialY = y;
+        this.initialWidth = width;
+        this.initialHeight = height;
         initializeButtons();
+        initializeKeyBindings();
     }
 
     /**
@@ -82,9 +92,14 @@ public class TUIDialog implements TUIComponent {
         this.tuiManager = tuiManager;
         this.tuiTab = tuiTab; // Initialize reference to TUITab
         this.cancelled = false; // Initialize cancelled flag
+        this.initialX = x;
+        this.initialY = y;
+        this.initialWidth = width;
+        this.initialHeight = height;
         this.function = function;
         this.tuiComponent = tuiComponent;
         initializeButtons();
+        initializeKeyBindings();
     }
 
     /**
@@ -109,7 +124,7 @@ public class TUIDialog implements TUIComponent {
         }, tuiManager);
 
         TUIButton cancelButton = new TUIButton(x + 3 * width / 4 - MIN_BUTTON_WIDTH, y + height - 3, MIN_BUTTON_WIDTH, 1, zIndex + 1, "CANCEL", () -> {
-            logger.info("Dialog cancelled");
+            tuiManager.trace(TraceEvent.DIALOG_CANCELLED, 0, 0);
             setCancelled(true); // Set the cancelled state
 
             tuiTab.removeComponent(this); // Remove the dialog from TUITab
@@ -128,6 +143,39 @@ public class TUIDialog implements TUIComponent {
         buttons.add(cancelButton);
     }
 
+    /**
+     * Places the buttons at the bottom of the dialog.
+     */
+    private void positionButtons() {
+        buttons.get(0).setPositionAndSize(x + width / 4, y + height - 3, MIN_BUTTON_WIDTH, 1);
+        buttons.get(1).setPositionAndSize(x + 3 * width / 4 - MIN_BUTTON_WIDTH, y + height - 3, MIN_BUTTON_WIDTH, 1);
+    }
+
+    /**
+     * Binds the keys moving between the buttons and pressing the active one.
+     */
+    private void initializeKeyBindings() {
+        keyBindings.bind(KeyLabel.ARROW_LEFT, keyInfo -> {
+            if (!isCancelled())
+                moveToNextActiveButton();
+        });
+        keyBindings.bind(KeyLabel.ARROW_RIGHT, keyInfo -> {
+            if (!isCancelled())
+                moveToPrevActiveButton();
+        });
+        keyBindings.bind(KeyLabel.SPACE, keyInfo -> {
+            if (isComponentActive() && currentActiveButton != -1)
+                buttons.get(currentActiveButton).performAction();
+        });
+    }
+
+    /**
+     * Returns the key bindings of the dialog.
+     */
+    public KeyBindings getKeyBindings() {
+        return keyBindings;
+    }
+
     /**
      * Returns the list of buttons in the dialog.
      */
@@ -140,7 +188,7 @@ public class TUIDialog implements TUIComponent {
      */
     public void show() {
         if (isCancelled()) {
-            logger.info("Dialog will not be shown because it was cancelled.");
+            logger.debug("Dialog will not be shown because it was cancelled.");
             return;
         }
         drawComponent(tuiManager);
@@ -193,8 +241,8 @@ public class TUIDialog implements TUIComponent {
     @Override
     public void highlightComponent() {
         logger.debug("Highlighting button");
-        setBgColor(Colors.BG_BRIGHT_MAGENTA.getCode());
-        setTextColor(Colors.TEXT_BLACK.getCode());
+        setBgColor(Colors.BG_BRIGHT_MAGENTA.getColor());
+        setTextColor(Colors.TEXT_BLACK.getColor());
         tuiManager.refresh();
     }
     /**
@@ -202,8 +250,8 @@ public class TUIDialog implements TUIComponent {
      */
     @Override
     public void resetHighlightComponent() {
-        setBgColor(Colors.BG_RED.getCode());
-        setTextColor(Colors.TEXT_WHITE.getCode());
+        setBgColor(Colors.BG_RED.getColor());
+        setTextColor(Colors.TEXT_WHITE.getColor());
         tuiManager.refresh();
     }
     /**
@@ -219,24 +267,16 @@ public class TUIDialog implements TUIComponent {
      */
     public void hide() {
         this.active = false;
-        logger.info("Dialog hidden{}", this.message);
+        logger.debug("Dialog hidden {}", this.message);
 
         for (int i = 0; i < height; i++) {
             for (int j = 0; j < width; j++) {
                 screen.clearCellAt(x + j, y + i, zIndex);
             }
         }
-        // Remove shadow (added)
-        for (int i = 1; i <= height; i++) {
-            screen.clearCellAt(x + width, y + i, zIndex);
-        }
-        for (int j = 0; j <= width; j++) {
-            screen.clearCellAt(x + j, y + height, zIndex);
-        }
-        // End shadow removal
+        clearShadow();
         for (TUIButton button : buttons) {
             button.hide();
-            logger.info("Dialog hidden{}", button.getText());
         }
 
         tuiManager.removeComponent(this);
@@ -254,14 +294,14 @@ public class TUIDialog implements TUIComponent {
     /**
      * Sets the background color of the dialog.
      */
-    public void setBgColor(String color) {
+    public void setBgColor(int color) {
         this.bgColor = color;
     }
 
     /**
      * Sets the text color of the dialog.
      */
-    public void setTextColor(String color) {
+    public void setTextColor(int color) {
         this.textColor = color;
     }
 
@@ -312,12 +352,11 @@ public class TUIDialog implements TUIComponent {
             }
         }
 
-        // Shadow for the right and bottom edges
-        for (int i = 1; i <= height; i++) {
-            screen.setText(x + width, y + i, " ", Colors.BG_BLACK.getCode(), bgColor, zIndex);
-        }
-        for (int j = 0; j <= width; j++) {
-            screen.setText(x + j, y + height, " ", Colors.BG_BLACK.getCode(), bgColor, zIndex);
+        // Shadow for the right and bottom edges, left out while the session's link is slow
+        if (tuiManager.isReducedQuality()) {
+            clearShadow();  // The shadow of a frame before the quality was reduced
+        } else {
+            drawShadow();
         }
 
         int titleX = x + (width - title.length()) / 2;
@@ -328,6 +367,24 @@ public class TUIDialog implements TUIComponent {
             button.drawComponent(tuiManager);
         }
     }
+
+    private void drawShadow() {
+        for (int i = 1; i <= height; i++) {
+            screen.setText(x + width, y + i, " ", textColor, Colors.BG_BLACK.getColor(), zIndex);
+        }
+        for (int j = 0; j <= width; j++) {
+            screen.setText(x + j, y + height, " ", textColor, Colors.BG_BLACK.getColor(), zIndex);
+        }
+    }
+
+    private void clearShadow() {
+        for (int i = 1; i <= height; i++) {
+            screen.clearCellAt(x + width, y + i, zIndex);
+        }
+        for (int j = 0; j <= width; j++) {
+            screen.clearCellAt(x + j, y + height, zIndex);
+        }
+    }
     /**
      * Return z index
      */
@@ -347,21 +404,24 @@ public class TUIDialog implements TUIComponent {
      */
     @Override
     public void windowResized(int width, int height) {
-        // Handle window resize if necessary
+        // Shrink the dialog to the window (keeping room for the shadow) and keep it inside
+        int newWidth = Math.max(MIN_BUTTON_WIDTH * 2 + 2, Math.min(initialWidth, width - 1));
+        int newHeight = Math.max(4, Math.min(initialHeight, height - 1));
+        int newX = Math.max(0, Math.min(initialX, width - newWidth - 1));
+        int newY = Math.max(0, Math.min(initialY, height - newHeight - 1));
+        setBounds(newX, newY, newWidth, newHeight);
     }
 
     /**
      * Highlights the currently active button.
      */
     private void highlightActiveButton() {
-        logger.info("Highlighting active button.");
-        for (TUIButton button : buttons) {
+        for (int i = 0; i < buttons.size(); i++) {
+            TUIButton button = buttons.get(i);
             if (button.isComponentActive()) {
-                logger.info("Dialog window name:{}", this.title);
-                logger.info("Highlighting button:{}", button.getText());
+                tuiManager.trace(TraceEvent.DIALOG_BUTTON_FOCUSED, i, buttons.size());
                 button.highlightComponent();
             } else {
-                logger.info("Reset highlighting button:{}", button.getText());
                 button.resetHighlightComponent();
             }
         }
@@ -372,7 +432,7 @@ public class TUIDialog implements TUIComponent {
      */
     private void moveToNextActiveButton() {
         if (buttons.isEmpty()) {
-            logger.info("No components to activate.");
+            logger.trace("No components to activate.");
             return;
         }
         if (currentActiveButton >= buttons.size()) {
@@ -382,10 +442,8 @@ public class TUIDialog implements TUIComponent {
 
         if (currentActiveButton != -1) {
             buttons.get(currentActiveButton).setActive(false);
-            logger.info("Deactivating current active component.");
         }
         int startComponent = currentActiveButton == -1 ? (buttons.size() - 1) : currentActiveButton;
-        logger.info("Starting from: {}", startComponent);
         do {
             currentActiveButton = (currentActiveButton + 1) % buttons.size();
         } while (!buttons.get(currentActiveButton).isInteractable() && currentActiveButton != startComponent);
@@ -398,7 +456,7 @@ public class TUIDialog implements TUIComponent {
      */
     private void moveToPrevActiveButton() {
         if (buttons.isEmpty()) {
-            logger.info("No components to activate in moveToPrevButton.");
+            logger.trace("No components to activate in moveToPrevButton.");
             return;
         }
         if (currentActiveButton >= buttons.size()) {
@@ -408,7 +466,6 @@ public class TUIDialog implements TUIComponent {
 
         if (currentActiveButton != -1) {
             buttons.get(currentActiveButton).setActive(false);
-            logger.info("Deactivating current active component.");
         }
         int startComponent = currentActiveButton == -1 ? 0 : currentActiveButton;
         do {
@@ -425,22 +482,20 @@ public class TUIDialog implements TUIComponent {
      * Handles keyboard input for the dialog.
      */
     public void handleKeyboardInput(KeyInfo keyInfo) {
+        keyBindings.dispatch(keyInfo);
+        highlightActiveButton();
+    }
 
-        switch (keyInfo.getLabel()) {
-            case ARROW_LEFT:
-                if (!isCancelled())
-                    moveToNextActiveButton();
-                break;
-            case ARROW_RIGHT:
-                if (!isCancelled())
-                    moveToPrevActiveButton();
-                break;
-            case SPACE:
-                if (isComponentActive() && currentActiveButton != -1)
-                    buttons.get(currentActiveButton).performAction();
-                break;
+    /**
+     * Handles the keys bound in the dialog while it is open, other keys bubble to the tab.
+     */
+    @Override
+    public boolean handleKey(KeyInfo keyInfo) {
+        if (isCancelled() || keyBindings.getHandler(keyInfo.getLabel()) == null) {
+            return false;
         }
-        highlightActiveButton();
+        handleKeyboardInput(keyInfo);
+        return true;
     }
 
     /**
@@ -465,7 +520,7 @@ public class TUIDialog implements TUIComponent {
             tuiManager.removeComponent(button);
         }
         this.hide();
-        logger.info("Close a dialog window");
+        tuiManager.trace(TraceEvent.DIALOG_CLOSED, 0, 0);
 
         tuiManager.refresh(); // Refresh screen after removing buttons
         screen.render();
@@ -481,14 +536,14 @@ public class TUIDialog implements TUIComponent {
     /**
      * Returns the background color of the dialog.
      */
-    public String getBgColor() {
+    public int getBgColor() {
         return bgColor;
     }
 
     /**
      * Returns the text color of the dialog.
      */
-    public String getTextColor() {
+    public int getTextColor() {
         return textColor;
     }
 
@@ -498,4 +553,32 @@ public class TUIDialog implements TUIComponent {
     public String getMessage() {
         return message;
     }
+
+    /**
+     * Returns the width the dialog was created with.
+     */
+    @Override
+    public int getPreferredWidth() {
+        return initialWidth;
+    }
+
+    /**
+     * Returns the height the dialog was created with.
+     */
+    @Override
+    public int getPreferredHeight() {
+        return initialHeight;
+    }
+
+    /**
+     * Moves and resizes the dialog together with its buttons.
+     */
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        positionButtons();
+    }
 }
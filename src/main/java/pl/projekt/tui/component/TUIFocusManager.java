@@ -0,0 +1,247 @@
+package pl.projekt.tui.component;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps track of the focused component of a tab.
+ * <p>
+ * The focus ring (the interactable components in the order they were added) and the nearest neighbour of every
+ * component in each arrow direction are computed once when the components change, so moving the focus is a table
+ * lookup. A focus change only touches the component losing the focus and the one gaining it.
+ */
+@Slf4j
+public class TUIFocusManager {
+
+    /**
+     * Direction of spatial navigation.
+     */
+    public enum Direction {
+        UP,
+        DOWN,
+        LEFT,
+        RIGHT
+    }
+
+    private static final int NONE = -1;
+
+    private final List<TUIComponent> components;  // Components of the owner, read when the ring is rebuilt
+    private TUIComponent[] ring = new TUIComponent[0];  // Interactable components in insertion order
+    private final Map<TUIComponent, Integer> ringIndex = new IdentityHashMap<>();
+    private int[][] neighbours = new int[Direction.values().length][0];  // Ring index of the neighbour per direction
+    private boolean valid;  // False if the ring has to be rebuilt
+    private int focused = NONE;  // Ring index of the focused component
+
+    /**
+     * Creates a focus manager for a list of components.
+     *
+     * @param components The components, the list is read again after {@link #invalidate()}.
+     */
+    public TUIFocusManager(List<TUIComponent> components) {
+        this.components = components;
+    }
+
+    /**
+     * Marks the ring and the neighbours for rebuilding. Call it when components are added, removed or moved.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Returns the focused component.
+     *
+     * @return The focused component, or null if nothing is focused.
+     */
+    public TUIComponent getFocused() {
+        return focused == NONE ? null : ring[focused];
+    }
+
+    /**
+     * Moves the focus to the next interactable component, wrapping around.
+     * Without a focused component the first one gets the focus.
+     */
+    public void focusNext() {
+        rebuildIfNeeded();
+        if (ring.length == 0) {
+            log.trace("No components to activate.");
+            return;
+        }
+        moveFocus(focused == NONE ? 0 : (focused + 1) % ring.length);
+    }
+
+    /**
+     * Moves the focus to the previous interactable component, wrapping around.
+     * Without a focused component the last one gets the focus.
+     */
+    public void focusPrevious() {
+        rebuildIfNeeded();
+        if (ring.length == 0) {
+            log.trace("No components to activate.");
+            return;
+        }
+        moveFocus(focused == NONE ? ring.length - 1 : (focused - 1 + ring.length) % ring.length);
+    }
+
+    /**
+     * Moves the focus to the nearest component in a direction.
+     *
+     * @param direction The direction.
+     * @return True if the focus moved, false if there is no component in that direction.
+     */
+    public boolean focus(Direction direction) {
+        rebuildIfNeeded();
+        if (focused == NONE) {
+            return false;
+        }
+        int target = neighbours[direction.ordinal()][focused];
+        if (target == NONE) {
+            return false;
+        }
+        moveFocus(target);
+        return true;
+    }
+
+    /**
+     * Moves the focus to a component.
+     *
+     * @param component The component, it has to be interactable and belong to the owner.
+     * @return True if the component got the focus.
+     */
+    public boolean focus(TUIComponent component) {
+        rebuildIfNeeded();
+        Integer index = ringIndex.get(component);
+        if (index == null) {
+            return false;
+        }
+        moveFocus(index);
+        return true;
+    }
+
+    /**
+     * Forgets the focused component without touching it.
+     */
+    public void clear() {
+        focused = NONE;
+    }
+
+    private void moveFocus(int target) {
+        if (target == focused) {
+            return;
+        }
+        if (focused != NONE) {
+            TUIComponent previous = ring[focused];
+            previous.setActive(false);
+            previous.resetHighlightComponent();
+        }
+        focused = target;
+        TUIComponent next = ring[focused];
+        next.setActive(true);
+        next.highlightComponent();
+    }
+
+    private void rebuildIfNeeded() {
+        if (valid) {
+            return;
+        }
+        TUIComponent focusedComponent = getFocused();
+
+        List<TUIComponent> interactable = new ArrayList<>();
+        for (TUIComponent component : components) {
+            if (component.isInteractable()) {
+                interactable.add(component);
+            }
+        }
+        ring = interactable.toArray(new TUIComponent[0]);
+        ringIndex.clear();
+        for (int i = 0; i < ring.length; i++) {
+            ringIndex.put(ring[i], i);
+        }
+
+        neighbours = new int[Direction.values().length][ring.length];
+        for (Direction direction : Direction.values()) {
+            for (int i = 0; i < ring.length; i++) {
+                neighbours[direction.ordinal()][i] = findNeighbour(i, direction);
+            }
+        }
+
+        Integer index = focusedComponent == null ? null : ringIndex.get(focusedComponent);
+        focused = index == null ? NONE : index;
+        valid = true;
+    }
+
+    /**
+     * Finds the nearest component in a direction. The distance along the direction counts once and the gap
+     * across it twice, so components in line with the source are preferred.
+     */
+    private int findNeighbour(int source, Direction direction) {
+        TUIComponent from = ring[source];
+        int best = NONE;
+        int bestScore = Integer.MAX_VALUE;
+        for (int i = 0; i < ring.length; i++) {
+            if (i == source) {
+                continue;
+            }
+            TUIComponent to = ring[i];
+            int distance;
+            int gap;
+            switch (direction) {
+                case UP:
+                    distance = from.getY() - to.getY();
+                    gap = gap(from.getX(), width(from), to.getX(), width(to));
+                    break;
+                case DOWN:
+                    distance = to.getY() - from.getY();
+                    gap = gap(from.getX(), width(from), to.getX(), width(to));
+                    break;
+                case LEFT:
+                    distance = from.getX() - to.getX();
+                    gap = gap(from.getY(), height(from), to.getY(), height(to));
+                    break;
+                default:
+                    distance = to.getX() - from.getX();
+                    gap = gap(from.getY(), height(from), to.getY(), height(to));
+                    break;
+            }
+            if (distance <= 0) {
+                continue;
+            }
+            int score = distance + 2 * gap;
+            if (score < bestScore) {
+                bestScore = score;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the distance between two intervals, 0 if they overlap.
+     */
+    private static int gap(int start, int length, int otherStart, int otherLength) {
+        if (otherStart >= start + length) {
+            return otherStart - (start + length);
+        }
+        if (start >= otherStart + otherLength) {
+            return start - (otherStart + otherLength);
+        }
+        return 0;
+    }
+
+    private static int width(TUIComponent component) {
+        // Some components (e.g. check boxes) report no width, their preferred width tells how much they draw
+        int width = component.getWidth();
+        if (component instanceof TUILayoutable layoutable) {
+            width = Math.max(width, layoutable.getPreferredWidth());
+        }
+        return Math.max(1, width);
+    }
+
+    private static int height(TUIComponent component) {
+        return Math.max(1, component.getHeight());
+    }
+}
@@ -4,19 +4,25 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pl.projekt.tui.model.color.Colors;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Represents a text label component for a Text User Interface (TUI).
  */
-public class TUILabel implements TUIComponent {
+public class TUILabel implements TUILayoutable {
 
     private Logger logger = LoggerFactory.getLogger(TUILabel.class);
     private String text;             // The text content of the label
-    private final String textColor = Colors.TEXT_BLACK.getCode();  // Default text color
-    private String backgroundColor;  // Background color of the label
-    private final int x, y;          // Position coordinates on the screen
+    private final int textColor = Colors.TEXT_BLACK.getColor();  // Default text color
+    private int backgroundColor;  // Background color of the label
+    private int x, y;                // Position coordinates on the screen
     private final int layerIndex;    // Z-index or layer index for component stacking
     private boolean visible;         // Visibility state of the label
     private int width, height;       // Width and height of the label
+    private int wrapWidth;           // Width the text is wrapped to by a layout, 0 to keep the lines whole
+    private List<String> lines;      // Lines of the text as drawn
+    private Runnable sizeListener = () -> {};  // Notified when the text, and so the size, changes
     private final TUIManager tuiManager;  // Manager for TUI components
 
     /**
@@ -29,7 +35,7 @@ public class TUILabel implements TUIComponent {
      * @param backgroundColor Background color of the label
      * @param tuiManager The TUI manager responsible for handling components
      */
-    public TUILabel(String text, int x, int y, int layerIndex, String backgroundColor, TUIManager tuiManager) {
+    public TUILabel(String text, int x, int y, int layerIndex, int backgroundColor, TUIManager tuiManager) {
         this.text = text;
         this.x = x;
         this.y = y;
@@ -43,19 +49,38 @@ public class TUILabel implements TUIComponent {
      * Helper method to calculate the width and height of the label based on text content.
      */
     void countBounds() {
-        height = 1;
-        int prevIndex = 0;
-        for (int i = 0; i < text.length(); i++) {
-            if (text.charAt(i) == '\n') {
-                height++;
-                int len = text.substring(prevIndex, i).length();
-                if (len > width)
-                    width = len;
-                prevIndex = i;
+        lines = wrap(text, wrapWidth);
+        width = 0;
+        for (String line : lines) {
+            width = Math.max(width, line.length());
+        }
+        height = lines.size();
+    }
+
+    /**
+     * Splits a text into its lines and wraps the lines longer than the given width at the last space that fits,
+     * or inside a word that is longer than the width.
+     *
+     * @param text The text
+     * @param width The maximal line length, 0 to keep the lines whole
+     * @return The lines
+     */
+    static List<String> wrap(String text, int width) {
+        List<String> lines = new ArrayList<>();
+        for (String line : text.split("\n", -1)) {
+            while (width > 0 && line.length() > width) {
+                int cut = line.lastIndexOf(' ', width);
+                if (cut <= 0) {
+                    lines.add(line.substring(0, width));
+                    line = line.substring(width);
+                } else {
+                    lines.add(line.substring(0, cut));
+                    line = line.substring(cut + 1);
+                }
             }
+            lines.add(line);
         }
-        if (prevIndex == 0)
-            width = text.length();
+        return lines;
     }
 
     /**
@@ -66,7 +91,9 @@ public class TUILabel implements TUIComponent {
     @Override
     public void drawComponent(TUIManager tuiManager) {
         TUIScreen screen = tuiManager.getScreen();
-        screen.setText(x, y, text, textColor, backgroundColor, layerIndex);
+        for (int i = 0; i < lines.size(); i++) {
+            screen.setText(x, y + i, lines.get(i), textColor, backgroundColor, layerIndex);
+        }
     }
 
     /**
@@ -74,17 +101,23 @@ public class TUILabel implements TUIComponent {
      *
      * @param bgColor The new background color to set
      */
-    public void setBgColor(String bgColor) {
+    public void setBgColor(int bgColor) {
         this.backgroundColor = bgColor;
     }
 
     /**
-     * Sets the text content of the label.
+     * Sets the text content of the label. A label placed by a layout asks for a new layout
+     * when the text changes, so the components around it move.
      *
      * @param text The new text content to set
      */
     public void setText(String text) {
+        if (text.equals(this.text)) {
+            return;
+        }
         this.text = text;
+        countBounds();
+        sizeListener.run();
     }
 
     /**
@@ -232,7 +265,69 @@ public class TUILabel implements TUIComponent {
      *
      * @return The background color of the label
      */
-    public String getBackgroundColor() {
+    public int getBackgroundColor() {
         return backgroundColor;
     }
+
+    /**
+     * Returns the width of the longest line of the label text.
+     *
+     * @return The preferred width
+     */
+    @Override
+    public int getPreferredWidth() {
+        int preferredWidth = 0;
+        for (String line : wrap(text, 0)) {
+            preferredWidth = Math.max(preferredWidth, line.length());
+        }
+        return preferredWidth;
+    }
+
+    /**
+     * Returns the number of lines of the label text.
+     *
+     * @return The preferred height
+     */
+    @Override
+    public int getPreferredHeight() {
+        return getPreferredHeight(0);
+    }
+
+    /**
+     * Returns the number of lines of the label text wrapped to the given width.
+     *
+     * @param width The width the label gets
+     * @return The preferred height at that width
+     */
+    @Override
+    public int getPreferredHeight(int width) {
+        return wrap(text, width < getPreferredWidth() ? width : 0).size();
+    }
+
+    /**
+     * Sets the callback run when the text, and so the size, of the label changes.
+     *
+     * @param listener The callback to run
+     */
+    @Override
+    public void setSizeListener(Runnable listener) {
+        this.sizeListener = listener;
+    }
+
+    /**
+     * Moves the label and wraps its text when it gets less than the width of its longest line.
+     * The height of a label always follows its text.
+     *
+     * @param x New X-coordinate position
+     * @param y New Y-coordinate position
+     * @param width Width the text is wrapped to
+     * @param height Ignored, the height follows the text
+     */
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.wrapWidth = width < getPreferredWidth() ? width : 0;
+        countBounds();
+    }
 }
@@ -0,0 +1,53 @@
+package pl.projekt.tui.component;
+
+/**
+ * A component that can be positioned by the layout engine in {@code pl.projekt.tui.layout}.
+ * It reports the size it would like to have and accepts the bounds chosen by its container.
+ */
+public interface TUILayoutable extends TUIComponent {
+
+    /**
+     * Returns the width the component would like to have.
+     *
+     * @return The preferred width.
+     */
+    int getPreferredWidth();
+
+    /**
+     * Returns the height the component would like to have.
+     *
+     * @return The preferred height.
+     */
+    int getPreferredHeight();
+
+    /**
+     * Returns the height the component would like to have when it gets the given width. Components whose content
+     * wraps, like labels, get taller when they get narrower.
+     *
+     * @param width The width the component gets.
+     * @return The preferred height at that width.
+     */
+    default int getPreferredHeight(int width) {
+        return getPreferredHeight();
+    }
+
+    /**
+     * Sets the callback the component runs when its content changes in a way that changes its preferred size,
+     * e.g. a new label text. The layout engine uses it to lay the component and its siblings out again.
+     * Components whose preferred size never changes ignore it.
+     *
+     * @param listener The callback to run.
+     */
+    default void setSizeListener(Runnable listener) {
+    }
+
+    /**
+     * Moves and resizes the component.
+     *
+     * @param x      The new x-coordinate.
+     * @param y      The new y-coordinate.
+     * @param width  The new width.
+     * @param height The new height.
+     */
+    void setBounds(int x, int y, int width, int height);
+}
@@ -3,20 +3,29 @@ package pl.projekt.tui.component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pl.projekt.tui.model.color.Colors;
+import pl.projekt.tui.model.keys.KeyBindings;
+import pl.projekt.tui.model.keys.KeyInfo;
+import pl.projekt.tui.model.keys.KeyLabel;
 
 import java.util.List;
 
 /**
  * Represents a list component for a Text User Interface (TUI).
+ * An active list taller than the window scrolls by an item with the arrow keys and by a window with Page Up and Page Down.
  */
-public class TUIList implements TUIComponent {
+public class TUIList implements TUILayoutable {
 
     private Logger logger = LoggerFactory.getLogger(TUIList.class);
     private StringBuilder text;           // Unused StringBuilder for future expansion
     private int x;                        // X-coordinate position of the list
     private int y;                        // Y-coordinate position of the list
-    private String bgColor = Colors.BG_BLUE.getCode();  // Background color of the list
-    private String textColor = Colors.TEXT_BLACK.getCode();  // Text color of the list
+    private final int initialX, initialY; // Position requested by the owner, kept when the window grows again
+    private String[] drawnLines;          // Rendered list, built on first use and again after the contents change
+    private int firstLine;                // First item shown, the items above it are scrolled out of view
+    private int visibleLines = Integer.MAX_VALUE;  // Items that fit in the window below the list
+    private final KeyBindings keyBindings = new KeyBindings();  // Scroll keys, handled while the list does not fit
+    private int bgColor = Colors.BG_BLUE.getColor();  // Background color of the list
+    private int textColor = Colors.TEXT_BLACK.getColor();  // Text color of the list
     private int zIndex;                   // Z-index or layer index for component stacking
     private boolean isActive;             // Activity state of the list
     private TUIManager tuiManager;        // Manager for TUI components
@@ -25,6 +34,7 @@ public class TUIList implements TUIComponent {
     private static final String LIST_DOT = ">";  // Symbol for list item marker
     private List<TUILabel> labels;        // Labels associated with list items
     private TUIScreen tuiScreen;          // Screen for displaying TUI components
+    private Runnable sizeListener = () -> {};  // Notified when new contents change the size of the list
 
     /**
      * Constructs a new TUIList with specified parameters.
@@ -37,13 +47,57 @@ public class TUIList implements TUIComponent {
      * @param listContents Contents of the list
      */
     public TUIList(int x, int y, int zIndex, TUIScreen tuiScreen, TUIManager tuiManager, List<String> listContents) {
-        this.x = x;
-        this.y = y;
+        this.x = this.initialX = x;
+        this.y = this.initialY = y;
         this.zIndex = zIndex;
         this.tuiScreen = tuiScreen;
         this.tuiManager = tuiManager;
         this.text = new StringBuilder();  // Initialize unused StringBuilder
         this.listContents = listContents;
+        initializeKeyBindings();
+    }
+
+    /**
+     * Defines the scroll actions of the list and binds the arrow and page keys to them.
+     */
+    private void initializeKeyBindings() {
+        keyBindings
+                .defineAction("scrollUp", keyInfo -> scrollBy(-1))
+                .defineAction("scrollDown", keyInfo -> scrollBy(1))
+                .defineAction("pageUp", keyInfo -> scrollBy(-pageLines()))
+                .defineAction("pageDown", keyInfo -> scrollBy(pageLines()));
+        keyBindings
+                .bind(KeyLabel.ARROW_UP, "scrollUp")
+                .bind(KeyLabel.ARROW_DOWN, "scrollDown")
+                .bind(KeyLabel.PAGE_UP, "pageUp")
+                .bind(KeyLabel.PAGE_DOWN, "pageDown");
+    }
+
+    /**
+     * Returns the items a page scrolls, the items that fit in the window less one, so an item stays in view.
+     */
+    private int pageLines() {
+        return Math.max(1, visibleLines - 1);
+    }
+
+    /**
+     * Scrolls the list with the bound keys while it is active and taller than the window.
+     *
+     * @param keyInfo The pressed key
+     * @return True if the key scrolls the list, false to let it bubble
+     */
+    @Override
+    public boolean handleKey(KeyInfo keyInfo) {
+        return isActive && getDrawnLines().length > visibleLines && keyBindings.dispatch(keyInfo);
+    }
+
+    /**
+     * Returns the key bindings of the list.
+     *
+     * @return Key bindings scrolling the list
+     */
+    public KeyBindings getKeyBindings() {
+        return keyBindings;
     }
 
     /**
@@ -53,6 +107,64 @@ public class TUIList implements TUIComponent {
      */
     @Override
     public void drawComponent(TUIManager tuiManager) {
+        String[] drawnLines = getDrawnLines();
+
+        // Print each visible line at the correct y position
+        int count = Math.min(drawnLines.length - firstLine, visibleLines);
+        for (int i = 0; i < count; i++) {
+            tuiScreen.setText(x, y + i, drawnLines[firstLine + i], textColor, bgColor, 1);
+        }
+    }
+
+    /**
+     * Scrolls the list by a number of items. A list taller than the window shows the items that fit, and scrolling
+     * stops when its last item is at the bottom of the window.
+     *
+     * @param lines Items to scroll down, negative to scroll up
+     * @return True if the list moved
+     */
+    public boolean scrollBy(int lines) {
+        int total = getDrawnLines().length;
+        int first = Math.max(0, Math.min(firstLine + lines, total - Math.min(total, visibleLines)));
+        if (first == firstLine) {
+            return false;
+        }
+        firstLine = first;
+        tuiManager.refresh();
+        return true;
+    }
+
+    /**
+     * Replaces the items of the list. The list is rendered again and a list placed by a layout
+     * asks for a new layout, since its size follows the contents.
+     *
+     * @param listContents New contents of the list
+     */
+    public void setListContents(List<String> listContents) {
+        this.listContents = listContents;
+        drawnLines = null;
+        firstLine = Math.max(0, Math.min(firstLine, listContents.size() - visibleLines));
+        sizeListener.run();
+    }
+
+    /**
+     * Returns the first item of the list that is shown.
+     *
+     * @return Index of the item, 0 if the list is not scrolled
+     */
+    public int getFirstLine() {
+        return firstLine;
+    }
+
+    /**
+     * Returns the lines of the rendered list, building them on first use.
+     *
+     * @return Lines of the list
+     */
+    private String[] getDrawnLines() {
+        if (drawnLines != null) {
+            return drawnLines;
+        }
         char VERTICAL_BORDER = '|';
 
         // Find the maximum length of any item in the list
@@ -82,12 +194,8 @@ public class TUIList implements TUIComponent {
         }
 
         // Split the drawn list into lines
-        String[] drawnLines = listBuilder.toString().split("\n");
-
-        // Print each line at the correct y position
-        for (int i = 0; i < drawnLines.length; i++) {
-            tuiScreen.setText(x, y + i, drawnLines[i], textColor, bgColor, 1);
-        }
+        drawnLines = listBuilder.toString().split("\n");
+        return drawnLines;
     }
 
     /**
@@ -111,23 +219,27 @@ public class TUIList implements TUIComponent {
     }
 
     /**
-     * Placeholder method for retrieving the width of the list (not implemented).
+     * Retrieves the width of the widest rendered item.
      *
-     * @return Always returns 0
+     * @return The width of the list
      */
     @Override
     public int getWidth() {
-        return 0;  // Placeholder, not implemented
+        int width = 0;
+        for (String line : getDrawnLines()) {
+            width = Math.max(width, line.length());
+        }
+        return width;
     }
 
     /**
-     * Placeholder method for retrieving the height of the list (not implemented).
+     * Retrieves the number of items in the list.
      *
-     * @return Always returns 0
+     * @return The height of the list
      */
     @Override
     public int getHeight() {
-        return 0;  // Placeholder, not implemented
+        return Math.min(listContents.size(), visibleLines);
     }
 
     /**
@@ -211,7 +323,12 @@ public class TUIList implements TUIComponent {
      */
     @Override
     public void windowResized(int width, int height) {
-        // Placeholder, not implemented
+        // Keep the list inside the window, moving it back towards its requested position when there is room
+        x = Math.max(0, Math.min(initialX, width - getWidth()));
+        y = Math.max(0, Math.min(initialY, height - listContents.size()));
+        // Items that do not fit below the list are scrolled into view instead of drawn outside the window
+        visibleLines = Math.max(1, height - y);
+        firstLine = Math.max(0, Math.min(firstLine, listContents.size() - visibleLines));
     }
 
     /**
@@ -228,7 +345,7 @@ public class TUIList implements TUIComponent {
      *
      * @return The background color
      */
-    public String getBgColor() {
+    public int getBgColor() {
         return bgColor;
     }
 
@@ -237,7 +354,51 @@ public class TUIList implements TUIComponent {
      *
      * @return The text color
      */
-    public String getTextColor() {
+    public int getTextColor() {
         return textColor;
     }
+
+    /**
+     * Retrieves the width of the rendered list.
+     *
+     * @return The preferred width
+     */
+    @Override
+    public int getPreferredWidth() {
+        return getWidth();
+    }
+
+    /**
+     * Retrieves the height of the rendered list.
+     *
+     * @return The preferred height
+     */
+    @Override
+    public int getPreferredHeight() {
+        return getHeight();
+    }
+
+    /**
+     * Sets the callback run when new contents change the size of the list.
+     *
+     * @param listener The callback to run
+     */
+    @Override
+    public void setSizeListener(Runnable listener) {
+        this.sizeListener = listener;
+    }
+
+    /**
+     * Moves the list. Its size always follows the contents.
+     *
+     * @param x New X-coordinate position
+     * @param y New Y-coordinate position
+     * @param width Ignored, the width follows the contents
+     * @param height Ignored, the height follows the contents
+     */
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+    }
 }
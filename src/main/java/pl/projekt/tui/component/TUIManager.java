@@ -2,11 +2,17 @@ package pl.projekt.tui.component;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import pl.projekt.tui.metrics.RenderEvent;
+import pl.projekt.tui.metrics.SessionMetrics;
+import pl.projekt.tui.metrics.TraceEvent;
+import pl.projekt.tui.model.keys.KeyBindings;
 import pl.projekt.tui.model.keys.KeyInfo;
+import pl.projekt.tui.model.keys.KeyLabel;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.*;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Manages the overall Text User Interface (TUI) components and rendering.
@@ -22,6 +28,16 @@ public class TUIManager {
     @Getter
     private int currentTab = 0;            // Index of the current active tab
     private boolean shouldRefresh;         // Flag indicating if screen refresh is needed
+    @Getter
+    private final KeyBindings keyBindings = new KeyBindings();  // Keys not consumed by the current tab
+    @Getter
+    private final SessionMetrics metrics = new SessionMetrics();  // Frames and timings of this session
+    private volatile int frameRateLimit;   // Maximum frames per second, 0 for no limit
+    private long lastFrameAt = System.nanoTime() - 1_000_000_000L;  // System.nanoTime() of the last frame
+    private long lastFrameEnd = lastFrameAt;  // System.nanoTime() when the last frame was written
+    private final FramePacer pacer = new FramePacer();  // Frame interval the session's link carries
+    @Getter
+    private volatile boolean reducedQuality;  // Components leave out details while the link is slow
 
     /**
      * Constructs a new TUIManager with the specified screen and output stream.
@@ -34,6 +50,25 @@ public class TUIManager {
         this.screen = screen;
         this.out = out;
         this.shouldRefresh = true;
+        if (screen != null)
+            screen.setTrace(metrics.getTrace());
+        initializeKeyBindings();
+    }
+
+    /**
+     * Defines the tab switching actions and binds F1-F12 to the first twelve tabs.
+     * Tabs beyond the function keys are reached with the nextTab and previousTab actions.
+     */
+    private void initializeKeyBindings() {
+        keyBindings.defineAction("nextTab", keyInfo -> selectNextTab());
+        keyBindings.defineAction("previousTab", keyInfo -> selectPreviousTab());
+        KeyLabel[] functionKeys = {KeyLabel.F1, KeyLabel.F2, KeyLabel.F3, KeyLabel.F4, KeyLabel.F5, KeyLabel.F6,
+                KeyLabel.F7, KeyLabel.F8, KeyLabel.F9, KeyLabel.F10, KeyLabel.F11, KeyLabel.F12};
+        for (int i = 0; i < functionKeys.length; i++) {
+            int tabIndex = i;
+            keyBindings.defineAction("tab" + (i + 1), keyInfo -> switchToTab(tabIndex));
+            keyBindings.bind(functionKeys[i], "tab" + (i + 1));
+        }
     }
 
     /**
@@ -64,6 +99,41 @@ public class TUIManager {
         if(tabs.isEmpty())
             tab.setActive(true);
         tabs.add(tab);
+        arrangeTabHeaders();
+    }
+
+    /**
+     * Places the tab headers. The headers keep the positions the tabs were created with while all of them fit the
+     * width of the screen; otherwise they are packed from the left and wrap to further rows. The tabs start below
+     * the last row of headers.
+     */
+    private void arrangeTabHeaders() {
+        int width = screen.getWidth();
+        boolean fits = true;
+        int contentY = 1;
+        for (TUITab tab : tabs) {
+            fits &= tab.getDefaultX() + tab.getHeaderWidth() <= width;
+            contentY = Math.max(contentY, tab.getDefaultY() + 1);
+        }
+        if (fits) {
+            for (TUITab tab : tabs)
+                tab.placeHeader(tab.getDefaultX(), tab.getDefaultY(), contentY);
+            return;
+        }
+
+        int[] xs = new int[tabs.size()], ys = new int[tabs.size()];
+        int x = 0, y = 0;
+        for (int i = 0; i < tabs.size(); i++) {
+            if (x > 0 && x + tabs.get(i).getHeaderWidth() > width) {
+                x = 0;
+                y++;
+            }
+            xs[i] = x;
+            ys[i] = y;
+            x += tabs.get(i).getHeaderWidth() + 1;
+        }
+        for (int i = 0; i < tabs.size(); i++)
+            tabs.get(i).placeHeader(xs[i], ys[i], y + 1);
     }
 
     /**
@@ -71,6 +141,10 @@ public class TUIManager {
      */
     public void render() {
         if(shouldRefresh) {
+            awaitFrameSlot();
+            RenderEvent event = new RenderEvent();
+            event.begin();
+            long start = System.nanoTime();
             log.trace("Rendering UI components.");
             for (List<TUIComponent> layer : layers.values()) {
                 for (TUIComponent component : layer) {
@@ -80,17 +154,93 @@ public class TUIManager {
             log.trace("Refreshing screen.");
             if (out != null) {
                 try {
-                    screen.refresh(this.out);
+                    screen.refresh(this.out, metrics);
+                    metrics.getFramesRendered().mark();
+                    metrics.getRenderTime().record(System.nanoTime() - start);
+                    lastFrameAt = start;
+                    lastFrameEnd = System.nanoTime();
+                    pacer.recordWrite(screen.getLastFrameBytes(), screen.getLastWriteNanos(), lastFrameEnd);
+                    metrics.getTrace().record(TraceEvent.FRAME_RENDERED, screen.getLastFrameBytes(), lastFrameEnd - start);
+                    if (event.shouldCommit()) {
+                        event.setSession(metrics, screen.getWidth(), screen.getHeight());
+                        event.cellsChanged = screen.getLastCellsChanged();
+                        event.bytes = screen.getLastFrameBytes();
+                        event.commit();
+                    }
                 } catch (IOException e) {
-                    log.error("Error occurred while refreshing screen: {}", e.getMessage());
+                    log.error("Error occurred while refreshing screen: {}\nLast events of the session:\n{}", e.getMessage(), metrics.getTrace().dump());
                 }
             } else {
                 log.warn("OutputStream is null, skipping refresh.");
             }
             shouldRefresh = false;
+            if (pacer.isReduced() != reducedQuality) {
+                reducedQuality = pacer.isReduced();
+                metrics.getTrace().record(TraceEvent.QUALITY_CHANGED, reducedQuality ? 1 : 0, pacer.getInterval());
+                shouldRefresh = true;  // Redraw in the new quality with the next frame
+            }
         }
     }
 
+    /**
+     * Records an event in the session's trace. Components use it instead of logging every key.
+     *
+     * @param event The event
+     * @param a First argument, see {@link TraceEvent}
+     * @param b Second argument, see {@link TraceEvent}
+     */
+    public void trace(TraceEvent event, long a, long b) {
+        metrics.getTrace().record(event, a, b);
+    }
+
+    /**
+     * Limits the frame rate of the session, e.g. when an administrator throttles a heavy session.
+     * Frames over the limit are delayed, never dropped; keys arriving meanwhile are shown together by the delayed frame.
+     *
+     * @param framesPerSecond Maximum frames per second, 0 for no limit
+     */
+    public void setFrameRateLimit(int framesPerSecond) {
+        this.frameRateLimit = Math.max(0, framesPerSecond);
+    }
+
+    /**
+     * Returns the frame rate limit of the session.
+     *
+     * @return Maximum frames per second, 0 if there is no limit
+     */
+    public int getFrameRateLimit() {
+        return frameRateLimit;
+    }
+
+    /**
+     * Returns how long the next frame has to wait, for the frame rate limit and for the link of the session: frames
+     * are paced to the rate the link carries, measured from how long the writes of the previous frames blocked.
+     *
+     * @return Nanoseconds until the next frame may be rendered, 0 if it may be rendered now
+     */
+    public long nanosUntilFrame() {
+        long due = lastFrameEnd + pacer.getInterval();
+        int limit = frameRateLimit;
+        if (limit > 0)
+            due = Math.max(due, lastFrameAt + 1_000_000_000L / limit);
+        return Math.max(0, due - System.nanoTime());
+    }
+
+    /**
+     * Returns whether a frame was requested and not rendered yet, e.g. because it waits for {@link #nanosUntilFrame()}.
+     *
+     * @return True if the screen has changes to render
+     */
+    public boolean isFramePending() {
+        return shouldRefresh;
+    }
+
+    private void awaitFrameSlot() {
+        long wait = nanosUntilFrame();
+        if (wait > 0)
+            LockSupport.parkNanos(wait);
+    }
+
     /**
      * Resizes the UI components and refreshes the screen accordingly.
      *
@@ -99,66 +249,74 @@ public class TUIManager {
      */
     public void resizeUI(int width, int height){
         screen.resize(width, height);
+        screen.clearLayers();  // Headers and laid out components may move, the next frame draws them again
+        metrics.setTerminalSize(width, height);
+        metrics.getTrace().record(TraceEvent.RESIZED, width, height);
         for(TUITab tab : tabs)
             tab.windowResized(width, height);
+        arrangeTabHeaders();
+        for (List<TUIComponent> layer : layers.values()) {
+            for (TUIComponent component : layer) {
+                if (!(component instanceof TUITab))  // Tabs were resized above
+                    component.windowResized(width, height);
+            }
+        }
         if(out != null) {
             shouldRefresh = true;
             render();
-            log.info("Screen resized");
+            log.debug("Screen resized");
         } else
             log.warn("OutputStream is null, not refreshing.");
     }
 
     /**
-     * Forces a refresh of the screen.
+     * Forces a refresh of the screen. Requests made while a frame is already pending are coalesced into it.
      */
     public void refresh() {
+        if (shouldRefresh)
+            metrics.getFramesCoalesced().increment();
         this.shouldRefresh = true;
     }
 
     /**
-     * Handles keyboard input events for navigation and interaction.
+     * Handles keyboard input events for navigation and interaction. Active components shown over the tabs, e.g. a
+     * scrolling result table, get the key first, then the current tab, then the bindings of the manager.
      *
      * @param keyInfo The KeyInfo object containing keyboard input details
      */
     public void handleKeyboardInput(KeyInfo keyInfo) {
-        log.info("Handling keyboard input: {}", keyInfo);
-
-        if (!tabs.isEmpty()) {
-            switch (keyInfo.getLabel()) {
-                case F1:
-                    switchToTab(0);
-                    break;
-                case F2:
-                    switchToTab(1);
-                    break;
-                case F3:
-                    switchToTab(2);
-                    break;
-                case F4:
-                    switchToTab(3);
-                    break;
-                case F5:
-                    switchToTab(4);
-                    break;
-                case F6:
-                    switchToTab(5);
-                    break;
-                case F7:
-                    switchToTab(6);
-                    break;
-//                case ESC:
-//                    switchToTab(6);
-//                    break;
-                default:
-                    log.info("Default {}", currentTab);
-                    tabs.get(currentTab).handleKeyboardInput(keyInfo);
-                    break;
+        if (!handleComponentKey(keyInfo) && !tabs.isEmpty() && !tabs.get(currentTab).handleKeyboardInput(keyInfo)) {
+            keyBindings.dispatch(keyInfo);
+        }
+
+        if (shouldRefresh && nanosUntilFrame() == 0)
+            this.render();  // Otherwise the session renders the frame when it is due, with the keys arriving meanwhile
+    }
+
+    private boolean handleComponentKey(KeyInfo keyInfo) {
+        for (List<TUIComponent> layer : layers.descendingMap().values()) {  // Topmost layer first
+            for (TUIComponent component : layer) {
+                if (component.isComponentActive() && component.handleKey(keyInfo))
+                    return true;
             }
         }
+        return false;
+    }
 
-        if (shouldRefresh)
-            this.render();
+    /**
+     * Switches to the tab after the current one, wrapping around to the first tab.
+     */
+    public void selectNextTab() {
+        if (!tabs.isEmpty())
+            switchToTab((currentTab + 1) % tabs.size());
+    }
+
+    /**
+     * Switches to the tab before the current one, wrapping around to the last tab.
+     */
+    public void selectPreviousTab() {
+        if (!tabs.isEmpty())
+            switchToTab((currentTab + tabs.size() - 1) % tabs.size());
     }
 
     /**
@@ -168,11 +326,11 @@ public class TUIManager {
      */
     private void switchToTab(int tabIndex) {
         if (tabIndex >= 0 && tabIndex < tabs.size()) {
+            metrics.getTrace().record(TraceEvent.TAB_SWITCHED, currentTab, tabIndex);
             tabs.get(currentTab).setActive(false);
             screen.clearLayers();
             currentTab = tabIndex;
             tabs.get(currentTab).setActive(true);
-            log.info("Switched to tab: {}", tabIndex);
         }
     }
 
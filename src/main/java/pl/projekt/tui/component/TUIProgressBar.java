@@ -1,22 +1,27 @@
 package pl.projekt.tui.component;
 
 import pl.projekt.tui.model.color.Colors;
+import pl.projekt.tui.model.color.Palette;
 
 /**
  * TUIProgressBar class represents a text-based graphical progress bar component for a TUI (Text-based User Interface).
  * It visualizes progress as a filled bar with a gradient color and displays a percentage text in the center.
+ * While the session's quality is reduced for a slow link the bar is filled with the start color only, as a gradient
+ * makes every cell of the bar a different color that costs bytes on each change.
  */
-public class TUIProgressBar implements TUIComponent {
+public class TUIProgressBar implements TUILayoutable {
 
-    private TUIScreen tuiScreen;
+    TUIScreen tuiScreen;
     private int x, y, width, height;
+    private final int preferredWidth, preferredHeight;  // Size given at construction
     private int zIndex;
     private TUIManager tuiManager;
     private double progress;  // Progress value between 0 and 1
-    private String bgColor = Colors.BG_BLUE.getCode();  // Background color
-    private String fgColorStart = Colors.BG_GREEN.getCode();  // Start color for gradient
-    private String fgColorEnd = Colors.BG_YELLOW.getCode();  // End color for gradient
-    private String textColor = Colors.TEXT_WHITE.getCode();  // Text color for percentage
+    private int bgColor = Colors.BG_BLUE.getColor();  // Background color
+    private int fgColorStart = Colors.BG_GREEN.getColor();  // Start color for gradient
+    private int fgColorEnd = Colors.BG_YELLOW.getColor();  // End color for gradient
+    private int textColor = Colors.TEXT_WHITE.getColor();  // Text color for percentage
+    private final int frameBgColor = Colors.BG_BRIGHT_WHITE.getColor();  // Background of the border, the tab's background
 
     /**
      * Constructor to initialize the progress bar with specified dimensions and initial properties.
@@ -32,6 +37,8 @@ public class TUIProgressBar implements TUIComponent {
         this.y = y;
         this.width = width;
         this.height = height;
+        this.preferredWidth = width;
+        this.preferredHeight = height;
         this.zIndex = zIndex;
         this.tuiManager = tuiManager;
         this.progress = 0.0;  // Initialize progress to 0%
@@ -48,25 +55,10 @@ public class TUIProgressBar implements TUIComponent {
     /**
      * Calculates and returns a gradient color based on the given ratio.
      * @param ratio Ratio indicating the position within the progress bar (0 to 1).
-     * @return String representing the gradient color in hexadecimal format.
+     * @return 24-bit palette color between the start and end colors.
      */
-    private String getGradientColor(double ratio) {
-        // Extract RGB components from start and end gradient colors
-        int redStart = Integer.parseInt(fgColorStart.substring(1, 3), 16);
-        int greenStart = Integer.parseInt(fgColorStart.substring(3, 5), 16);
-        int blueStart = Integer.parseInt(fgColorStart.substring(5, 7), 16);
-
-        int redEnd = Integer.parseInt(fgColorEnd.substring(1, 3), 16);
-        int greenEnd = Integer.parseInt(fgColorEnd.substring(3, 5), 16);
-        int blueEnd = Integer.parseInt(fgColorEnd.substring(5, 7), 16);
-
-        // Calculate interpolated RGB values based on the ratio
-        int red = (int) (redStart + ratio * (redEnd - redStart));
-        int green = (int) (greenStart + ratio * (greenEnd - greenStart));
-        int blue = (int) (blueStart + ratio * (blueEnd - blueStart));
-
-        // Format RGB values to hexadecimal color representation
-        return String.format("#%02X%02X%02X", red, green, blue);
+    private int getGradientColor(double ratio) {
+        return Palette.interpolate(fgColorStart, fgColorEnd, ratio);
     }
 
     /**
@@ -77,17 +69,18 @@ public class TUIProgressBar implements TUIComponent {
     public void drawComponent(TUIManager tuiManager) {
         TUIScreen screen = tuiManager.getScreen();
         int filledWidth = (int) Math.round(width * progress);  // Calculate filled width based on progress
+        boolean gradient = !tuiManager.isReducedQuality();
 
         // Draw filled portion of progress bar with gradient
         for (int i = 0; i < filledWidth; i++) {
             double ratio = (double) i / (double) filledWidth;  // Calculate ratio within filled portion
-            String fgColor = getGradientColor(ratio);  // Get gradient color based on ratio
-            screen.addPixelToLayer(x + i, y, zIndex, new TUIScreenCell(' ', "", fgColor));
+            int fgColor = gradient ? getGradientColor(ratio) : fgColorStart;  // Get gradient color based on ratio
+            screen.addPixelToLayer(x + i, y, zIndex, new TUIScreenCell(' ', textColor, fgColor));
         }
 
         // Draw background for the remaining portion of the progress bar
         for (int i = filledWidth; i < width; i++) {
-            screen.addPixelToLayer(x + i, y, zIndex, new TUIScreenCell(' ', "", bgColor));
+            screen.addPixelToLayer(x + i, y, zIndex, new TUIScreenCell(' ', textColor, bgColor));
         }
 
         // Draw percentage text in the center of the progress bar
@@ -99,7 +92,8 @@ public class TUIProgressBar implements TUIComponent {
             TUIScreenCell cell;
             if (pos < filledWidth) {
                 // Use gradient color within filled portion
-                cell = new TUIScreenCell(percentageText.charAt(i), textColor, getGradientColor((double) pos / (double) filledWidth));
+                int fgColor = gradient ? getGradientColor((double) pos / (double) filledWidth) : fgColorStart;
+                cell = new TUIScreenCell(percentageText.charAt(i), textColor, fgColor);
             } else {
                 // Use background color for remaining portion
                 cell = new TUIScreenCell(percentageText.charAt(i), textColor, bgColor);
@@ -109,11 +103,11 @@ public class TUIProgressBar implements TUIComponent {
 
         // Draw border around the progress bar
         for (int i = 0; i < width; i++) {
-            screen.addPixelToLayer(x + i, y - 1, zIndex, new TUIScreenCell('-', textColor, ""));  // Top border
-            screen.addPixelToLayer(x + i, y + 1, zIndex, new TUIScreenCell('-', textColor, ""));  // Bottom border
+            screen.addPixelToLayer(x + i, y - 1, zIndex, new TUIScreenCell('-', textColor, frameBgColor));  // Top border
+            screen.addPixelToLayer(x + i, y + 1, zIndex, new TUIScreenCell('-', textColor, frameBgColor));  // Bottom border
         }
-        screen.addPixelToLayer(x - 1, y, zIndex, new TUIScreenCell('|', textColor, ""));  // Left border
-        screen.addPixelToLayer(x + width, y, zIndex, new TUIScreenCell('|', textColor, ""));  // Right border
+        screen.addPixelToLayer(x - 1, y, zIndex, new TUIScreenCell('|', textColor, frameBgColor));  // Left border
+        screen.addPixelToLayer(x + width, y, zIndex, new TUIScreenCell('|', textColor, frameBgColor));  // Right border
     }
 
     // Implementations for other methods of TUIComponent interface
@@ -214,4 +208,21 @@ public class TUIProgressBar implements TUIComponent {
         // No action required to hide ProgressBar
     }
 
+    @Override
+    public int getPreferredWidth() {
+        return preferredWidth;
+    }
+
+    @Override
+    public int getPreferredHeight() {
+        return preferredHeight;
+    }
+
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
 }
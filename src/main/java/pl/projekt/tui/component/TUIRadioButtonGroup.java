@@ -2,6 +2,8 @@ package pl.projekt.tui.component;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pl.projekt.tui.metrics.TraceEvent;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -43,7 +45,7 @@ public class TUIRadioButtonGroup {
         for (TUICheckBox checkBox : checkBoxes) {
             if (checkBox == selectedCheckBox) {
                 checkBox.setChecked(true);
-                logger.info("Checkbox selected: {}", checkBox.getLabel());
+                tuiManager.trace(TraceEvent.CHECK_BOX_SELECTED, checkBox.getX(), checkBox.getY());
                 this.selectedCheckBox = checkBox;
             } else {
                 checkBox.setChecked(false);
@@ -1,7 +1,14 @@
 package pl.projekt.tui.component;
 
 import lombok.extern.slf4j.Slf4j;
+import pl.projekt.tui.metrics.EncodeEvent;
+import pl.projekt.tui.metrics.MergeEvent;
+import pl.projekt.tui.metrics.SessionMetrics;
+import pl.projekt.tui.metrics.Trace;
+import pl.projekt.tui.metrics.TraceEvent;
+import pl.projekt.tui.metrics.WriteEvent;
 import pl.projekt.tui.model.color.Colors;
+import pl.projekt.tui.terminal.TerminalCapabilities;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -14,41 +21,113 @@ import java.util.*;
 @Slf4j
 public class TUIScreen {
 
+    private static final TUIScreenCell EMPTY_CELL = new TUIScreenCell(' ', Colors.TEXT_WHITE.getColor(), Colors.BG_WHITE.getColor());
+
     private int width;  // Width of the screen
     private int height;  // Height of the screen
-    private final Map<Integer, TUIScreenCell[][]> layers = new HashMap<>();  // Layers of cells organized by zIndex
-    private TUIScreenCell[][] mergedLayer;  // Merged layer of cells for rendering
+    private int capacityWidth;  // Size of the merged layer array, which only grows, so resizing back and forth reuses it
+    private int capacityHeight;
+    private final Map<Integer, TileLayer> layers = new HashMap<>();  // Sparse layers of cells organized by zIndex
+    private TUIScreenCell[][] mergedLayer;  // Merged layer of cells for rendering, null until it is first needed
+    private final FrameEncoder encoder = new FrameEncoder();  // Encodes frames for the session's terminal
+    private int lastCellsChanged;  // Cells changed by the last refresh, counted while the Merge event is enabled
+    private int lastFrameBytes;  // Size of the last frame written by refresh
+    private long lastWriteNanos;  // Time the write and flush of the last frame took
+    private Trace trace = new Trace(16);  // Trace of the owning session, replaced by TUIManager
+    private int outOfBounds;  // Cells drawn outside the screen since the last refresh
+    private long firstOutOfBounds;  // Position of the first of them, x in the high and y in the low half
+    private boolean outOfBoundsLogged;  // Whether the current size was already reported as too small
 
     /**
-     * Constructor to initialize the screen with specified width and height.
+     * Constructor to initialize the screen with specified width and height. The cell arrays are allocated when
+     * they are first used, so a screen resized before anything is drawn allocates them only for the new size.
      * @param width Width of the screen.
      * @param height Height of the screen.
      */
     public TUIScreen(int width, int height) {
-        this.width = width;
-        this.height = height;
-        this.mergedLayer = new TUIScreenCell[height][width];
-        clearScreen();  // Initialize the merged layer with default cells
+        this.width = this.capacityWidth = width;
+        this.height = this.capacityHeight = height;
+    }
+
+    /**
+     * Returns the merged layer, allocating it filled with default cells on the first call.
+     */
+    private TUIScreenCell[][] merged() {
+        if (mergedLayer == null) {
+            mergedLayer = new TUIScreenCell[capacityHeight][capacityWidth];
+            clearScreen();
+        }
+        return mergedLayer;
     }
 
     /**
      * Merges all layers into a single merged layer for rendering.
+     * Package-private so the rendering benchmarks can measure it on its own.
+     */
+    void mergeLayers() {
+        mergeLayers(false);
+    }
+
+    /**
+     * Merges all layers into a single merged layer: every position shows the cell of the highest layer that has one,
+     * or an empty cell. The layers are merged tile by tile; a layer contributes the cells its occupancy bitmap marks
+     * and that no higher layer covered, and layers without the tile are skipped.
+     * @param countChanges Whether to compare the merged cells with the previous frame.
+     * @return Number of cells differing from the previous frame, 0 if they are not counted.
      */
-    private void mergeLayers() {
-        clearScreen();  // Clear the merged layer before merging
+    int mergeLayers(boolean countChanges) {
         log.trace("Merging layers");
         List<Integer> zIndexes = new ArrayList<>(layers.keySet());
-        zIndexes.sort(Comparator.naturalOrder());  // Sort zIndexes in ascending order
-        for (Integer zIndex : zIndexes) {
-            TUIScreenCell[][] layer = layers.get(zIndex);
-            for (int i = 0; i < height; i++) {
-                for (int j = 0; j < width; j++) {
-                    if (layer[i][j] != null) {
-                        mergedLayer[i][j] = layer[i][j];
+        zIndexes.sort(Comparator.reverseOrder());  // Highest layer first
+        TileLayer[] topDown = new TileLayer[zIndexes.size()];
+        for (int k = 0; k < topDown.length; k++) {
+            topDown[k] = layers.get(zIndexes.get(k));
+        }
+        TUIScreenCell[][] merged = merged();
+        int changed = 0;
+        for (int ty = 0; ty * TileLayer.TILE_HEIGHT < height; ty++) {
+            for (int tx = 0; tx * TileLayer.TILE_WIDTH < width; tx++) {
+                long low = TileLayer.mask(tx, ty, width, height, 0);  // Cells of the tile not covered yet
+                long high = TileLayer.mask(tx, ty, width, height, 1);
+                for (int k = 0; k < topDown.length && (low | high) != 0; k++) {
+                    TUIScreenCell[] tile = topDown[k].tile(tx, ty);
+                    if (tile == null) {
+                        continue;
                     }
+                    long takeLow = low & topDown[k].occupied(tx, ty, 0);
+                    long takeHigh = high & topDown[k].occupied(tx, ty, 1);
+                    changed += compose(tile, takeLow, 0, merged, tx, ty, countChanges);
+                    changed += compose(tile, takeHigh, 64, merged, tx, ty, countChanges);
+                    low &= ~takeLow;
+                    high &= ~takeHigh;
                 }
+                changed += compose(null, low, 0, merged, tx, ty, countChanges);
+                changed += compose(null, high, 64, merged, tx, ty, countChanges);
             }
         }
+        return changed;
+    }
+
+    /**
+     * Copies the cells of a tile marked in one word of a bitmap into the merged layer.
+     * @param tile Cells of the tile, null for empty cells.
+     * @param bits Cells to copy.
+     * @param base Index of the first cell of the word in the tile.
+     * @return Number of copied cells that differ from the previous frame, 0 if they are not counted.
+     */
+    private static int compose(TUIScreenCell[] tile, long bits, int base, TUIScreenCell[][] merged, int tx, int ty, boolean countChanges) {
+        int changed = 0;
+        for (; bits != 0; bits &= bits - 1) {
+            int index = base + Long.numberOfTrailingZeros(bits);
+            int y = ty * TileLayer.TILE_HEIGHT + index / TileLayer.TILE_WIDTH;
+            int x = tx * TileLayer.TILE_WIDTH + index % TileLayer.TILE_WIDTH;
+            TUIScreenCell cell = tile == null ? EMPTY_CELL : tile[index];
+            if (countChanges && !cell.equals(merged[y][x])) {
+                changed++;
+            }
+            merged[y][x] = cell;
+        }
+        return changed;
     }
 
     /**
@@ -58,7 +137,7 @@ public class TUIScreen {
     private void ensureLayerExists(int zIndex) {
         log.trace("Ensuring layer with z-index {} exists", zIndex);
         if (!layers.containsKey(zIndex)) {
-            layers.put(zIndex, new TUIScreenCell[height][width]);
+            layers.put(zIndex, new TileLayer(width, height));
         }
     }
 
@@ -79,13 +158,12 @@ public class TUIScreen {
      * @param cell TUIScreenCell representing the cell to add.
      */
     public void addPixelToLayer(int x, int y, int zIndex, TUIScreenCell cell) {
-        log.trace("Adding cell at ({}, {}) with z-index {}", x, y, zIndex);
         if (x >= width || y >= height || x < 0 || y < 0) {
-            log.warn("\033[33mInvalid position set for pixel {} {} (max: {}, {})\033[0m", x, y, width - 1, height - 1);
+            outOfBounds(x, y);
             return;
         }
         ensureLayerExists(zIndex);
-        layers.get(zIndex)[y][x] = cell;
+        layers.get(zIndex).set(x, y, cell);
     }
 
     /**
@@ -93,9 +171,12 @@ public class TUIScreen {
      */
     public void clearScreen() {
         log.trace("Clearing screen");
+        if (mergedLayer == null) {
+            return;  // Filled with default cells when it is allocated
+        }
         for (int i = 0; i < height; i++) {
             for (int j = 0; j < width; j++) {
-                mergedLayer[i][j] = new TUIScreenCell(' ', Colors.TEXT_WHITE.getCode(), Colors.BG_WHITE.getCode());
+                mergedLayer[i][j] = EMPTY_CELL;
             }
         }
     }
@@ -109,17 +190,16 @@ public class TUIScreen {
      * @param bgColor Background color of the text.
      * @param zIndex zIndex of the layer to set the text on.
      */
-    public void setText(int x, int y, String text, String textColor, String bgColor, int zIndex) {
+    public void setText(int x, int y, String text, int textColor, int bgColor, int zIndex) {
         log.trace("Setting text at ({}, {}) with z-index {}", x, y, zIndex);
         if (x >= width || y >= height || x < 0 || y < 0) {
-            log.warn("\033[33mInvalid position set for text {} {} (max: {}, {})\033[0m", x, y, width - 1, height - 1);
+            outOfBounds(x, y);
             return;
         }
         ensureLayerExists(zIndex);
-        TUIScreenCell[][] targetLayer = layers.get(zIndex);
+        TileLayer targetLayer = layers.get(zIndex);
         for (int i = 0; i < text.length() && x + i < width; i++) {
-            log.trace("Setting character {} at ({}, {})", text.charAt(i), x + i, y);
-            targetLayer[y][x + i] = new TUIScreenCell(text.charAt(i), textColor, bgColor);
+            targetLayer.set(x + i, y, new TUIScreenCell(text.charAt(i), textColor, bgColor));
         }
     }
 
@@ -128,88 +208,239 @@ public class TUIScreen {
      * @param bgColor Background color to set.
      * @param zIndex zIndex of the layer to set the background color on.
      */
-    public void setBgColor(String bgColor, int zIndex) {
+    public void setBgColor(int bgColor, int zIndex) {
         log.trace("Setting background color with z-index {}", zIndex);
         ensureLayerExists(zIndex);
-        TUIScreenCell[][] targetLayer = layers.get(zIndex);
+        TileLayer targetLayer = layers.get(zIndex);
+        TUIScreenCell emptyCell = new TUIScreenCell(' ', Colors.TEXT_BLACK.getColor(), bgColor);  // Shared by every empty position
         for (int i = 0; i < height; i++) {
             for (int j = 0; j < width; j++) {
-                if (targetLayer[i][j] == null) {
-                    log.trace("Setting background color at ({}, {})", j, i);
-                    targetLayer[i][j] = new TUIScreenCell(' ', Colors.TEXT_BLACK.getCode(), bgColor);
+                TUIScreenCell cell = targetLayer.get(j, i);
+                if (cell == null) {
+                    targetLayer.set(j, i, emptyCell);
                 } else {
-                    log.trace("Setting background color at ({}, {})", j, i);
-                    targetLayer[i][j].setBackgroundColor(bgColor);
+                    targetLayer.set(j, i, new TUIScreenCell(cell.getCharacter(), cell.getTextColor(), bgColor));
                 }
             }
         }
     }
 
     /**
-     * Renders the screen content as a string for display.
+     * Renders the screen content as a string for display. The string is always a full frame and does not change
+     * which cells the next {@link #refresh(OutputStream)} sends.
      * @return String representing the rendered screen content.
      */
     public String render() {
+        encodeFull();
+        return encoder.toString();
+    }
+
+    /**
+     * Encodes the merged layer into the frame buffer of the encoder, only the changed cells if the terminal
+     * can move the cursor. Package-private so the rendering benchmarks can measure it on its own.
+     * @return Size of the encoded frame in bytes.
+     */
+    int encode() {
         log.trace("Rendering screen");
-        long start = System.nanoTime();
-        StringBuilder sb = new StringBuilder();
-        sb.append("\033[H");  // Move cursor to the top left corner of the screen
-        for (int i = 0; i < height; i++) {
-            for (int j = 0; j < width; j++) {
-                sb.append(mergedLayer[i][j].getBackgroundColor());
-                sb.append(mergedLayer[i][j].getTextColor());
-                sb.append(mergedLayer[i][j].getCharacter());
-            }
-            sb.append("\033[E");  // Move cursor to the beginning of the next line
-        }
-        sb.append("\033[0m");  // Reset text attributes
-        long stop = System.nanoTime();
-        log.info("Render finished in {} ms", (stop - start) / 1000000.0);
-        return sb.toString();
+        return encoder.encode(merged(), width, height);
+    }
+
+    /**
+     * Encodes every cell of the merged layer into the frame buffer of the encoder, without changing which cells the
+     * next {@link #encode()} sends. Package-private so the rendering benchmarks can measure it on its own.
+     * @return Size of the encoded frame in bytes.
+     */
+    int encodeFull() {
+        return encoder.encodeFull(merged(), width, height);
     }
 
     /**
-     * Refreshes the screen content and writes it to the specified output stream.
+     * Returns the merged layer, by row. Package-private so the rendering benchmarks can change cells between frames
+     * without merging the layers again.
+     * @return Merged cells of the screen.
+     */
+    TUIScreenCell[][] getMergedLayer() {
+        return merged();
+    }
+
+    /**
+     * Refreshes the screen content and writes it to the specified output stream. A frame is written with a single
+     * write and flush, so it is not interleaved with partial flushes; a frame without changes is not written at all.
      * @param out OutputStream to write the rendered screen content.
      * @throws IOException If an I/O error occurs while writing to the output stream.
      */
     public void refresh(OutputStream out) throws IOException {
+        traceOutOfBounds();
         mergeLayers();  // Merge all layers before rendering
-        String rendered = render();  // Render the screen content as a string
-        out.write(rendered.getBytes());  // Write the rendered content to the output stream
-        out.flush();  // Flush the output stream to ensure data is written immediately
+        if (encode() > 0) {  // Encode the screen content into the frame buffer
+            encoder.writeTo(out);  // Write the rendered content to the output stream
+            out.flush();  // Flush the output stream to ensure data is written immediately
+        }
+    }
+
+    /**
+     * Refreshes the screen like {@link #refresh(OutputStream)}, records the merge time and the frame size
+     * and emits the Merge, Encode and Write Flight Recorder events.
+     * @param out OutputStream to write the rendered screen content.
+     * @param metrics Metrics of the session owning the screen.
+     * @throws IOException If an I/O error occurs while writing to the output stream.
+     */
+    public void refresh(OutputStream out, SessionMetrics metrics) throws IOException {
+        traceOutOfBounds();
+        MergeEvent mergeEvent = new MergeEvent();
+        mergeEvent.begin();
+        long start = System.nanoTime();
+        lastCellsChanged = mergeLayers(mergeEvent.isEnabled());
+        metrics.getMergeTime().record(System.nanoTime() - start);
+        if (mergeEvent.shouldCommit()) {
+            mergeEvent.setSession(metrics, width, height);
+            mergeEvent.cellsChanged = lastCellsChanged;
+            mergeEvent.commit();
+        }
+
+        EncodeEvent encodeEvent = new EncodeEvent();
+        encodeEvent.begin();
+        int bytes = encode();
+        if (encodeEvent.shouldCommit()) {
+            encodeEvent.setSession(metrics, width, height);
+            encodeEvent.bytes = bytes;
+            encodeEvent.commit();
+        }
+
+        if (bytes > 0) {
+            WriteEvent writeEvent = new WriteEvent();
+            writeEvent.begin();
+            long writeStart = System.nanoTime();
+            encoder.writeTo(out);
+            out.flush();
+            lastWriteNanos = System.nanoTime() - writeStart;
+            if (writeEvent.shouldCommit()) {
+                writeEvent.setSession(metrics, width, height);
+                writeEvent.bytes = bytes;
+                writeEvent.commit();
+            }
+        } else {
+            lastWriteNanos = 0;
+        }
+        lastFrameBytes = bytes;
+        metrics.getBytesWritten().mark(bytes);
+    }
+
+    /**
+     * Gives the terminal back at the end of a session: shows the cursor hidden by the frames on the last row and
+     * resets the colors. The next refresh sends a full frame.
+     * @param out OutputStream of the session.
+     * @throws IOException If an I/O error occurs while writing to the output stream.
+     */
+    public void restoreTerminal(OutputStream out) throws IOException {
+        encoder.encodeRestore(height);
+        encoder.writeTo(out);
+        out.flush();
+    }
+
+    /**
+     * Sets the trace receiving the events of the screen, e.g. cells drawn outside of it.
+     * @param trace Trace of the session owning the screen.
+     */
+    public void setTrace(Trace trace) {
+        this.trace = trace;
+    }
+
+    /**
+     * Counts a cell drawn outside the screen. The first one after a resize is logged, since it usually means the
+     * terminal is too small for the content; the others are summed up in the trace once per frame.
+     */
+    private void outOfBounds(int x, int y) {
+        if (outOfBounds++ == 0) {
+            firstOutOfBounds = ((long) x << 32) | (y & 0xFFFFFFFFL);
+        }
+        if (!outOfBoundsLogged) {
+            outOfBoundsLogged = true;
+            log.warn("Content does not fit the {}x{} screen, first cell outside at {},{}", width, height, x, y);
+        }
+    }
+
+    private void traceOutOfBounds() {
+        if (outOfBounds > 0) {
+            trace.record(TraceEvent.OUT_OF_BOUNDS, outOfBounds, firstOutOfBounds);
+            outOfBounds = 0;
+        }
+    }
+
+    /**
+     * Returns the number of cells the last {@link #refresh(OutputStream, SessionMetrics)} changed.
+     * @return Changed cells, 0 while the Merge event is disabled.
+     */
+    int getLastCellsChanged() {
+        return lastCellsChanged;
+    }
+
+    /**
+     * Returns the size of the last frame written by {@link #refresh(OutputStream, SessionMetrics)}.
+     * @return Bytes of the frame.
+     */
+    int getLastFrameBytes() {
+        return lastFrameBytes;
+    }
+
+    /**
+     * Returns how long writing and flushing the last frame of {@link #refresh(OutputStream, SessionMetrics)} took,
+     * which is the time the output blocked on a slow link.
+     * @return Nanoseconds, 0 if no frame was written.
+     */
+    long getLastWriteNanos() {
+        return lastWriteNanos;
+    }
+
+    /**
+     * Returns a cell of the merged layer, i.e. what the last refresh sent to the terminal at a position.
+     * @param x Column of the cell.
+     * @param y Row of the cell.
+     * @return The merged cell, a default cell before the first merge.
+     */
+    TUIScreenCell getMergedCell(int x, int y) {
+        return merged()[y][x];
     }
 
     /**
      * Clears all layers by setting all cells in each layer to null.
      */
     public void clearLayers() {
-        for (Integer zIndex : layers.keySet()) {
-            TUIScreenCell[][] layer = layers.get(zIndex);
-            for (int i = 0; i < height; i++) {
-                for (int j = 0; j < width; j++) {
-                    layer[i][j] = null;
-                }
-            }
+        for (TileLayer layer : layers.values()) {
+            layer.clear();
         }
     }
 
     /**
-     * Resizes the screen to the specified width and height.
+     * Resizes the screen to the specified width and height, keeping the content of the layers that still fits.
+     * The layers keep their tiles inside the new size. The merged layer array is reused while the new size fits
+     * into it and grows by at least half when it does not, so the bursts of resizes of a dragged window allocate
+     * little. It is only replaced by a smaller one when less than a quarter of it would be used. A screen that did
+     * not merge yet allocates it later for exactly the new size.
      * @param width New width of the screen.
      * @param height New height of the screen.
      */
     public void resize(int width, int height) {
+        boolean compact = (long) width * height * 4 < (long) capacityWidth * capacityHeight;
+        if (mergedLayer == null) {
+            capacityWidth = width;
+            capacityHeight = height;
+        } else if (width > capacityWidth || height > capacityHeight || compact) {
+            int newCapacityWidth = width > capacityWidth ? Math.max(width, capacityWidth + capacityWidth / 2) : compact ? width : capacityWidth;
+            int newCapacityHeight = height > capacityHeight ? Math.max(height, capacityHeight + capacityHeight / 2) : compact ? height : capacityHeight;
+            mergedLayer = new TUIScreenCell[newCapacityHeight][newCapacityWidth];  // Filled again by the next merge
+            capacityWidth = newCapacityWidth;
+            capacityHeight = newCapacityHeight;
+        }
+        for (TileLayer layer : layers.values()) {
+            layer.resize(width, height);  // Cells outside the screen are dropped, so they do not show up again when it grows
+        }
         this.width = width;
         this.height = height;
-        mergedLayer = new TUIScreenCell[height][width];  // Create a new merged layer with the new dimensions
-        List<Integer> keys = new ArrayList<>(layers.keySet());
-        layers.clear();  // Clear all existing layers
-        for (Integer key : keys) {
-            layers.put(key, new TUIScreenCell[height][width]);  // Create new layers with the new dimensions
-        }
+        outOfBoundsLogged = false;
 
-        clearScreen();  // Clear the screen content after resizing
+        clearScreen();  // The merged layer is filled again by the next merge
+        encoder.invalidate();  // The resized terminal gets a full frame
     }
 
 /**
@@ -224,9 +455,34 @@ public void clearCellAt(int x, int y, int zIndex) {
     }
 
     ensureLayerExists(zIndex);  // Ensure that the layer with the specified zIndex exists
-    layers.get(zIndex)[y][x] = null;  // Clear the cell at the specified position in the layer
+    layers.get(zIndex).set(x, y, null);  // Clear the cell at the specified position in the layer
 }
 
+    /**
+     * Sets what the client's terminal understands, which decides how frames are encoded.
+     * @param capabilities Capabilities of the terminal.
+     */
+    public void setCapabilities(TerminalCapabilities capabilities) {
+        encoder.setCapabilities(capabilities);
+    }
+
+    /**
+     * Sets when frames are encoded in parallel bands of rows, for tests and benchmarks.
+     * @param threshold Cells of the smallest frame encoded in bands.
+     * @param bands Largest number of bands, 1 to always encode serially.
+     */
+    void setParallelism(int threshold, int bands) {
+        encoder.setParallelism(threshold, bands);
+    }
+
+    /**
+     * Returns what the client's terminal understands.
+     * @return Capabilities of the terminal.
+     */
+    public TerminalCapabilities getCapabilities() {
+        return encoder.getCapabilities();
+    }
+
     /**
      * Retrieves the current width of the screen.
      * @return Current width of the screen.
@@ -245,9 +501,9 @@ public void clearCellAt(int x, int y, int zIndex) {
 
     /**
      * Retrieves all layers of cells currently managed by the screen.
-     * @return Map containing zIndex as keys and corresponding TUIScreenCell arrays as values.
+     * @return Map containing zIndex as keys and corresponding sparse layers as values.
      */
-    public Map<Integer, TUIScreenCell[][]> getLayers() {
+    public Map<Integer, TileLayer> getLayers() {
         return layers;
     }
 }
@@ -1,30 +1,33 @@
 package pl.projekt.tui.component;
 
-import lombok.Data;
-import lombok.NonNull;
+import lombok.Value;
+import pl.projekt.tui.model.color.Palette;
 
 /**
  * TUIScreenCell class represents a single cell on a text-based screen in a TUI.
- * It contains a character with specified text and background colors.
+ * It contains a character with specified text and background colors, given as {@link Palette} colors.
+ * Cells are immutable, so a single instance can be shared between layers, screens and sessions.
  */
-@Data
+@Value
 public class TUIScreenCell {
 
-    private char character;  // Character to display in the cell
+    char character;  // Character to display in the cell
 
-    @NonNull
-    private String textColor;  // Text color of the character
+    int textColor;  // Palette color of the character
 
-    @NonNull
-    private String backgroundColor;  // Background color of the cell
+    int backgroundColor;  // Palette color of the cell's background
 
     /**
      * Constructor to initialize a TUIScreenCell with specified character, text color, and background color.
      * @param character Character to display in the cell.
-     * @param textColor Text color of the character.
-     * @param backgroundColor Background color of the cell.
+     * @param textColor Palette color of the character.
+     * @param backgroundColor Palette color of the background.
+     * @throws IllegalArgumentException If a color is not a {@link Palette} color.
      */
-    public TUIScreenCell(char character, @NonNull String textColor, @NonNull String backgroundColor) {
+    public TUIScreenCell(char character, int textColor, int backgroundColor) {
+        if (!Palette.isValid(textColor) || !Palette.isValid(backgroundColor)) {
+            throw new IllegalArgumentException("Invalid cell colors " + textColor + "/" + backgroundColor);
+        }
         this.character = character;
         this.textColor = textColor;
         this.backgroundColor = backgroundColor;
@@ -0,0 +1,196 @@
+package pl.projekt.tui.component;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * TUIStaticImage is a pre-rasterized, immutable block of cells produced from static components such as labels and borders.
+ * The cells are computed once and can be shared by any number of screens, so drawing the image only copies references
+ * into the target layer instead of rebuilding the original components.
+ */
+@Slf4j
+public final class TUIStaticImage implements TUIComponent {
+
+    private final int x, y, width, height;  // Bounding box of the rasterized cells
+    private final int zIndex;  // Layer the cells are drawn on
+    private final int[] columns;  // Column of every cell, relative to x
+    private final int[] rows;  // Row of every cell, relative to y
+    private final TUIScreenCell[] cells;  // Shared, immutable cells
+
+    private TUIStaticImage(int x, int y, int width, int height, int zIndex, int[] columns, int[] rows, TUIScreenCell[] cells) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.zIndex = zIndex;
+        this.columns = columns;
+        this.rows = rows;
+        this.cells = cells;
+    }
+
+    /**
+     * Draws the given components onto a scratch screen and captures the result as one image per used layer.
+     * The components are drawn in list order, so later components overwrite earlier ones exactly as they would in a tab.
+     *
+     * @param components Static components to rasterize.
+     * @return Images in ascending layer order; empty if the components did not draw anything.
+     */
+    public static List<TUIStaticImage> rasterize(List<? extends TUIComponent> components) {
+        int screenWidth = 1;
+        int screenHeight = 1;
+        for (TUIComponent component : components) {
+            screenWidth = Math.max(screenWidth, component.getX() + component.getWidth() + 2);
+            screenHeight = Math.max(screenHeight, component.getY() + component.getHeight() + 2);
+        }
+
+        TUIScreen scratch = new TUIScreen(screenWidth, screenHeight);
+        TUIManager scratchManager = new TUIManager(scratch, null);
+        for (TUIComponent component : components) {
+            component.drawComponent(scratchManager);
+        }
+
+        List<TUIStaticImage> images = new ArrayList<>();
+        for (Map.Entry<Integer, TileLayer> layer : new TreeMap<>(scratch.getLayers()).entrySet()) {
+            TUIStaticImage image = capture(layer.getValue(), screenWidth, screenHeight, layer.getKey());
+            if (image != null) {
+                images.add(image);
+            }
+        }
+        log.debug("Rasterized {} static components into {} images", components.size(), images.size());
+        return images;
+    }
+
+    /**
+     * Captures the non-empty cells of a layer into a compact image.
+     */
+    private static TUIStaticImage capture(TileLayer layer, int screenWidth, int screenHeight, int zIndex) {
+        int count = 0;
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = -1, maxY = -1;
+        for (int i = 0; i < screenHeight; i++) {
+            for (int j = 0; j < screenWidth; j++) {
+                if (layer.get(j, i) != null) {
+                    count++;
+                    minX = Math.min(minX, j);
+                    minY = Math.min(minY, i);
+                    maxX = Math.max(maxX, j);
+                    maxY = Math.max(maxY, i);
+                }
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+
+        int[] columns = new int[count];
+        int[] rows = new int[count];
+        TUIScreenCell[] cells = new TUIScreenCell[count];
+        int index = 0;
+        for (int i = minY; i <= maxY; i++) {
+            for (int j = minX; j <= maxX; j++) {
+                if (layer.get(j, i) != null) {
+                    columns[index] = j - minX;
+                    rows[index] = i - minY;
+                    cells[index] = layer.get(j, i);
+                    index++;
+                }
+            }
+        }
+        return new TUIStaticImage(minX, minY, maxX - minX + 1, maxY - minY + 1, zIndex, columns, rows, cells);
+    }
+
+    /**
+     * Copies the shared cells into the screen layer.
+     *
+     * @param tuiManager The manager whose screen receives the cells.
+     */
+    @Override
+    public void drawComponent(TUIManager tuiManager) {
+        TUIScreen screen = tuiManager.getScreen();
+        for (int i = 0; i < cells.length; i++) {
+            screen.addPixelToLayer(x + columns[i], y + rows[i], zIndex, cells[i]);
+        }
+    }
+
+    /**
+     * Returns the number of cells held by the image.
+     *
+     * @return The cell count.
+     */
+    public int getCellCount() {
+        return cells.length;
+    }
+
+    @Override
+    public int getX() {
+        return x;
+    }
+
+    @Override
+    public int getY() {
+        return y;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getZIndex() {
+        return zIndex;
+    }
+
+    @Override
+    public void performAction() {
+        // Static images have no action
+    }
+
+    @Override
+    public void show() {
+        // Static images are drawn by the tab that owns them
+    }
+
+    @Override
+    public void setActive(boolean active) {
+        // Static images are never active
+    }
+
+    @Override
+    public boolean isComponentActive() {
+        return false;
+    }
+
+    @Override
+    public void highlightComponent() {
+        // Static images cannot be highlighted
+    }
+
+    @Override
+    public void resetHighlightComponent() {
+        // Static images cannot be highlighted
+    }
+
+    @Override
+    public boolean isInteractable() {
+        return false;
+    }
+
+    @Override
+    public void windowResized(int width, int height) {
+        // Static images keep their rasterized position
+    }
+
+    @Override
+    public void hide() {
+        // Static images are removed together with the tab that owns them
+    }
+}
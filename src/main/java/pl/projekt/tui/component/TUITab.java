@@ -2,7 +2,10 @@ package pl.projekt.tui.component;
 
 import lombok.extern.slf4j.Slf4j;
 import pl.projekt.tui.model.color.Colors;
+import pl.projekt.tui.layout.LayoutNode;
+import pl.projekt.tui.model.keys.KeyBindings;
 import pl.projekt.tui.model.keys.KeyInfo;
+import pl.projekt.tui.model.keys.KeyLabel;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -15,16 +18,22 @@ import java.util.List;
 public class TUITab implements TUIComponent {
 
     private final String title;  // Title of the tab
-    private String textColor = Colors.TEXT_BLACK.getCode();  // Text color of the tab
-    private final String backgroundColor = Colors.BG_BRIGHT_WHITE.getCode();  // Background color of the tab
-    private final String tabColor = "\033[33m";  // Color for rendering the tab header
+    private int textColor;  // Text color of the tab
+    private final int backgroundColor = Colors.BG_BRIGHT_WHITE.getColor();  // Background color of the tab
+    private final int tabColor = Colors.BG_YELLOW.getColor();  // Color for rendering the tab header
     private final List<TUIComponent> components = new ArrayList<>();  // List of components within the tab
-    private final int x, y;  // Position of the tab on the screen
+    private final int defaultX, defaultY;  // Position of the tab header given at construction
+    private int x, y;  // Position of the tab header on the screen
+    private int contentY;  // First row below the headers of all tabs, where the components start
     private int width, height;  // Dimensions of the tab
-    private int currentActiveComponent = -1;  // Index of the currently active component
+    private final TUIFocusManager focusManager = new TUIFocusManager(components);  // Focus ring and arrow-key neighbours
     private final int layerIndex;  // Layer index for rendering
     private final TUIManager TUIManager;  // Reference to the TUIManager for managing UI components
     private boolean isActive;  // Flag indicating if the tab is currently active
+    private LayoutNode layout;  // Optional layout positioning the components below the tab headers
+    private final KeyBindings keyBindings = new KeyBindings();  // Keys handled by the tab when the focused component ignores them
+    private TUIScreenCell contentCell;  // Cell filling the area of the active tab, shared by all its cells
+    private TUIScreenCell[] headerCells;  // Cells of the tab header, built again only when the text color changes
 
     /**
      * Constructor to initialize a TUITab with specified title, position, dimensions, layer index, and TUIManager reference.
@@ -37,14 +46,62 @@ public class TUITab implements TUIComponent {
      * @param TUIManager Reference to the TUIManager for managing UI components.
      */
     public TUITab(String title, int x, int y, int windowWidth, int windowHeight, int layerIndex, TUIManager TUIManager) {
-        this.x = x;
-        this.y = y;
+        this.x = this.defaultX = x;
+        this.y = this.defaultY = y;
+        this.contentY = y + 1;
         this.width = windowWidth;
         this.height = windowHeight;
         this.layerIndex = layerIndex;
         this.TUIManager = TUIManager;
         this.title = title;
         this.isActive = false;
+        setTextColor(Colors.TEXT_BLACK.getColor());
+        initializeKeyBindings();
+    }
+
+    /**
+     * Sets the text color and builds the cells drawn with it, so drawing the tab allocates no cells.
+     * @param color Palette color of the text.
+     */
+    private void setTextColor(int color) {
+        textColor = color;
+        contentCell = new TUIScreenCell(' ', textColor, backgroundColor);
+        headerCells = new TUIScreenCell[getHeaderWidth()];
+        for (int i = 0; i < headerCells.length; ++i) {
+            char character = i >= 2 && i < title.length() + 2 ? title.charAt(i - 2) : ' ';
+            headerCells[i] = new TUIScreenCell(character, textColor, tabColor);
+        }
+    }
+
+    /**
+     * Defines the focus actions of the tab and binds the arrow keys and Enter to them.
+     */
+    private void initializeKeyBindings() {
+        keyBindings
+                .defineAction("focusNext", keyInfo -> focusManager.focusNext())
+                .defineAction("focusPrevious", keyInfo -> focusManager.focusPrevious())
+                .defineAction("focusDown", keyInfo -> {
+                    if (!focusManager.focus(TUIFocusManager.Direction.DOWN))
+                        focusManager.focusNext();
+                })
+                .defineAction("focusUp", keyInfo -> {
+                    if (!focusManager.focus(TUIFocusManager.Direction.UP))
+                        focusManager.focusPrevious();
+                })
+                .defineAction("focusLeft", keyInfo -> focusManager.focus(TUIFocusManager.Direction.LEFT))
+                .defineAction("focusRight", keyInfo -> focusManager.focus(TUIFocusManager.Direction.RIGHT))
+                .defineAction("activate", keyInfo -> {
+                    TUIComponent focused = focusManager.getFocused();
+                    if (focused != null)
+                        focused.performAction();
+                });
+        keyBindings
+                .bind(KeyLabel.ARROW_DOWN, "focusDown")
+                .bind(KeyLabel.ARROW_UP, "focusUp")
+                .bind(KeyLabel.ARROW_LEFT, "focusLeft")
+                .bind(KeyLabel.ARROW_RIGHT, "focusRight")
+                .bind(KeyLabel.ENTER, "activate")
+                .bind(KeyLabel.ENTER_ALT, "activate");
     }
 
     /**
@@ -53,24 +110,24 @@ public class TUITab implements TUIComponent {
      */
     @Override
     public void drawComponent(TUIManager TUIManager) {
-        // Render tab header
+        // Lay the components out again when one of them changed its size since the last frame
+        if (isActive && layout != null && !layout.isLayoutValid()) {
+            applyLayout();
+        }
+
+        // Render tab background
         if (isActive) {
             for (int i = 0; i < width; ++i) {
-                for (int j = y + 1; j < height; ++j) {
-                    TUIScreenCell emptyCell = new TUIScreenCell(' ', textColor, backgroundColor);
-                    TUIManager.getScreen().addPixelToLayer(i, j, layerIndex, emptyCell);
+                for (int j = contentY; j < height; ++j) {
+                    TUIManager.getScreen().addPixelToLayer(i, j, layerIndex, contentCell);
                 }
             }
         }
-        TUIManager.getScreen().addPixelToLayer(x, y, layerIndex, new TUIScreenCell(' ', textColor, tabColor));
-        TUIManager.getScreen().addPixelToLayer(x + 1, y, layerIndex, new TUIScreenCell(' ', textColor, tabColor));
 
-        // Render tab title
-        for (int i = 0; i < title.length(); ++i) {
-            TUIManager.getScreen().addPixelToLayer(x + 2 + i, y, layerIndex, new TUIScreenCell(title.charAt(i), textColor, tabColor));
+        // Render tab header with the title
+        for (int i = 0; i < headerCells.length; ++i) {
+            TUIManager.getScreen().addPixelToLayer(x + i, y, layerIndex, headerCells[i]);
         }
-        TUIManager.getScreen().addPixelToLayer(x + title.length() + 2, y, layerIndex, new TUIScreenCell(' ', textColor, tabColor));
-        TUIManager.getScreen().addPixelToLayer(x + title.length() + 3, y, layerIndex, new TUIScreenCell(' ', textColor, tabColor));
 
         // Render components within the tab if active
         if (isActive) {
@@ -87,6 +144,7 @@ public class TUITab implements TUIComponent {
     public void addComponent(TUIComponent component) {
         log.debug("Adding UI component " + component.getClass().getSimpleName());
         components.add(component);
+        focusManager.invalidate();
     }
 
     /**
@@ -134,6 +192,45 @@ public class TUITab implements TUIComponent {
         return y;
     }
 
+    /**
+     * Retrieves the X-coordinate position the tab header was created with.
+     * @return X-coordinate position of the header when all headers fit the screen.
+     */
+    public int getDefaultX() {
+        return defaultX;
+    }
+
+    /**
+     * Retrieves the Y-coordinate position the tab header was created with.
+     * @return Y-coordinate position of the header when all headers fit the screen.
+     */
+    public int getDefaultY() {
+        return defaultY;
+    }
+
+    /**
+     * Retrieves the width of the tab header, the title with two cells of padding on each side.
+     * @return Width of the tab header.
+     */
+    public int getHeaderWidth() {
+        return title.length() + 4;
+    }
+
+    /**
+     * Moves the tab header, e.g. to another row when the headers of all tabs do not fit the width of the screen.
+     * @param x X-coordinate position of the header.
+     * @param y Y-coordinate position of the header.
+     * @param contentY First row below the headers of all tabs, where the components of the tab start.
+     */
+    public void placeHeader(int x, int y, int contentY) {
+        this.x = x;
+        this.y = y;
+        if (this.contentY != contentY) {
+            this.contentY = contentY;
+            applyLayout();
+        }
+    }
+
     /**
      * Retrieves the width of the tab.
      * @return Width of the tab.
@@ -180,7 +277,7 @@ public class TUITab implements TUIComponent {
      */
     @Override
     public void highlightComponent() {
-        textColor = Colors.TEXT_RED.getCode();  // Change text color to highlight
+        setTextColor(Colors.TEXT_RED.getColor());  // Change text color to highlight
         isActive = true;  // Set tab as active
         TUIManager.refresh();  // Refresh the TUIManager to reflect changes
     }
@@ -190,7 +287,7 @@ public class TUITab implements TUIComponent {
      */
     @Override
     public void resetHighlightComponent() {
-        textColor = Colors.TEXT_BLACK.getCode();  // Reset text color to default
+        setTextColor(Colors.TEXT_BLACK.getColor());  // Reset text color to default
         isActive = false;  // Set tab as inactive
         TUIManager.refresh();  // Refresh the TUIManager to reflect changes
     }
@@ -216,113 +313,66 @@ public class TUITab implements TUIComponent {
         for (TUIComponent component : components) {
             component.windowResized(width, height);
         }
+        applyLayout();
     }
 
     /**
-     * Placeholder method for hiding the tab (currently not implemented).
+     * Sets the layout positioning the components of the tab in the area below the tab headers.
+     * The components still have to be added with {@link #addComponent(TUIComponent)}; the layout only places them.
+     * @param layout Root of the layout tree, or null to keep the positions of the components.
      */
-    @Override
-    public void hide() {
-        // Placeholder method for hiding the tab (currently not implemented)
+    public void setLayout(LayoutNode layout) {
+        this.layout = layout;
+        applyLayout();
     }
 
     /**
-     * Helper method to highlight the active component within the tab.
+     * Lays out the components for the current size of the tab. Cached measurements are reused,
+     * so only the parts of the layout affected by a size change are recomputed.
      */
-    private void highlightActiveComponent() {
-        log.info("Highlighting active component.");
-        for (TUIComponent component : components) {
-            if (component.isComponentActive()) {
-                component.highlightComponent();
-            } else {
-                component.resetHighlightComponent();
-            }
+    private void applyLayout() {
+        if (layout != null) {
+            layout.layout(0, contentY, width, Math.max(0, height - contentY));
+            focusManager.invalidate();  // Neighbours depend on the positions
         }
     }
 
     /**
-     * Helper method to move focus to the next active component within the tab.
+     * Placeholder method for hiding the tab (currently not implemented).
      */
-    private void moveToNextActiveComponent() {
-        if (components.isEmpty()) {
-            log.info("No components to activate.");
-            return;
-        }
-        if (currentActiveComponent >= components.size()) {
-            log.warn("Current active component index out of bounds. Resetting to first component.");
-            this.currentActiveComponent = -1;
-        }
-        if (currentActiveComponent != -1) {
-            components.get(currentActiveComponent).setActive(false);
-            log.info("Deactivating current active component.");
-        }
-        int startComponent = currentActiveComponent == -1 ? (components.size() - 1) : currentActiveComponent;
-        log.info("Starting from: " + startComponent);
-        do {
-            currentActiveComponent = (currentActiveComponent + 1) % components.size();
-        } while (!components.get(currentActiveComponent).isInteractable() && currentActiveComponent != startComponent);
-
-        components.get(currentActiveComponent).setActive(true);
+    @Override
+    public void hide() {
+        // Placeholder method for hiding the tab (currently not implemented)
     }
 
-/**
- * Helper method to move focus to the previous active component within the tab.
- */
-private void moveToPrevActiveComponent() {
-    if (components.isEmpty()) {
-        log.info("No components to activate.");
-        return;
-    }
-    if (currentActiveComponent >= components.size()) {
-        log.warn("Current active component index out of bounds. Resetting to first component.");
-        currentActiveComponent = -1;
+    /**
+     * Method to handle keyboard input for the tab. The focused component gets the key first,
+     * keys it does not consume are looked up in the bindings of the tab.
+     * @param keyInfo KeyInfo object containing information about the key pressed.
+     * @return True if the key was handled, false if it should bubble to the manager.
+     */
+    public boolean handleKeyboardInput(KeyInfo keyInfo) {
+        TUIComponent focused = focusManager.getFocused();
+        if (isActive && focused != null && focused.handleKey(keyInfo)) {
+            return true;
+        }
+        return keyBindings.dispatch(keyInfo);
     }
 
-    if (currentActiveComponent != -1) {
-        components.get(currentActiveComponent).setActive(false);
-        log.info("Deactivating current active component.");
+    /**
+     * Returns the key bindings of the tab.
+     * @return Key bindings handling focus movement and activation.
+     */
+    public KeyBindings getKeyBindings() {
+        return keyBindings;
     }
-    int startComponent = currentActiveComponent == -1 ? 0 : currentActiveComponent;
-    do {
-        currentActiveComponent = (currentActiveComponent - 1);
-        if (currentActiveComponent < 0)
-            currentActiveComponent = components.size() - 1;
-    } while (!components.get(currentActiveComponent).isInteractable() && currentActiveComponent != startComponent);
-
-    components.get(currentActiveComponent).setActive(true);
-}
 
     /**
-     * Method to handle keyboard input for the tab, directing actions based on the key pressed.
-     * @param keyInfo KeyInfo object containing information about the key pressed.
+     * Returns the component that has the focus.
+     * @return The focused component, or null if no component is focused.
      */
-    public void handleKeyboardInput(KeyInfo keyInfo) {
-        switch (keyInfo.getLabel()) {
-            case ARROW_DOWN:
-                moveToNextActiveComponent();
-                break;
-            case ARROW_UP:
-                moveToPrevActiveComponent();
-                break;
-            case ENTER, ENTER_ALT:
-                if (currentActiveComponent != -1)
-                    components.get(currentActiveComponent).performAction();
-                break;
-            default:
-                if (isActive && currentActiveComponent != -1) {
-                    if (components.get(currentActiveComponent) instanceof TUITextField activeField) {
-                        log.info("Adding text value to field");
-                        activeField.addText(keyInfo);
-                    } else if (components.get(currentActiveComponent) instanceof TUIDialog dialogWindow && !dialogWindow.isCancelled()){
-                        log.info("Dialog window");
-                        dialogWindow.handleKeyboardInput(keyInfo);
-                    }
-
-                }
-                break;
-        }
-
-        highlightActiveComponent();  // Highlight the active component after handling input
+    public TUIComponent getFocusedComponent() {
+        return focusManager.getFocused();
     }
 
     /**
@@ -330,8 +380,9 @@ private void moveToPrevActiveComponent() {
      * @param component UI component to remove.
      */
     public void removeComponent(TUIComponent component) {
-        currentActiveComponent = -1;  // Reset current active component index
+        focusManager.clear();  // Reset the focused component
         this.components.remove(component);  // Remove the specified component
+        focusManager.invalidate();
     }
 
     /**
@@ -354,7 +405,7 @@ private void moveToPrevActiveComponent() {
      * Getter for retrieving the text color of the tab.
      * @return Text color of the tab.
      */
-    public String getTextColor() {
+    public int getTextColor() {
         return textColor;
     }
 }
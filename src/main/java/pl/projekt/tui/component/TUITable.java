@@ -3,24 +3,35 @@ package pl.projekt.tui.component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pl.projekt.tui.model.color.Colors;
+import pl.projekt.tui.model.keys.KeyBindings;
+import pl.projekt.tui.model.keys.KeyInfo;
+import pl.projekt.tui.model.keys.KeyLabel;
 
 import java.util.List;
 
 /**
  * Represents a table component in a text-based user interface (TUI).
+ * An active table taller than the window scrolls by a row with the arrow keys and by a window with Page Up and Page Down.
  */
-public class TUITable implements TUIComponent {
+public class TUITable implements TUILayoutable {
 
-    private final int x;
-    private final int y;
+    private static final int ROW_LINES = 2;  // A row and the separator below it
+
+    private int x;
+    private int y;
+    private final int initialX, initialY;  // Position requested by the owner, kept when the window grows again
     private int cols;
     private List<String> cells;
-    private String bgColor = Colors.BG_BLUE.getCode();
-    private String textColor = Colors.TEXT_BLACK.getCode();
+    private int bgColor = Colors.BG_BLUE.getColor();
+    private int textColor = Colors.TEXT_BLACK.getColor();
     private final int zIndex;
     private final TUIScreen tuiScreen;
     private final TUIManager tuiManager;
-    private String[] drawnLines;
+    private String[] drawnLines;  // Rendered table, built on first use and again after the cells change
+    private int firstLine;  // First line shown, the lines above it are scrolled out of view
+    private int visibleLines = Integer.MAX_VALUE;  // Lines that fit in the window below the table
+    private final KeyBindings keyBindings = new KeyBindings();  // Scroll keys, handled while the table does not fit
+    private Runnable sizeListener = () -> {};  // Notified when new cells change the size of the table
 
     private boolean isActive;
     private final Logger logger = LoggerFactory.getLogger(TUITable.class);
@@ -37,13 +48,57 @@ public class TUITable implements TUIComponent {
      * @param tuiManager TUIManager object for managing components.
      */
     public TUITable(int x, int y, int cols, List<String> cells, int zIndex, TUIScreen tuiScreen, TUIManager tuiManager) {
-        this.x = x;
-        this.y = y;
+        this.x = this.initialX = x;
+        this.y = this.initialY = y;
         this.cols = cols;
         this.cells = cells;
         this.zIndex = zIndex;
         this.tuiScreen = tuiScreen;
         this.tuiManager = tuiManager;
+        initializeKeyBindings();
+    }
+
+    /**
+     * Defines the scroll actions of the table and binds the arrow and page keys to them.
+     */
+    private void initializeKeyBindings() {
+        keyBindings
+                .defineAction("scrollUp", keyInfo -> scrollBy(-ROW_LINES))
+                .defineAction("scrollDown", keyInfo -> scrollBy(ROW_LINES))
+                .defineAction("pageUp", keyInfo -> scrollBy(-pageLines()))
+                .defineAction("pageDown", keyInfo -> scrollBy(pageLines()));
+        keyBindings
+                .bind(KeyLabel.ARROW_UP, "scrollUp")
+                .bind(KeyLabel.ARROW_DOWN, "scrollDown")
+                .bind(KeyLabel.PAGE_UP, "pageUp")
+                .bind(KeyLabel.PAGE_DOWN, "pageDown");
+    }
+
+    /**
+     * Returns the lines a page scrolls, the whole rows that fit in the window less one, so a row stays in view.
+     */
+    private int pageLines() {
+        return Math.max(ROW_LINES, (visibleLines - ROW_LINES) / ROW_LINES * ROW_LINES);
+    }
+
+    /**
+     * Scrolls the table with the bound keys while it is active and taller than the window.
+     *
+     * @param keyInfo The pressed key.
+     * @return True if the key scrolls the table, false to let it bubble.
+     */
+    @Override
+    public boolean handleKey(KeyInfo keyInfo) {
+        return isActive && getDrawnLines().length > visibleLines && keyBindings.dispatch(keyInfo);
+    }
+
+    /**
+     * Returns the key bindings of the table.
+     *
+     * @return Key bindings scrolling the table.
+     */
+    public KeyBindings getKeyBindings() {
+        return keyBindings;
     }
 
     /**
@@ -53,6 +108,63 @@ public class TUITable implements TUIComponent {
      */
     @Override
     public void drawComponent(TUIManager tuiManager) {
+        // Print each visible line at the correct y position on the TUIScreen
+        String[] drawnLines = getDrawnLines();
+        int count = Math.min(drawnLines.length - firstLine, visibleLines);
+        for (int i = 0; i < count; i++) {
+            tuiScreen.setText(x, y + i, drawnLines[firstLine + i], textColor, bgColor, zIndex);
+        }
+    }
+
+    /**
+     * Scrolls the table by a number of lines, e.g. by 2 for the next row and its separator. A table taller than
+     * the window shows the lines that fit, and scrolling stops when its last line is at the bottom of the window.
+     *
+     * @param lines Lines to scroll down, negative to scroll up.
+     * @return True if the table moved.
+     */
+    public boolean scrollBy(int lines) {
+        int total = getDrawnLines().length;
+        int first = Math.max(0, Math.min(firstLine + lines, total - Math.min(total, visibleLines)));
+        if (first == firstLine) {
+            return false;
+        }
+        firstLine = first;
+        tuiManager.refresh();
+        return true;
+    }
+
+    /**
+     * Replaces the cells of the table. The table is rendered again and a table placed by a layout
+     * asks for a new layout, since its size follows the cells.
+     *
+     * @param cells New cells, row by row.
+     */
+    public void setCells(List<String> cells) {
+        this.cells = cells;
+        drawnLines = null;
+        firstLine = Math.max(0, Math.min(firstLine, getDrawnLines().length - visibleLines));
+        sizeListener.run();
+    }
+
+    /**
+     * Returns the first line of the table that is shown.
+     *
+     * @return Index of the line, 0 if the table is not scrolled.
+     */
+    public int getFirstLine() {
+        return firstLine;
+    }
+
+    /**
+     * Returns the lines of the rendered table, building them on first use.
+     *
+     * @return Lines of the table.
+     */
+    private String[] getDrawnLines() {
+        if (drawnLines != null) {
+            return drawnLines;
+        }
         char HORIZONTAL_BORDER = '-';
         char VERTICAL_BORDER = '|';
         char CORNER = '+';
@@ -118,11 +230,7 @@ public class TUITable implements TUIComponent {
 
         // Split the drawn table into lines
         drawnLines = tableBuilder.toString().split("\n");
-
-        // Print each line at the correct y position on the TUIScreen
-        for (int i = 0; i < drawnLines.length; i++) {
-            tuiScreen.setText(x, y + i, drawnLines[i], textColor, bgColor, zIndex);
-        }
+        return drawnLines;
     }
 
     /**
@@ -152,7 +260,7 @@ public class TUITable implements TUIComponent {
      */
     @Override
     public int getWidth() {
-        return 0; // Width can be calculated dynamically based on the content
+        return cells.isEmpty() ? 0 : getDrawnLines()[0].length();
     }
 
     /**
@@ -162,7 +270,7 @@ public class TUITable implements TUIComponent {
      */
     @Override
     public int getHeight() {
-        return 0; // Height can be calculated dynamically based on the content
+        return cells.isEmpty() ? 0 : Math.min(getDrawnLines().length, visibleLines);
     }
 
     /**
@@ -248,7 +356,12 @@ public class TUITable implements TUIComponent {
      */
     @Override
     public void windowResized(int width, int height) {
-        // Implement logic to handle window resize if needed
+        // Keep the table inside the window, moving it back towards its requested position when there is room
+        x = Math.max(0, Math.min(initialX, width - getWidth()));
+        y = Math.max(0, Math.min(initialY, height - getDrawnLines().length));
+        // Lines that do not fit below the table are scrolled into view instead of drawn outside the window
+        visibleLines = Math.max(1, height - y);
+        firstLine = Math.max(0, Math.min(firstLine, getDrawnLines().length - visibleLines));
     }
 
     /**
@@ -259,4 +372,48 @@ public class TUITable implements TUIComponent {
         logger.info("Table component hidden");
         tuiManager.removeComponent(this);
     }
+
+    /**
+     * Returns the width of the rendered table.
+     *
+     * @return Preferred width.
+     */
+    @Override
+    public int getPreferredWidth() {
+        return getWidth();
+    }
+
+    /**
+     * Returns the height of the rendered table.
+     *
+     * @return Preferred height.
+     */
+    @Override
+    public int getPreferredHeight() {
+        return getHeight();
+    }
+
+    /**
+     * Sets the callback run when new cells change the size of the table.
+     *
+     * @param listener The callback to run.
+     */
+    @Override
+    public void setSizeListener(Runnable listener) {
+        this.sizeListener = listener;
+    }
+
+    /**
+     * Moves the table. Its size always follows the cells.
+     *
+     * @param x      New X-coordinate position.
+     * @param y      New Y-coordinate position.
+     * @param width  Ignored, the width follows the cells.
+     * @param height Ignored, the height follows the cells.
+     */
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+    }
 }
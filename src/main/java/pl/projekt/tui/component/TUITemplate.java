@@ -0,0 +1,156 @@
+package pl.projekt.tui.component;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * TUITemplate holds the static part of a user interface: the tab headers and the pre-rasterized cells of every
+ * static component in each tab. A template is built once and shared by all sessions; each session calls
+ * {@link #instantiate(TUIManager, int, int)} to get its own lightweight tabs that reference the shared cells
+ * and only carry mutable state such as focus and the interactive components added afterwards.
+ */
+@Slf4j
+public final class TUITemplate {
+
+    private final List<TabTemplate> tabs;  // Immutable tab definitions in display order
+
+    private TUITemplate(List<TabTemplate> tabs) {
+        this.tabs = Collections.unmodifiableList(tabs);
+    }
+
+    /**
+     * Creates a builder for a new template.
+     *
+     * @return A new, empty builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates the tabs of one session. Every returned tab already contains the shared static images of its template,
+     * interactive components can be added to it before it is registered with {@link TUIManager#addTab(TUITab)}.
+     *
+     * @param tuiManager The session's manager.
+     * @param width      Current width of the session's screen.
+     * @param height     Current height of the session's screen.
+     * @return New tabs in template order.
+     */
+    public List<TUITab> instantiate(TUIManager tuiManager, int width, int height) {
+        List<TUITab> instances = new ArrayList<>(tabs.size());
+        for (TabTemplate tab : tabs) {
+            TUITab instance = new TUITab(tab.title, tab.x, tab.y, width, height, tab.layerIndex, tuiManager);
+            for (TUIStaticImage image : tab.images) {
+                instance.addComponent(image);
+            }
+            instances.add(instance);
+        }
+        return instances;
+    }
+
+    /**
+     * Returns the number of tabs in the template.
+     *
+     * @return The tab count.
+     */
+    public int getTabCount() {
+        return tabs.size();
+    }
+
+    /**
+     * Returns the number of shared cells across all tabs of the template.
+     *
+     * @return The cell count.
+     */
+    public int getCellCount() {
+        int count = 0;
+        for (TabTemplate tab : tabs) {
+            for (TUIStaticImage image : tab.images) {
+                count += image.getCellCount();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Immutable definition of a single tab.
+     */
+    private static final class TabTemplate {
+        private final String title;
+        private final int x, y, layerIndex;
+        private final List<TUIStaticImage> images;
+
+        private TabTemplate(String title, int x, int y, int layerIndex, List<TUIStaticImage> images) {
+            this.title = title;
+            this.x = x;
+            this.y = y;
+            this.layerIndex = layerIndex;
+            this.images = Collections.unmodifiableList(images);
+        }
+    }
+
+    /**
+     * Builder collecting tabs and their static components. Static components only need to be drawable:
+     * they can be created without a {@link TUIManager} because they are never shown directly.
+     */
+    public static final class Builder {
+
+        private final List<String> titles = new ArrayList<>();
+        private final List<int[]> positions = new ArrayList<>();
+        private final List<List<TUIComponent>> staticComponents = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a tab header.
+         *
+         * @param title      Title of the tab.
+         * @param x          X-coordinate of the tab header.
+         * @param y          Y-coordinate of the tab header.
+         * @param layerIndex Layer index of the tab.
+         * @return Index of the new tab, used by {@link #addStatic(int, TUIComponent)}.
+         */
+        public int addTab(String title, int x, int y, int layerIndex) {
+            titles.add(title);
+            positions.add(new int[]{x, y, layerIndex});
+            staticComponents.add(new ArrayList<>());
+            return titles.size() - 1;
+        }
+
+        /**
+         * Adds a static component to a tab. The same component may be added to several tabs.
+         *
+         * @param tabIndex  Index returned by {@link #addTab(String, int, int, int)}.
+         * @param component Component that never changes after the template is built.
+         * @return This builder.
+         */
+        public Builder addStatic(int tabIndex, TUIComponent component) {
+            staticComponents.get(tabIndex).add(component);
+            return this;
+        }
+
+        /**
+         * Rasterizes the static components of every tab and builds the immutable template.
+         *
+         * @return The template.
+         */
+        public TUITemplate build() {
+            long start = System.nanoTime();
+            List<TabTemplate> tabs = new ArrayList<>(titles.size());
+            for (int i = 0; i < titles.size(); i++) {
+                int[] position = positions.get(i);
+                List<TUIStaticImage> images = staticComponents.get(i).isEmpty()
+                        ? Collections.emptyList()
+                        : TUIStaticImage.rasterize(staticComponents.get(i));
+                tabs.add(new TabTemplate(titles.get(i), position[0], position[1], position[2], images));
+            }
+            TUITemplate template = new TUITemplate(tabs);
+            log.info("UI template with {} tabs and {} cells built in {} ms", template.getTabCount(), template.getCellCount(), (System.nanoTime() - start) / 1000000.0);
+            return template;
+        }
+    }
+}
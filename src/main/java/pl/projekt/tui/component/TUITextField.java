@@ -2,6 +2,7 @@ package pl.projekt.tui.component;
 
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import pl.projekt.tui.metrics.TraceEvent;
 import pl.projekt.tui.model.color.Colors;
 import pl.projekt.tui.model.keys.KeyInfo;
 import pl.projekt.tui.model.keys.KeyLabel;
@@ -11,13 +12,14 @@ import pl.projekt.tui.model.keys.KeyLabel;
  * This component allows text input and display on the TUI screen.
  */
 @Slf4j
-public class TUITextField implements TUIComponent {
+public class TUITextField implements TUILayoutable {
 
     private final StringBuilder textContent; // The text content of the field
-    private final int x, y, width, height; // Position and dimensions of the field
-    private String backgroundColor = Colors.BG_RED.getCode(); // Background color of the field
+    private int x, y, width, height; // Position and dimensions of the field
+    private final int preferredWidth, preferredHeight; // Dimensions given at construction
+    private int backgroundColor = Colors.BG_RED.getColor(); // Background color of the field
     @Setter
-    private String textColor = Colors.TEXT_WHITE.getCode(); // Text color of the field
+    private int textColor = Colors.TEXT_WHITE.getColor(); // Text color of the field
     private boolean isNumeric; // Flag indicating if the input is numeric
     private final int layerIndex; // Layer index for rendering order
     private boolean isActive; // Flag indicating if the field is active
@@ -39,6 +41,8 @@ public class TUITextField implements TUIComponent {
         this.y = y;
         this.width = width;
         this.height = height;
+        this.preferredWidth = width;
+        this.preferredHeight = height;
         this.layerIndex = layerIndex;
         this.tuiManager = tuiManager;
         this.textContent = new StringBuilder();
@@ -60,7 +64,7 @@ public class TUITextField implements TUIComponent {
      */
     public double getParsedNumber() {
         try {
-            log.info("Getting a number:" + textContent);
+            log.debug("Getting a number: {}", textContent);
             return Double.parseDouble(textContent.toString());
         } catch (NumberFormatException e) {
             return 0;
@@ -97,8 +101,6 @@ public class TUITextField implements TUIComponent {
      * @param keyInfo Key information containing the pressed key's details
      */
     public void addText(KeyInfo keyInfo) {
-        log.info("Appending text: {}", keyInfo.getValue());
-
         String newCharacter = keyInfo.getValue();
 
         // Handle non-DELETE key presses
@@ -128,6 +130,7 @@ public class TUITextField implements TUIComponent {
 
             // Append the new character to the text content
             textContent.append(keyInfo.getValue());
+            tuiManager.trace(TraceEvent.TEXT_INPUT, newCharacter.isEmpty() ? 0 : newCharacter.charAt(0), textContent.length());
 
             tuiManager.refresh(); // Refresh the screen after text addition
         }
@@ -218,8 +221,8 @@ public class TUITextField implements TUIComponent {
      */
     @Override
     public void highlightComponent() {
-        setBgColor(Colors.BG_YELLOW.getCode());
-        setTextColor(Colors.TEXT_BLACK.getCode());
+        setBgColor(Colors.BG_YELLOW.getColor());
+        setTextColor(Colors.TEXT_BLACK.getColor());
 
         tuiManager.refresh(); // Refresh the screen after highlighting
     }
@@ -229,8 +232,8 @@ public class TUITextField implements TUIComponent {
      */
     @Override
     public void resetHighlightComponent() {
-        setBgColor(Colors.BG_RED.getCode());
-        setTextColor(Colors.TEXT_WHITE.getCode());
+        setBgColor(Colors.BG_RED.getColor());
+        setTextColor(Colors.TEXT_WHITE.getColor());
 
         tuiManager.refresh(); // Refresh the screen after resetting highlight
     }
@@ -258,9 +261,9 @@ public class TUITextField implements TUIComponent {
     /**
      * Sets the background color of the text field.
      *
-     * @param bgColor Background color code to set
+     * @param bgColor Background palette color to set
      */
-    public void setBgColor(String bgColor) {
+    public void setBgColor(int bgColor) {
         this.backgroundColor = bgColor;
     }
 
@@ -290,7 +293,7 @@ public class TUITextField implements TUIComponent {
      *
      * @return The current text color of the text field
      */
-    public String getTextColor() {
+    public int getTextColor() {
         return textColor;
     }
 
@@ -308,7 +311,58 @@ public class TUITextField implements TUIComponent {
      *
      * @return The current background color of the text field
      */
-    public String getBackgroundColor() {
+    public int getBackgroundColor() {
         return backgroundColor;
     }
+
+    /**
+     * Returns the width the field was created with.
+     *
+     * @return The preferred width
+     */
+    @Override
+    public int getPreferredWidth() {
+        return preferredWidth;
+    }
+
+    /**
+     * Returns the height the field was created with.
+     *
+     * @return The preferred height
+     */
+    @Override
+    public int getPreferredHeight() {
+        return preferredHeight;
+    }
+
+    /**
+     * Moves and resizes the text field.
+     *
+     * @param x      New X-coordinate position
+     * @param y      New Y-coordinate position
+     * @param width  New width of the field
+     * @param height New height of the field
+     */
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Consumes character keys and DELETE, other keys bubble to the tab.
+     *
+     * @param keyInfo The pressed key
+     * @return True if the key was added to the field
+     */
+    @Override
+    public boolean handleKey(KeyInfo keyInfo) {
+        if (keyInfo.isFunctional() && keyInfo.getLabel() != KeyLabel.DELETE) {
+            return false;
+        }
+        addText(keyInfo);
+        return true;
+    }
 }
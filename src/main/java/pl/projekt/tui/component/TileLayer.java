@@ -0,0 +1,182 @@
+package pl.projekt.tui.component;
+
+/**
+ * Sparse layer of a {@link TUIScreen}. The screen is divided into tiles of {@value #TILE_WIDTH}x{@value #TILE_HEIGHT}
+ * cells; a tile is allocated when the first cell is drawn into it, so layers holding only a dialog or a table take
+ * memory for the area they cover. Every tile has a 128 bit occupancy bitmap, bit {@code 16 * row + column}, which
+ * lets the merge take the drawn cells of a tile without looking at the empty ones and skip absent tiles entirely.
+ * <p>
+ * Cleared tiles stay allocated and are reused by the next drawing, only resizing the layer gives tiles outside the
+ * screen back.
+ */
+public final class TileLayer {
+
+    static final int TILE_WIDTH = 16;
+    static final int TILE_HEIGHT = 8;
+    private static final int ROWS_PER_WORD = 64 / TILE_WIDTH;  // Tile rows in one word of the bitmap
+
+    private int tileColumns;
+    private int tileRows;
+    private TUIScreenCell[][] tiles;  // Cells of the tiles by tile index, null while the tile was never drawn into
+    private long[] occupancy;  // Two words per tile, the bits of the cells that are not null
+
+    /**
+     * Creates an empty layer.
+     * @param width Width of the screen.
+     * @param height Height of the screen.
+     */
+    TileLayer(int width, int height) {
+        tileColumns = tiles(width, TILE_WIDTH);
+        tileRows = tiles(height, TILE_HEIGHT);
+        tiles = new TUIScreenCell[tileColumns * tileRows][];
+        occupancy = new long[tiles.length * 2];
+    }
+
+    private static int tiles(int size, int tileSize) {
+        return (size + tileSize - 1) / tileSize;
+    }
+
+    /**
+     * Returns the cell at a position.
+     * @param x Column of the cell.
+     * @param y Row of the cell.
+     * @return The cell, null if nothing is drawn there or the position is outside the layer.
+     */
+    public TUIScreenCell get(int x, int y) {
+        int tx = x / TILE_WIDTH;
+        int ty = y / TILE_HEIGHT;
+        if (x < 0 || y < 0 || tx >= tileColumns || ty >= tileRows) {
+            return null;
+        }
+        TUIScreenCell[] tile = tiles[ty * tileColumns + tx];
+        return tile == null ? null : tile[(y % TILE_HEIGHT) * TILE_WIDTH + x % TILE_WIDTH];
+    }
+
+    /**
+     * Sets the cell at a position inside the layer, allocating its tile if needed.
+     * @param x Column of the cell.
+     * @param y Row of the cell.
+     * @param cell The cell, null to clear the position.
+     */
+    void set(int x, int y, TUIScreenCell cell) {
+        int index = (y / TILE_HEIGHT) * tileColumns + x / TILE_WIDTH;
+        TUIScreenCell[] tile = tiles[index];
+        if (tile == null) {
+            if (cell == null) {
+                return;
+            }
+            tile = tiles[index] = new TUIScreenCell[TILE_WIDTH * TILE_HEIGHT];
+        }
+        int bit = (y % TILE_HEIGHT) * TILE_WIDTH + x % TILE_WIDTH;
+        tile[bit] = cell;
+        if (cell == null) {
+            occupancy[index * 2 + (bit >> 6)] &= ~(1L << bit);
+        } else {
+            occupancy[index * 2 + (bit >> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Clears every cell, keeping the tiles for the next drawing.
+     */
+    void clear() {
+        for (int index = 0; index < tiles.length; index++) {
+            clearBits(index, occupancy[index * 2], occupancy[index * 2 + 1]);
+        }
+    }
+
+    /**
+     * Resizes the layer, keeping the cells that still fit. Tiles outside the new size are dropped and the cells
+     * outside it in the edge tiles are cleared, so they do not show up again when the screen grows.
+     * @param width New width of the screen.
+     * @param height New height of the screen.
+     */
+    void resize(int width, int height) {
+        int newColumns = tiles(width, TILE_WIDTH);
+        int newRows = tiles(height, TILE_HEIGHT);
+        TUIScreenCell[][] newTiles = new TUIScreenCell[newColumns * newRows][];
+        long[] newOccupancy = new long[newTiles.length * 2];
+        for (int ty = 0; ty < Math.min(tileRows, newRows); ty++) {
+            for (int tx = 0; tx < Math.min(tileColumns, newColumns); tx++) {
+                int from = ty * tileColumns + tx;
+                int to = ty * newColumns + tx;
+                newTiles[to] = tiles[from];
+                newOccupancy[to * 2] = occupancy[from * 2];
+                newOccupancy[to * 2 + 1] = occupancy[from * 2 + 1];
+            }
+        }
+        tiles = newTiles;
+        occupancy = newOccupancy;
+        tileColumns = newColumns;
+        tileRows = newRows;
+        for (int ty = 0; ty < tileRows; ty++) {
+            for (int tx = 0; tx < tileColumns; tx++) {
+                if (tx == tileColumns - 1 || ty == tileRows - 1) {  // Only edge tiles can stick out of the screen
+                    int index = ty * tileColumns + tx;
+                    clearBits(index, occupancy[index * 2] & ~mask(tx, ty, width, height, 0),
+                            occupancy[index * 2 + 1] & ~mask(tx, ty, width, height, 1));
+                }
+            }
+        }
+    }
+
+    private void clearBits(int index, long low, long high) {
+        TUIScreenCell[] tile = tiles[index];
+        for (long bits = low; bits != 0; bits &= bits - 1) {
+            tile[Long.numberOfTrailingZeros(bits)] = null;
+        }
+        for (long bits = high; bits != 0; bits &= bits - 1) {
+            tile[64 + Long.numberOfTrailingZeros(bits)] = null;
+        }
+        occupancy[index * 2] &= ~low;
+        occupancy[index * 2 + 1] &= ~high;
+    }
+
+    /**
+     * Returns the bits of a tile's cells that lie inside a screen of the given size.
+     * @param word 0 for the first four rows of the tile, 1 for the last four.
+     */
+    static long mask(int tx, int ty, int width, int height, int word) {
+        int columns = Math.min(TILE_WIDTH, width - tx * TILE_WIDTH);
+        int rows = Math.min(TILE_HEIGHT, height - ty * TILE_HEIGHT) - word * ROWS_PER_WORD;
+        if (columns <= 0 || rows <= 0) {
+            return 0;
+        }
+        long row = (1L << columns) - 1;
+        long mask = 0;
+        for (int r = 0; r < Math.min(rows, ROWS_PER_WORD); r++) {
+            mask |= row << (r * TILE_WIDTH);
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the cells of a tile, indexed like the bits of its bitmap.
+     * @return The cells, null if the tile was never drawn into.
+     */
+    TUIScreenCell[] tile(int tx, int ty) {
+        return tiles[ty * tileColumns + tx];
+    }
+
+    /**
+     * Returns a word of a tile's occupancy bitmap.
+     * @param word 0 for the first four rows of the tile, 1 for the last four.
+     */
+    long occupied(int tx, int ty, int word) {
+        return occupancy[(ty * tileColumns + tx) * 2 + word];
+    }
+
+    /**
+     * Returns the number of allocated tiles.
+     * @return Tiles holding cells now or before the last clear.
+     */
+    public int getTileCount() {
+        int count = 0;
+        for (TUIScreenCell[] tile : tiles) {
+            if (tile != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,28 @@
+package pl.projekt.tui.layout;
+
+/**
+ * Placement of a child inside the space a container gives it along one axis.
+ */
+public enum Alignment {
+    START,
+    CENTER,
+    END,
+    STRETCH;  // The child gets all the space
+
+    /**
+     * Returns the offset of a child from the start of its space.
+     *
+     * @param free Space left after the child's size.
+     * @return The offset.
+     */
+    public int offset(int free) {
+        switch (this) {
+            case CENTER:
+                return free / 2;
+            case END:
+                return free;
+            default:
+                return 0;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package pl.projekt.tui.layout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Container pinning every child to an edge, a corner or the center of its area, with an optional offset.
+ * Children keep their measured size and are kept inside the area when it gets too small for the offset.
+ */
+public class AnchorLayout extends LayoutNode {
+
+    /**
+     * Point of the area a child is pinned to.
+     */
+    public enum Anchor {
+        TOP_LEFT(Alignment.START, Alignment.START),
+        TOP(Alignment.CENTER, Alignment.START),
+        TOP_RIGHT(Alignment.END, Alignment.START),
+        LEFT(Alignment.START, Alignment.CENTER),
+        CENTER(Alignment.CENTER, Alignment.CENTER),
+        RIGHT(Alignment.END, Alignment.CENTER),
+        BOTTOM_LEFT(Alignment.START, Alignment.END),
+        BOTTOM(Alignment.CENTER, Alignment.END),
+        BOTTOM_RIGHT(Alignment.END, Alignment.END);
+
+        private final Alignment horizontal;
+        private final Alignment vertical;
+
+        Anchor(Alignment horizontal, Alignment vertical) {
+            this.horizontal = horizontal;
+            this.vertical = vertical;
+        }
+    }
+
+    private final List<LayoutNode> children = new ArrayList<>();
+    private final List<Anchor> anchors = new ArrayList<>();
+    private final List<int[]> offsets = new ArrayList<>();  // {dx, dy} of every child
+
+    /**
+     * Pins a child to a point of the area.
+     *
+     * @param child  The child.
+     * @param anchor The point.
+     * @return This container.
+     */
+    public AnchorLayout add(LayoutNode child, Anchor anchor) {
+        return add(child, anchor, 0, 0);
+    }
+
+    /**
+     * Pins a child to a point of the area with an offset.
+     *
+     * @param child  The child.
+     * @param anchor The point.
+     * @param dx     Horizontal offset from the point.
+     * @param dy     Vertical offset from the point.
+     * @return This container.
+     */
+    public AnchorLayout add(LayoutNode child, Anchor anchor, int dx, int dy) {
+        adopt(child);
+        children.add(child);
+        anchors.add(anchor);
+        offsets.add(new int[]{dx, dy});
+        return this;
+    }
+
+    @Override
+    protected Size onMeasure(Constraints constraints) {
+        Constraints childConstraints = constraints.loosen();
+        int width = 0, height = 0;
+        for (int i = 0; i < children.size(); i++) {
+            Size size = children.get(i).measure(childConstraints);
+            width = Math.max(width, size.getWidth() + Math.abs(offsets.get(i)[0]));
+            height = Math.max(height, size.getHeight() + Math.abs(offsets.get(i)[1]));
+        }
+        return new Size(width, height);
+    }
+
+    @Override
+    protected void onArrange(int x, int y, int width, int height) {
+        for (int i = 0; i < children.size(); i++) {
+            LayoutNode child = children.get(i);
+            Anchor anchor = anchors.get(i);
+            int childWidth = Math.min(width, child.getMeasuredSize().getWidth());
+            int childHeight = Math.min(height, child.getMeasuredSize().getHeight());
+            int childX = anchor.horizontal.offset(width - childWidth) + offsets.get(i)[0];
+            int childY = anchor.vertical.offset(height - childHeight) + offsets.get(i)[1];
+            childX = Math.max(0, Math.min(width - childWidth, childX));
+            childY = Math.max(0, Math.min(height - childHeight, childY));
+            child.arrange(x + childX, y + childY, childWidth, childHeight);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package pl.projekt.tui.layout;
+
+import pl.projekt.tui.component.TUILayoutable;
+
+/**
+ * Leaf of the layout tree wrapping a component. The component reports its preferred size and receives
+ * its final bounds from the container.
+ */
+public class ComponentNode extends LayoutNode {
+
+    private final TUILayoutable component;  // The positioned component
+
+    /**
+     * Wraps a component. The node is invalidated whenever the preferred size of the component changes.
+     *
+     * @param component The component to position.
+     */
+    public ComponentNode(TUILayoutable component) {
+        this.component = component;
+        component.setSizeListener(this::invalidate);
+    }
+
+    /**
+     * Returns the wrapped component.
+     *
+     * @return The component.
+     */
+    public TUILayoutable getComponent() {
+        return component;
+    }
+
+    @Override
+    protected Size onMeasure(Constraints constraints) {
+        int width = constraints.constrainWidth(component.getPreferredWidth());
+        return new Size(width, component.getPreferredHeight(width));
+    }
+
+    @Override
+    protected void onArrange(int x, int y, int width, int height) {
+        component.setBounds(x, y, width, height);
+    }
+}
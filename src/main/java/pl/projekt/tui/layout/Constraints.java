@@ -0,0 +1,67 @@
+package pl.projekt.tui.layout;
+
+import lombok.Value;
+
+/**
+ * Size limits passed from a container to its children during measurement.
+ * Measurement results are cached per constraints, so two equal constraints always reuse the previous result.
+ */
+@Value
+public class Constraints {
+
+    int minWidth;   // Smallest width the child may report
+    int maxWidth;   // Largest width the child may report
+    int minHeight;  // Smallest height the child may report
+    int maxHeight;  // Largest height the child may report
+
+    /**
+     * Creates constraints that force an exact size.
+     *
+     * @param width  The width.
+     * @param height The height.
+     * @return Tight constraints.
+     */
+    public static Constraints tight(int width, int height) {
+        return new Constraints(width, width, height, height);
+    }
+
+    /**
+     * Creates constraints that allow any size up to the given one.
+     *
+     * @param width  The maximal width.
+     * @param height The maximal height.
+     * @return Loose constraints.
+     */
+    public static Constraints loose(int width, int height) {
+        return new Constraints(0, width, 0, height);
+    }
+
+    /**
+     * Returns loose constraints with the same maximal size.
+     *
+     * @return Loose constraints.
+     */
+    public Constraints loosen() {
+        return minWidth == 0 && minHeight == 0 ? this : new Constraints(0, maxWidth, 0, maxHeight);
+    }
+
+    /**
+     * Clamps a width into the allowed range.
+     *
+     * @param width The width.
+     * @return The clamped width.
+     */
+    public int constrainWidth(int width) {
+        return Math.max(minWidth, Math.min(maxWidth, width));
+    }
+
+    /**
+     * Clamps a height into the allowed range.
+     *
+     * @param height The height.
+     * @return The clamped height.
+     */
+    public int constrainHeight(int height) {
+        return Math.max(minHeight, Math.min(maxHeight, height));
+    }
+}
@@ -0,0 +1,172 @@
+package pl.projekt.tui.layout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Container placing its children in a row or in a column. Children with a flex weight share the space
+ * left by the other children in proportion to their weights; the others keep their measured size.
+ */
+public class FlexLayout extends LayoutNode {
+
+    /**
+     * Main axis of the container.
+     */
+    public enum Direction {
+        ROW,
+        COLUMN
+    }
+
+    private final Direction direction;                  // Main axis
+    private final List<LayoutNode> children = new ArrayList<>();
+    private final List<Integer> weights = new ArrayList<>();  // Flex weight of every child, 0 for fixed children
+    private int gap;                                     // Cells between two children
+    private Alignment alignment = Alignment.START;       // Placement on the cross axis
+
+    /**
+     * Creates an empty container.
+     *
+     * @param direction The main axis.
+     */
+    public FlexLayout(Direction direction) {
+        this.direction = direction;
+    }
+
+    /**
+     * Creates a container placing children from left to right.
+     *
+     * @return A new row.
+     */
+    public static FlexLayout row() {
+        return new FlexLayout(Direction.ROW);
+    }
+
+    /**
+     * Creates a container placing children from top to bottom.
+     *
+     * @return A new column.
+     */
+    public static FlexLayout column() {
+        return new FlexLayout(Direction.COLUMN);
+    }
+
+    /**
+     * Adds a child keeping its measured size.
+     *
+     * @param child The child.
+     * @return This container.
+     */
+    public FlexLayout add(LayoutNode child) {
+        return add(child, 0);
+    }
+
+    /**
+     * Adds a child with a flex weight.
+     *
+     * @param child  The child.
+     * @param weight Share of the free space, 0 to keep the measured size.
+     * @return This container.
+     */
+    public FlexLayout add(LayoutNode child, int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Flex weight must not be negative");
+        }
+        adopt(child);
+        children.add(child);
+        weights.add(weight);
+        return this;
+    }
+
+    /**
+     * Sets the space between children.
+     *
+     * @param gap The gap in cells.
+     * @return This container.
+     */
+    public FlexLayout setGap(int gap) {
+        this.gap = gap;
+        invalidate();
+        return this;
+    }
+
+    /**
+     * Sets the placement of children on the cross axis.
+     *
+     * @param alignment The alignment.
+     * @return This container.
+     */
+    public FlexLayout setAlignment(Alignment alignment) {
+        this.alignment = alignment;
+        invalidate();
+        return this;
+    }
+
+    @Override
+    protected Size onMeasure(Constraints constraints) {
+        Constraints childConstraints = constraints.loosen();
+        int main = gap * Math.max(0, children.size() - 1);
+        int cross = 0;
+        boolean flexible = false;
+        for (int i = 0; i < children.size(); i++) {
+            Size size = children.get(i).measure(childConstraints);
+            main += main(size.getWidth(), size.getHeight());
+            cross = Math.max(cross, cross(size.getWidth(), size.getHeight()));
+            flexible |= weights.get(i) > 0;
+        }
+        if (flexible) {
+            main = Math.max(main, main(constraints.getMaxWidth(), constraints.getMaxHeight()));
+        }
+        return direction == Direction.ROW ? new Size(main, cross) : new Size(cross, main);
+    }
+
+    @Override
+    protected void onArrange(int x, int y, int width, int height) {
+        int mainSize = main(width, height);
+        int crossSize = cross(width, height);
+
+        int fixed = gap * Math.max(0, children.size() - 1);
+        int totalWeight = 0;
+        for (int i = 0; i < children.size(); i++) {
+            if (weights.get(i) == 0) {
+                Size size = children.get(i).getMeasuredSize();
+                fixed += main(size.getWidth(), size.getHeight());
+            } else {
+                totalWeight += weights.get(i);
+            }
+        }
+        int free = Math.max(0, mainSize - fixed);
+        int remainingWeight = totalWeight;
+
+        int position = 0;
+        for (int i = 0; i < children.size(); i++) {
+            LayoutNode child = children.get(i);
+            Size size = child.getMeasuredSize();
+            int childMain;
+            if (weights.get(i) == 0) {
+                childMain = main(size.getWidth(), size.getHeight());
+            } else {
+                // The last flexible child takes the rounding remainder
+                childMain = remainingWeight == weights.get(i) ? free : free * weights.get(i) / remainingWeight;
+                free -= childMain;
+                remainingWeight -= weights.get(i);
+            }
+            int childCross = alignment == Alignment.STRETCH ? crossSize : Math.min(crossSize, cross(size.getWidth(), size.getHeight()));
+            int crossOffset = alignment.offset(crossSize - childCross);
+
+            if (direction == Direction.ROW) {
+                child.arrange(x + position, y + crossOffset, childMain, childCross);
+            } else {
+                child.arrange(x + crossOffset, y + position, childCross, childMain);
+            }
+            position += childMain + gap;
+        }
+    }
+
+    private int main(int width, int height) {
+        return direction == Direction.ROW ? width : height;
+    }
+
+    private int cross(int width, int height) {
+        return direction == Direction.ROW ? height : width;
+    }
+}
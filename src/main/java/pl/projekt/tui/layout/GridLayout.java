@@ -0,0 +1,115 @@
+package pl.projekt.tui.layout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Container placing its children in a grid, row by row. Every column is as wide as its widest child and every row
+ * as high as its highest child. One column can be made to absorb the width left over, which suits forms with
+ * a label column and a field column.
+ */
+public class GridLayout extends LayoutNode {
+
+    private final int columns;                         // Number of columns
+    private final List<LayoutNode> children = new ArrayList<>();
+    private int columnGap, rowGap;                     // Cells between columns and rows
+    private int stretchColumn = -1;                    // Column taking the leftover width, -1 for none
+    private int[] columnWidths = new int[0];           // Computed by the last measurement
+    private int[] rowHeights = new int[0];             // Computed by the last measurement
+
+    /**
+     * Creates an empty grid.
+     *
+     * @param columns The number of columns.
+     */
+    public GridLayout(int columns) {
+        if (columns <= 0) {
+            throw new IllegalArgumentException("Grid needs at least one column");
+        }
+        this.columns = columns;
+    }
+
+    /**
+     * Adds a child to the next free cell.
+     *
+     * @param child The child.
+     * @return This grid.
+     */
+    public GridLayout add(LayoutNode child) {
+        adopt(child);
+        children.add(child);
+        return this;
+    }
+
+    /**
+     * Sets the space between columns and rows.
+     *
+     * @param columnGap Cells between columns.
+     * @param rowGap    Cells between rows.
+     * @return This grid.
+     */
+    public GridLayout setGaps(int columnGap, int rowGap) {
+        this.columnGap = columnGap;
+        this.rowGap = rowGap;
+        invalidate();
+        return this;
+    }
+
+    /**
+     * Makes a column absorb the width left over by the other columns.
+     *
+     * @param column The column index, or -1 to keep all columns at their measured width.
+     * @return This grid.
+     */
+    public GridLayout setStretchColumn(int column) {
+        this.stretchColumn = column;
+        invalidate();
+        return this;
+    }
+
+    @Override
+    protected Size onMeasure(Constraints constraints) {
+        Constraints childConstraints = constraints.loosen();
+        int rows = (children.size() + columns - 1) / columns;
+        columnWidths = new int[columns];
+        rowHeights = new int[rows];
+        for (int i = 0; i < children.size(); i++) {
+            Size size = children.get(i).measure(childConstraints);
+            columnWidths[i % columns] = Math.max(columnWidths[i % columns], size.getWidth());
+            rowHeights[i / columns] = Math.max(rowHeights[i / columns], size.getHeight());
+        }
+        int width = Arrays.stream(columnWidths).sum() + columnGap * (columns - 1);
+        int height = Arrays.stream(rowHeights).sum() + rowGap * Math.max(0, rows - 1);
+        if (stretchColumn >= 0 && stretchColumn < columns) {
+            width = Math.max(width, constraints.getMaxWidth());
+        }
+        return new Size(width, height);
+    }
+
+    @Override
+    protected void onArrange(int x, int y, int width, int height) {
+        int[] widths = columnWidths.clone();
+        if (stretchColumn >= 0 && stretchColumn < columns) {
+            int used = Arrays.stream(widths).sum() + columnGap * (columns - 1);
+            widths[stretchColumn] += Math.max(0, width - used);
+        }
+
+        int rowY = y;
+        for (int row = 0; row < rowHeights.length; row++) {
+            int columnX = x;
+            for (int column = 0; column < columns; column++) {
+                int index = row * columns + column;
+                if (index >= children.size()) {
+                    break;
+                }
+                LayoutNode child = children.get(index);
+                int childWidth = column == stretchColumn ? widths[column] : Math.min(widths[column], child.getMeasuredSize().getWidth());
+                int childHeight = Math.min(rowHeights[row], child.getMeasuredSize().getHeight());
+                child.arrange(columnX, rowY, childWidth, childHeight);
+                columnX += widths[column] + columnGap;
+            }
+            rowY += rowHeights[row] + rowGap;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package pl.projekt.tui.layout;
+
+import lombok.Getter;
+
+/**
+ * Base class of the layout tree. Layout runs in two passes: {@link #measure(Constraints)} asks a node for its size
+ * and {@link #arrange(int, int, int, int)} gives it its final bounds.
+ * <p>
+ * Both passes are cached. A node is measured again only if the constraints differ from the previous ones or its
+ * content changed, and it is arranged again only if its bounds differ or its content changed. Content changes are
+ * reported with {@link #invalidate()}, which marks the node and its ancestors, so a resize or an edit only
+ * relayouts the part of the tree it affects.
+ */
+public abstract class LayoutNode {
+
+    private LayoutNode parent;            // Container owning this node, null for the root
+    private Constraints lastConstraints;  // Constraints of the cached measurement
+    private Size measuredSize;            // Cached measurement
+    private boolean measureValid;         // False if the node has to be measured again
+    private boolean arrangeValid;         // False if the node has to be arranged again
+    @Getter
+    private int x, y, width, height;      // Bounds given by the last arrange pass
+    int measurePasses;                    // Number of measurements that missed the cache, used by tests
+    int arrangePasses;                    // Number of arrangements that missed the cache, used by tests
+
+    /**
+     * Measures the node, reusing the cached result when the constraints did not change.
+     *
+     * @param constraints The limits given by the parent.
+     * @return The size the node wants, within the constraints.
+     */
+    public final Size measure(Constraints constraints) {
+        if (measureValid && constraints.equals(lastConstraints)) {
+            return measuredSize;
+        }
+        measurePasses++;
+        Size size = onMeasure(constraints);
+        measuredSize = new Size(constraints.constrainWidth(size.getWidth()), constraints.constrainHeight(size.getHeight()));
+        lastConstraints = constraints;
+        measureValid = true;
+        return measuredSize;
+    }
+
+    /**
+     * Places the node, skipping it and its subtree when the bounds did not change.
+     *
+     * @param x      The x-coordinate of the node.
+     * @param y      The y-coordinate of the node.
+     * @param width  The width of the node.
+     * @param height The height of the node.
+     */
+    public final void arrange(int x, int y, int width, int height) {
+        if (arrangeValid && x == this.x && y == this.y && width == this.width && height == this.height) {
+            return;
+        }
+        arrangePasses++;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        onArrange(x, y, width, height);
+        arrangeValid = true;
+    }
+
+    /**
+     * Measures and arranges the node as the root of a layout tree filling the given area.
+     *
+     * @param x      The x-coordinate of the area.
+     * @param y      The y-coordinate of the area.
+     * @param width  The width of the area.
+     * @param height The height of the area.
+     */
+    public void layout(int x, int y, int width, int height) {
+        measure(Constraints.tight(width, height));
+        arrange(x, y, width, height);
+    }
+
+    /**
+     * Marks the node and all its ancestors for measuring and arranging again.
+     * Call it when something that influences the size of the node changes.
+     */
+    public void invalidate() {
+        for (LayoutNode node = this; node != null && (node.measureValid || node.arrangeValid); node = node.parent) {
+            node.measureValid = false;
+            node.arrangeValid = false;
+        }
+    }
+
+    /**
+     * Checks if the last layout still holds, i.e. nothing in the tree was invalidated since.
+     *
+     * @return False if the node has to be laid out again.
+     */
+    public boolean isLayoutValid() {
+        return measureValid && arrangeValid;
+    }
+
+    /**
+     * Computes the size of the node. Called only on cache misses.
+     *
+     * @param constraints The limits given by the parent.
+     * @return The wanted size, it is clamped to the constraints afterwards.
+     */
+    protected abstract Size onMeasure(Constraints constraints);
+
+    /**
+     * Places the content of the node. Called only when the bounds or the content changed.
+     *
+     * @param x      The x-coordinate of the node.
+     * @param y      The y-coordinate of the node.
+     * @param width  The width of the node.
+     * @param height The height of the node.
+     */
+    protected abstract void onArrange(int x, int y, int width, int height);
+
+    /**
+     * Makes this node a child of the given container.
+     *
+     * @param child The child to adopt.
+     * @throws IllegalArgumentException If the child already belongs to a container.
+     */
+    protected void adopt(LayoutNode child) {
+        if (child.parent != null) {
+            throw new IllegalArgumentException("Layout node already has a parent");
+        }
+        child.parent = this;
+        invalidate();
+    }
+
+    /**
+     * Returns the size computed by the last measurement of the node.
+     *
+     * @return The measured size, or {@link Size#ZERO} if the node was never measured.
+     */
+    public Size getMeasuredSize() {
+        return measuredSize == null ? Size.ZERO : measuredSize;
+    }
+}
@@ -0,0 +1,15 @@
+package pl.projekt.tui.layout;
+
+import lombok.Value;
+
+/**
+ * Measured size of a layout node in screen cells.
+ */
+@Value
+public class Size {
+
+    public static final Size ZERO = new Size(0, 0);
+
+    int width;   // Width in columns
+    int height;  // Height in rows
+}
@@ -0,0 +1,36 @@
+package pl.projekt.tui.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic counter. Increments are lock-free and contend only on the cell of the recording thread.
+ */
+public class Counter {
+
+    private final LongAdder value = new LongAdder();
+
+    /**
+     * Adds one to the counter.
+     */
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * Adds a value to the counter.
+     *
+     * @param amount The value to add.
+     */
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    /**
+     * Returns the current value.
+     *
+     * @return Sum of everything added so far.
+     */
+    public long get() {
+        return value.sum();
+    }
+}
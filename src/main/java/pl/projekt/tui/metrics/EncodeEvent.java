@@ -0,0 +1,21 @@
+package pl.projekt.tui.metrics;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Building the escape sequences of a frame, {@code TUIScreen.render}, and encoding them to bytes.
+ */
+@Name("pl.projekt.tui.Encode")
+@Label("Encode Frame")
+@Description("Building the escape sequences of a frame and encoding them to bytes")
+@Threshold("1 ms")
+public class EncodeEvent extends FrameEvent {
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
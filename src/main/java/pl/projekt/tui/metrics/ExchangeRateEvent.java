@@ -0,0 +1,29 @@
+package pl.projekt.tui.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Looking up an exchange rate, which blocks the session on an HTTP request when the rate is not cached.
+ * Recorded without a threshold, lookups are rare.
+ */
+@Name("pl.projekt.tui.ExchangeRate")
+@Label("Exchange Rate")
+@Description("Looking up an exchange rate, blocking on the API when it is not cached")
+@Category({"TuiConsole", "Calculator"})
+@StackTrace(false)
+public class ExchangeRateEvent extends Event {
+
+    @Label("Currency")
+    public String currency;
+
+    @Label("Cached")
+    public boolean cached;
+
+    @Label("Rate")
+    public double rate;
+}
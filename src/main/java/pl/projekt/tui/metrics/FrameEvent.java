@@ -0,0 +1,41 @@
+package pl.projekt.tui.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base of the Flight Recorder events of one phase of a frame. The events carry the session and its terminal size so
+ * a slow frame can be traced back to the client.
+ * <p>
+ * The events follow the usual JFR pattern: create, {@code begin()}, do the work, and only fill the fields when
+ * {@code shouldCommit()} is true. While recording is off the JIT removes the event, so the instrumentation is free.
+ * The events have no stack traces and a threshold, so a continuous recording only keeps the slow phases.
+ */
+@Category({"TuiConsole", "Frame"})
+@StackTrace(false)
+public abstract class FrameEvent extends Event {
+
+    @Label("Session Id")
+    public long sessionId;
+
+    @Label("Width")
+    public int width;
+
+    @Label("Height")
+    public int height;
+
+    /**
+     * Fills the session fields.
+     *
+     * @param metrics The session's metrics.
+     * @param width   Width of the session's screen.
+     * @param height  Height of the session's screen.
+     */
+    public void setSession(SessionMetrics metrics, int width, int height) {
+        this.sessionId = metrics.getId();
+        this.width = width;
+        this.height = height;
+    }
+}
@@ -0,0 +1,15 @@
+package pl.projekt.tui.metrics;
+
+/**
+ * Value sampled when it is read, e.g. the number of active sessions.
+ */
+@FunctionalInterface
+public interface Gauge {
+
+    /**
+     * Returns the current value.
+     *
+     * @return The value.
+     */
+    long getValue();
+}
@@ -0,0 +1,147 @@
+package pl.projekt.tui.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of non-negative values, usually durations in nanoseconds, in the style of HdrHistogram.
+ * Values are counted in buckets growing by powers of two, each split into {@value #SUB_BUCKETS} linear
+ * sub-buckets, so any recorded value is known within about 6% while the histogram takes a fixed 5 KB.
+ * Values above 2^40 (about 18 minutes in nanoseconds) are counted in the last bucket.
+ * <p>
+ * Recording is one atomic increment per value. Reading takes a {@link Snapshot}, which can be merged
+ * with snapshots of other histograms to aggregate sessions.
+ */
+public class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_BITS = 40;  // Highest power of two with its own buckets
+    static final long MAX_VALUE = (1L << MAX_BITS) - 1;
+    static final int BUCKETS = (MAX_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final Counter sum = new Counter();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value.
+     *
+     * @param value The value, negative values are counted as 0.
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, Math.min(value, MAX_VALUE));
+        counts.incrementAndGet(bucketOf(clamped));
+        sum.add(clamped);
+        long current;
+        while (clamped > (current = max.get()) && !max.compareAndSet(current, clamped)) {
+            // Retry, another thread raised the maximum
+        }
+    }
+
+    /**
+     * Copies the current counts. Recording continues while the copy is taken, so a snapshot taken under load
+     * may include part of the values recorded during the copy.
+     *
+     * @return The snapshot.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(copy, sum.get(), max.get());
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int mantissa = (int) (value >>> shift);  // In [SUB_BUCKETS, 2 * SUB_BUCKETS)
+        return (shift + 1) * SUB_BUCKETS + mantissa - SUB_BUCKETS;
+    }
+
+    static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long mantissa = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /**
+     * Immutable copy of the counts of one or more histograms.
+     */
+    public static final class Snapshot {
+
+        /**
+         * Snapshot without values.
+         */
+        public static final Snapshot EMPTY = new Snapshot(new long[BUCKETS], 0, 0);
+
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long sum, long max) {
+            this.counts = counts;
+            long total = 0;
+            for (long bucketCount : counts) {
+                total += bucketCount;
+            }
+            this.count = total;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * Returns a snapshot with the values of both snapshots.
+         *
+         * @param other The other snapshot.
+         * @return The merged snapshot.
+         */
+        public Snapshot merge(Snapshot other) {
+            long[] merged = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                merged[i] = counts[i] + other.counts[i];
+            }
+            return new Snapshot(merged, sum + other.sum, Math.max(max, other.max));
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0.0 : (double) sum / count;
+        }
+
+        /**
+         * Returns the value below which the given fraction of the values lies.
+         *
+         * @param quantile Quantile between 0 and 1, e.g. 0.99.
+         * @return Highest value of the bucket holding the quantile, never more than the maximum; 0 without values.
+         */
+        public long getPercentile(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValueOf(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
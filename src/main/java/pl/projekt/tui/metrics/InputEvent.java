@@ -0,0 +1,31 @@
+package pl.projekt.tui.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Decoding one input sequence and handling the key, including the frames it renders.
+ */
+@Name("pl.projekt.tui.Input")
+@Label("Input")
+@Description("Decoding an input sequence and handling the key")
+@Category({"TuiConsole", "Input"})
+@StackTrace(false)
+@Threshold("1 ms")
+public class InputEvent extends Event {
+
+    @Label("Session Id")
+    public long sessionId;
+
+    @Label("Key")
+    @Description("Label of the decoded key, null if the sequence is unknown")
+    public String key;
+
+    @Label("Sequence Length")
+    public int sequenceLength;
+}
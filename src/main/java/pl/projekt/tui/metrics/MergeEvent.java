@@ -0,0 +1,20 @@
+package pl.projekt.tui.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Merging the layers of a screen into the frame, {@code TUIScreen.mergeLayers}.
+ */
+@Name("pl.projekt.tui.Merge")
+@Label("Merge Layers")
+@Description("Merging the layers of a screen into the frame")
+@Threshold("1 ms")
+public class MergeEvent extends FrameEvent {
+
+    @Label("Cells Changed")
+    @Description("Cells differing from the previous frame")
+    public int cellsChanged;
+}
@@ -0,0 +1,78 @@
+package pl.projekt.tui.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts events, or amounts such as bytes, and their rate per second. Events are counted in a ring of one-second slots, so the rate over the
+ * last minute can be read without keeping the events. Marking is lock-free; when a slot is reused for a new second
+ * an event racing with the reset may be lost, which is acceptable for a rate.
+ */
+public class Meter {
+
+    private static final int SLOTS = 60;  // Seconds kept in the ring
+
+    private final Counter total = new Counter();
+    private final AtomicLongArray counts = new AtomicLongArray(SLOTS);  // Events per slot
+    private final AtomicLongArray seconds = new AtomicLongArray(SLOTS);  // Second a slot is counting
+    private final LongSupplier clock;  // Current time in milliseconds
+
+    public Meter() {
+        this(System::currentTimeMillis);
+    }
+
+    Meter(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Records one event.
+     */
+    public void mark() {
+        mark(1);
+    }
+
+    /**
+     * Records several events at once, e.g. the bytes of a frame.
+     *
+     * @param count Number of events.
+     */
+    public void mark(long count) {
+        total.add(count);
+        long second = clock.getAsLong() / 1000;
+        int slot = (int) (second % SLOTS);
+        long slotSecond = seconds.get(slot);
+        if (slotSecond != second && seconds.compareAndSet(slot, slotSecond, second)) {
+            counts.set(slot, 0);
+        }
+        counts.addAndGet(slot, count);
+    }
+
+    /**
+     * Returns the number of events since the meter was created.
+     *
+     * @return Total count.
+     */
+    public long getCount() {
+        return total.get();
+    }
+
+    /**
+     * Returns the mean rate over the last complete seconds; the current second is still counting and is left out.
+     *
+     * @param windowSeconds Number of seconds, at most 59.
+     * @return Events per second.
+     */
+    public double getRate(int windowSeconds) {
+        int window = Math.max(1, Math.min(windowSeconds, SLOTS - 1));
+        long now = clock.getAsLong() / 1000;
+        long sum = 0;
+        for (int i = 0; i < SLOTS; i++) {
+            long age = now - seconds.get(i);
+            if (age >= 1 && age <= window) {
+                sum += counts.get(i);
+            }
+        }
+        return (double) sum / window;
+    }
+}
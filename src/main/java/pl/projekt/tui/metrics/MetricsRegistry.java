@@ -0,0 +1,159 @@
+package pl.projekt.tui.metrics;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Server-wide metrics and the registry of the live sessions' {@link SessionMetrics}.
+ * <p>
+ * Recording never takes a lock: sessions write only their own instruments and the server-wide instruments are
+ * {@link Counter}s and {@link Meter}s. The per-session values are summed when they are read by {@link #aggregate()}.
+ * When a session ends its values are folded into a retired total, so the aggregate does not drop on disconnects.
+ * <p>
+ * After {@link #enableJmx()} the server and every live session are also published as MBeans under the
+ * {@value #JMX_DOMAIN} domain, see {@link ServerStatsMBean} and {@link SessionStatsMBean}.
+ */
+@Slf4j
+public class MetricsRegistry {
+
+    /**
+     * JMX domain of the server and session MBeans.
+     */
+    public static final String JMX_DOMAIN = "pl.projekt.tui";
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final Map<Long, SessionMetrics> sessions = new ConcurrentHashMap<>();
+    private final AtomicReference<SessionMetrics.Snapshot> retired = new AtomicReference<>(SessionMetrics.Snapshot.EMPTY);
+    @Getter
+    private final Gauge activeSessions = sessions::size;
+    @Getter
+    private final Meter connects = new Meter();            // Sessions started
+    @Getter
+    private final Counter authFailures = new Counter();    // Rejected SSH passwords
+    @Getter
+    private final Counter rateCacheHits = new Counter();   // Exchange rates served from the cache
+    @Getter
+    private final Counter rateCacheMisses = new Counter(); // Exchange rates fetched from the API
+    private volatile MBeanServer mBeanServer;               // Null until JMX is enabled
+
+    /**
+     * Returns the registry of the server.
+     *
+     * @return The shared registry.
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Adds a session that has started and counts the connect.
+     *
+     * @param session The session's metrics.
+     */
+    public void register(SessionMetrics session) {
+        if (sessions.putIfAbsent(session.getId(), session) == null) {
+            connects.mark();
+            registerMBean(session);
+        }
+    }
+
+    /**
+     * Removes a session that has ended and keeps its values in the retired total.
+     *
+     * @param session The session's metrics.
+     */
+    public void unregister(SessionMetrics session) {
+        if (sessions.remove(session.getId(), session)) {
+            unregisterMBean(session);
+            SessionMetrics.Snapshot snapshot = session.snapshot();
+            retired.accumulateAndGet(snapshot, SessionMetrics.Snapshot::merge);
+        }
+    }
+
+    /**
+     * Returns the metrics of a live session.
+     *
+     * @param id Id of the session.
+     * @return The session's metrics, null if there is no such live session.
+     */
+    public SessionMetrics getSession(long id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * Returns the metrics of the live sessions.
+     *
+     * @return Unmodifiable view of the sessions.
+     */
+    public Collection<SessionMetrics> getSessions() {
+        return Collections.unmodifiableCollection(sessions.values());
+    }
+
+    /**
+     * Sums the values of all sessions, live and ended, since the server started.
+     *
+     * @return The aggregated snapshot; its session count includes the ended sessions.
+     */
+    public SessionMetrics.Snapshot aggregate() {
+        SessionMetrics.Snapshot total = retired.get();
+        for (SessionMetrics session : sessions.values()) {
+            total = total.merge(session.snapshot());
+        }
+        return total;
+    }
+
+    /**
+     * Publishes the server statistics and every live and future session in the platform MBean server.
+     */
+    public synchronized void enableJmx() {
+        if (mBeanServer != null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(new ServerStats(this), new ObjectName(JMX_DOMAIN + ":type=Server"));
+        } catch (JMException e) {
+            log.error("Could not register server MBean: {}", e.getMessage());
+            return;
+        }
+        mBeanServer = server;
+        sessions.values().forEach(this::registerMBean);
+    }
+
+    private void registerMBean(SessionMetrics session) {
+        MBeanServer server = mBeanServer;
+        if (server != null) {
+            try {
+                server.registerMBean(new SessionStats(session), sessionName(session));
+            } catch (JMException e) {
+                log.warn("Could not register MBean of session {}: {}", session.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private void unregisterMBean(SessionMetrics session) {
+        MBeanServer server = mBeanServer;
+        if (server != null) {
+            try {
+                server.unregisterMBean(sessionName(session));
+            } catch (JMException e) {
+                log.debug("MBean of session {} was not registered: {}", session.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private static ObjectName sessionName(SessionMetrics session) throws JMException {
+        return new ObjectName(JMX_DOMAIN + ":type=Session,id=" + session.getId());
+    }
+}
@@ -0,0 +1,25 @@
+package pl.projekt.tui.metrics;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * A whole frame, from drawing the components in {@code TUIManager.render} to the flush of the output stream.
+ */
+@Name("pl.projekt.tui.Render")
+@Label("Render")
+@Description("A frame from drawing the components to the flush")
+@Threshold("1 ms")
+public class RenderEvent extends FrameEvent {
+
+    @Label("Cells Changed")
+    @Description("Cells differing from the previous frame, counted only while the Merge event is enabled")
+    public int cellsChanged;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
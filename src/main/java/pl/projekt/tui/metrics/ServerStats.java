@@ -0,0 +1,81 @@
+package pl.projekt.tui.metrics;
+
+/**
+ * Server-wide statistics read from a {@link MetricsRegistry}. Session totals include the sessions that have ended;
+ * connects per second are averaged over the last minute.
+ */
+public class ServerStats implements ServerStatsMBean {
+
+    private static final int RATE_WINDOW_SECONDS = 59;
+
+    private final MetricsRegistry registry;
+
+    public ServerStats(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public long getActiveSessions() {
+        return registry.getActiveSessions().getValue();
+    }
+
+    @Override
+    public long getConnects() {
+        return registry.getConnects().getCount();
+    }
+
+    @Override
+    public double getConnectsPerSecond() {
+        return registry.getConnects().getRate(RATE_WINDOW_SECONDS);
+    }
+
+    @Override
+    public long getAuthFailures() {
+        return registry.getAuthFailures().get();
+    }
+
+    @Override
+    public long getRateCacheHits() {
+        return registry.getRateCacheHits().get();
+    }
+
+    @Override
+    public long getRateCacheMisses() {
+        return registry.getRateCacheMisses().get();
+    }
+
+    @Override
+    public long getFramesRendered() {
+        return registry.aggregate().getFramesRendered();
+    }
+
+    @Override
+    public long getFramesCoalesced() {
+        return registry.aggregate().getFramesCoalesced();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return registry.aggregate().getBytesWritten();
+    }
+
+    @Override
+    public long getInputEvents() {
+        return registry.aggregate().getInputEvents();
+    }
+
+    @Override
+    public long getDecodeFailures() {
+        return registry.aggregate().getDecodeFailures();
+    }
+
+    @Override
+    public double getRenderTimeP99Millis() {
+        return SessionStats.toMillis(registry.aggregate().getRenderTime().getPercentile(0.99));
+    }
+
+    @Override
+    public double getMergeTimeP99Millis() {
+        return SessionStats.toMillis(registry.aggregate().getMergeTime().getPercentile(0.99));
+    }
+}
@@ -0,0 +1,33 @@
+package pl.projekt.tui.metrics;
+
+/**
+ * JMX view of the server-wide metrics, registered as {@code pl.projekt.tui:type=Server}.
+ */
+public interface ServerStatsMBean {
+
+    long getActiveSessions();
+
+    long getConnects();
+
+    double getConnectsPerSecond();
+
+    long getAuthFailures();
+
+    long getRateCacheHits();
+
+    long getRateCacheMisses();
+
+    long getFramesRendered();
+
+    long getFramesCoalesced();
+
+    long getBytesWritten();
+
+    long getInputEvents();
+
+    long getDecodeFailures();
+
+    double getRenderTimeP99Millis();
+
+    double getMergeTimeP99Millis();
+}
@@ -0,0 +1,27 @@
+package pl.projekt.tui.metrics;
+
+/**
+ * Operations an administrator can perform on a live session.
+ */
+public interface SessionControl {
+
+    /**
+     * Ends the session and closes its connection.
+     */
+    void disconnect();
+
+    /**
+     * Limits how many frames per second are sent to the client. Frames over the limit are delayed, so the
+     * session's input is handled more slowly but no frame is lost.
+     *
+     * @param framesPerSecond Maximum frame rate, 0 for no limit.
+     */
+    void setFrameRateLimit(int framesPerSecond);
+
+    /**
+     * Returns the current frame rate limit.
+     *
+     * @return Maximum frame rate, 0 if there is no limit.
+     */
+    int getFrameRateLimit();
+}
@@ -0,0 +1,100 @@
+package pl.projekt.tui.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.Value;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Instruments of one session. They are written only by the session's own threads and read by
+ * {@link MetricsRegistry}, which aggregates all sessions when the metrics are read. Besides the instruments the
+ * session publishes a few volatile facts for administrators: who is connected, the terminal size, when the last key
+ * arrived, a {@link SessionControl} to disconnect or throttle the session and a {@link Trace} of its last events.
+ */
+@Getter
+public class SessionMetrics {
+
+    private static final AtomicLong NEXT_ID = new AtomicLong(1);
+
+    private final long id = NEXT_ID.getAndIncrement();
+    private final long startedAt = System.currentTimeMillis();  // Epoch milliseconds
+    private final Meter framesRendered = new Meter();           // Frames written to the client
+    private final Counter framesCoalesced = new Counter();      // Refresh requests absorbed by an already pending frame
+    private final Meter bytesWritten = new Meter();             // Bytes of all frames
+    private final Counter inputEvents = new Counter();          // Decoded keys
+    private final Counter decodeFailures = new Counter();       // Input sequences that are not a known key
+    private final Histogram renderTime = new Histogram();       // Nanoseconds from drawing the components to the flush
+    private final Histogram mergeTime = new Histogram();        // Nanoseconds spent merging the layers
+    private final Trace trace = new Trace();                    // Last events of the session
+    @Setter
+    private volatile String client = "unknown";                 // User and address of the client
+    @Setter
+    private volatile SessionControl control;                    // Null until the session can be controlled
+    private volatile long lastInputAt = startedAt;              // Epoch milliseconds of the last key
+    private volatile int terminalWidth;
+    private volatile int terminalHeight;
+
+    /**
+     * Counts a decoded key and remembers when it arrived.
+     */
+    public void recordInput() {
+        inputEvents.increment();
+        lastInputAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Remembers the size of the client's terminal.
+     *
+     * @param width  Columns.
+     * @param height Rows.
+     */
+    public void setTerminalSize(int width, int height) {
+        terminalWidth = width;
+        terminalHeight = height;
+    }
+
+    /**
+     * Copies the current values.
+     *
+     * @return The snapshot.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(1, framesRendered.getCount(), framesCoalesced.get(), bytesWritten.getCount(), inputEvents.get(),
+                decodeFailures.get(), renderTime.snapshot(), mergeTime.snapshot());
+    }
+
+    /**
+     * Values of one session or the sum of several sessions.
+     */
+    @Value
+    public static class Snapshot {
+
+        /**
+         * Snapshot of no sessions.
+         */
+        public static final Snapshot EMPTY = new Snapshot(0, 0, 0, 0, 0, 0, Histogram.Snapshot.EMPTY, Histogram.Snapshot.EMPTY);
+
+        long sessions;
+        long framesRendered;
+        long framesCoalesced;
+        long bytesWritten;
+        long inputEvents;
+        long decodeFailures;
+        Histogram.Snapshot renderTime;
+        Histogram.Snapshot mergeTime;
+
+        /**
+         * Returns the sum of both snapshots.
+         *
+         * @param other The other snapshot.
+         * @return The merged snapshot.
+         */
+        public Snapshot merge(Snapshot other) {
+            return new Snapshot(sessions + other.sessions, framesRendered + other.framesRendered,
+                    framesCoalesced + other.framesCoalesced, bytesWritten + other.bytesWritten,
+                    inputEvents + other.inputEvents, decodeFailures + other.decodeFailures,
+                    renderTime.merge(other.renderTime), mergeTime.merge(other.mergeTime));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package pl.projekt.tui.metrics;
+
+/**
+ * Live statistics of one session, read from its {@link SessionMetrics} without stopping the session.
+ * Rates are averaged over the last {@value #RATE_WINDOW_SECONDS} complete seconds.
+ */
+public class SessionStats implements SessionStatsMBean {
+
+    static final int RATE_WINDOW_SECONDS = 5;
+
+    private final SessionMetrics metrics;
+
+    public SessionStats(SessionMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public long getId() {
+        return metrics.getId();
+    }
+
+    @Override
+    public String getClient() {
+        return metrics.getClient();
+    }
+
+    @Override
+    public long getAgeSeconds() {
+        return (System.currentTimeMillis() - metrics.getStartedAt()) / 1000;
+    }
+
+    @Override
+    public long getIdleSeconds() {
+        return (System.currentTimeMillis() - metrics.getLastInputAt()) / 1000;
+    }
+
+    @Override
+    public String getTerminalSize() {
+        return metrics.getTerminalWidth() + "x" + metrics.getTerminalHeight();
+    }
+
+    @Override
+    public double getFrameRate() {
+        return metrics.getFramesRendered().getRate(RATE_WINDOW_SECONDS);
+    }
+
+    @Override
+    public double getBytesPerSecond() {
+        return metrics.getBytesWritten().getRate(RATE_WINDOW_SECONDS);
+    }
+
+    @Override
+    public double getRenderTimeP99Millis() {
+        return toMillis(metrics.getRenderTime().snapshot().getPercentile(0.99));
+    }
+
+    @Override
+    public int getFrameRateLimit() {
+        SessionControl control = metrics.getControl();
+        return control == null ? 0 : control.getFrameRateLimit();
+    }
+
+    @Override
+    public void setFrameRateLimit(int framesPerSecond) {
+        SessionControl control = metrics.getControl();
+        if (control == null) {
+            throw new IllegalStateException("Session " + metrics.getId() + " cannot be throttled");
+        }
+        control.setFrameRateLimit(framesPerSecond);
+    }
+
+    @Override
+    public void disconnect() {
+        SessionControl control = metrics.getControl();
+        if (control == null) {
+            throw new IllegalStateException("Session " + metrics.getId() + " cannot be disconnected");
+        }
+        control.disconnect();
+    }
+
+    static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
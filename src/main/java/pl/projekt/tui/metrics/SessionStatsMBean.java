@@ -0,0 +1,29 @@
+package pl.projekt.tui.metrics;
+
+/**
+ * JMX view of one live session, registered as {@code pl.projekt.tui:type=Session,id=<id>}.
+ */
+public interface SessionStatsMBean {
+
+    long getId();
+
+    String getClient();
+
+    long getAgeSeconds();
+
+    long getIdleSeconds();
+
+    String getTerminalSize();
+
+    double getFrameRate();
+
+    double getBytesPerSecond();
+
+    double getRenderTimeP99Millis();
+
+    int getFrameRateLimit();
+
+    void setFrameRateLimit(int framesPerSecond);
+
+    void disconnect();
+}
@@ -0,0 +1,106 @@
+package pl.projekt.tui.metrics;
+
+import java.util.Locale;
+
+/**
+ * In-memory ring buffer of the last {@link TraceEvent}s of a session, replacing per-key and per-frame logging.
+ * Recording an event stores four longs (time, event, two arguments) in a preallocated array; nothing is formatted
+ * or allocated until the trace is dumped, e.g. by the admin console or when the session fails.
+ * <p>
+ * A trace has one writer, the session's thread. Dumping from another thread does not stop the writer, so an entry
+ * written during the dump may appear torn; the trace is a diagnostic aid, not a log.
+ */
+public final class Trace {
+
+    /**
+     * System property with the number of events kept per session, rounded up to a power of two.
+     */
+    public static final String SIZE_PROPERTY = "tui.trace.size";
+
+    private static final int DEFAULT_SIZE = 1024;
+    private static final int FIELDS = 4;  // Time, event, a, b
+
+    private final long[] entries;
+    private final int mask;
+    private long position;  // Number of events recorded so far
+
+    /**
+     * Creates a trace of the size set by the {@value #SIZE_PROPERTY} system property, 1024 events by default.
+     */
+    public Trace() {
+        this(Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE));
+    }
+
+    /**
+     * Creates a trace.
+     *
+     * @param size Number of events kept, rounded up to a power of two.
+     * @throws IllegalArgumentException If the size is less than 1.
+     */
+    public Trace(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Invalid trace size " + size);
+        }
+        int capacity = size == 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+        this.entries = new long[capacity * FIELDS];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Records an event, overwriting the oldest one when the trace is full.
+     *
+     * @param event The event.
+     * @param a     First argument, see {@link TraceEvent}.
+     * @param b     Second argument, see {@link TraceEvent}.
+     */
+    public void record(TraceEvent event, long a, long b) {
+        int slot = (int) (position & mask) * FIELDS;
+        entries[slot] = System.nanoTime();
+        entries[slot + 1] = event.ordinal();
+        entries[slot + 2] = a;
+        entries[slot + 3] = b;
+        position++;
+    }
+
+    /**
+     * Returns the number of events recorded since the trace was created, including overwritten ones.
+     *
+     * @return Recorded events.
+     */
+    public long getRecorded() {
+        return position;
+    }
+
+    /**
+     * Formats the kept events, oldest first, with their time relative to the newest event.
+     *
+     * @return One line per event, empty if nothing was recorded.
+     */
+    public String dump() {
+        long end = position;
+        long start = Math.max(0, end - (mask + 1));
+        if (end == 0) {
+            return "";
+        }
+        long newest = entries[(int) ((end - 1) & mask) * FIELDS];
+        TraceEvent[] events = TraceEvent.values();
+        StringBuilder sb = new StringBuilder();
+        for (long i = start; i < end; i++) {
+            int slot = (int) (i & mask) * FIELDS;
+            int code = (int) entries[slot + 1];
+            if (code < 0 || code >= events.length) {
+                continue;  // Torn entry
+            }
+            String description;
+            try {
+                description = events[code].describe(entries[slot + 2], entries[slot + 3]);
+            } catch (RuntimeException e) {
+                continue;  // Torn entry with invalid arguments
+            }
+            sb.append(String.format(Locale.ROOT, "%12.3f ms  ", (entries[slot] - newest) / 1_000_000.0))
+                    .append(description)
+                    .append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,45 @@
+package pl.projekt.tui.metrics;
+
+import pl.projekt.tui.model.keys.KeyLabel;
+
+/**
+ * Events recorded in a session's {@link Trace}. Every event carries two numeric arguments whose meaning depends on the
+ * event; they are only turned into text when the trace is dumped.
+ */
+public enum TraceEvent {
+
+    KEY_RECEIVED((a, b) -> "key " + KeyLabel.values()[(int) b] + " (" + a + " bytes)"),
+    KEY_UNKNOWN((a, b) -> "unknown sequence of " + a + " bytes starting with " + b),
+    TAB_SWITCHED((a, b) -> "tab " + a + " -> " + b),
+    TEXT_INPUT((a, b) -> "text field input '" + (char) a + "', " + b + " characters"),
+    CHECK_BOX_SELECTED((a, b) -> "check box at " + a + "," + b + " selected"),
+    DIALOG_BUTTON_FOCUSED((a, b) -> "dialog button " + a + " of " + b + " focused"),
+    DIALOG_CANCELLED((a, b) -> "dialog cancelled"),
+    DIALOG_CLOSED((a, b) -> "dialog closed"),
+    OUT_OF_BOUNDS((a, b) -> a + " cells out of bounds, first at " + (b >> 32) + "," + (int) b),
+    FRAME_RENDERED((a, b) -> "frame of " + a + " bytes in " + b / 1000 + " us"),
+    RESIZED((a, b) -> "resized to " + a + "x" + b),
+    QUALITY_CHANGED((a, b) -> (a != 0 ? "quality reduced" : "quality restored") + ", " + b / 1_000_000 + " ms per frame");
+
+    private final Describer describer;
+
+    TraceEvent(Describer describer) {
+        this.describer = describer;
+    }
+
+    /**
+     * Describes an occurrence of the event.
+     *
+     * @param a First argument.
+     * @param b Second argument.
+     * @return Human-readable description.
+     */
+    public String describe(long a, long b) {
+        return describer.describe(a, b);
+    }
+
+    @FunctionalInterface
+    private interface Describer {
+        String describe(long a, long b);
+    }
+}
@@ -0,0 +1,21 @@
+package pl.projekt.tui.metrics;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Writing and flushing a frame to the client's connection.
+ */
+@Name("pl.projekt.tui.Write")
+@Label("Write Frame")
+@Description("Writing and flushing a frame to the client's connection")
+@Threshold("1 ms")
+public class WriteEvent extends FrameEvent {
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
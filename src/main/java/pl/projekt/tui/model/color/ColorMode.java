@@ -0,0 +1,14 @@
+package pl.projekt.tui.model.color;
+
+/**
+ * Color capability of a terminal, deciding how {@link Palette} encodes colors. Colors the mode cannot show are
+ * mapped to the nearest color it can.
+ */
+public enum ColorMode {
+    /** The 8 standard and 8 bright ANSI colors, SGR 30-37, 90-97 and their backgrounds. */
+    ANSI_16,
+    /** The xterm 256-color palette, SGR 38;5 and 48;5. */
+    INDEXED_256,
+    /** 24-bit RGB colors, SGR 38;2 and 48;2. */
+    TRUECOLOR
+}
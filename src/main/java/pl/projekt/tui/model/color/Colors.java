@@ -3,8 +3,9 @@ package pl.projekt.tui.model.color;
 import lombok.Getter;
 
 /**
- * Enum containing ANSI escape codes for text and background colors.
- * These codes are used for colorizing text and backgrounds in a text-based user interface (TUI).
+ * Enum naming the 16 ANSI colors for text and backgrounds.
+ * {@link #getColor()} gives the {@link Palette} color stored in cells and components; the TEXT_ and BG_ constants of
+ * a color share it, the prefix only tells where the constant is meant to be used.
  */
 @Getter
 public enum Colors {
@@ -12,147 +13,145 @@ public enum Colors {
     /**
      * Black text.
      */
-    TEXT_BLACK("\033[30m"),
+    TEXT_BLACK(0, false),
     /**
      * Red text.
      */
-    TEXT_RED("\033[31m"),
+    TEXT_RED(1, false),
     /**
      * Green text.
      */
-    TEXT_GREEN("\033[32m"),
+    TEXT_GREEN(2, false),
     /**
      * Yellow text.
      */
-    TEXT_YELLOW("\033[33m"),
+    TEXT_YELLOW(3, false),
     /**
      * Blue text.
      */
-    TEXT_BLUE("\033[34m"),
+    TEXT_BLUE(4, false),
     /**
      * Magenta text.
      */
-    TEXT_MAGENTA("\033[35m"),
+    TEXT_MAGENTA(5, false),
     /**
      * Cyan text.
      */
-    TEXT_CYAN("\033[36m"),
+    TEXT_CYAN(6, false),
     /**
      * White text.
      */
-    TEXT_WHITE("\033[37m"),
+    TEXT_WHITE(7, false),
     /**
      * Bright black text.
      */
-    TEXT_BRIGHT_BLACK("\033[90m"),
+    TEXT_BRIGHT_BLACK(8, false),
     /**
      * Bright red text.
      */
-    TEXT_BRIGHT_RED("\033[91m"),
+    TEXT_BRIGHT_RED(9, false),
     /**
      * Bright green text.
      */
-    TEXT_BRIGHT_GREEN("\033[92m"),
+    TEXT_BRIGHT_GREEN(10, false),
     /**
      * Bright yellow text.
      */
-    TEXT_BRIGHT_YELLOW("\033[93m"),
+    TEXT_BRIGHT_YELLOW(11, false),
     /**
      * Bright blue text.
      */
-    TEXT_BRIGHT_BLUE("\033[94m"),
+    TEXT_BRIGHT_BLUE(12, false),
     /**
      * Bright magenta text.
      */
-    TEXT_BRIGHT_MAGENTA("\033[95m"),
+    TEXT_BRIGHT_MAGENTA(13, false),
     /**
      * Bright cyan text.
      */
-    TEXT_BRIGHT_CYAN("\033[96m"),
+    TEXT_BRIGHT_CYAN(14, false),
     /**
      * Bright white text.
      */
-    TEXT_BRIGHT_WHITE("\033[97m"),
+    TEXT_BRIGHT_WHITE(15, false),
 
     /**
      * Black background.
      */
-    BG_BLACK("\033[40m"),
+    BG_BLACK(0, true),
     /**
      * Red background.
      */
-    BG_RED("\033[41m"),
+    BG_RED(1, true),
     /**
      * Green background.
      */
-    BG_GREEN("\033[42m"),
+    BG_GREEN(2, true),
     /**
      * Yellow background.
      */
-    BG_YELLOW("\033[43m"),
+    BG_YELLOW(3, true),
     /**
      * Blue background.
      */
-    BG_BLUE("\033[44m"),
+    BG_BLUE(4, true),
     /**
      * Magenta background.
      */
-    BG_MAGENTA("\033[45m"),
+    BG_MAGENTA(5, true),
     /**
      * Cyan background.
      */
-    BG_CYAN("\033[46m"),
+    BG_CYAN(6, true),
     /**
      * White background.
      */
-    BG_WHITE("\033[47m"),
+    BG_WHITE(7, true),
     /**
      * Bright black background.
      */
-    BG_BRIGHT_BLACK("\033[100m"),
+    BG_BRIGHT_BLACK(8, true),
     /**
      * Bright red background.
      */
-    BG_BRIGHT_RED("\033[101m"),
+    BG_BRIGHT_RED(9, true),
     /**
      * Bright green background.
      */
-    BG_BRIGHT_GREEN("\033[102m"),
+    BG_BRIGHT_GREEN(10, true),
     /**
      * Bright yellow background.
      */
-    BG_BRIGHT_YELLOW("\033[103m"),
+    BG_BRIGHT_YELLOW(11, true),
     /**
      * Bright blue background.
      */
-    BG_BRIGHT_BLUE("\033[104m"),
+    BG_BRIGHT_BLUE(12, true),
     /**
      * Bright magenta background.
      */
-    BG_BRIGHT_MAGENTA("\033[105m"),
+    BG_BRIGHT_MAGENTA(13, true),
     /**
      * Bright cyan background.
      */
-    BG_BRIGHT_CYAN("\033[106m"),
+    BG_BRIGHT_CYAN(14, true),
     /**
      * Bright white background.
      */
-    BG_BRIGHT_WHITE("\033[107m"),
+    BG_BRIGHT_WHITE(15, true);
 
-    /**
-     * Resets text and background color effects.
-     */
-    RESET("\033[0m");
-
-    private final String code;
+    private final int color;  // Palette color
+    private final boolean background;  // Whether the constant is meant for backgrounds
 
     /**
      * Constructor for Colors enum.
      *
-     * @param code ANSI escape code for the color.
+     * @param color      Index of the color in the {@link Palette}.
+     * @param background Whether the constant names a background color.
      */
-    Colors(String code) {
-        this.code = code;
+    Colors(int color, boolean background) {
+        this.color = color;
+        this.background = background;
     }
 
 }
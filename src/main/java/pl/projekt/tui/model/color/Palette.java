@@ -0,0 +1,278 @@
+package pl.projekt.tui.model.color;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact color model of the TUI. A color is an {@code int}:
+ * <ul>
+ *     <li>{@value #DEFAULT} for the terminal's default color,</li>
+ *     <li>0-255 for an entry of the xterm palette, where 0-15 are the ANSI colors,</li>
+ *     <li>{@code 0x1RRGGBB} for a 24-bit color, created by {@link #rgb(int, int, int)}.</li>
+ * </ul>
+ * Cells and components store these ints, so comparing colors is an int compare. The SGR sequences selecting a color
+ * are encoded once per color, role and {@link ColorMode} and shared; renderers write the returned arrays directly
+ * and must not modify them.
+ */
+public final class Palette {
+
+    /** The terminal's default foreground or background color, SGR 39 and 49. */
+    public static final int DEFAULT = -1;
+
+    public static final int BLACK = 0;
+    public static final int RED = 1;
+    public static final int GREEN = 2;
+    public static final int YELLOW = 3;
+    public static final int BLUE = 4;
+    public static final int MAGENTA = 5;
+    public static final int CYAN = 6;
+    public static final int WHITE = 7;
+    public static final int BRIGHT_BLACK = 8;
+    public static final int BRIGHT_RED = 9;
+    public static final int BRIGHT_GREEN = 10;
+    public static final int BRIGHT_YELLOW = 11;
+    public static final int BRIGHT_BLUE = 12;
+    public static final int BRIGHT_MAGENTA = 13;
+    public static final int BRIGHT_CYAN = 14;
+    public static final int BRIGHT_WHITE = 15;
+
+    private static final int RGB_FLAG = 0x1000000;
+    private static final int MAX_CACHED_RGB = 4096;  // Per role and mode, gradients could otherwise fill the cache
+
+    // RGB values of the xterm palette, used to map colors to a smaller palette
+    private static final int[] INDEXED_RGB = new int[256];
+    private static final int[] CUBE_LEVELS = {0, 95, 135, 175, 215, 255};
+
+    private static final int FOREGROUND = 0;
+    private static final int BACKGROUND = 1;
+    private static final byte[][] DEFAULT_SEQUENCES = {bytes("\033[39m"), bytes("\033[49m")};
+    private static final byte[][][][] INDEXED_SEQUENCES = new byte[2][ColorMode.values().length][256][];
+    @SuppressWarnings("unchecked")
+    private static final Map<Integer, byte[]>[][] RGB_SEQUENCES = new Map[2][ColorMode.values().length];
+
+    static {
+        int[] ansi = {0x000000, 0xCD0000, 0x00CD00, 0xCDCD00, 0x0000EE, 0xCD00CD, 0x00CDCD, 0xE5E5E5,
+                0x7F7F7F, 0xFF0000, 0x00FF00, 0xFFFF00, 0x5C5CFF, 0xFF00FF, 0x00FFFF, 0xFFFFFF};
+        System.arraycopy(ansi, 0, INDEXED_RGB, 0, 16);
+        for (int i = 16; i < 232; i++) {
+            int cube = i - 16;
+            INDEXED_RGB[i] = CUBE_LEVELS[cube / 36] << 16 | CUBE_LEVELS[cube / 6 % 6] << 8 | CUBE_LEVELS[cube % 6];
+        }
+        for (int i = 232; i < 256; i++) {
+            int gray = 8 + 10 * (i - 232);
+            INDEXED_RGB[i] = gray << 16 | gray << 8 | gray;
+        }
+        for (int role = FOREGROUND; role <= BACKGROUND; role++) {
+            for (ColorMode mode : ColorMode.values()) {
+                for (int i = 0; i < 256; i++) {
+                    INDEXED_SEQUENCES[role][mode.ordinal()][i] = encode(i, role, mode);
+                }
+                RGB_SEQUENCES[role][mode.ordinal()] = new ConcurrentHashMap<>();
+            }
+        }
+    }
+
+    private Palette() {
+    }
+
+    /**
+     * Returns the color of an xterm palette entry.
+     *
+     * @param index Index in the palette, 0-255.
+     * @return The color.
+     */
+    public static int indexed(int index) {
+        if (index < 0 || index > 255) {
+            throw new IllegalArgumentException("Palette index " + index + " is not in 0-255");
+        }
+        return index;
+    }
+
+    /**
+     * Returns a 24-bit color.
+     *
+     * @param red   Red component, 0-255.
+     * @param green Green component, 0-255.
+     * @param blue  Blue component, 0-255.
+     * @return The color.
+     */
+    public static int rgb(int red, int green, int blue) {
+        if ((red | green | blue) >>> 8 != 0) {
+            throw new IllegalArgumentException("RGB components " + red + "," + green + "," + blue + " are not in 0-255");
+        }
+        return RGB_FLAG | red << 16 | green << 8 | blue;
+    }
+
+    /**
+     * Parses a color written as {@code #RRGGBB} or as a palette index.
+     *
+     * @param text The text.
+     * @return The color.
+     * @throws IllegalArgumentException If the text is not a color.
+     */
+    public static int parse(String text) {
+        try {
+            if (text.length() == 7 && text.charAt(0) == '#') {
+                return RGB_FLAG | Integer.parseInt(text.substring(1), 16);
+            }
+            return indexed(Integer.parseInt(text));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + text + "' is not a color");
+        }
+    }
+
+    /**
+     * Checks whether an int is a color of this model.
+     *
+     * @param color The int.
+     * @return True for the default color, palette entries and 24-bit colors.
+     */
+    public static boolean isValid(int color) {
+        return color >= DEFAULT && color <= 255 || (color & ~0xFFFFFF) == RGB_FLAG;
+    }
+
+    /**
+     * Checks whether a color is a 24-bit color.
+     *
+     * @param color The color.
+     * @return True if it was created by {@link #rgb(int, int, int)}.
+     */
+    public static boolean isRgb(int color) {
+        return (color & ~0xFFFFFF) == RGB_FLAG;
+    }
+
+    /**
+     * Returns the RGB value of a color; palette entries use the xterm defaults.
+     *
+     * @param color The color, not {@link #DEFAULT}, whose value depends on the terminal.
+     * @return The color as {@code 0xRRGGBB}.
+     */
+    public static int toRgb(int color) {
+        if (isRgb(color)) {
+            return color & 0xFFFFFF;
+        }
+        if (color < 0 || color > 255) {
+            throw new IllegalArgumentException("Color " + color + " has no RGB value");
+        }
+        return INDEXED_RGB[color];
+    }
+
+    /**
+     * Blends two colors.
+     *
+     * @param from  Color at ratio 0.
+     * @param to    Color at ratio 1.
+     * @param ratio Position between the colors, 0-1.
+     * @return The 24-bit color at the ratio.
+     */
+    public static int interpolate(int from, int to, double ratio) {
+        int a = toRgb(from);
+        int b = toRgb(to);
+        return rgb(blend(a >> 16, b >> 16, ratio), blend(a >> 8 & 0xFF, b >> 8 & 0xFF, ratio), blend(a & 0xFF, b & 0xFF, ratio));
+    }
+
+    private static int blend(int from, int to, double ratio) {
+        return (int) (from + ratio * (to - from));
+    }
+
+    /**
+     * Maps a color to the nearest color a mode can show.
+     *
+     * @param color The color.
+     * @param mode  The color mode.
+     * @return The color itself if the mode can show it, otherwise the nearest palette entry.
+     */
+    public static int reduce(int color, ColorMode mode) {
+        if (color == DEFAULT || mode == ColorMode.TRUECOLOR || (color < 16 && color >= 0)) {
+            return color;
+        }
+        if (mode == ColorMode.INDEXED_256) {
+            // Themes redefine the first 16 entries, the cube and the grays are the same on every terminal
+            return isRgb(color) ? nearest(color & 0xFFFFFF, 16, 256) : color;
+        }
+        return nearest(toRgb(color), 0, 16);
+    }
+
+    private static int nearest(int rgb, int from, int to) {
+        int best = from;
+        long bestDistance = Long.MAX_VALUE;
+        for (int i = from; i < to; i++) {
+            long distance = distance(rgb, INDEXED_RGB[i]);
+            if (distance < bestDistance) {
+                best = i;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    private static long distance(int a, int b) {
+        long red = (a >> 16) - (b >> 16);
+        long green = (a >> 8 & 0xFF) - (b >> 8 & 0xFF);
+        long blue = (a & 0xFF) - (b & 0xFF);
+        return red * red + green * green + blue * blue;
+    }
+
+    /**
+     * Returns the SGR sequence selecting a foreground color.
+     *
+     * @param color The color.
+     * @param mode  Color mode of the terminal.
+     * @return The shared, pre-encoded sequence.
+     */
+    public static byte[] foreground(int color, ColorMode mode) {
+        return sequence(color, FOREGROUND, mode);
+    }
+
+    /**
+     * Returns the SGR sequence selecting a background color.
+     *
+     * @param color The color.
+     * @param mode  Color mode of the terminal.
+     * @return The shared, pre-encoded sequence.
+     */
+    public static byte[] background(int color, ColorMode mode) {
+        return sequence(color, BACKGROUND, mode);
+    }
+
+    private static byte[] sequence(int color, int role, ColorMode mode) {
+        if (color == DEFAULT) {
+            return DEFAULT_SEQUENCES[role];
+        }
+        if (color >= 0 && color <= 255) {
+            return INDEXED_SEQUENCES[role][mode.ordinal()][color];
+        }
+        if (!isRgb(color)) {
+            throw new IllegalArgumentException("Invalid color " + color);
+        }
+        Map<Integer, byte[]> cache = RGB_SEQUENCES[role][mode.ordinal()];
+        byte[] sequence = cache.get(color);
+        if (sequence == null) {
+            sequence = encode(color, role, mode);
+            if (cache.size() < MAX_CACHED_RGB) {
+                cache.put(color, sequence);
+            }
+        }
+        return sequence;
+    }
+
+    private static byte[] encode(int color, int role, ColorMode mode) {
+        int reduced = reduce(color, mode);
+        String sgr;
+        if (reduced < 8) {
+            sgr = String.valueOf((role == FOREGROUND ? 30 : 40) + reduced);
+        } else if (reduced < 16) {
+            sgr = String.valueOf((role == FOREGROUND ? 90 : 100) + reduced - 8);
+        } else if (reduced <= 255) {
+            sgr = (role == FOREGROUND ? "38;5;" : "48;5;") + reduced;
+        } else {
+            sgr = (role == FOREGROUND ? "38;2;" : "48;2;") + (reduced >> 16 & 0xFF) + ";" + (reduced >> 8 & 0xFF) + ";" + (reduced & 0xFF);
+        }
+        return bytes("\033[" + sgr + "m");
+    }
+
+    private static byte[] bytes(String sequence) {
+        return sequence.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,110 @@
+package pl.projekt.tui.model.keys;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Key-binding table of one input scope (a component, a tab or the manager).
+ * <p>
+ * Bindings are stored in an {@link EnumMap}, so dispatching a key is a constant-time array lookup that allocates
+ * nothing. A scope can also publish named actions, which lets users rebind keys from configuration
+ * (see {@link #configure(Map)}) without knowing how the actions are implemented.
+ */
+public class KeyBindings {
+
+    private final EnumMap<KeyLabel, KeyHandler> handlers = new EnumMap<>(KeyLabel.class);  // Bound keys
+    private final Map<String, KeyHandler> actions = new HashMap<>();  // Named actions available for configuration
+
+    /**
+     * Binds a key to a handler, replacing the previous binding.
+     *
+     * @param label   The key.
+     * @param handler The handler.
+     * @return This table.
+     */
+    public KeyBindings bind(KeyLabel label, KeyHandler handler) {
+        handlers.put(label, handler);
+        return this;
+    }
+
+    /**
+     * Binds a key to a named action.
+     *
+     * @param label  The key.
+     * @param action The name of an action defined with {@link #defineAction(String, KeyHandler)}.
+     * @return This table.
+     * @throws IllegalArgumentException If the action is not defined.
+     */
+    public KeyBindings bind(KeyLabel label, String action) {
+        KeyHandler handler = actions.get(action);
+        if (handler == null) {
+            throw new IllegalArgumentException("Unknown action '" + action + "'");
+        }
+        return bind(label, handler);
+    }
+
+    /**
+     * Removes the binding of a key, so the key bubbles to the next scope.
+     *
+     * @param label The key.
+     */
+    public void unbind(KeyLabel label) {
+        handlers.remove(label);
+    }
+
+    /**
+     * Publishes a named action that can be bound with {@link #bind(KeyLabel, String)} or {@link #configure(Map)}.
+     *
+     * @param name    The name of the action.
+     * @param handler The handler performing the action.
+     * @return This table.
+     */
+    public KeyBindings defineAction(String name, KeyHandler handler) {
+        actions.put(name, handler);
+        return this;
+    }
+
+    /**
+     * Applies user bindings given as key label names mapped to action names, e.g. {@code "F8" -> "nextTab"}.
+     * An empty action name removes the binding of the key.
+     *
+     * @param bindings The bindings to apply.
+     * @throws IllegalArgumentException If a key label or an action is unknown.
+     */
+    public void configure(Map<String, String> bindings) {
+        for (Map.Entry<String, String> entry : bindings.entrySet()) {
+            KeyLabel label = KeyLabel.valueOf(entry.getKey());
+            if (entry.getValue() == null || entry.getValue().isEmpty()) {
+                unbind(label);
+            } else {
+                bind(label, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Returns the handler bound to a key.
+     *
+     * @param label The key.
+     * @return The handler, or null if the key is not bound.
+     */
+    public KeyHandler getHandler(KeyLabel label) {
+        return handlers.get(label);
+    }
+
+    /**
+     * Runs the handler bound to the pressed key.
+     *
+     * @param keyInfo The pressed key.
+     * @return True if the key was bound and handled, false if it should bubble to the next scope.
+     */
+    public boolean dispatch(KeyInfo keyInfo) {
+        KeyHandler handler = handlers.get(keyInfo.getLabel());
+        if (handler == null) {
+            return false;
+        }
+        handler.handle(keyInfo);
+        return true;
+    }
+}
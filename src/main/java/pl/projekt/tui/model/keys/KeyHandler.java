@@ -0,0 +1,15 @@
+package pl.projekt.tui.model.keys;
+
+/**
+ * Action bound to a key in a {@link KeyBindings} table.
+ */
+@FunctionalInterface
+public interface KeyHandler {
+
+    /**
+     * Handles a key press.
+     *
+     * @param keyInfo The pressed key.
+     */
+    void handle(KeyInfo keyInfo);
+}
@@ -78,5 +78,9 @@ public enum KeyLabel {
      */
     INTERNAL_WIN_RESIZE,
     /** Space key. */
-    SPACE
+    SPACE,
+    /** Page Up key. */
+    PAGE_UP,
+    /** Page Down key. */
+    PAGE_DOWN
 }
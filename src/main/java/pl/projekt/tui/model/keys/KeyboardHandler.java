@@ -42,6 +42,8 @@ public class KeyboardHandler {
         addKey(new KeyInfo(KeyLabel.ARROW_DOWN), 27, 91, 66);
         addKey(new KeyInfo(KeyLabel.ARROW_RIGHT), 27, 91, 67);
         addKey(new KeyInfo(KeyLabel.ARROW_LEFT), 27, 91, 68);
+        addKey(new KeyInfo(KeyLabel.PAGE_UP), 27, 91, 53, 126);
+        addKey(new KeyInfo(KeyLabel.PAGE_DOWN), 27, 91, 54, 126);
         addKey(new KeyInfo(KeyLabel.F1), 27, 79, 80);
         addKey(new KeyInfo(KeyLabel.F2), 27, 79, 81);
         addKey(new KeyInfo(KeyLabel.F3), 27, 79, 82);
@@ -95,6 +97,19 @@ public class KeyboardHandler {
         return sb.toString();
     }
 
+    /**
+     * Converts bytes read from the terminal to unsigned key codes.
+     *
+     * @param data Bytes of one read
+     * @return Key codes in the range 0-255
+     */
+    public static int[] toKeyCodes(byte[] data) {
+        int[] keyCodes = new int[data.length];
+        for (int i = 0; i < data.length; ++i)
+            keyCodes[i] = data[i] & 0xFF;
+        return keyCodes;
+    }
+
     /**
      * Retrieves KeyInfo object associated with the provided key codes.
      *
@@ -0,0 +1,15 @@
+package pl.projekt.tui.model.screen;
+
+import lombok.Value;
+
+/**
+ * Immutable description of the dialog a button opens to present the result of its action.
+ */
+@Value
+public class DialogDefinition {
+    String title;  // Title of the dialog
+    int x;         // X-coordinate position
+    int y;         // Y-coordinate position
+    int width;     // Width of the dialog
+    int height;    // Height of the dialog
+}
@@ -0,0 +1,30 @@
+package pl.projekt.tui.model.screen;
+
+import lombok.Builder;
+import lombok.Value;
+import pl.projekt.tui.layout.Alignment;
+import pl.projekt.tui.layout.AnchorLayout;
+
+import java.util.List;
+
+/**
+ * Immutable description of a node of the layout placing the widgets of a tab.
+ * Only the properties relevant to the node's {@link LayoutType} and to the type of its parent are used.
+ */
+@Value
+@Builder
+public class LayoutDefinition {
+    LayoutType type;                  // Kind of node
+    String widget;                    // Id of the widget placed by a widget node
+    List<LayoutDefinition> children;  // Children of a container, in placement order
+    int gap;                          // Cells between the children of a row or a column
+    Alignment alignment;              // Placement of the children of a row or a column on the cross axis
+    int columns;                      // Number of columns of a grid
+    int columnGap;                    // Cells between the columns of a grid
+    int rowGap;                       // Cells between the rows of a grid
+    int stretchColumn;                // Column of a grid taking the leftover width, -1 for none
+    int weight;                       // Share of the free space in a row or a column, 0 to keep the measured size
+    AnchorLayout.Anchor anchor;       // Point of an anchor container the node is pinned to
+    int dx;                           // Horizontal offset from the anchor point
+    int dy;                           // Vertical offset from the anchor point
+}
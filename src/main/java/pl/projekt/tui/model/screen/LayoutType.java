@@ -0,0 +1,17 @@
+package pl.projekt.tui.model.screen;
+
+/**
+ * Enum listing the nodes that can be declared in the layout of a tab.
+ */
+public enum LayoutType {
+    /** Children placed from left to right. */
+    ROW,
+    /** Children placed from top to bottom. */
+    COLUMN,
+    /** Children placed in a grid, row by row. */
+    GRID,
+    /** Children pinned to an edge, a corner or the center. */
+    ANCHOR,
+    /** Leaf placing a widget of the tab. */
+    WIDGET
+}
@@ -0,0 +1,17 @@
+package pl.projekt.tui.model.screen;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable description of a whole screen: the tabs in display order and the user key bindings.
+ */
+@Value
+public class ScreenDefinition {
+    String name;               // Name of the screen, used in logs
+    List<TabDefinition> tabs;  // Tabs of the screen
+    Map<String, String> keys;     // Key label -> action bindings of the manager, e.g. F8 -> nextTab
+    Map<String, String> tabKeys;  // Key label -> action bindings of every tab, e.g. ARROW_RIGHT -> focusNext
+}
@@ -0,0 +1,17 @@
+package pl.projekt.tui.model.screen;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Immutable description of a tab, the widgets it contains, in drawing order, and the optional layout placing them.
+ */
+@Value
+public class TabDefinition {
+    String title;                    // Title shown in the tab header
+    int x;                           // X-coordinate of the tab header
+    int y;                           // Y-coordinate of the tab header
+    List<WidgetDefinition> widgets;  // Widgets of the tab
+    LayoutDefinition layout;         // Layout placing the widgets below the tab headers, null to keep their x/y positions
+}
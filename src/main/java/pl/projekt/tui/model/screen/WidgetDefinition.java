@@ -0,0 +1,28 @@
+package pl.projekt.tui.model.screen;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Immutable description of a single widget read from a screen definition file.
+ * Only the properties relevant to the widget's {@link WidgetType} are used, the others keep their defaults.
+ */
+@Value
+@Builder
+public class WidgetDefinition {
+    WidgetType type;          // Kind of widget
+    String id;                // Identifier used to look the widget up in a session, optional for static widgets
+    int x;                    // X-coordinate position
+    int y;                    // Y-coordinate position
+    int width;                // Width of the widget
+    int height;               // Height of the widget
+    int zIndex;               // Layer index
+    String text;              // Label text, button caption or check box label
+    Integer textColor;        // Palette text color, null for the widget's default
+    Integer backgroundColor;  // Palette background color, null for the widget's default
+    boolean numeric;          // Whether a text field only accepts numbers
+    String group;             // Radio button group of a check box
+    String value;             // Value of a check box
+    String action;            // Name of the action performed by a button
+    DialogDefinition dialog;  // Dialog opened by a button's action, optional
+}
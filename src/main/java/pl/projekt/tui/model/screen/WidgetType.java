@@ -0,0 +1,32 @@
+package pl.projekt.tui.model.screen;
+
+/**
+ * Enum listing the widget kinds that can be declared in a screen definition file.
+ */
+public enum WidgetType {
+    /** Static text, rasterized into the shared template. */
+    LABEL(false),
+    /** Static frame, rasterized into the shared template. */
+    BORDER(false),
+    /** Editable text field, created per session. */
+    TEXT_FIELD(true),
+    /** Button performing a named action, created per session. */
+    BUTTON(true),
+    /** Check box belonging to a radio button group, created per session. */
+    CHECK_BOX(true);
+
+    private final boolean interactive;
+
+    WidgetType(boolean interactive) {
+        this.interactive = interactive;
+    }
+
+    /**
+     * Checks if widgets of this type hold per-session state.
+     *
+     * @return True if the widget is created for every session, false if it is part of the shared template.
+     */
+    public boolean isInteractive() {
+        return interactive;
+    }
+}
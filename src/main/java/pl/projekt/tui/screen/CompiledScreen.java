@@ -0,0 +1,226 @@
+package pl.projekt.tui.screen;
+
+import pl.projekt.tui.component.*;
+import pl.projekt.tui.layout.AnchorLayout;
+import pl.projekt.tui.layout.ComponentNode;
+import pl.projekt.tui.layout.FlexLayout;
+import pl.projekt.tui.layout.GridLayout;
+import pl.projekt.tui.layout.LayoutNode;
+import pl.projekt.tui.model.color.Colors;
+import pl.projekt.tui.model.screen.LayoutDefinition;
+import pl.projekt.tui.model.screen.LayoutType;
+import pl.projekt.tui.model.screen.ScreenDefinition;
+import pl.projekt.tui.model.screen.TabDefinition;
+import pl.projekt.tui.model.screen.WidgetDefinition;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, ready-to-instantiate form of a {@link ScreenDefinition}. Static widgets are rasterized into a shared
+ * {@link TUITemplate} when the screen is compiled; interactive widgets, and static widgets placed by the layout of
+ * their tab, are kept as definitions and created for every session by
+ * {@link #instantiate(TUIManager, int, int, ScreenActionHandler)}, which also lays out the tabs and applies the key
+ * bindings of the definition to the session's manager and tabs.
+ */
+public final class CompiledScreen {
+
+    private final ScreenDefinition definition;
+    private final TUITemplate template;
+    private final List<List<WidgetDefinition>> sessionWidgets;  // Per tab, in drawing order
+
+    private CompiledScreen(ScreenDefinition definition, TUITemplate template, List<List<WidgetDefinition>> sessionWidgets) {
+        this.definition = definition;
+        this.template = template;
+        this.sessionWidgets = sessionWidgets;
+    }
+
+    /**
+     * Compiles a screen definition.
+     *
+     * @param definition The parsed definition.
+     * @return The compiled screen.
+     * @throws IOException If the definition contains duplicate ids or a layout places an unknown widget.
+     */
+    public static CompiledScreen compile(ScreenDefinition definition) throws IOException {
+        TUITemplate.Builder builder = TUITemplate.builder();
+        List<List<WidgetDefinition>> sessionWidgets = new ArrayList<>();
+        Set<String> ids = new HashSet<>();
+
+        for (TabDefinition tab : definition.getTabs()) {
+            int tabIndex = builder.addTab(tab.getTitle(), tab.getX(), tab.getY(), 0);
+            Set<String> placed = new HashSet<>();
+            if (tab.getLayout() != null) {
+                collectPlacedWidgets(tab, tab.getLayout(), placed);
+            }
+            List<WidgetDefinition> perSession = new ArrayList<>();
+            for (WidgetDefinition widget : tab.getWidgets()) {
+                if (widget.getId() != null && !ids.add(widget.getId())) {
+                    throw new IOException("Duplicate id '" + widget.getId() + "' in screen '" + definition.getName() + "'");
+                }
+                boolean isPlaced = placed.remove(widget.getId());
+                if (isPlaced || widget.getType().isInteractive()) {
+                    perSession.add(widget);  // Placed widgets move with the size of the session's screen
+                } else {
+                    builder.addStatic(tabIndex, createStatic(widget));
+                }
+            }
+            if (!placed.isEmpty()) {
+                throw new IOException("Layout of tab '" + tab.getTitle() + "' places unknown widget '" + placed.iterator().next() + "'");
+            }
+            sessionWidgets.add(List.copyOf(perSession));
+        }
+        validateKeys(definition);
+        return new CompiledScreen(definition, builder.build(), List.copyOf(sessionWidgets));
+    }
+
+    /**
+     * Creates the tabs and interactive components of one session and lays out the tabs that have a layout.
+     *
+     * @param tuiManager    The session's manager.
+     * @param width         Current width of the session's screen.
+     * @param height        Current height of the session's screen.
+     * @param actionHandler Handler performing the actions of buttons.
+     * @return The session's screen instance.
+     */
+    public ScreenInstance instantiate(TUIManager tuiManager, int width, int height, ScreenActionHandler actionHandler) {
+        List<TUITab> tabs = template.instantiate(tuiManager, width, height);
+        Map<String, TUIComponent> components = new HashMap<>();
+        Map<String, TUIRadioButtonGroup> groups = new HashMap<>();
+        ScreenInstance instance = new ScreenInstance(tabs, components, groups);
+
+        for (int i = 0; i < tabs.size(); i++) {
+            for (WidgetDefinition widget : sessionWidgets.get(i)) {
+                TUIComponent component = widget.getType().isInteractive()
+                        ? createInteractive(widget, tuiManager, groups, actionHandler, instance)
+                        : createStatic(widget);
+                components.put(widget.getId(), component);
+                tabs.get(i).addComponent(component);
+            }
+            LayoutDefinition layout = definition.getTabs().get(i).getLayout();
+            if (layout != null) {
+                tabs.get(i).setLayout(createLayout(layout, components));
+            }
+            tabs.get(i).getKeyBindings().configure(definition.getTabKeys());
+        }
+        tuiManager.getKeyBindings().configure(definition.getKeys());
+        return instance;
+    }
+
+    /**
+     * Returns the definition the screen was compiled from.
+     *
+     * @return The definition.
+     */
+    public ScreenDefinition getDefinition() {
+        return definition;
+    }
+
+    /**
+     * Returns the shared template holding the rasterized static widgets.
+     *
+     * @return The template.
+     */
+    public TUITemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * Applies the key bindings to throwaway scopes, so an unknown action is reported when the screen is compiled
+     * and not when a session is created.
+     */
+    private static void validateKeys(ScreenDefinition definition) throws IOException {
+        try {
+            new TUIManager(null, null).getKeyBindings().configure(definition.getKeys());
+            new TUITab("", 0, 0, 0, 0, 0, null).getKeyBindings().configure(definition.getTabKeys());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid key binding in screen '" + definition.getName() + "': " + e.getMessage());
+        }
+    }
+
+    /**
+     * Collects the ids of the widgets a layout places, so they are created per session and not rasterized.
+     */
+    private static void collectPlacedWidgets(TabDefinition tab, LayoutDefinition node, Set<String> placed) throws IOException {
+        if (node.getType() == LayoutType.WIDGET && !placed.add(node.getWidget())) {
+            throw new IOException("Layout of tab '" + tab.getTitle() + "' places widget '" + node.getWidget() + "' twice");
+        }
+        for (LayoutDefinition child : node.getChildren()) {
+            collectPlacedWidgets(tab, child, placed);
+        }
+    }
+
+    private static LayoutNode createLayout(LayoutDefinition node, Map<String, TUIComponent> components) {
+        switch (node.getType()) {
+            case WIDGET:
+                return new ComponentNode((TUILayoutable) components.get(node.getWidget()));
+            case ROW:
+            case COLUMN:
+                FlexLayout flex = new FlexLayout(node.getType() == LayoutType.ROW ? FlexLayout.Direction.ROW : FlexLayout.Direction.COLUMN)
+                        .setGap(node.getGap())
+                        .setAlignment(node.getAlignment());
+                for (LayoutDefinition child : node.getChildren())
+                    flex.add(createLayout(child, components), child.getWeight());
+                return flex;
+            case GRID:
+                GridLayout grid = new GridLayout(node.getColumns())
+                        .setGaps(node.getColumnGap(), node.getRowGap())
+                        .setStretchColumn(node.getStretchColumn());
+                for (LayoutDefinition child : node.getChildren())
+                    grid.add(createLayout(child, components));
+                return grid;
+            case ANCHOR:
+                AnchorLayout anchor = new AnchorLayout();
+                for (LayoutDefinition child : node.getChildren())
+                    anchor.add(createLayout(child, components), child.getAnchor(), child.getDx(), child.getDy());
+                return anchor;
+            default:
+                throw new IllegalArgumentException("Layout type " + node.getType() + " is not supported");
+        }
+    }
+
+    private static TUIComponent createStatic(WidgetDefinition widget) {
+        switch (widget.getType()) {
+            case LABEL:
+                int background = widget.getBackgroundColor() != null ? widget.getBackgroundColor() : Colors.BG_BRIGHT_WHITE.getColor();
+                return new TUILabel(widget.getText(), widget.getX(), widget.getY(), widget.getZIndex(), background, null);
+            case BORDER:
+                TUIBorder border = new TUIBorder(widget.getX(), widget.getY(), widget.getWidth(), widget.getHeight(), widget.getZIndex(), null);
+                if (widget.getBackgroundColor() != null)
+                    border.setBgColor(widget.getBackgroundColor());
+                if (widget.getTextColor() != null)
+                    border.setTextColor(widget.getTextColor());
+                return border;
+            default:
+                throw new IllegalArgumentException("Widget type " + widget.getType() + " is not static");
+        }
+    }
+
+    private static TUIComponent createInteractive(WidgetDefinition widget, TUIManager tuiManager, Map<String, TUIRadioButtonGroup> groups,
+                                                  ScreenActionHandler actionHandler, ScreenInstance instance) {
+        switch (widget.getType()) {
+            case TEXT_FIELD:
+                TUITextField field = new TUITextField(widget.getX(), widget.getY(), widget.getWidth(), widget.getHeight(), widget.getZIndex(), tuiManager);
+                field.setNumeric(widget.isNumeric());
+                return field;
+            case BUTTON:
+                Runnable action = widget.getAction() == null ? null : () -> actionHandler.perform(widget.getAction(), widget, instance);
+                TUIButton button = new TUIButton(widget.getX(), widget.getY(), widget.getWidth(), widget.getHeight(), widget.getZIndex(), widget.getText(), action, tuiManager);
+                if (widget.getBackgroundColor() != null)
+                    button.setBgColor(widget.getBackgroundColor());
+                if (widget.getTextColor() != null)
+                    button.setTextColor(widget.getTextColor());
+                return button;
+            case CHECK_BOX:
+                TUIRadioButtonGroup group = groups.computeIfAbsent(widget.getGroup(), k -> new TUIRadioButtonGroup(tuiManager));
+                return new TUICheckBox(widget.getX(), widget.getY(), widget.getHeight(), widget.getZIndex(), widget.getText(), widget.getValue(), tuiManager, group);
+            default:
+                throw new IllegalArgumentException("Widget type " + widget.getType() + " is not interactive");
+        }
+    }
+}
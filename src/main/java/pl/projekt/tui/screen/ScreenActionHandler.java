@@ -0,0 +1,19 @@
+package pl.projekt.tui.screen;
+
+import pl.projekt.tui.model.screen.WidgetDefinition;
+
+/**
+ * Callback performing the named actions of buttons declared in a screen definition.
+ */
+@FunctionalInterface
+public interface ScreenActionHandler {
+
+    /**
+     * Performs an action.
+     *
+     * @param action The action name declared on the button.
+     * @param source The definition of the button that was pressed.
+     * @param screen The session's screen instance the button belongs to.
+     */
+    void perform(String action, WidgetDefinition source, ScreenInstance screen);
+}
@@ -0,0 +1,86 @@
+package pl.projekt.tui.screen;
+
+import pl.projekt.tui.component.TUIComponent;
+import pl.projekt.tui.component.TUIRadioButtonGroup;
+import pl.projekt.tui.component.TUITab;
+import pl.projekt.tui.component.TUITextField;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The per-session part of a {@link CompiledScreen}: the session's tabs and its interactive components,
+ * which can be looked up by the ids given in the screen definition.
+ */
+public class ScreenInstance {
+
+    private final List<TUITab> tabs;
+    private final Map<String, TUIComponent> components;
+    private final Map<String, TUIRadioButtonGroup> groups;
+
+    ScreenInstance(List<TUITab> tabs, Map<String, TUIComponent> components, Map<String, TUIRadioButtonGroup> groups) {
+        this.tabs = Collections.unmodifiableList(tabs);
+        this.components = components;
+        this.groups = groups;
+    }
+
+    /**
+     * Returns the tabs of the session in display order.
+     *
+     * @return The tabs.
+     */
+    public List<TUITab> getTabs() {
+        return tabs;
+    }
+
+    /**
+     * Returns an interactive component by id.
+     *
+     * @param id The id from the screen definition.
+     * @return The component.
+     * @throws IllegalArgumentException If no component has the given id.
+     */
+    public TUIComponent getComponent(String id) {
+        TUIComponent component = components.get(id);
+        if (component == null) {
+            throw new IllegalArgumentException("No component with id '" + id + "'");
+        }
+        return component;
+    }
+
+    /**
+     * Returns a text field by id.
+     *
+     * @param id The id from the screen definition.
+     * @return The text field.
+     */
+    public TUITextField getTextField(String id) {
+        return (TUITextField) getComponent(id);
+    }
+
+    /**
+     * Parses the content of a text field.
+     *
+     * @param id The id from the screen definition.
+     * @return The parsed number, or 0 if the field does not contain a number.
+     */
+    public double getNumber(String id) {
+        return getTextField(id).getParsedNumber();
+    }
+
+    /**
+     * Returns the value of the selected check box of a radio button group.
+     *
+     * @param group        The group name from the screen definition.
+     * @param defaultValue The value returned when nothing is selected.
+     * @return The selected value or the default.
+     */
+    public String getSelectedValue(String group, String defaultValue) {
+        TUIRadioButtonGroup radioButtonGroup = groups.get(group);
+        if (radioButtonGroup == null || radioButtonGroup.getSelectedCheckBox() == null) {
+            return defaultValue;
+        }
+        return radioButtonGroup.getSelectedCheckBox().getValue();
+    }
+}
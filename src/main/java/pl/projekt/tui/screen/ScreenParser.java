@@ -0,0 +1,208 @@
+package pl.projekt.tui.screen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import pl.projekt.tui.layout.Alignment;
+import pl.projekt.tui.layout.AnchorLayout;
+import pl.projekt.tui.model.color.Colors;
+import pl.projekt.tui.model.color.Palette;
+import pl.projekt.tui.model.keys.KeyLabel;
+import pl.projekt.tui.model.screen.DialogDefinition;
+import pl.projekt.tui.model.screen.LayoutDefinition;
+import pl.projekt.tui.model.screen.LayoutType;
+import pl.projekt.tui.model.screen.ScreenDefinition;
+import pl.projekt.tui.model.screen.TabDefinition;
+import pl.projekt.tui.model.screen.WidgetDefinition;
+import pl.projekt.tui.model.screen.WidgetType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parses screen definition files written in JSON into immutable {@link ScreenDefinition} objects.
+ * <p>
+ * A file contains a {@code tabs} array; every tab has a {@code title}, the {@code x}/{@code y} position of its header
+ * and a {@code widgets} array. Widgets are declared with a {@code type} ({@code label}, {@code border},
+ * {@code textField}, {@code button} or {@code checkBox}) and the properties of {@link WidgetDefinition}.
+ * Colors are given as {@link Colors} constant names, e.g. {@code "BG_RED"}, as {@code "#RRGGBB"} or as an index
+ * of the 256-color palette.
+ * <p>
+ * The optional {@code layout} of a tab places its widgets below the tab headers for the size of the session's screen,
+ * the {@code x}/{@code y} of the placed widgets are then ignored. A layout node is a {@code row}, a {@code column},
+ * a {@code grid} or an {@code anchor} container with {@code children}, or a widget given by its id, either as a string
+ * or as {@code {"widget": "id"}}. Nodes take the properties of their parent container: {@code weight} in rows and
+ * columns, {@code anchor}, {@code dx} and {@code dy} in anchor containers, e.g.
+ * {@code {"type": "row", "gap": 2, "children": ["label", {"widget": "field", "weight": 1}]}}.
+ * <p>
+ * The optional {@code keys} and {@code tabKeys} objects rebind keys of the manager and of the tabs; they map
+ * {@link KeyLabel} names to action names, e.g. {@code "keys": {"F8": "nextTab"}}. An empty action unbinds the key.
+ */
+public class ScreenParser {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Parses a screen definition.
+     *
+     * @param name Name of the screen, used in error messages.
+     * @param in   Stream with the JSON content.
+     * @return The parsed definition.
+     * @throws IOException If the stream cannot be read or the definition is invalid.
+     */
+    public ScreenDefinition parse(String name, InputStream in) throws IOException {
+        JsonNode root = objectMapper.readTree(in);
+        if (root == null || !root.path("tabs").isArray()) {
+            throw new IOException("Screen '" + name + "' has no tabs array");
+        }
+        List<TabDefinition> tabs = new ArrayList<>();
+        for (JsonNode tabNode : root.get("tabs")) {
+            tabs.add(parseTab(name, tabNode));
+        }
+        return new ScreenDefinition(name, List.copyOf(tabs), parseKeys(root, "keys", name), parseKeys(root, "tabKeys", name));
+    }
+
+    private static Map<String, String> parseKeys(JsonNode root, String field, String screen) throws IOException {
+        JsonNode node = root.path(field);
+        if (node.isMissingNode()) {
+            return Map.of();
+        }
+        if (!node.isObject()) {
+            throw new IOException("'" + field + "' of screen '" + screen + "' must be an object");
+        }
+        Map<String, String> keys = new LinkedHashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            try {
+                KeyLabel.valueOf(entry.getKey());
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unknown key '" + entry.getKey() + "' in " + field + " of screen '" + screen + "'");
+            }
+            keys.put(entry.getKey(), entry.getValue().asText(""));
+        }
+        return Map.copyOf(keys);
+    }
+
+    private TabDefinition parseTab(String screen, JsonNode node) throws IOException {
+        String title = requireText(node, "title", "tab of screen '" + screen + "'");
+        List<WidgetDefinition> widgets = new ArrayList<>();
+        for (JsonNode widgetNode : node.path("widgets")) {
+            widgets.add(parseWidget(title, widgetNode));
+        }
+        LayoutDefinition layout = node.has("layout") ? parseLayout(title, node.get("layout")) : null;
+        return new TabDefinition(title, node.path("x").asInt(0), node.path("y").asInt(0), List.copyOf(widgets), layout);
+    }
+
+    private LayoutDefinition parseLayout(String tab, JsonNode node) throws IOException {
+        String where = "layout of tab '" + tab + "'";
+        if (node.isTextual()) {
+            node = objectMapper.createObjectNode().put("widget", node.asText());  // Shorthand of a widget node
+        }
+        if (!node.isObject()) {
+            throw new IOException("Invalid node in " + where);
+        }
+        LayoutType type = node.has("widget") ? LayoutType.WIDGET : parseConstant(LayoutType.class, requireText(node, "type", where), "type", where);
+        List<LayoutDefinition> children = new ArrayList<>();
+        for (JsonNode childNode : node.path("children")) {
+            children.add(parseLayout(tab, childNode));
+        }
+        if (type == LayoutType.WIDGET && !node.path("widget").isTextual()) {
+            throw new IOException("Missing 'widget' in " + where);
+        }
+        if (type == LayoutType.GRID && node.path("columns").asInt(0) <= 0) {
+            throw new IOException("Grid in " + where + " needs at least one column");
+        }
+        if (node.path("weight").asInt(0) < 0) {
+            throw new IOException("Negative weight in " + where);
+        }
+        return LayoutDefinition.builder()
+                .type(type)
+                .widget(node.path("widget").asText(null))
+                .children(List.copyOf(children))
+                .gap(node.path("gap").asInt(0))
+                .alignment(parseConstant(Alignment.class, node.path("align").asText("start"), "align", where))
+                .columns(node.path("columns").asInt(0))
+                .columnGap(node.path("columnGap").asInt(0))
+                .rowGap(node.path("rowGap").asInt(0))
+                .stretchColumn(node.path("stretchColumn").asInt(-1))
+                .weight(node.path("weight").asInt(0))
+                .anchor(parseConstant(AnchorLayout.Anchor.class, node.path("anchor").asText("topLeft"), "anchor", where))
+                .dx(node.path("dx").asInt(0))
+                .dy(node.path("dy").asInt(0))
+                .build();
+    }
+
+    private WidgetDefinition parseWidget(String tab, JsonNode node) throws IOException {
+        String where = "widget of tab '" + tab + "'";
+        WidgetType type = parseConstant(WidgetType.class, requireText(node, "type", where), "type", where);
+        WidgetDefinition.WidgetDefinitionBuilder builder = WidgetDefinition.builder()
+                .type(type)
+                .id(node.path("id").asText(null))
+                .x(node.path("x").asInt(0))
+                .y(node.path("y").asInt(0))
+                .width(node.path("width").asInt(0))
+                .height(node.path("height").asInt(1))
+                .zIndex(node.path("z").asInt(0))
+                .text(node.path("text").asText(""))
+                .textColor(parseColor(node, "textColor", where))
+                .backgroundColor(parseColor(node, "backgroundColor", where))
+                .numeric(node.path("numeric").asBoolean(false))
+                .group(node.path("group").asText(null))
+                .value(node.path("value").asText(null))
+                .action(node.path("action").asText(null));
+
+        JsonNode dialog = node.path("dialog");
+        if (dialog.isObject()) {
+            builder.dialog(new DialogDefinition(requireText(dialog, "title", "dialog of " + where),
+                    dialog.path("x").asInt(0), dialog.path("y").asInt(0),
+                    dialog.path("width").asInt(40), dialog.path("height").asInt(10)));
+        }
+
+        if (type.isInteractive() && builder.build().getId() == null) {
+            throw new IOException("Interactive " + where + " needs an id");
+        }
+        if (type == WidgetType.CHECK_BOX && node.path("group").isMissingNode()) {
+            throw new IOException("Check box '" + node.path("id").asText() + "' of tab '" + tab + "' needs a group");
+        }
+        return builder.build();
+    }
+
+    private static <E extends Enum<E>> E parseConstant(Class<E> type, String value, String field, String where) throws IOException {
+        // Accept the camel case names used in the files, e.g. "textField" -> TEXT_FIELD
+        String constant = value.replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+        try {
+            return Enum.valueOf(type, constant);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown " + field + " '" + value + "' of " + where);
+        }
+    }
+
+    private static Integer parseColor(JsonNode node, String field, String where) throws IOException {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        String text = value.asText();
+        try {
+            if (text.startsWith("#") || Character.isDigit(text.charAt(0))) {
+                return Palette.parse(text);
+            }
+            return Colors.valueOf(text).getColor();
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Unknown color '" + value.asText() + "' in " + field + " of " + where);
+        }
+    }
+
+    private static String requireText(JsonNode node, String field, String where) throws IOException {
+        JsonNode value = node.get(field);
+        if (value == null || !value.isTextual()) {
+            throw new IOException("Missing '" + field + "' in " + where);
+        }
+        return value.asText();
+    }
+}
@@ -0,0 +1,199 @@
+package pl.projekt.tui.screen;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link CompiledScreen} of the server. The definition is parsed and compiled when the repository
+ * is created, so sessions only instantiate an already compiled screen and never parse anything on the connection path.
+ * <p>
+ * Definitions loaded from a file can be hot-reloaded: {@link #startWatching()} starts a daemon thread that recompiles
+ * the screen whenever the file changes. New sessions get the new screen, running sessions keep the one they started
+ * with. An invalid edit is logged and the previous screen stays in use.
+ */
+@Slf4j
+public class ScreenRepository implements Closeable {
+
+    /**
+     * System property with the path of a screen definition file that overrides the bundled one.
+     */
+    public static final String SCREEN_FILE_PROPERTY = "tui.screens";
+
+    /**
+     * Classpath resource with the bundled screen definition.
+     */
+    public static final String DEFAULT_RESOURCE = "/screens/calculator.json";
+
+    private final AtomicReference<CompiledScreen> current = new AtomicReference<>();
+    private final ScreenParser parser = new ScreenParser();
+    private final Path file;  // Watched file, null for classpath resources
+    private WatchService watchService;
+
+    private ScreenRepository(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Loads a screen definition from the classpath. Classpath definitions are not watched.
+     *
+     * @param resource Name of the resource.
+     * @return The repository.
+     * @throws IOException If the resource is missing or invalid.
+     */
+    public static ScreenRepository fromClasspath(String resource) throws IOException {
+        ScreenRepository repository = new ScreenRepository(null);
+        try (InputStream in = ScreenRepository.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Screen resource " + resource + " not found");
+            }
+            repository.current.set(CompiledScreen.compile(repository.parser.parse(resource, in)));
+        }
+        return repository;
+    }
+
+    /**
+     * Loads a screen definition from a file that can later be watched for changes.
+     *
+     * @param file Path of the definition file.
+     * @return The repository.
+     * @throws IOException If the file is missing or invalid.
+     */
+    public static ScreenRepository fromFile(Path file) throws IOException {
+        ScreenRepository repository = new ScreenRepository(file.toAbsolutePath());
+        repository.current.set(repository.load());
+        return repository;
+    }
+
+    /**
+     * Returns the default repository: the file named by the {@value #SCREEN_FILE_PROPERTY} system property,
+     * watched for changes, or the bundled {@value #DEFAULT_RESOURCE} when the property is not set.
+     *
+     * @return The shared default repository.
+     */
+    public static ScreenRepository getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    /**
+     * Lazy holder, the default screen is compiled by the first thread that needs it.
+     */
+    private static final class Holder {
+        private static final ScreenRepository DEFAULT = createDefault();
+
+        private static ScreenRepository createDefault() {
+            String path = System.getProperty(SCREEN_FILE_PROPERTY);
+            try {
+                if (path == null) {
+                    return fromClasspath(DEFAULT_RESOURCE);
+                }
+                ScreenRepository repository = fromFile(Paths.get(path));
+                repository.startWatching();
+                return repository;
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not load screen definition: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Returns the screen new sessions should use.
+     *
+     * @return The current compiled screen.
+     */
+    public CompiledScreen current() {
+        return current.get();
+    }
+
+    /**
+     * Parses and compiles the file again and swaps it in if it is valid.
+     *
+     * @return True if the screen was replaced, false if the file is invalid or the repository is not file based.
+     */
+    public boolean reload() {
+        if (file == null) {
+            return false;
+        }
+        try {
+            current.set(load());
+            log.info("Screen definition {} reloaded", file);
+            return true;
+        } catch (IOException e) {
+            log.error("Invalid screen definition {}, keeping the previous one: {}", file, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Starts a daemon thread reloading the definition whenever its file changes.
+     *
+     * @throws IOException If the directory cannot be watched.
+     */
+    public synchronized void startWatching() throws IOException {
+        if (file == null || watchService != null) {
+            return;
+        }
+        WatchService service = FileSystems.getDefault().newWatchService();
+        file.getParent().register(service, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+        watchService = service;
+        Thread watcher = new Thread(() -> watch(service), "screen-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        log.info("Watching screen definition {}", file);
+    }
+
+    /**
+     * Stops watching the definition file.
+     *
+     * @throws IOException If the watch service cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+            watchService = null;
+        }
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.context() instanceof Path changedFile && changedFile.equals(file.getFileName())) {
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    reload();
+                }
+                if (!key.reset()) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            log.debug("Screen watcher closed");
+        }
+    }
+
+    private CompiledScreen load() throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return CompiledScreen.compile(parser.parse(file.getFileName().toString(), in));
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package pl.projekt.tui.ssh;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.sshd.server.Environment;
+import org.apache.sshd.server.ExitCallback;
+import org.apache.sshd.server.channel.ChannelSession;
+import org.apache.sshd.server.command.Command;
+import pl.projekt.tui.metrics.MetricsRegistry;
+import pl.projekt.tui.metrics.ServerStats;
+import pl.projekt.tui.metrics.SessionMetrics;
+import pl.projekt.tui.metrics.SessionStats;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Line based admin console served by the {@value AdminSubsystemFactory#NAME} SSH subsystem.
+ * Every line is a command; the answer is written back followed by an empty line.
+ * <ul>
+ *     <li>{@code sessions} - live sessions with age, idle time, terminal size, frame rate, bytes/s and p99 render time</li>
+ *     <li>{@code stats} - server-wide statistics</li>
+ *     <li>{@code disconnect <id>} - ends a session</li>
+ *     <li>{@code throttle <id> <fps>} - limits the frame rate of a session, 0 removes the limit</li>
+ *     <li>{@code trace <id>} - the last events of a session, oldest first</li>
+ *     <li>{@code quit} - closes the console</li>
+ * </ul>
+ * The statistics are read from the {@link MetricsRegistry} without locking, so inspecting sessions never stalls them.
+ */
+@Slf4j
+class AdminCommand implements Command {
+
+    private static final String HELP = "Commands: sessions, stats, disconnect <id>, throttle <id> <fps>, trace <id>, quit";
+
+    private final MetricsRegistry registry;
+    private InputStream in;
+    private OutputStream out;
+    private ExitCallback exitCallback;
+    private Thread thread;
+
+    AdminCommand(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void setInputStream(InputStream in) {
+        this.in = in;
+    }
+
+    @Override
+    public void setOutputStream(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void setErrorStream(OutputStream err) {
+        // Errors are answered on the output stream
+    }
+
+    @Override
+    public void setExitCallback(ExitCallback callback) {
+        this.exitCallback = callback;
+    }
+
+    @Override
+    public void start(ChannelSession channel, Environment env) {
+        log.info("Admin console opened by {}", channel.getSession().getUsername());
+        thread = new Thread(this::run, "admin-console");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void destroy(ChannelSession channel) {
+        if (thread != null)
+            thread.interrupt();
+    }
+
+    private void run() {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String command = line.trim();
+                if (command.equals("quit") || command.equals("exit"))
+                    break;
+                if (!command.isEmpty()) {
+                    out.write((execute(command) + "\n").getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Admin console closed: {}", e.getMessage());
+        } finally {
+            if (exitCallback != null)
+                exitCallback.onExit(0);
+        }
+    }
+
+    /**
+     * Executes one command line.
+     *
+     * @param line The command and its arguments separated by spaces.
+     * @return The answer, ending with a line break.
+     */
+    String execute(String line) {
+        String[] args = line.split("\\s+");
+        try {
+            switch (args[0]) {
+                case "sessions":
+                    return sessions();
+                case "stats":
+                    return stats();
+                case "disconnect":
+                    requireArgs(args, 2);
+                    session(args[1]).disconnect();
+                    return "Session " + args[1] + " disconnected\n";
+                case "throttle":
+                    requireArgs(args, 3);
+                    int limit = Integer.parseInt(args[2]);
+                    session(args[1]).setFrameRateLimit(limit);
+                    return limit > 0 ? "Session " + args[1] + " limited to " + limit + " frames/s\n"
+                            : "Session " + args[1] + " not limited\n";
+                case "trace":
+                    requireArgs(args, 2);
+                    return metrics(args[1]).getTrace().dump();
+                default:
+                    return HELP + "\n";
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return "Error: " + e.getMessage() + "\n";
+        }
+    }
+
+    private String sessions() {
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT, "%-6s %-32s %8s %8s %9s %8s %12s %10s %6s%n",
+                "ID", "CLIENT", "AGE(s)", "IDLE(s)", "SIZE", "FPS", "BYTES/S", "P99(ms)", "LIMIT"));
+        registry.getSessions().stream()
+                .sorted(Comparator.comparingLong(SessionMetrics::getId))
+                .map(SessionStats::new)
+                .forEach(stats -> sb.append(String.format(Locale.ROOT, "%-6d %-32s %8d %8d %9s %8.1f %12.0f %10.3f %6s%n",
+                        stats.getId(), stats.getClient(), stats.getAgeSeconds(), stats.getIdleSeconds(), stats.getTerminalSize(),
+                        stats.getFrameRate(), stats.getBytesPerSecond(), stats.getRenderTimeP99Millis(),
+                        stats.getFrameRateLimit() > 0 ? String.valueOf(stats.getFrameRateLimit()) : "-")));
+        return sb.toString();
+    }
+
+    private String stats() {
+        ServerStats stats = new ServerStats(registry);
+        return String.format(Locale.ROOT, "activeSessions=%d%nconnects=%d%nconnectsPerSecond=%.2f%nauthFailures=%d%n"
+                        + "rateCacheHits=%d%nrateCacheMisses=%d%nframesRendered=%d%nframesCoalesced=%d%nbytesWritten=%d%n"
+                        + "inputEvents=%d%ndecodeFailures=%d%nrenderTimeP99Millis=%.3f%nmergeTimeP99Millis=%.3f%n",
+                stats.getActiveSessions(), stats.getConnects(), stats.getConnectsPerSecond(), stats.getAuthFailures(),
+                stats.getRateCacheHits(), stats.getRateCacheMisses(), stats.getFramesRendered(), stats.getFramesCoalesced(),
+                stats.getBytesWritten(), stats.getInputEvents(), stats.getDecodeFailures(), stats.getRenderTimeP99Millis(),
+                stats.getMergeTimeP99Millis());
+    }
+
+    private SessionStats session(String id) {
+        return new SessionStats(metrics(id));
+    }
+
+    private SessionMetrics metrics(String id) {
+        SessionMetrics metrics = registry.getSession(Long.parseLong(id));
+        if (metrics == null)
+            throw new IllegalArgumentException("No session " + id);
+        return metrics;
+    }
+
+    private static void requireArgs(String[] args, int count) {
+        if (args.length != count)
+            throw new IllegalArgumentException(HELP);
+    }
+}
@@ -0,0 +1,59 @@
+package pl.projekt.tui.ssh;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.sshd.server.channel.ChannelSession;
+import org.apache.sshd.server.command.Command;
+import org.apache.sshd.server.subsystem.SubsystemFactory;
+import pl.projekt.tui.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the admin console, e.g. {@code ssh -s -p 22 admin@host tui-admin}.
+ * Only the users listed in the {@value #ADMINS_PROPERTY} system property (comma separated, {@code admin}
+ * by default) may open it; other users get a failed subsystem request.
+ */
+@Slf4j
+class AdminSubsystemFactory implements SubsystemFactory {
+
+    /**
+     * Name of the subsystem.
+     */
+    static final String NAME = "tui-admin";
+
+    /**
+     * System property with the users allowed to open the admin console.
+     */
+    static final String ADMINS_PROPERTY = "tui.admins";
+
+    private final Set<String> admins;
+
+    AdminSubsystemFactory() {
+        this(Arrays.stream(System.getProperty(ADMINS_PROPERTY, "admin").split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toUnmodifiableSet()));
+    }
+
+    AdminSubsystemFactory(Set<String> admins) {
+        this.admins = admins;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Command createSubsystem(ChannelSession channel) throws IOException {
+        String username = channel.getSession().getUsername();
+        if (!admins.contains(username)) {
+            log.warn("User {} is not allowed to open the admin console", username);
+            throw new IOException("User " + username + " is not an administrator");
+        }
+        return new AdminCommand(MetricsRegistry.getDefault());
+    }
+}
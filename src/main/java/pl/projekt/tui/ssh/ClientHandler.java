@@ -11,16 +11,28 @@ import org.json.JSONException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pl.projekt.tui.component.*;
+import pl.projekt.tui.metrics.ExchangeRateEvent;
+import pl.projekt.tui.metrics.InputEvent;
+import pl.projekt.tui.metrics.MetricsRegistry;
+import pl.projekt.tui.metrics.SessionControl;
+import pl.projekt.tui.metrics.TraceEvent;
 import pl.projekt.tui.model.color.Colors;
 import pl.projekt.tui.model.keys.KeyInfo;
 import pl.projekt.tui.model.keys.KeyLabel;
 import pl.projekt.tui.model.keys.KeyboardHandler;
+import pl.projekt.tui.model.screen.DialogDefinition;
+import pl.projekt.tui.model.screen.WidgetDefinition;
+import pl.projekt.tui.screen.CompiledScreen;
+import pl.projekt.tui.screen.ScreenInstance;
+import pl.projekt.tui.screen.ScreenRepository;
+import pl.projekt.tui.terminal.TerminalCapabilities;
 
 import java.io.*;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import java.net.URL;
 import java.util.Scanner;
@@ -29,34 +41,59 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 /**
  * Handles SSH commands and manages the text-based user interface (TUI) for SSH clients.
- * Implements Apache SSHD's {@link Command} interface.
+ * Implements Apache SSHD's {@link Command} interface and {@link SessionControl}, so administrators
+ * can disconnect or throttle the session.
  */
 @Slf4j
-public class ClientHandler implements Command {
+public class ClientHandler implements Command, SessionControl, TelnetInputStream.WindowSizeListener {
     private final List<TUITab> tabs = new ArrayList<>();
     private InputStream in;
     private OutputStream out, errout;
     private ChannelSession session;
     private Environment environment;
     private final TUIScreen tuiScreen;
+    private final CompiledScreen screen;  // Compiled screen definition shared by all sessions
     @Getter
     private TUIManager tuiManager;
     @Getter
-    private int ScreenWidth = 1200;
+    private int ScreenWidth = DEFAULT_WIDTH;
     @Getter
-    private int ScreenHeight = 800;
+    private int ScreenHeight = DEFAULT_HEIGHT;
+    private volatile int reportedWidth = DEFAULT_WIDTH;  // Size the client reported last, applied by the interpreter
+    private volatile int reportedHeight = DEFAULT_HEIGHT;
     private ExitCallback exitCallback;
     private final BlockingQueue<byte[]> messages = new LinkedBlockingQueue<>();
+    private static final byte[] END_OF_INPUT = new byte[0];  // Queued when the client closed its input
+    private static final byte[] DISCONNECT = new byte[0];  // Queued when an administrator ends the session
+    private final AtomicBoolean destroyed = new AtomicBoolean();
     private final KeyboardHandler keyboardHandler = new KeyboardHandler();
     private Thread receiverThread = new Thread(this::receiver);
     private Thread senderThread = new Thread(this::interpreter);
     private TUITab currentTab;
-    private static TUIDialog currentDialog = null;
-    private static TUIComponent tuiComponent;
+    private TUIDialog currentDialog = null;
+    private static final int DEFAULT_WIDTH = 80;  // Size of a terminal that does not report one
+    private static final int DEFAULT_HEIGHT = 24;
+    private static final int MAX_WIDTH = 500;  // Larger reported sizes are cut down, the screen arrays grow with the size
+    private static final int MAX_HEIGHT = 250;
+    private static final long RESIZE_SETTLE_NANOS = TimeUnit.MILLISECONDS.toNanos(50);  // Quiet time after the last WINCH before the relayout
+    private static final long RESIZE_MAX_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(250);  // Longest a drag delays the relayout
+    private static final Map<String, Double> exchangeRates = new ConcurrentHashMap<>();  // Rates of the fixed table date, by currency code
     /**
-     * Constructs a new instance of {@code ClientSSHHandler} with a default screen size.
+     * Constructs a new instance of {@code ClientSSHHandler} with a default screen size and the current screen
+     * of the default {@link ScreenRepository}.
      */
     public ClientHandler() {
+        this(ScreenRepository.getDefault().current());
+    }
+
+    /**
+     * Constructs a new instance of {@code ClientSSHHandler} with a default screen size. The screen's cell arrays
+     * are allocated once the size the client reports is known.
+     *
+     * @param screen The compiled screen definition, shared with other sessions.
+     */
+    public ClientHandler(CompiledScreen screen) {
+        this.screen = screen;
         tuiScreen = new TUIScreen(ScreenWidth, ScreenHeight);
     }
 
@@ -73,517 +110,123 @@ public class ClientHandler implements Command {
             tuiScreen.addLayer(2);
             tuiScreen.addLayer(3);
 
-            tuiScreen.setBgColor(Colors.BG_BRIGHT_WHITE.getCode(), 0);
+            tuiScreen.setBgColor(Colors.BG_BRIGHT_WHITE.getColor(), 0);
 
-            TUITab op1 = new TUITab("F1 Main", 0, 0, ScreenWidth, ScreenHeight, 0, tuiManager);
-            tabs.add(op1);
+            tabs.addAll(screen.instantiate(tuiManager, ScreenWidth, ScreenHeight, this::performAction).getTabs());
             currentTab = tabs.get(0);
-            TUITab op2 = new TUITab("F2 Credit", 20, 0, ScreenWidth, ScreenHeight, 0, tuiManager);
-            tabs.add(op2);
-            TUITab op3 = new TUITab("F3 Savings", 40, 0, ScreenWidth, ScreenHeight, 0, tuiManager);
-            tabs.add(op3);
-            TUITab op4 = new TUITab("F4 Investment", 60, 0, ScreenWidth, ScreenHeight, 0, tuiManager);
-            tabs.add(op4);
-            TUITab op5 = new TUITab("F5 Currency", 80, 0, ScreenWidth, ScreenHeight, 0, tuiManager);
-            tabs.add(op5);
-            TUITab op6 = new TUITab("F6 Tax", 100, 0, ScreenWidth, ScreenHeight, 0, tuiManager);
-            tabs.add(op6);
-            TUITab op7 = new TUITab("F7 Pension", 120, 0, ScreenWidth, ScreenHeight, 0, tuiManager);
-            tabs.add(op7);
-
-            tuiManager.addTab(op1);
-            tuiManager.addTab(op2);
-            tuiManager.addTab(op3);
-            tuiManager.addTab(op4);
-            tuiManager.addTab(op5);
-            tuiManager.addTab(op6);
-            tuiManager.addTab(op7);
-
-            // Strona 1: op1
-            TUIBorder border1 = new TUIBorder(0, 5, 142, 15, 0, tuiManager);
-            border1.setBgColor(Colors.BG_RED.getCode());
-            border1.setTextColor(Colors.TEXT_WHITE.getCode());
-
-            TUILabel labelProjectTitle = new TUILabel("TUI Financial Calculator: ", 50, 2, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op1.addComponent(labelProjectTitle);
-
-            TUILabel labelSubjectTitle = new TUILabel("Programing Defence ", 50, 3, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op1.addComponent(labelSubjectTitle);
-
-            TUILabel labelOptions = new TUILabel("Options: ", 1, 6, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op1.addComponent(labelOptions);
-
-            TUILabel labelOption1 = new TUILabel("-Credit calculator: Calculate the amount of the monthly loan installment based on the loan amount, interest rate and repayment period.", 5, 7, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op1.addComponent(labelOption1);
-            TUILabel labelOption2 = new TUILabel("-Savings calculator: Calculate the future value of your savings based on regular payments, interest rate and savings period.", 5, 9, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op1.addComponent(labelOption2);
-            TUILabel labelOption3 = new TUILabel("-Investment calculator: Calculate potential ROI based on initial capital, investment period and expected ROI.", 5, 11, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op1.addComponent(labelOption3);
-            TUILabel labelOption4 = new TUILabel("-Currency converter: Convert amounts between different currencies based on current exchange rates.", 5, 13, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op1.addComponent(labelOption4);
-            TUILabel labelOption5 = new TUILabel("-Tax calculator: Calculate your income tax amount based on your income and applicable tax rates.", 5, 15, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op1.addComponent(labelOption5);
-            TUILabel labelOption6 = new TUILabel("-Pension calculator: Calculate the future value of your pension based on your current age, planned savings and expected retirement age.", 5, 17, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op1.addComponent(labelOption6);
-
-
-
-
-            TUIBorder border2 = new TUIBorder(27, 3, 80, 10, 0, tuiManager);
-            border2.setBgColor(Colors.BG_RED.getCode());
-            border2.setTextColor(Colors.TEXT_WHITE.getCode());
-            op2.addComponent(border2);
-            op3.addComponent(border2);
-            op6.addComponent(border2);
-            op7.addComponent(border2);
-
-            TUIBorder border3 = new TUIBorder(27, 3, 82, 10, 0, tuiManager);
-            border3.setBgColor(Colors.BG_RED.getCode());
-            border3.setTextColor(Colors.TEXT_WHITE.getCode());
-
-            TUIBorder border4 = new TUIBorder(27, 3, 82, 11, 0, tuiManager);
-            border4.setBgColor(Colors.BG_RED.getCode());
-            border4.setTextColor(Colors.TEXT_WHITE.getCode());
-            op4.addComponent(border4);
-
-
-            // Strona 2: op2
-            TUILabel labelAmountOfCredit = new TUILabel("Amount of credit:", 30, 5, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op2.addComponent(labelAmountOfCredit);
-            TUILabel labelLoanInterestRate = new TUILabel("Loan interest rate (annual):", 30, 6, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op2.addComponent(labelLoanInterestRate);
-            TUILabel labelLoanRepaymentPeriod = new TUILabel("Loan repayment period (in years):", 30, 7, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op2.addComponent(labelLoanRepaymentPeriod);
-
-            TUITextField amountOfCredit = new TUITextField(90, 5, 10, 1, 0, tuiManager);
-            TUITextField loanInterestRate = new TUITextField(90, 6, 10, 1, 0, tuiManager);
-            TUITextField loanRepaymentPeriod = new TUITextField(90, 7, 10, 1, 0, tuiManager);
-
-            amountOfCredit.setNumeric(true);
-            loanInterestRate.setNumeric(true);
-            loanRepaymentPeriod.setNumeric(true);
-
-            op2.addComponent(amountOfCredit);
-            op2.addComponent(loanInterestRate);
-            op2.addComponent(loanRepaymentPeriod);
-
-            TUIButton calculateButton = new TUIButton(
-                    80, 10, 15, 5, 0, "Calculate",
-                    () -> {
-                        try {
-
-                            double amountOfCreditInput = amountOfCredit.getParsedNumber();
-                            double loanInterestRateInput = loanInterestRate.getParsedNumber();
-                            double loanRepaymentPeriodInput = loanRepaymentPeriod.getParsedNumber();
-
-                            double monthlyPayment = calculateMonthlyPayment(amountOfCreditInput, loanInterestRateInput, loanRepaymentPeriodInput);
-
-                            if (currentDialog != null) {
-                                currentDialog.hide();
-                                tuiManager.refresh();
-                                tuiManager.render();
-                            }
-
-                            currentDialog = new TUIDialog(30, 15, 40, 10, 0, "Monthly Payment", monthlyPayment, tuiManager, tabs.get(tuiManager.getCurrentTab()));
-                            currentDialog.setMessage("Are you accepting data?");
-                            op2.addComponent(currentDialog);
-                            currentDialog.show();
-
-                            if (currentDialog.isCancelled()) {
-                                currentDialog.hide();
-                                currentDialog = null;
-                                tuiManager.refresh();
-                                tuiManager.render();
-                            }
-
-                            tuiManager.refresh();
-                            tuiManager.render();
-
-
-                        } catch (Exception e) {
-                            throw new RuntimeException(e);
-                        }
-                    },
-                    tuiManager
-            );
-
-
-            op2.addComponent(amountOfCredit);
-            op2.addComponent(loanInterestRate);
-            op2.addComponent(loanRepaymentPeriod);
-            calculateButton.setTextColor(Colors.TEXT_WHITE.getCode());
-            op2.addComponent(calculateButton);
-
-
-
-            // Strona 3: op3
-            TUILabel labelRegularPayments = new TUILabel("Regular payments (monthly):", 30, 5, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op3.addComponent(labelRegularPayments);
-
-            TUILabel labelSavingsInterestRate = new TUILabel("Savings interest rate (annual):", 30, 6, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op3.addComponent(labelSavingsInterestRate);
-
-            TUILabel labelSavingPeriod = new TUILabel("Saving period (in years):", 30, 7, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op3.addComponent(labelSavingPeriod);
-
-            TUITextField regularPaymentsField = new TUITextField(90, 5, 10, 1, 0, tuiManager);
-            regularPaymentsField.setNumeric(true);
-            op3.addComponent(regularPaymentsField);
-
-            TUITextField savingsInterestRateField = new TUITextField(90, 6, 10, 1, 0, tuiManager);
-            savingsInterestRateField.setNumeric(true);
-            op3.addComponent(savingsInterestRateField);
-
-            TUITextField savingPeriodField = new TUITextField(90, 7, 10, 1, 0, tuiManager);
-            savingPeriodField.setNumeric(true);
-            op3.addComponent(savingPeriodField);
-
-            TUIButton calculateSavingsButton = new TUIButton(
-                    80, 10, 20, 3, 0, "Calculate Savings",
-                    () -> {
-                        try {
-                            double regularPayments = regularPaymentsField.getParsedNumber();
-                            double annualInterestRate = savingsInterestRateField.getParsedNumber();
-                            double savingPeriodInYears = savingPeriodField.getParsedNumber();
-
-                            double futureValue = calculateFutureValueOfSavings(regularPayments, annualInterestRate, savingPeriodInYears);
-
-                            if (currentDialog != null) {
-                                currentDialog.hide();
-                                tuiManager.refresh();
-                                tuiManager.render();
-                            }
-
-                            currentDialog = new TUIDialog(30, 15, 40, 10, 0, "Future Value of Savings", futureValue, tuiManager, tabs.get(tuiManager.getCurrentTab()));
-                            currentDialog.setMessage("Are you accepting data?");
-                            op3.addComponent(currentDialog);
-
-                            currentDialog.show();
-
-                            if (currentDialog.isCancelled()) {
-                                currentDialog.hide();
-                                currentDialog = null;
-                                tuiManager.refresh();
-                                tuiManager.render();
-                            }
-
-                            tuiManager.refresh();
-                            tuiManager.render();
-                        } catch (Exception e) {
-                            throw new RuntimeException(e);
-                        }
-                    },
-                    tuiManager
-            );
-
-            op3.addComponent(calculateSavingsButton);
-
-
-
-            // Strona 4: op4
-            TUILabel labelInitialInvestmentCapital = new TUILabel("Initial investment capital:", 30, 5, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op4.addComponent(labelInitialInvestmentCapital);
-
-            TUILabel labelInvestmentPeriod = new TUILabel("Investment period (in years):", 30, 6, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op4.addComponent(labelInvestmentPeriod);
-
-            TUILabel labelExpectedRateOfReturnOnInvestment = new TUILabel("Expected rate of return on investment (annual):", 30, 7, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op4.addComponent(labelExpectedRateOfReturnOnInvestment);
-
-            TUILabel showAsLabel = new TUILabel("Show as:", 30, 10, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op4.addComponent(showAsLabel);
-
-            TUITextField initialInvestmentCapitalField = new TUITextField(90, 5, 10, 1, 0, tuiManager);
-            initialInvestmentCapitalField.setNumeric(true);
-            op4.addComponent(initialInvestmentCapitalField);
-
-            TUITextField investmentPeriodField = new TUITextField(90, 6, 10, 1, 0, tuiManager);
-            investmentPeriodField.setNumeric(true);
-            op4.addComponent(investmentPeriodField);
-
-            TUITextField expectedRateOfReturnField = new TUITextField(90, 7, 10, 1, 0, tuiManager);
-            expectedRateOfReturnField.setNumeric(true);
-            op4.addComponent(expectedRateOfReturnField);
-
-            TUIRadioButtonGroup radioButtonGroupDisplayMethod = new TUIRadioButtonGroup(tuiManager);
-
-            TUICheckBox tableCheckBox = new TUICheckBox(40, 9, 3, 1, "Table", "tab", tuiManager, radioButtonGroupDisplayMethod);
-            op4.addComponent(tableCheckBox);
-            TUICheckBox listCheckBox = new TUICheckBox(60, 9, 3, 1, "List", "list", tuiManager, radioButtonGroupDisplayMethod);
-            op4.addComponent(listCheckBox);
-
-            TUIButton calculateInvestmentReturnButton = new TUIButton(
-                    80, 10, 20, 3, 0, "Calculate Investment Return",
-                    () -> {
-                        try {
-                            double initialInvestmentCapital = initialInvestmentCapitalField.getParsedNumber();
-                            double investmentPeriod = investmentPeriodField.getParsedNumber();
-                            double expectedRateOfReturn = expectedRateOfReturnField.getParsedNumber();
-
-                            String selectedDisplayMethod = radioButtonGroupDisplayMethod.getSelectedCheckBox() != null ? radioButtonGroupDisplayMethod.getSelectedCheckBox().getValue() : "tab";
-
-                            if (currentDialog != null) {
-                                //op4.setCurrentActiveComponent(0);
-                                currentDialog.hide();
-                                tuiManager.refresh();
-                                tuiManager.render();
-                            }
-
-                            TUIComponent tuiComponent = showInvestmentReturn(initialInvestmentCapital, investmentPeriod, expectedRateOfReturn, selectedDisplayMethod);
-                            Runnable task = () ->  tuiManager.addComponent(tuiComponent);
-
-                            currentDialog = new TUIDialog(30, 15, 40, 10, 0, "Investment Return", null, tuiManager, tabs.get(tuiManager.getCurrentTab()), tuiComponent, task);
-                            currentDialog.setMessage("Are you accepting data?");
-                            op4.addComponent(currentDialog);
-                            currentDialog.show();
-
-
-                            if (currentDialog.isCancelled()) {
-                                //op4.setCurrentActiveComponent(0);
-                                currentDialog.hide();
-                                currentDialog = null;
-                                tuiManager.refresh();
-                                tuiManager.render();
-                            }
-
-                        } catch (Exception e) {
-                            throw new RuntimeException(e);
-                        }
-                    },
-                    tuiManager
-            );
-            op4.addComponent(calculateInvestmentReturnButton);
-
-
-
-
-
-
-            // Strona 5: op5
-            TUIBorder border5 = new TUIBorder(4, 2, 102, 25, 0, tuiManager);
-            border5.setBgColor(Colors.BG_RED.getCode());
-            border5.setTextColor(Colors.TEXT_WHITE.getCode());
-            op5.addComponent(border5);
-
-            TUIRadioButtonGroup radioButtonGroupSource = new TUIRadioButtonGroup(tuiManager);
-            TUIRadioButtonGroup radioButtonGroupTarget = new TUIRadioButtonGroup(tuiManager);
-
-            TUILabel currencyLabel1 = new TUILabel("Source currency ", 9, 3, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op5.addComponent(currencyLabel1);
-
-            TUICheckBox checkBox1 = new TUICheckBox(10, 5, 3, 1, "Euro", "eur", tuiManager, radioButtonGroupSource);
-            TUICheckBox checkBox2 = new TUICheckBox(10, 10, 3, 1, "Dolar", "usd", tuiManager, radioButtonGroupSource);
-            TUICheckBox checkBox3 = new TUICheckBox(10, 15, 3, 1, "Funt", "gbp", tuiManager, radioButtonGroupSource);
-            TUICheckBox checkBox4 = new TUICheckBox(10, 20, 3, 1, "Zł", "zl", tuiManager, radioButtonGroupSource);
-
-            op5.addComponent(checkBox1);
-            op5.addComponent(checkBox2);
-            op5.addComponent(checkBox3);
-            op5.addComponent(checkBox4);
-
-            TUILabel currencyLabel2 = new TUILabel("Target currency ", 40, 3, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op5.addComponent(currencyLabel2);
-
-            TUICheckBox checkBox5 = new TUICheckBox(41, 5, 3, 1, "Euro", "eur", tuiManager, radioButtonGroupTarget);
-            TUICheckBox checkBox6 = new TUICheckBox(41, 10, 3, 1, "Dolar", "usd", tuiManager, radioButtonGroupTarget);
-            TUICheckBox checkBox7 = new TUICheckBox(41, 15,3, 1, "Funt", "gbp", tuiManager, radioButtonGroupTarget);
-            TUICheckBox checkBox8 = new TUICheckBox(41, 20, 3, 1, "Zł", "zl", tuiManager, radioButtonGroupTarget);
-
-            op5.addComponent(checkBox5);
-            op5.addComponent(checkBox6);
-            op5.addComponent(checkBox7);
-            op5.addComponent(checkBox8);
-
-            TUILabel amountCurrency = new TUILabel("Amount of money:", 58, 5, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op5.addComponent(amountCurrency);
-
-            TUITextField amountCurrencyField = new TUITextField(75, 5, 10, 1, 0, tuiManager);
-            amountCurrencyField.setNumeric(true);
-            op5.addComponent(amountCurrencyField);
-
-            TUIButton calculateSwapCurrency = new TUIButton(
-                    75, 7, 10, 6, 0, "Swap  ",
-                    () -> {
-                        try {
-                            double amountCurrencySouce = amountCurrencyField.getParsedNumber();
-                            // Wybór waluty źródłowej
-                            String selectedSourceCurrency = radioButtonGroupSource.getSelectedCheckBox() != null ? radioButtonGroupSource.getSelectedCheckBox().getValue() : "eur";
-
-                            // Wybór waluty docelowej
-                            String selectedTargetCurrency = radioButtonGroupTarget.getSelectedCheckBox() != null ? radioButtonGroupTarget.getSelectedCheckBox().getValue() : "eur";
-
-                            // Sprawdzenie, czy wybrane waluty źródłowa i docelowa są niepuste
-                            double amountCurrencyTarget = calculateCurrency(amountCurrencySouce, selectedSourceCurrency, selectedTargetCurrency);
-
-                            // Pozostała część kodu dotycząca wyświetlenia dialogu i aktualizacji GUI
-                            if (currentDialog != null) {
-                                currentDialog.hide();
-                                tuiManager.refresh();
-                                tuiManager.render();
-                            }
-
-                            currentDialog = new TUIDialog(56, 14, 40, 10, 0, "Swap currency", amountCurrencyTarget, tuiManager, tabs.get(tuiManager.getCurrentTab()));
-                            currentDialog.setMessage("Are you accepting data?");
-                            op5.addComponent(currentDialog);
-
-                            currentDialog.show();
-
-                            if (currentDialog.isCancelled()) {
-                                currentDialog.hide();
-                                currentDialog = null;
-                                tuiManager.refresh();
-                                tuiManager.render();
-                            }
-
-                        } catch (Exception e) {
-                            throw new RuntimeException(e);
-                        }
-                    },
-                    tuiManager
-            );
-            op5.addComponent(calculateSwapCurrency);
-
-
-
-
-            // Strona 6: op6
-            TUILabel labelAnnualIncome = new TUILabel("Annual income:", 30, 5, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op6.addComponent(labelAnnualIncome);
-
-            TUILabel labelTaxRatesApplied = new TUILabel("Tax rates applied:", 30, 6, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op6.addComponent(labelTaxRatesApplied);
-
-            TUITextField annualIncomeField = new TUITextField(90, 5, 10, 1, 0, tuiManager);
-            annualIncomeField.setNumeric(true);
-            op6.addComponent(annualIncomeField);
-
-            TUITextField taxRatesAppliedField = new TUITextField(90, 6, 10, 1, 0, tuiManager);
-            taxRatesAppliedField.setNumeric(true);
-            op6.addComponent(taxRatesAppliedField);
-
-            TUIButton calculateTaxButton = new TUIButton(
-                    80, 10, 20, 3, 0, "Calculate Tax",
-                    () -> {
-                        try {
-                            double annualIncome = annualIncomeField.getParsedNumber();
-                            double taxRatesApplied = taxRatesAppliedField.getParsedNumber();
-
-                            double taxAmount = calculateTax(annualIncome, taxRatesApplied);
-
-                            if (currentDialog != null) {
-                                currentDialog.hide();
-                                tuiManager.refresh();
-                                tuiManager.render();
-                            }
-
-                            currentDialog = new TUIDialog(30, 15, 40, 10, 0, "Tax Amount", taxAmount, tuiManager, tabs.get(tuiManager.getCurrentTab()));
-                            currentDialog.setMessage("Are you accepting data?");
-                            op6.addComponent(currentDialog);
-
-                            currentDialog.show();
-
-                            if (currentDialog.isCancelled()) {
-                                currentDialog.hide();
-                                currentDialog = null;
-                                tuiManager.refresh();
-                                tuiManager.render();
-                            }
-
-                            tuiManager.refresh();
-                            tuiManager.render();
-
-
-                        } catch (Exception e) {
-                            throw new RuntimeException(e);
-                        }
-                    },
-                    tuiManager
-            );
-            op6.addComponent(calculateTaxButton);
-
-
-
-            // Strona 7: op7
-            TUILabel labelCurrentAge = new TUILabel("Current age:", 30, 5, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op7.addComponent(labelCurrentAge);
-
-            TUILabel labelPlannedSavingsForRetirement = new TUILabel("Planned savings for retirement (annual):", 30, 6, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op7.addComponent(labelPlannedSavingsForRetirement);
-
-            TUILabel labelExpectedRetirementAge = new TUILabel("Expected retirement age:", 30, 7, 0, Colors.BG_BRIGHT_YELLOW.getCode(), tuiManager);
-            op7.addComponent(labelExpectedRetirementAge);
 
-            TUITextField currentAgeField = new TUITextField(90, 5, 10, 1, 0, tuiManager);
-            currentAgeField.setNumeric(true);
-            op7.addComponent(currentAgeField);
+            for (TUITab tab : tabs)
+                tuiManager.addTab(tab);
 
-            TUITextField plannedSavingsForRetirementField = new TUITextField(90, 6, 10, 1, 0, tuiManager);
-            plannedSavingsForRetirementField.setNumeric(true);
-            op7.addComponent(plannedSavingsForRetirementField);
-
-            TUITextField expectedRetirementAgeField = new TUITextField(90, 7, 10, 1, 0, tuiManager);
-            expectedRetirementAgeField.setNumeric(true);
-            op7.addComponent(expectedRetirementAgeField);
-
-            TUIButton calculatePensionButton = new TUIButton(
-                    80, 10, 20, 3, 0, "Calculate Pension",
-                    () -> {
-                        try {
-                            int currentAge = (int) currentAgeField.getParsedNumber();
-                            double plannedSavingsForRetirement = plannedSavingsForRetirementField.getParsedNumber();
-                            int expectedRetirementAge = (int) expectedRetirementAgeField.getParsedNumber();
-
-                            double futurePensionValue = calculatePension(currentAge, plannedSavingsForRetirement, expectedRetirementAge);
-
-                            if (currentDialog != null) {
-                                currentDialog.hide();
-                                tuiManager.refresh();
-                                tuiManager.render();
-                            }
-
-                            currentDialog = new TUIDialog(30, 15, 40, 10, 0, "Future Pension Value", futurePensionValue, tuiManager, tabs.get(tuiManager.getCurrentTab()));
-                            currentDialog.setMessage("Are you accepting data?");
-                            op7.addComponent(currentDialog);
-
-                            currentDialog.show();
-
-                            if (currentDialog.isCancelled()) {
-                                currentDialog.hide();
-                                currentDialog = null;
-                                tuiManager.refresh();
-                                tuiManager.render();
-                            }
-
-                            tuiManager.refresh();
-                            tuiManager.render();
+            tuiManager.initialize();
+        } catch (Exception e) {
+            log.error("Błąd inicjalizacji: {}", e.getMessage());
+            e.printStackTrace();
+        }
+    }
 
-                        } catch (Exception e) {
-                            throw new RuntimeException(e);
-                        }
-                    },
-                    tuiManager
-            );
-            op7.addComponent(calculatePensionButton);
+    /**
+     * Performs the action of a button declared in the screen definition.
+     *
+     * @param action   The action name from the screen definition.
+     * @param source   The definition of the button.
+     * @param instance The session's screen instance, used to read the form fields.
+     */
+    private void performAction(String action, WidgetDefinition source, ScreenInstance instance) {
+        try {
+            switch (action) {
+                case "credit":
+                    showResult(source, calculateMonthlyPayment(instance.getNumber("amountOfCredit"),
+                            instance.getNumber("loanInterestRate"), instance.getNumber("loanRepaymentPeriod")));
+                    break;
+                case "savings":
+                    showResult(source, calculateFutureValueOfSavings(instance.getNumber("regularPayments"),
+                            instance.getNumber("savingsInterestRate"), instance.getNumber("savingPeriod")));
+                    break;
+                case "investment":
+                    showInvestmentResult(source, instance);
+                    break;
+                case "currency":
+                    // Wybór waluty źródłowej i docelowej
+                    String selectedSourceCurrency = instance.getSelectedValue("sourceCurrency", "eur");
+                    String selectedTargetCurrency = instance.getSelectedValue("targetCurrency", "eur");
+                    showResult(source, calculateCurrency(instance.getNumber("amountCurrency"), selectedSourceCurrency, selectedTargetCurrency));
+                    break;
+                case "tax":
+                    showResult(source, calculateTax(instance.getNumber("annualIncome"), instance.getNumber("taxRatesApplied")));
+                    break;
+                case "pension":
+                    showResult(source, calculatePension((int) instance.getNumber("currentAge"),
+                            instance.getNumber("plannedSavingsForRetirement"), (int) instance.getNumber("expectedRetirementAge")));
+                    break;
+                default:
+                    log.warn("Unknown action {} of button {}", action, source.getId());
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
 
+    /**
+     * Shows a calculated value in the dialog declared for the button.
+     *
+     * @param source The definition of the button.
+     * @param value  The value to show.
+     */
+    private void showResult(WidgetDefinition source, double value) {
+        hideCurrentDialog();
+        DialogDefinition dialog = source.getDialog();
+        TUITab tab = tabs.get(tuiManager.getCurrentTab());
+        currentDialog = new TUIDialog(dialog.getX(), dialog.getY(), dialog.getWidth(), dialog.getHeight(), 0, dialog.getTitle(), value, tuiManager, tab);
+        openCurrentDialog(tab);
+        tuiManager.refresh();
+        tuiManager.render();
+    }
 
+    /**
+     * Shows the investment return table or list after the user accepts the dialog.
+     *
+     * @param source   The definition of the button.
+     * @param instance The session's screen instance.
+     */
+    private void showInvestmentResult(WidgetDefinition source, ScreenInstance instance) {
+        String selectedDisplayMethod = instance.getSelectedValue("displayMethod", "tab");
+        hideCurrentDialog();
+
+        TUIComponent tuiComponent = showInvestmentReturn(instance.getNumber("initialInvestmentCapital"),
+                instance.getNumber("investmentPeriod"), instance.getNumber("expectedRateOfReturn"), selectedDisplayMethod);
+        Runnable task = () -> {
+            tuiComponent.windowResized(ScreenWidth, ScreenHeight);  // Rows that do not fit are scrolled into view
+            tuiComponent.show();  // Active, so the arrow and page keys scroll it
+        };
+
+        DialogDefinition dialog = source.getDialog();
+        TUITab tab = tabs.get(tuiManager.getCurrentTab());
+        currentDialog = new TUIDialog(dialog.getX(), dialog.getY(), dialog.getWidth(), dialog.getHeight(), 0, dialog.getTitle(), null, tuiManager, tab, tuiComponent, task);
+        openCurrentDialog(tab);
+    }
 
+    private void hideCurrentDialog() {
+        if (currentDialog != null) {
+            currentDialog.hide();
+            tuiManager.refresh();
+            tuiManager.render();
+        }
+    }
 
-            tuiManager.addTab(op1);
-            tuiManager.addTab(op2);
-            tuiManager.addTab(op3);
-            tuiManager.addTab(op4);
-            tuiManager.addTab(op5);
-            tuiManager.addTab(op6);
-            tuiManager.addTab(op7);
+    private void openCurrentDialog(TUITab tab) {
+        currentDialog.setMessage("Are you accepting data?");
+        tab.addComponent(currentDialog);
+        currentDialog.show();
 
-            tuiManager.initialize();
-        } catch (Exception e) {
-            log.error("Błąd inicjalizacji: {}", e.getMessage());
-            e.printStackTrace();
+        if (currentDialog.isCancelled()) {
+            currentDialog.hide();
+            currentDialog = null;
+            tuiManager.refresh();
+            tuiManager.render();
         }
     }
 
-
     /**
      * Calculates the monthly payment for a loan based on given parameters.
      *
@@ -669,12 +312,42 @@ public class ClientHandler implements Command {
 
 
     /**
-     * Retrieves the exchange rate for a given currency code using an external API.
+     * Retrieves the exchange rate for a given currency code. The rates come from a table of a fixed date, so they
+     * are fetched from the external API once per currency and then served from a cache shared by all sessions.
      *
      * @param currencyCode The currency code (e.g., "USD", "EUR").
-     * @return The current exchange rate.
+     * @return The exchange rate, 0.0 if it could not be fetched.
      */
     public static double getExchangeRate(String currencyCode) {
+        ExchangeRateEvent event = new ExchangeRateEvent();
+        event.begin();
+        Double cached = exchangeRates.get(currencyCode);
+        double rate;
+        if (cached != null) {
+            MetricsRegistry.getDefault().getRateCacheHits().increment();
+            rate = cached;
+        } else {
+            MetricsRegistry.getDefault().getRateCacheMisses().increment();
+            rate = fetchExchangeRate(currencyCode);
+            if (rate > 0.0)
+                exchangeRates.put(currencyCode, rate);
+        }
+        if (event.shouldCommit()) {
+            event.currency = currencyCode;
+            event.cached = cached != null;
+            event.rate = rate;
+            event.commit();
+        }
+        return rate;
+    }
+
+    /**
+     * Fetches the exchange rate for a given currency code from the external API.
+     *
+     * @param currencyCode The currency code (e.g., "USD", "EUR").
+     * @return The exchange rate, 0.0 if the request failed.
+     */
+    private static double fetchExchangeRate(String currencyCode) {
         String apiUrl = "https://api.nbp.pl/api/exchangerates/rates/a/" + currencyCode + "/2024-06-27/?format=json";
 
         try {
@@ -829,23 +502,27 @@ public class ClientHandler implements Command {
     public void start(ChannelSession channelSession, Environment environment) throws IOException {
         this.session = channelSession;
         this.environment = environment;
+        tuiManager.getMetrics().setClient(channelSession.getSession().getUsername() + "@" + channelSession.getSession().getClientAddress());
         Map<String, String> env = environment.getEnv();
+        TerminalCapabilities capabilities = TerminalCapabilities.detect(env);
+        tuiScreen.setCapabilities(capabilities);
+        log.info("Terminal of {} detected as {}", tuiManager.getMetrics().getClient(), capabilities);
 
         this.environment.addSignalListener((channel, signal) -> {
             try {
-                messages.put(new byte[]{(byte) 255, (byte) 255, (byte) 0, (byte) 255, (byte) 255});
-            } catch (Exception e){
-                log.error("Signal listener error: {}", e.getMessage(), e);
+                windowSizeChanged(Integer.parseInt(env.get("COLUMNS")), Integer.parseInt(env.get("LINES")));
+            } catch (NumberFormatException e) {
+                log.error("Error parsing window resize dimensions: {}", e.getLocalizedMessage(), e);
             }
         }, Signal.WINCH);
 
         try {
-            this.ScreenHeight = Integer.parseInt(env.get("LINES"));
-            this.ScreenWidth = Integer.parseInt(env.get("COLUMNS"));
+            this.ScreenHeight = reportedHeight = clamp(Integer.parseInt(env.get("LINES")), MAX_HEIGHT);
+            this.ScreenWidth = reportedWidth = clamp(Integer.parseInt(env.get("COLUMNS")), MAX_WIDTH);
             log.info("Screen dimensions set to width: {}, height: {}", this.ScreenWidth, this.ScreenHeight);
             tuiManager.resizeUI(this.ScreenWidth, this.ScreenHeight);
         } catch (NumberFormatException e) {
-            log.error("Error parsing screen dimensions: {}", e.getLocalizedMessage(), e);
+            log.warn("No screen dimensions in the pty request, using {}x{}", this.ScreenWidth, this.ScreenHeight);
         }
 
         init();  // Initialize the UI components
@@ -854,27 +531,52 @@ public class ClientHandler implements Command {
     }
 
     /**
-     * Cleans up resources and handles the destruction of the SSH session.
+     * Cleans up resources and handles the destruction of the SSH session. Runs once, whether the session ends by
+     * CTRL+C, by the client closing the connection, by an error or by the SSH channel closing.
      *
      * @param channelSession The SSH channel session to destroy.
      */
     @Override
     public void destroy(ChannelSession channelSession) {
+        if (!destroyed.compareAndSet(false, true))
+            return;
         try {
             if (receiverThread != null && receiverThread.isAlive())
                 receiverThread.interrupt();
-            if (senderThread != null && senderThread.isAlive())
+            if (senderThread != null && senderThread.isAlive() && senderThread != Thread.currentThread())
                 senderThread.interrupt();
         } catch (Exception e) {
             log.error("An exception occurred while destroying session: {}", e.getMessage(), e);
         } finally {
+            MetricsRegistry.getDefault().unregister(tuiManager.getMetrics());
             if (exitCallback != null)
                 exitCallback.onExit(0);
-            log.info("Client disconnected due to CTRL + C");
+            log.info("Session {} ended", tuiManager.getMetrics().getClient());
         }
     }
 
 
+    /**
+     * Ends the session on behalf of an administrator. The session's thread ends it after the frame it may be writing,
+     * gives the terminal back and closes the connection.
+     */
+    @Override
+    public void disconnect() {
+        log.info("Disconnecting session {}", tuiManager.getMetrics().getClient());
+        messages.offer(DISCONNECT);
+    }
+
+    @Override
+    public void setFrameRateLimit(int framesPerSecond) {
+        log.info("Limiting session {} to {} frames per second", tuiManager.getMetrics().getClient(), framesPerSecond);
+        tuiManager.setFrameRateLimit(framesPerSecond);
+    }
+
+    @Override
+    public int getFrameRateLimit() {
+        return tuiManager.getFrameRateLimit();
+    }
+
     /**
      * Receives input messages from the SSH session and processes them.
      */
@@ -892,61 +594,144 @@ public class ClientHandler implements Command {
         } catch (Exception e) {
             log.error("Receiver error: {}", e.getMessage(), e);
         } finally {
+            messages.offer(END_OF_INPUT);  // Ends the interpreter, which may be waiting for the next message
             log.info("Receiver thread finished!");
         }
     }
 
     /**
-     * Interprets received messages and handles keyboard input.
+     * Records a window size reported by the client, by a WINCH signal or Telnet NAWS, and asks the interpreter
+     * to lay the UI out for it. Sizes above the maximum are cut down; a zero size means the client does not know
+     * its size and is ignored.
+     *
+     * @param width  Reported width in columns.
+     * @param height Reported height in lines.
+     */
+    @Override
+    public void windowSizeChanged(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        reportedWidth = clamp(width, MAX_WIDTH);
+        reportedHeight = clamp(height, MAX_HEIGHT);
+        messages.offer(new byte[]{(byte) 255, (byte) 255, (byte) 0, (byte) 255, (byte) 255});
+    }
+
+    private static int clamp(int size, int max) {
+        return Math.max(1, Math.min(size, max));
+    }
+
+    /**
+     * Lays the UI out for the size the client reported last, if it changed.
+     */
+    private void resizeToTerminal() {
+        int width = reportedWidth;
+        int height = reportedHeight;
+        if (width != ScreenWidth || height != ScreenHeight) {
+            this.ScreenHeight = height;
+            this.ScreenWidth = width;
+            tuiManager.resizeUI(this.ScreenWidth, this.ScreenHeight);
+            log.info("UI resized to width: {}, height: {}", this.ScreenWidth, this.ScreenHeight);
+        }
+    }
+
+    /**
+     * Interprets received messages and handles keyboard input until the client closes its input or presses CTRL+C,
+     * or an administrator disconnects the session, then gives the terminal back and destroys the session.
      */
     private void interpreter() {
+        long resizeRequested = 0;  // When the first and the last WINCH of the pending resize arrived, 0 if none is pending
+        long resizeUpdated = 0;
         try {
-            while (receiverThread.isAlive() || !messages.isEmpty()) {
-                byte[] data = messages.take();
-                int[] intData = new int[data.length];
-                for (int i = 0; i < data.length; ++i)
-                    intData[i] = data[i] & 0xFF;
+            while (true) {
+                byte[] data;
+                if (resizeRequested != 0) {
+                    long wait = Math.min(resizeUpdated + RESIZE_SETTLE_NANOS, resizeRequested + RESIZE_MAX_DELAY_NANOS) - System.nanoTime();
+                    data = wait > 0 ? messages.poll(wait, TimeUnit.NANOSECONDS) : null;
+                    if (data == null) {
+                        resizeRequested = 0;
+                        resizeToTerminal();
+                        continue;
+                    }
+                } else if (tuiManager.isFramePending()) {
+                    // The frame waits for the frame rate limit or a slow link, keys arriving meanwhile go into it
+                    long wait = tuiManager.nanosUntilFrame();
+                    data = wait > 0 ? messages.poll(wait, TimeUnit.NANOSECONDS) : null;
+                    if (data == null) {
+                        tuiManager.render();
+                        continue;
+                    }
+                } else {
+                    data = messages.take();
+                }
+                if (data == END_OF_INPUT) {
+                    log.info("Client {} closed the connection", tuiManager.getMetrics().getClient());
+                    break;
+                }
+                if (data == DISCONNECT) {
+                    break;
+                }
+                InputEvent event = new InputEvent();
+                event.begin();
+                int[] intData = KeyboardHandler.toKeyCodes(data);
 
                 KeyInfo keyInfo = keyboardHandler.getKeyInfo(intData);
 
-                log.info("Received sequence {}", Arrays.toString(intData));
-
                 if (keyInfo != null) {
+                    tuiManager.getMetrics().recordInput();
+                    tuiManager.getMetrics().getTrace().record(TraceEvent.KEY_RECEIVED, intData.length, keyInfo.getLabel().ordinal());
                     if (keyInfo.getLabel() == KeyLabel.INTERNAL_WIN_RESIZE) {
-                        try {
-                            Map<String, String> env = environment.getEnv();
-                            int height = Integer.parseInt(env.get("LINES"));
-                            int width = Integer.parseInt(env.get("COLUMNS"));
-                            if (width != ScreenWidth || height != ScreenHeight) {
-                                this.ScreenHeight = height;
-                                this.ScreenWidth = width;
-                                tuiManager.resizeUI(this.ScreenWidth, this.ScreenHeight);
-                                log.info("UI resized to width: {}, height: {}", this.ScreenWidth, this.ScreenHeight);
-                            }
-                        } catch (NumberFormatException e) {
-                            log.error("Error parsing window resize dimensions: {}", e.getLocalizedMessage(), e);
+                        // Dragging a window sends a burst of WINCH, the layout follows once the size settles
+                        resizeUpdated = System.nanoTime();
+                        if (resizeRequested == 0) {
+                            resizeRequested = resizeUpdated;
                         }
                     } else if (keyInfo.getLabel() == KeyLabel.CTRL_C) {
                         log.info("Destroying session");
-                        destroy(session);
                         break;
                     } else {
-                        log.info("Received key {}", keyInfo);
+                        if (resizeRequested != 0) {
+                            resizeRequested = 0;
+                            resizeToTerminal();  // Keys act on the layout the user sees
+                        }
                         tuiManager.handleKeyboardInput(keyInfo);
                     }
                 } else {
-                    log.warn("Unknown key sequence {}", Arrays.toString(intData));
+                    tuiManager.getMetrics().getDecodeFailures().increment();
+                    tuiManager.getMetrics().getTrace().record(TraceEvent.KEY_UNKNOWN, intData.length, intData.length > 0 ? intData[0] : -1);
+                }
+                if (event.shouldCommit()) {
+                    event.sessionId = tuiManager.getMetrics().getId();
+                    event.key = keyInfo != null ? keyInfo.getLabel().name() : null;
+                    event.sequenceLength = intData.length;
+                    event.commit();
                 }
             }
         } catch (InterruptedException e) {
             log.info("Sender thread finished!");
         } catch (Exception e) {
-            log.error("Interpreter error: {}", e.getMessage(), e);
+            log.error("Interpreter error: {}\nLast events of the session:\n{}", e.getMessage(), tuiManager.getMetrics().getTrace().dump(), e);
+        } finally {
+            if (!destroyed.get())  // The output of a destroyed session is closed
+                restoreTerminal();
             destroy(session);
         }
     }
 
+    /**
+     * Shows the cursor the frames hid and resets the colors, so the client's terminal is usable after the session.
+     */
+    private void restoreTerminal() {
+        try {
+            tuiScreen.restoreTerminal(out);
+        } catch (IOException e) {
+            log.debug("Could not restore the terminal: {}", e.getMessage());
+        }
+    }
+
     public void startThreads() {
+        tuiManager.getMetrics().setControl(this);
+        MetricsRegistry.getDefault().register(tuiManager.getMetrics());
         receiverThread.start();
         senderThread.start();
     }
@@ -5,7 +5,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.sshd.common.keyprovider.FileKeyPairProvider;
+import org.apache.sshd.common.keyprovider.KeyPairProvider;
 import org.apache.sshd.server.SshServer;
+import pl.projekt.tui.metrics.MetricsRegistry;
+import pl.projekt.tui.screen.ScreenRepository;
 
 import java.io.*;
 import java.net.ServerSocket;
@@ -15,6 +18,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -27,7 +31,7 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class Server {
 
-    private static final SshServer sshServer = SshServer.setUpDefaultServer();
+    private static SshServer sshServer;
     private static final ExecutorService executorService = Executors.newFixedThreadPool(2);
 
     /**
@@ -60,15 +64,9 @@ public class Server {
             return;
         }
 
-        sshServer.setPort(22);
-        sshServer.setKeyPairProvider(new FileKeyPairProvider(keyFilePath));
-        sshServer.setPasswordAuthenticator((username, password, session) -> {
-            String retrievedPassword = credentials.get(username);
-            return retrievedPassword != null && retrievedPassword.equals(password);
-        });
-
-        sshServer.setShellFactory(new ClientSSHShellFactory());
+        sshServer = createSshServer(22, new FileKeyPairProvider(keyFilePath), credentials);
         sshServer.start();
+        MetricsRegistry.getDefault().enableJmx();
 
         log.info("SSH server was started on port {}", sshServer.getPort());
 
@@ -100,6 +98,32 @@ public class Server {
         }));
     }
 
+    /**
+     * Creates an SSH server serving the TUI and the admin console subsystem, without starting it.
+     * Also used by the benchmark harnesses, which run it on an ephemeral port with a generated host key.
+     * @param port Port to listen on, 0 for an ephemeral port
+     * @param keyPairProvider Provider of the host key
+     * @param credentials Map of usernames to passwords
+     * @return The configured server
+     */
+    public static SshServer createSshServer(int port, KeyPairProvider keyPairProvider, Map<String, String> credentials) {
+        SshServer server = SshServer.setUpDefaultServer();
+        server.setPort(port);
+        server.setKeyPairProvider(keyPairProvider);
+        server.setPasswordAuthenticator((username, password, session) -> {
+            String retrievedPassword = credentials.get(username);
+            boolean authenticated = retrievedPassword != null && retrievedPassword.equals(password);
+            if (!authenticated)
+                MetricsRegistry.getDefault().getAuthFailures().increment();
+            return authenticated;
+        });
+
+        ScreenRepository.getDefault();  // Compile the screen definition before the first client connects
+        server.setShellFactory(new ClientSSHShellFactory());
+        server.setSubsystemFactories(List.of(new AdminSubsystemFactory()));
+        return server;
+    }
+
     /**
      * Reads credentials (username and password) from a JSON file.
      * @param jsonFilePath Path to the JSON file containing credentials
@@ -129,30 +153,49 @@ public class Server {
     /**
      * Starts a Telnet server on the specified port.
      * Allows clients to connect and interact via a simple text-based protocol.
-     * @param port Port number for the Telnet server
+     * The connection stays open until the session ends, e.g. with CTRL + C.
+     * Clients are asked for their window size with NAWS; until they report one the screen has the default size.
+     * @param port Port number for the Telnet server, 0 for an ephemeral port
+     * @return The listening socket, closing it stops accepting clients
+     * @throws IOException If the port cannot be bound
      */
-    private static void startTelnetServer(int port) {
-        executorService.submit(() -> {
-            try (ServerSocket serverSocket = new ServerSocket(port)) {
-                log.info("Telnet server started on port {}", port);
+    public static ServerSocket startTelnetServer(int port) throws IOException {
+        ServerSocket serverSocket = new ServerSocket(port);
+        log.info("Telnet server started on port {}", serverSocket.getLocalPort());
+        executorService.submit(() -> acceptTelnetClients(serverSocket));
+        return serverSocket;
+    }
 
-                while (!Thread.currentThread().isInterrupted()) {
-                    try (Socket clientSocket = serverSocket.accept(); InputStream in = clientSocket.getInputStream(); OutputStream out = clientSocket.getOutputStream()) {
-
-                        ClientHandler telnetServer = new ClientHandler();
-                        telnetServer.setInputStream(in);
-                        telnetServer.setOutputStream(out);
-                        telnetServer.getTuiManager().resizeUI(telnetServer.getScreenWidth(), telnetServer.getScreenHeight());
-                        telnetServer.init();
-                        telnetServer.startThreads();
-
-                    } catch (IOException e) {
-                        log.error("Error handling client connection: {}", e.getMessage());
-                    }
+    private static void acceptTelnetClients(ServerSocket serverSocket) {
+        try (serverSocket) {
+            while (!Thread.currentThread().isInterrupted()) {
+                Socket clientSocket = serverSocket.accept();
+                try {
+                    ClientHandler telnetServer = new ClientHandler();
+                    telnetServer.setInputStream(new TelnetInputStream(clientSocket.getInputStream(), telnetServer));
+                    telnetServer.setOutputStream(clientSocket.getOutputStream());
+                    TelnetInputStream.requestWindowSize(clientSocket.getOutputStream());  // The screen follows the NAWS reply
+                    telnetServer.setExitCallback((exitValue, exitMessage, closeImmediately) -> closeQuietly(clientSocket));
+                    telnetServer.getTuiManager().getMetrics().setClient("telnet@" + clientSocket.getRemoteSocketAddress());
+                    telnetServer.getTuiManager().resizeUI(telnetServer.getScreenWidth(), telnetServer.getScreenHeight());
+                    telnetServer.init();
+                    telnetServer.startThreads();
+                } catch (IOException e) {
+                    log.error("Error handling client connection: {}", e.getMessage());
+                    closeQuietly(clientSocket);
                 }
-            } catch (IOException e) {
-                log.error("Could not start Telnet server: {}", e.getMessage());
             }
-        });
+        } catch (IOException e) {
+            if (!serverSocket.isClosed())
+                log.error("Telnet server stopped: {}", e.getMessage());
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            log.debug("Error closing client connection: {}", e.getMessage());
+        }
     }
 }
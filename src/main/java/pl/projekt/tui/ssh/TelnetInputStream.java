@@ -0,0 +1,180 @@
+package pl.projekt.tui.ssh;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Input of a Telnet connection with the protocol commands removed. Option negotiation is skipped, an escaped
+ * {@code IAC IAC} is passed on as a single 255 byte and the window size a client reports with NAWS (RFC 1073)
+ * is handed to a {@link WindowSizeListener}. The state of a command survives between reads, so commands split
+ * across TCP segments are recognized as well.
+ */
+final class TelnetInputStream extends FilterInputStream {
+
+    static final int IAC = 255;  // Interpret as command
+    static final int DONT = 254;
+    static final int DO = 253;
+    static final int WONT = 252;
+    static final int WILL = 251;
+    static final int SB = 250;  // Start of a subnegotiation
+    static final int SE = 240;  // End of a subnegotiation
+    static final int NAWS = 31;  // Negotiate about window size
+
+    private static final int MAX_SUBNEGOTIATION = 64;  // Longer subnegotiations are not needed and are cut short
+
+    /**
+     * Receives the window sizes reported by the client.
+     */
+    interface WindowSizeListener {
+        void windowSizeChanged(int width, int height);
+    }
+
+    private enum State { DATA, COMMAND, OPTION, SB_OPTION, SB_DATA, SB_IAC }
+
+    private final WindowSizeListener listener;
+    private final byte[] subnegotiation = new byte[MAX_SUBNEGOTIATION];
+    private int subnegotiationLength;
+    private int subnegotiationOption;
+    private State state = State.DATA;
+
+    /**
+     * Creates the stream.
+     * @param in Input of the connection.
+     * @param listener Listener of the window sizes.
+     */
+    TelnetInputStream(InputStream in, WindowSizeListener listener) {
+        super(in);
+        this.listener = listener;
+    }
+
+    /**
+     * Asks the client to report its window size, now and whenever it changes.
+     * @param out Output of the connection.
+     * @throws IOException If the request cannot be written.
+     */
+    static void requestWindowSize(OutputStream out) throws IOException {
+        out.write(new byte[]{(byte) IAC, (byte) DO, (byte) NAWS});
+        out.flush();
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    /**
+     * Reads data bytes, blocking until at least one arrives; a read consisting only of commands does not return.
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (true) {
+            int read = in.read(b, off, len);
+            if (read == -1) {
+                return -1;
+            }
+            int kept = filter(b, off, read);
+            if (kept > 0) {
+                return kept;
+            }
+        }
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        byte[] b = new byte[512];
+        while (skipped < n) {
+            int read = read(b, 0, (int) Math.min(b.length, n - skipped));
+            if (read == -1) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * Removes the commands from the bytes in place.
+     * @return Number of data bytes left at the start of the range.
+     */
+    private int filter(byte[] b, int off, int len) {
+        int kept = off;
+        for (int i = off; i < off + len; i++) {
+            int c = b[i] & 0xFF;
+            switch (state) {
+                case DATA:
+                    if (c == IAC) {
+                        state = State.COMMAND;
+                    } else {
+                        b[kept++] = b[i];
+                    }
+                    break;
+                case COMMAND:
+                    if (c == IAC) {
+                        b[kept++] = (byte) IAC;
+                        state = State.DATA;
+                    } else if (c == SB) {
+                        state = State.SB_OPTION;
+                    } else if (c >= WILL && c <= DONT) {
+                        state = State.OPTION;
+                    } else {
+                        state = State.DATA;  // Two byte command, e.g. NOP or a go ahead
+                    }
+                    break;
+                case OPTION:
+                    state = State.DATA;  // The server only asks for NAWS and does not answer any other option
+                    break;
+                case SB_OPTION:
+                    subnegotiationOption = c;
+                    subnegotiationLength = 0;
+                    state = State.SB_DATA;
+                    break;
+                case SB_DATA:
+                    if (c == IAC) {
+                        state = State.SB_IAC;
+                    } else {
+                        addSubnegotiationByte(c);
+                    }
+                    break;
+                case SB_IAC:
+                    if (c == IAC) {
+                        addSubnegotiationByte(c);
+                        state = State.SB_DATA;
+                    } else {
+                        if (c == SE) {
+                            subnegotiationEnded();
+                        }
+                        state = State.DATA;
+                    }
+                    break;
+            }
+        }
+        return kept - off;
+    }
+
+    private void addSubnegotiationByte(int c) {
+        if (subnegotiationLength < subnegotiation.length) {
+            subnegotiation[subnegotiationLength++] = (byte) c;
+        }
+    }
+
+    private void subnegotiationEnded() {
+        if (subnegotiationOption != NAWS || subnegotiationLength != 4) {
+            return;
+        }
+        int width = (subnegotiation[0] & 0xFF) << 8 | subnegotiation[1] & 0xFF;
+        int height = (subnegotiation[2] & 0xFF) << 8 | subnegotiation[3] & 0xFF;
+        listener.windowSizeChanged(width, height);
+    }
+}
@@ -0,0 +1,173 @@
+package pl.projekt.tui.terminal;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import pl.projekt.tui.model.color.ColorMode;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What the terminal of a session understands, deciding how its frames are encoded. The capabilities are detected
+ * from the environment a client sends with its pty request: {@code TERM}, {@code COLORTERM} and the locale variables.
+ * <p>
+ * Detection is conservative: a sequence is only used when the terminal type is known to support it, since a terminal
+ * that does not understand one prints garbage. The {@value #OVERRIDE_VARIABLE} variable, if the client sends it,
+ * adjusts the result with a comma separated list of {@code 16}, {@code 256}, {@code truecolor}, {@code utf8},
+ * {@code ascii} and the flags {@code bce}, {@code rep}, {@code move}, {@code scroll} and {@code sync}, optionally
+ * prefixed with {@code -} to turn them off.
+ */
+@Slf4j
+@Value
+@Builder(toBuilder = true)
+public class TerminalCapabilities {
+
+    /**
+     * Environment variable overriding the detected capabilities.
+     */
+    public static final String OVERRIDE_VARIABLE = "TUI_TERMINAL";
+
+    /**
+     * Capabilities of a client that did not tell its terminal type, e.g. Telnet: 256 colors and UTF-8 without any
+     * optional sequences, which is what every session got before detection existed.
+     */
+    public static final TerminalCapabilities DEFAULT = TerminalCapabilities.builder().build();
+
+    // Terminal types by the prefix of TERM, matched after removing a "xterm-" prefix some of them use
+    private static final Set<String> TRUECOLOR_TERMINALS = Set.of("kitty", "alacritty", "wezterm", "foot", "contour", "ghostty", "iterm2");
+    private static final Set<String> REPEAT_TERMINALS = Set.of("xterm", "kitty", "wezterm", "foot", "contour", "ghostty");
+    private static final Set<String> SYNC_TERMINALS = Set.of("kitty", "alacritty", "wezterm", "foot", "contour", "ghostty", "iterm2");
+    private static final Set<String> BCE_TERMINALS = Set.of("xterm", "kitty", "alacritty", "wezterm", "foot", "contour", "ghostty",
+            "iterm2", "linux", "putty", "vte", "gnome", "konsole", "rxvt");
+    private static final Set<String> ASCII_TERMINALS = Set.of("dumb", "vt52", "vt100", "vt102", "ansi");
+
+    @Builder.Default
+    String term = null;  // TERM of the client, null if it did not send one
+    @Builder.Default
+    ColorMode colorMode = ColorMode.INDEXED_256;  // How colors are encoded
+    @Builder.Default
+    boolean unicode = true;  // Whether characters are sent as UTF-8, otherwise box drawing falls back to ASCII
+    boolean backgroundColorErase;  // Whether EL erases with the current background (bce)
+    boolean repeat;  // Whether REP repeats the previous character
+    boolean cursorMovement;  // Whether relative and absolute cursor moves (CUU/CUD/CUF/CUB/CHA/CUP) may be used
+    boolean scrollRegion;  // Whether rows can be scrolled inside a scroll region (DECSTBM with LF and RI)
+    boolean synchronizedOutput;  // Whether frames can be wrapped in synchronized updates (DEC mode 2026)
+
+    /**
+     * Detects the capabilities from a session's environment.
+     *
+     * @param environment Environment variables sent by the client.
+     * @return The capabilities, {@link #DEFAULT} if the client did not send TERM.
+     */
+    public static TerminalCapabilities detect(Map<String, String> environment) {
+        String term = environment.get("TERM");
+        TerminalCapabilities capabilities = term == null || term.isEmpty() ? DEFAULT : fromTerm(term, environment);
+        String override = environment.get(OVERRIDE_VARIABLE);
+        return override == null ? capabilities : capabilities.override(override);
+    }
+
+    private static TerminalCapabilities fromTerm(String term, Map<String, String> environment) {
+        String name = term.toLowerCase(Locale.ROOT);
+        String family = family(name);
+        boolean dumb = name.equals("dumb");
+
+        ColorMode colorMode = ColorMode.ANSI_16;
+        String colorTerm = environment.getOrDefault("COLORTERM", "").toLowerCase(Locale.ROOT);
+        if (colorTerm.equals("truecolor") || colorTerm.equals("24bit") || name.endsWith("-direct") || TRUECOLOR_TERMINALS.contains(family)) {
+            colorMode = ColorMode.TRUECOLOR;
+        } else if (name.contains("256color")) {
+            colorMode = ColorMode.INDEXED_256;
+        }
+
+        return TerminalCapabilities.builder()
+                .term(term)
+                .colorMode(colorMode)
+                .unicode(unicode(environment, family))
+                .backgroundColorErase(BCE_TERMINALS.contains(family) || name.contains("-bce"))
+                .repeat(REPEAT_TERMINALS.contains(family))
+                .cursorMovement(!dumb)
+                .scrollRegion(!dumb)
+                .synchronizedOutput(SYNC_TERMINALS.contains(family))
+                .build();
+    }
+
+    /**
+     * Returns the terminal family of a TERM value, e.g. "kitty" for "xterm-kitty" and "xterm" for "xterm-256color".
+     */
+    private static String family(String name) {
+        if (name.startsWith("xterm-")) {
+            String rest = name.substring("xterm-".length());
+            String first = rest.split("-", 2)[0];
+            if (TRUECOLOR_TERMINALS.contains(first) || BCE_TERMINALS.contains(first)) {
+                return first;
+            }
+            return "xterm";
+        }
+        return name.split("[-.]", 2)[0];
+    }
+
+    /**
+     * Sends UTF-8 when the locale asks for it, or when the client sent no locale and the terminal is not one of
+     * the old types that only know ASCII.
+     */
+    private static boolean unicode(Map<String, String> environment, String family) {
+        for (String variable : new String[]{"LC_ALL", "LC_CTYPE", "LANG"}) {
+            String locale = environment.get(variable);
+            if (locale != null && !locale.isEmpty()) {
+                String normalized = locale.toLowerCase(Locale.ROOT);
+                return normalized.contains("utf-8") || normalized.contains("utf8");
+            }
+        }
+        return !ASCII_TERMINALS.contains(family);
+    }
+
+    /**
+     * Applies the capability list of the override variable.
+     */
+    private TerminalCapabilities override(String list) {
+        TerminalCapabilitiesBuilder builder = toBuilder();
+        for (String item : list.split(",")) {
+            String token = item.trim().toLowerCase(Locale.ROOT);
+            boolean enabled = !token.startsWith("-");
+            switch (enabled ? token : token.substring(1)) {
+                case "":
+                    break;
+                case "16":
+                    builder.colorMode(ColorMode.ANSI_16);
+                    break;
+                case "256":
+                    builder.colorMode(ColorMode.INDEXED_256);
+                    break;
+                case "truecolor":
+                    builder.colorMode(ColorMode.TRUECOLOR);
+                    break;
+                case "utf8":
+                    builder.unicode(enabled);
+                    break;
+                case "ascii":
+                    builder.unicode(!enabled);
+                    break;
+                case "bce":
+                    builder.backgroundColorErase(enabled);
+                    break;
+                case "rep":
+                    builder.repeat(enabled);
+                    break;
+                case "move":
+                    builder.cursorMovement(enabled);
+                    break;
+                case "scroll":
+                    builder.scrollRegion(enabled);
+                    break;
+                case "sync":
+                    builder.synchronizedOutput(enabled);
+                    break;
+                default:
+                    log.warn("Ignoring unknown terminal capability '{}' in {}", item.trim(), OVERRIDE_VARIABLE);
+            }
+        }
+        return builder.build();
+    }
+}
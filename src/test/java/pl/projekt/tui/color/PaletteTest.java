@@ -0,0 +1,85 @@
+package pl.projekt.tui.color;
+
+import org.junit.jupiter.api.Test;
+import pl.projekt.tui.model.color.ColorMode;
+import pl.projekt.tui.model.color.Colors;
+import pl.projekt.tui.model.color.Palette;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PaletteTest {
+
+    private static String sgr(byte[] sequence) {
+        return new String(sequence, StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void testAnsiColorsInEveryMode() {
+        for (ColorMode mode : ColorMode.values()) {
+            assertEquals("\033[31m", sgr(Palette.foreground(Colors.TEXT_RED.getColor(), mode)));
+            assertEquals("\033[107m", sgr(Palette.background(Colors.BG_BRIGHT_WHITE.getColor(), mode)));
+            assertEquals("\033[39m", sgr(Palette.foreground(Palette.DEFAULT, mode)));
+        }
+    }
+
+    @Test
+    public void testTextAndBackgroundConstantsShareColor() {
+        assertEquals(Colors.TEXT_BLUE.getColor(), Colors.BG_BLUE.getColor());
+        assertTrue(Colors.BG_BLUE.isBackground());
+        assertFalse(Colors.TEXT_BLUE.isBackground());
+    }
+
+    @Test
+    public void testIndexedColor() {
+        int orange = Palette.indexed(208);
+
+        assertEquals("\033[38;5;208m", sgr(Palette.foreground(orange, ColorMode.INDEXED_256)));
+        assertEquals("\033[48;5;208m", sgr(Palette.background(orange, ColorMode.TRUECOLOR)));
+        assertEquals("\033[33m", sgr(Palette.foreground(orange, ColorMode.ANSI_16)));
+    }
+
+    @Test
+    public void testRgbColorIsReducedToMode() {
+        int color = Palette.rgb(250, 10, 10);
+
+        assertEquals("\033[38;2;250;10;10m", sgr(Palette.foreground(color, ColorMode.TRUECOLOR)));
+        assertEquals("\033[48;5;196m", sgr(Palette.background(color, ColorMode.INDEXED_256)));
+        assertEquals("\033[101m", sgr(Palette.background(color, ColorMode.ANSI_16)));
+    }
+
+    @Test
+    public void testSequencesAreShared() {
+        int color = Palette.rgb(1, 2, 3);
+
+        assertSame(Palette.foreground(Palette.RED, ColorMode.INDEXED_256), Palette.foreground(Palette.RED, ColorMode.INDEXED_256));
+        assertSame(Palette.background(color, ColorMode.TRUECOLOR), Palette.background(color, ColorMode.TRUECOLOR));
+    }
+
+    @Test
+    public void testInterpolate() {
+        int from = Palette.rgb(0, 0, 0);
+        int to = Palette.rgb(200, 100, 50);
+
+        assertEquals(Palette.rgb(100, 50, 25), Palette.interpolate(from, to, 0.5));
+        assertEquals(0x00CD00, Palette.toRgb(Palette.interpolate(Palette.GREEN, Palette.YELLOW, 0)));
+    }
+
+    @Test
+    public void testParse() {
+        assertEquals(Palette.rgb(0x12, 0x34, 0x56), Palette.parse("#123456"));
+        assertEquals(Palette.indexed(42), Palette.parse("42"));
+        assertThrows(IllegalArgumentException.class, () -> Palette.parse("256"));
+        assertThrows(IllegalArgumentException.class, () -> Palette.parse("#12345G"));
+    }
+
+    @Test
+    public void testIsValid() {
+        assertTrue(Palette.isValid(Palette.DEFAULT));
+        assertTrue(Palette.isValid(255));
+        assertTrue(Palette.isValid(Palette.rgb(255, 255, 255)));
+        assertFalse(Palette.isValid(256));
+        assertFalse(Palette.isValid(-2));
+    }
+}
@@ -0,0 +1,110 @@
+package pl.projekt.tui.component;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import pl.projekt.tui.model.keys.KeyInfo;
+import pl.projekt.tui.model.keys.KeyLabel;
+import pl.projekt.tui.model.keys.KeyboardHandler;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation budgets of the hot paths, measured with {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}
+ * on a session showing the calculator screen at 140x30. A test fails when an operation allocates more than its budget,
+ * so a change that makes a path allocate more has to raise the budget on purpose.
+ * <p>
+ * Budgets are about 10% above the measured values; lower them when a path gets cheaper so it stays that way.
+ * Logging is raised to INFO while measuring, the DEBUG messages of the default configuration would dominate.
+ */
+public class AllocationBudgetTest {
+
+    private static final long RENDER_BUDGET = 20_500;       // Frame: drawing the components and merging, encoding reuses a buffer
+    private static final long KEY_DECODE_BUDGET = 256;      // Key codes of one escape sequence and the lookup
+    private static final long TAB_SWITCH_BUDGET = 10_500;   // Clearing the layers and rendering the new tab
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 3;
+
+    private static Logger rootLogger;
+    private static Level rootLevel;
+
+    private TUIManager manager;
+
+    @BeforeAll
+    public static void raiseLogLevel() {
+        rootLogger = (Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        rootLevel = rootLogger.getLevel();
+        rootLogger.setLevel(Level.INFO);
+    }
+
+    @AfterAll
+    public static void restoreLogLevel() {
+        rootLogger.setLevel(rootLevel);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        manager = CalculatorSession.start(CalculatorSession.screen(140, 30), OutputStream.nullOutputStream());
+    }
+
+    @Test
+    public void testRenderCycle() {
+        long bytes = bytesPerOperation(200, () -> {
+            manager.refresh();
+            manager.render();
+        });
+        assertWithinBudget("render cycle", bytes, RENDER_BUDGET);
+    }
+
+    @Test
+    public void testKeyDecode() {
+        KeyboardHandler keyboardHandler = new KeyboardHandler();
+        byte[] arrowDown = {27, '[', 'B'};
+        long bytes = bytesPerOperation(20_000, () -> keyboardHandler.getKeyInfo(KeyboardHandler.toKeyCodes(arrowDown)));
+        assertWithinBudget("key decode", bytes, KEY_DECODE_BUDGET);
+    }
+
+    @Test
+    public void testTabSwitch() {
+        KeyInfo[] keys = {new KeyInfo(KeyLabel.F3), new KeyInfo(KeyLabel.F2)};
+        int[] next = {0};
+        long bytes = bytesPerOperation(200, () -> manager.handleKeyboardInput(keys[next[0]++ & 1]));
+        assertWithinBudget("tab switch", bytes, TAB_SWITCH_BUDGET);
+    }
+
+    /**
+     * Runs an operation in rounds and returns the bytes it allocates on this thread. The first rounds warm up the
+     * JIT; the result is the cheapest of the measured rounds, which filters out one-off work such as class loading.
+     */
+    private static long bytesPerOperation(int operations, Runnable operation) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled(),
+                "Thread allocation counters are not available");
+        long threadId = Thread.currentThread().getId();
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < operations; i++) {
+                operation.run();
+            }
+            long perOperation = (threads.getThreadAllocatedBytes(threadId) - before) / operations;
+            if (round >= WARMUP_ROUNDS) {
+                best = Math.min(best, perOperation);
+            }
+        }
+        return best;
+    }
+
+    private static void assertWithinBudget(String operation, long bytes, long budget) {
+        assertTrue(bytes <= budget, operation + " allocates " + bytes + " bytes, budget is " + budget);
+    }
+}
@@ -0,0 +1,50 @@
+package pl.projekt.tui.component;
+
+import pl.projekt.tui.model.color.Colors;
+import pl.projekt.tui.screen.ScreenRepository;
+
+import java.io.OutputStream;
+
+/**
+ * Builds a session showing the bundled calculator screen the way {@code ClientHandler.init} does, for the tests and
+ * the benchmarks that measure or verify the frames of a real session.
+ */
+final class CalculatorSession {
+
+    private CalculatorSession() {
+    }
+
+    /**
+     * Creates a screen with the layers a session uses and the background of the tabs.
+     *
+     * @param width  Width of the screen.
+     * @param height Height of the screen.
+     * @return The empty screen.
+     */
+    static TUIScreen screen(int width, int height) {
+        TUIScreen screen = new TUIScreen(width, height);
+        for (int zIndex = 0; zIndex < 4; zIndex++) {
+            screen.addLayer(zIndex);
+        }
+        screen.setBgColor(Colors.BG_BRIGHT_WHITE.getColor(), 0);
+        return screen;
+    }
+
+    /**
+     * Creates a manager showing the calculator tabs on a screen and renders the first frame. Actions of the
+     * buttons are ignored.
+     *
+     * @param screen Screen of the session, e.g. from {@link #screen(int, int)}.
+     * @param out    Output of the session.
+     * @return The initialized manager.
+     */
+    static TUIManager start(TUIScreen screen, OutputStream out) {
+        TUIManager manager = new TUIManager(screen, out);
+        for (TUITab tab : ScreenRepository.getDefault().current()
+                .instantiate(manager, screen.getWidth(), screen.getHeight(), (action, source, instance) -> { }).getTabs()) {
+            manager.addTab(tab);
+        }
+        manager.initialize();
+        return manager;
+    }
+}
@@ -0,0 +1,187 @@
+package pl.projekt.tui.component;
+
+import org.junit.jupiter.api.Test;
+import pl.projekt.tui.model.color.ColorMode;
+import pl.projekt.tui.model.color.Colors;
+import pl.projekt.tui.terminal.TerminalCapabilities;
+import pl.projekt.tui.terminal.VirtualTerminal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrameEncoderTest {
+
+    private static final TerminalCapabilities COMPACT = TerminalCapabilities.builder()
+            .repeat(true).backgroundColorErase(true).build();
+    private static final TerminalCapabilities MOVING = TerminalCapabilities.builder()
+            .colorMode(ColorMode.ANSI_16).cursorMovement(true).build();
+
+    private TUIScreen screen(TerminalCapabilities capabilities) {
+        TUIScreen screen = new TUIScreen(40, 3);
+        screen.setCapabilities(capabilities);
+        screen.setBgColor(Colors.BG_BLUE.getColor(), 0);
+        screen.setText(0, 0, "┌──────────────────┐ Zażółć", Colors.TEXT_WHITE.getColor(), Colors.BG_BLUE.getColor(), 0);
+        screen.setText(0, 1, "│ ==========       │", Colors.TEXT_WHITE.getColor(), Colors.BG_RED.getColor(), 0);
+        screen.mergeLayers();
+        return screen;
+    }
+
+    private static VirtualTerminal show(TUIScreen screen) {
+        VirtualTerminal terminal = new VirtualTerminal(screen.getWidth(), screen.getHeight());
+        terminal.feed(screen.render().getBytes(StandardCharsets.UTF_8));
+        return terminal;
+    }
+
+    private static String frame(TUIScreen screen) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            screen.refresh(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testRepeatAndEraseAreShorter() {
+        int plain = screen(TerminalCapabilities.DEFAULT).encode();
+        TUIScreen compact = screen(COMPACT);
+
+        assertTrue(compact.encode() < plain / 2, "compact frame has " + compact.encode() + " bytes, plain " + plain);
+        TerminalAssertions.assertShows(compact, show(compact));
+    }
+
+    @Test
+    public void testRepeatIsOnlyUsedWhenShorter() {
+        TUIScreen screen = screen(COMPACT);
+
+        String frame = screen.render();
+        assertTrue(frame.contains("─\033[17b"));  // 18 box characters, 3 bytes each
+        assertTrue(frame.contains("=\033[9b"));   // 10 ASCII characters
+        assertFalse(frame.contains("ż\033["));     // Single characters are written
+        assertTrue(frame.contains("\033[K"));
+    }
+
+    @Test
+    public void testAsciiFallback() {
+        TUIScreen screen = screen(TerminalCapabilities.builder().unicode(false).build());
+
+        VirtualTerminal terminal = show(screen);
+        assertEquals("+------------------+ Zazolc", terminal.getLine(0).substring(0, 27));
+        assertTrue(terminal.getLine(1).startsWith("| =========="));
+        TerminalAssertions.assertShows(screen, terminal);
+    }
+
+    @Test
+    public void testBandsMatchSerialFrame() {
+        TUIScreenCell[][] cells = new TUIScreenCell[120][300];
+        Random random = new Random(49);
+        int[] backgrounds = {Colors.BG_BLUE.getColor(), Colors.BG_RED.getColor(), Colors.BG_WHITE.getColor()};
+        for (TUIScreenCell[] row : cells) {
+            for (int x = 0; x < row.length; ) {
+                // Runs of blank and box drawing cells, so the bands use REP and EL like a real screen
+                TUIScreenCell cell = new TUIScreenCell(" ─│x".charAt(random.nextInt(4)), Colors.TEXT_WHITE.getColor(),
+                        backgrounds[random.nextInt(backgrounds.length)]);
+                for (int run = 1 + random.nextInt(40); run > 0 && x < row.length; run--) {
+                    row[x++] = cell;
+                }
+            }
+        }
+        FrameEncoder serial = new FrameEncoder();
+        serial.setCapabilities(COMPACT);
+        serial.setParallelism(Integer.MAX_VALUE, 1);
+        FrameEncoder parallel = new FrameEncoder();
+        parallel.setCapabilities(COMPACT);
+        parallel.setParallelism(0, 4);
+
+        serial.encodeFull(cells, 300, 120);
+        parallel.encodeFull(cells, 300, 120);
+        assertEquals(serial.toString(), parallel.toString());
+    }
+
+    @Test
+    public void testUnchangedFrameIsEmpty() {
+        TUIScreen screen = screen(MOVING);
+        frame(screen);
+
+        assertEquals("", frame(screen));
+    }
+
+    @Test
+    public void testSingleChangeIsAddressedAbsolutely() {
+        TUIScreen screen = screen(MOVING);
+        frame(screen);
+        screen.setText(30, 2, "x", Colors.TEXT_WHITE.getColor(), Colors.BG_BLUE.getColor(), 0);
+        assertEquals("\033[3;31H\033[44m\033[37mx\033[0m", frame(screen));
+    }
+
+    @Test
+    public void testShortGapsAreOverprinted() {
+        TUIScreen screen = screen(MOVING);
+        frame(screen);
+        screen.setText(2, 1, "a", Colors.TEXT_WHITE.getColor(), Colors.BG_RED.getColor(), 0);
+        screen.setText(4, 1, "b", Colors.TEXT_WHITE.getColor(), Colors.BG_RED.getColor(), 0);
+        assertEquals("\033[2;3H\033[41m\033[37ma=b\033[0m", frame(screen));
+    }
+
+    @Test
+    public void testRelativeMoves() {
+        TUIScreen screen = screen(MOVING);
+        frame(screen);
+        screen.setText(30, 0, "a", Colors.TEXT_WHITE.getColor(), Colors.BG_BLUE.getColor(), 0);
+        screen.setText(36, 0, "b", Colors.TEXT_WHITE.getColor(), Colors.BG_BLUE.getColor(), 0);
+        screen.setText(30, 1, "c", Colors.TEXT_WHITE.getColor(), Colors.BG_BLUE.getColor(), 0);
+        screen.setText(0, 2, "d", Colors.TEXT_WHITE.getColor(), Colors.BG_BLUE.getColor(), 0);
+        String frame = frame(screen);
+        assertTrue(frame.contains("a\033[5Cb"), frame);   // Forward over 5 cells
+        assertTrue(frame.contains("b\n\033[7Dc"), frame);  // Down one row and back 7 columns
+        assertTrue(frame.contains("c\n\rd"), frame);      // Next line
+    }
+
+    @Test
+    public void testChangesKeepTerminalInSync() {
+        TUIScreen screen = screen(MOVING.toBuilder().repeat(true).backgroundColorErase(true).build());
+        VirtualTerminal terminal = new VirtualTerminal(screen.getWidth(), screen.getHeight());
+        String[] texts = {"          ", "1234567890", "12  567 90", "────────"};
+        for (int i = 0; i < texts.length; i++) {
+            screen.setText(5, i % 3, texts[i], Colors.TEXT_BLACK.getColor(), Colors.BG_WHITE.getColor(), 0);
+            screen.setText(20, 2, "Zażółć", Colors.TEXT_WHITE.getColor(), Colors.BG_BLUE.getColor(), i % 2);
+            terminal.feed(frame(screen).getBytes(StandardCharsets.UTF_8));
+            TerminalAssertions.assertShows(screen, terminal);
+        }
+    }
+
+    @Test
+    public void testFullFrameAfterResize() {
+        TUIScreen screen = screen(MOVING);
+        frame(screen);
+        screen.resize(20, 2);
+        assertTrue(frame(screen).startsWith("\033[H"));
+    }
+
+    @Test
+    public void testRenderDoesNotChangeWhatIsSent() {
+        TUIScreen screen = screen(MOVING);
+        frame(screen);
+        screen.setText(0, 2, "x", Colors.TEXT_WHITE.getColor(), Colors.BG_BLUE.getColor(), 0);
+        screen.mergeLayers();
+
+        assertTrue(screen.render().startsWith("\033[H"));
+        assertTrue(frame(screen).startsWith("\033[3H"));
+    }
+
+    @Test
+    public void testToAscii() {
+        assertEquals('-', FrameEncoder.toAscii('═'));
+        assertEquals('|', FrameEncoder.toAscii('║'));
+        assertEquals('+', FrameEncoder.toAscii('╬'));
+        assertEquals('L', FrameEncoder.toAscii('Ł'));
+        assertEquals('e', FrameEncoder.toAscii('é'));
+        assertEquals('?', FrameEncoder.toAscii('€'));
+    }
+}
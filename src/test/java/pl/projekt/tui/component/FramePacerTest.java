@@ -0,0 +1,75 @@
+package pl.projekt.tui.component;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FramePacerTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void testFastWritesAreNotPaced() {
+        FramePacer pacer = new FramePacer();
+        for (int i = 0; i < 10; i++) {
+            pacer.recordWrite(20_000, MS / 10, i * 20 * MS);
+        }
+
+        assertEquals(0, pacer.getInterval());
+        assertFalse(pacer.isReduced());
+    }
+
+    @Test
+    public void testBlockingWritesPaceFrames() {
+        FramePacer pacer = new FramePacer();
+        pacer.recordWrite(10_000, 50 * MS, 0);  // 200 kB/s
+
+        assertEquals(50 * MS, pacer.getInterval());
+        assertFalse(pacer.isReduced());
+    }
+
+    @Test
+    public void testSlowLinkReducesQuality() {
+        FramePacer pacer = new FramePacer();
+        pacer.recordWrite(30_000, 300 * MS, 0);
+
+        assertEquals(300 * MS, pacer.getInterval());
+        assertTrue(pacer.isReduced());
+    }
+
+    @Test
+    public void testIntervalIsCapped() {
+        FramePacer pacer = new FramePacer();
+        pacer.recordWrite(30_000, 5_000 * MS, 0);
+
+        assertEquals(1_000 * MS, pacer.getInterval());
+    }
+
+    @Test
+    public void testQualityRestoredWhenLinkKeepsUp() {
+        FramePacer pacer = new FramePacer();
+        pacer.recordWrite(30_000, 300 * MS, 0);
+        long now = 0;
+        while (pacer.getInterval() > 0) {
+            now += 300 * MS;
+            pacer.recordWrite(10_000, MS / 10, now);
+        }
+
+        assertFalse(pacer.isReduced());
+    }
+
+    @Test
+    public void testQualityStaysReducedForMinimumTime() {
+        FramePacer pacer = new FramePacer();
+        pacer.recordWrite(30_000, 300 * MS, 0);
+        for (int i = 1; i <= 30; i++) {
+            pacer.recordWrite(10_000, MS / 10, i * MS);  // The link keeps up, but right after quality was reduced
+        }
+
+        assertEquals(0, pacer.getInterval());
+        assertTrue(pacer.isReduced());
+
+        pacer.recordWrite(10_000, MS / 10, FramePacer.MIN_REDUCED_MILLIS * MS);
+        assertFalse(pacer.isReduced());
+    }
+}
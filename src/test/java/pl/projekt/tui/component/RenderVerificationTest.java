@@ -0,0 +1,327 @@
+package pl.projekt.tui.component;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.projekt.tui.metrics.SessionMetrics;
+import pl.projekt.tui.model.color.ColorMode;
+import pl.projekt.tui.model.color.Colors;
+import pl.projekt.tui.model.keys.KeyInfo;
+import pl.projekt.tui.model.keys.KeyLabel;
+import pl.projekt.tui.terminal.TerminalCapabilities;
+import pl.projekt.tui.terminal.VirtualTerminal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Feeds the frames written by {@link TUIScreen#refresh(java.io.OutputStream, SessionMetrics)} into a
+ * {@link VirtualTerminal} and checks that the terminal ends up showing the merged layer.
+ */
+public class RenderVerificationTest {
+
+    private static final String BOX_CHARACTERS = "─│┌┐└┘ ";
+    private static final Colors[] TEXT_COLORS = {Colors.TEXT_BLACK, Colors.TEXT_RED, Colors.TEXT_BLUE, Colors.TEXT_BRIGHT_WHITE};
+    private static final Colors[] BACKGROUNDS = {Colors.BG_WHITE, Colors.BG_BRIGHT_WHITE, Colors.BG_BLUE, Colors.BG_RED};
+    private static final TerminalCapabilities[] CAPABILITIES = {
+            TerminalCapabilities.DEFAULT,
+            TerminalCapabilities.builder().colorMode(ColorMode.TRUECOLOR).repeat(true).backgroundColorErase(true).build(),
+            TerminalCapabilities.builder().colorMode(ColorMode.ANSI_16).unicode(false).repeat(true).build(),
+            TerminalCapabilities.builder().cursorMovement(true).build(),
+            TerminalCapabilities.builder().cursorMovement(true).scrollRegion(true).backgroundColorErase(true).build(),
+            TerminalCapabilities.builder().colorMode(ColorMode.TRUECOLOR).cursorMovement(true).scrollRegion(true).repeat(true)
+                    .backgroundColorErase(true).synchronizedOutput(true).build()};
+
+    private SessionMetrics metrics;
+    private ByteArrayOutputStream out;
+
+    @BeforeEach
+    public void setUp() {
+        metrics = new SessionMetrics();
+        out = new ByteArrayOutputStream();
+    }
+
+    @Test
+    public void testCalculatorTabs() throws IOException {
+        TUIScreen screen = CalculatorSession.screen(140, 30);
+        TUIManager manager = CalculatorSession.start(screen, out);
+        VirtualTerminal terminal = new VirtualTerminal(140, 30);
+
+        for (KeyLabel key : new KeyLabel[]{KeyLabel.F1, KeyLabel.F2, KeyLabel.F5, KeyLabel.F7}) {
+            manager.handleKeyboardInput(new KeyInfo(key));
+            manager.render();
+            terminal.feed(out.toByteArray());
+            out.reset();
+            TerminalAssertions.assertShows(screen, terminal);
+        }
+        assertTrue(terminal.getLine(0).contains("F7 Pension"));
+    }
+
+    @Test
+    public void testCalculatorChangesOnly() throws IOException {
+        TUIScreen screen = CalculatorSession.screen(140, 30);
+        screen.setCapabilities(TerminalCapabilities.detect(Map.of("TERM", "xterm-256color", "LANG", "pl_PL.UTF-8")));
+        TUIManager manager = CalculatorSession.start(screen, out);
+        VirtualTerminal terminal = new VirtualTerminal(140, 30);
+        terminal.feed(out.toByteArray());
+        int full = out.size();
+        out.reset();
+
+        for (KeyLabel key : new KeyLabel[]{KeyLabel.ARROW_DOWN, KeyLabel.F2, KeyLabel.F1, KeyLabel.ARROW_DOWN}) {
+            manager.handleKeyboardInput(new KeyInfo(key));
+            manager.render();
+            terminal.feed(out.toByteArray());
+            TerminalAssertions.assertShows(screen, terminal);
+            assertTrue(out.size() < full, key + " sent " + out.size() + " bytes, the full frame has " + full);
+            out.reset();
+        }
+    }
+
+    @Test
+    public void testFrameBytesMatchTerminal() throws IOException {
+        TUIScreen screen = new TUIScreen(20, 5);
+        screen.addLayer(0);
+        screen.setText(0, 0, "│─ żółw", Colors.TEXT_BLACK.getColor(), Colors.BG_WHITE.getColor(), 0);
+        VirtualTerminal terminal = new VirtualTerminal(20, 5);
+
+        screen.refresh(out, metrics);
+        terminal.feed(out.toByteArray());
+
+        assertEquals(screen.getLastFrameBytes(), terminal.getBytesReceived());
+        assertEquals("│─ żółw", terminal.getLine(0).substring(0, 7));
+        TerminalAssertions.assertShows(screen, terminal);
+    }
+
+    @Test
+    public void testRandomFrames() throws IOException {
+        Random random = new Random(40);
+        for (int run = 0; run < 60; run++) {
+            int width = 1 + random.nextInt(60);
+            int height = 1 + random.nextInt(20);
+            TUIScreen screen = new TUIScreen(width, height);
+            screen.setCapabilities(CAPABILITIES[run % CAPABILITIES.length]);
+            VirtualTerminal terminal = new VirtualTerminal(width, height);
+            for (int zIndex = 0; zIndex < 3; zIndex++) {
+                screen.addLayer(zIndex);
+            }
+            screen.setBgColor(Colors.BG_WHITE.getColor(), 0);
+
+            for (int frame = 0; frame < 5; frame++) {
+                for (int edit = random.nextInt(30); edit > 0; edit--) {
+                    int x = random.nextInt(width);
+                    int y = random.nextInt(height);
+                    int zIndex = random.nextInt(3);
+                    if (random.nextInt(4) == 0) {
+                        screen.clearCellAt(x, y, zIndex);
+                    } else {
+                        screen.setText(x, y, randomText(random), TEXT_COLORS[random.nextInt(TEXT_COLORS.length)].getColor(),
+                                BACKGROUNDS[random.nextInt(BACKGROUNDS.length)].getColor(), zIndex);
+                    }
+                }
+                screen.refresh(out, metrics);
+                terminal.feed(out.toByteArray());
+                out.reset();
+                TerminalAssertions.assertShows(screen, terminal);
+            }
+        }
+    }
+
+    @Test
+    public void testRandomFramesInBands() throws IOException {
+        Random random = new Random(49);
+        for (int run = 0; run < CAPABILITIES.length; run++) {
+            TUIScreen screen = new TUIScreen(300, 120);  // Four bands of at least 8192 cells
+            screen.setCapabilities(CAPABILITIES[run]);
+            screen.setParallelism(0, 4);
+            VirtualTerminal terminal = new VirtualTerminal(300, 120);
+            for (int zIndex = 0; zIndex < 3; zIndex++) {
+                screen.addLayer(zIndex);
+            }
+            screen.setBgColor(Colors.BG_WHITE.getColor(), 0);
+
+            for (int frame = 0; frame < 4; frame++) {
+                for (int edit = random.nextInt(2000); edit > 0; edit--) {
+                    int x = random.nextInt(300);
+                    int y = random.nextInt(120);
+                    int zIndex = random.nextInt(3);
+                    if (random.nextInt(4) == 0) {
+                        screen.clearCellAt(x, y, zIndex);
+                    } else {
+                        screen.setText(x, y, randomText(random), TEXT_COLORS[random.nextInt(TEXT_COLORS.length)].getColor(),
+                                BACKGROUNDS[random.nextInt(BACKGROUNDS.length)].getColor(), zIndex);
+                    }
+                }
+                screen.refresh(out, metrics);
+                terminal.feed(out.toByteArray());
+                out.reset();
+                TerminalAssertions.assertShows(screen, terminal);
+            }
+        }
+    }
+
+    @Test
+    public void testRandomScrolls() throws IOException {
+        Random random = new Random(45);
+        for (int run = 0; run < 20; run++) {
+            int width = 5 + random.nextInt(40);
+            int height = 3 + random.nextInt(20);
+            TUIScreen screen = new TUIScreen(width, height);
+            screen.setCapabilities(CAPABILITIES[3 + run % 3]);
+            VirtualTerminal terminal = new VirtualTerminal(width, height);
+            String[] lines = new String[height];
+            int[] backgrounds = new int[height];
+            for (int y = 0; y < height; y++) {
+                lines[y] = randomLine(random, width);
+                backgrounds[y] = BACKGROUNDS[random.nextInt(BACKGROUNDS.length)].getColor();
+            }
+
+            for (int frame = 0; frame < 6; frame++) {
+                int top = random.nextInt(height - 2);
+                int bottom = top + 2 + random.nextInt(height - top - 2);
+                int shift = (1 + random.nextInt(bottom - top)) * (random.nextBoolean() ? 1 : -1);
+                String[] scrolled = lines.clone();
+                int[] scrolledBackgrounds = backgrounds.clone();
+                for (int y = top; y <= bottom; y++) {
+                    int from = y + shift;
+                    boolean exposed = from < top || from > bottom;
+                    scrolled[y] = exposed ? randomLine(random, width) : lines[from];
+                    scrolledBackgrounds[y] = exposed ? BACKGROUNDS[random.nextInt(BACKGROUNDS.length)].getColor() : backgrounds[from];
+                }
+                lines = scrolled;
+                backgrounds = scrolledBackgrounds;
+                for (int y = 0; y < height; y++) {
+                    screen.setText(0, y, lines[y], Colors.TEXT_BLACK.getColor(), backgrounds[y], 0);
+                }
+                screen.refresh(out, metrics);
+                terminal.feed(out.toByteArray());
+                out.reset();
+                TerminalAssertions.assertShows(screen, terminal);
+            }
+        }
+    }
+
+    @Test
+    public void testScrolledTableSendsOnlyNewRows() throws IOException {
+        List<String> cells = new ArrayList<>(List.of("Year", "Investment return"));
+        for (int year = 1; year <= 50; year++) {
+            cells.add(String.valueOf(year));
+            cells.add(String.valueOf(1000 * Math.pow(1.05, year)));
+        }
+        TerminalCapabilities xterm = TerminalCapabilities.detect(Map.of("TERM", "xterm-256color", "LANG", "C.UTF-8"));
+        int scrolled = scrollTable(cells, xterm);
+        int rewritten = scrollTable(cells, xterm.toBuilder().scrollRegion(false).build());
+
+        // One table row and its separator instead of every visible line
+        assertTrue(scrolled < 200, "scrolling sent " + scrolled + " bytes");
+        assertTrue(scrolled * 3 < rewritten, "scrolling sent " + scrolled + " bytes, rewriting " + rewritten);
+    }
+
+    private int scrollTable(List<String> cells, TerminalCapabilities capabilities) throws IOException {
+        TUIScreen screen = new TUIScreen(80, 30);
+        screen.setCapabilities(capabilities);
+        screen.setBgColor(Colors.BG_BRIGHT_WHITE.getColor(), 0);
+        TUIManager manager = new TUIManager(screen, out);
+        TUITable table = new TUITable(2, 3, 2, cells, 1, screen, manager);
+        table.windowResized(80, 30);
+        table.show();
+        manager.initialize();
+        VirtualTerminal terminal = new VirtualTerminal(80, 30);
+        terminal.feed(out.toByteArray());
+        out.reset();
+
+        int bytes = 0;
+        for (int i = 1; i <= 5; i++) {
+            manager.handleKeyboardInput(new KeyInfo(KeyLabel.ARROW_DOWN));  // One row down, rendered by the key
+            assertEquals(2 * i, table.getFirstLine());
+            terminal.feed(out.toByteArray());
+            bytes = Math.max(bytes, out.size());
+            out.reset();
+            TerminalAssertions.assertShows(screen, terminal);
+        }
+        return bytes;
+    }
+
+    @Test
+    public void testColorModes() throws IOException {
+        for (ColorMode mode : ColorMode.values()) {
+            TUIScreen screen = new TUIScreen(30, 3);
+            screen.setCapabilities(TerminalCapabilities.builder().colorMode(mode).build());
+            TUIProgressBar progressBar = new TUIProgressBar(2, 1, 24, 1, 0, null);
+            progressBar.setProgress(0.75);
+            TUIManager manager = mock(TUIManager.class);
+            when(manager.getScreen()).thenReturn(screen);
+            progressBar.drawComponent(manager);
+            VirtualTerminal terminal = new VirtualTerminal(30, 3);
+
+            screen.refresh(out, metrics);
+            terminal.feed(out.toByteArray());
+            out.reset();
+
+            TerminalAssertions.assertShows(screen, terminal);
+            assertEquals(mode == ColorMode.TRUECOLOR, terminal.getCell(2, 1).getBackground().startsWith("48;2;"), mode.name());
+        }
+    }
+
+    @Test
+    public void testRunsShareColorSequences() throws IOException {
+        TUIScreen screen = new TUIScreen(10, 2);
+        screen.setBgColor(Colors.BG_BLUE.getColor(), 0);
+
+        screen.refresh(out, metrics);
+
+        // Hidden cursor, home, one background and one text color, 20 characters, 2 next lines and the reset
+        assertEquals(6 + 3 + 5 + 5 + 20 + 2 * 3 + 4, screen.getLastFrameBytes());
+    }
+
+    @Test
+    public void testSynchronizedFrames() throws IOException {
+        TUIScreen screen = new TUIScreen(10, 2);
+        screen.setCapabilities(TerminalCapabilities.builder().cursorMovement(true).synchronizedOutput(true).build());
+        screen.setBgColor(Colors.BG_BLUE.getColor(), 0);
+        VirtualTerminal terminal = new VirtualTerminal(10, 2);
+
+        screen.refresh(out, metrics);
+        String frame = out.toString(StandardCharsets.UTF_8);
+        assertTrue(frame.startsWith("\033[?2026h\033[?25l\033[H"), frame);
+        assertTrue(frame.endsWith("\033[0m\033[?2026l"), frame);
+        terminal.feed(out.toByteArray());
+        out.reset();
+
+        screen.setText(4, 1, "x", Colors.TEXT_BLACK.getColor(), Colors.BG_BLUE.getColor(), 0);
+        screen.refresh(out, metrics);
+        assertEquals("\033[?2026h\033[2;5H\033[44m\033[30mx\033[0m\033[?2026l", out.toString(StandardCharsets.UTF_8));
+        terminal.feed(out.toByteArray());
+        out.reset();
+
+        TerminalAssertions.assertShows(screen, terminal);
+        assertFalse(terminal.isPrivateModeSet(2026));
+        screen.refresh(out, metrics);
+        assertEquals(0, out.size());
+    }
+
+    private static String randomLine(Random random, int width) {
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < width) {
+            sb.append(randomText(random));
+        }
+        return sb.substring(0, width);
+    }
+
+    private static String randomText(Random random) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1 + random.nextInt(8); i > 0; i--) {
+            sb.append(random.nextBoolean()
+                    ? BOX_CHARACTERS.charAt(random.nextInt(BOX_CHARACTERS.length()))
+                    : (char) ('a' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+}
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import pl.projekt.tui.model.color.Palette;
 
 public class TUIBorderTest {
 
@@ -27,8 +28,8 @@ public class TUIBorderTest {
 
     @Test
     public void testSetBgColor() {
-        tuiBorder.setBgColor("#FFFFFF");
-        assertEquals("#FFFFFF", tuiBorder.getBgColor());
+        tuiBorder.setBgColor(Palette.rgb(255, 255, 255));
+        assertEquals(Palette.rgb(255, 255, 255), tuiBorder.getBgColor());
     }
 
 
@@ -46,14 +46,14 @@ public class TUIButtonTest {
 
     @Test
     public void testSetBgColor() {
-        button.setBgColor(Colors.BG_BLUE.getCode());
-        assertEquals(Colors.BG_BLUE.getCode(), button.getBackgroundColor());
+        button.setBgColor(Colors.BG_BLUE.getColor());
+        assertEquals(Colors.BG_BLUE.getColor(), button.getBackgroundColor());
     }
 
     @Test
     public void testSetTextColor() {
-        button.setTextColor(Colors.TEXT_GREEN.getCode());
-        assertEquals(Colors.TEXT_GREEN.getCode(), button.getTextColor());
+        button.setTextColor(Colors.TEXT_GREEN.getColor());
+        assertEquals(Colors.TEXT_GREEN.getColor(), button.getTextColor());
     }
 
     @Test
@@ -72,16 +72,16 @@ public class TUIButtonTest {
     @Test
     public void testHighlightComponent() {
         button.highlightComponent();
-        assertEquals(Colors.BG_YELLOW.getCode(), button.getBackgroundColor());
-        assertEquals(Colors.TEXT_BLACK.getCode(), button.getTextColor());
+        assertEquals(Colors.BG_YELLOW.getColor(), button.getBackgroundColor());
+        assertEquals(Colors.TEXT_BLACK.getColor(), button.getTextColor());
         verify(tuiManager, times(1)).refresh();
     }
 
     @Test
     public void testResetHighlightComponent() {
         button.resetHighlightComponent();
-        assertEquals(Colors.BG_RED.getCode(), button.getBackgroundColor());
-        assertEquals(Colors.TEXT_WHITE.getCode(), button.getTextColor());
+        assertEquals(Colors.BG_RED.getColor(), button.getBackgroundColor());
+        assertEquals(Colors.TEXT_WHITE.getColor(), button.getTextColor());
         verify(tuiManager, times(1)).refresh();
     }
 }
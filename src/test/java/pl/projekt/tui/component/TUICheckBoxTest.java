@@ -48,7 +48,7 @@ class TUICheckBoxTest {
     @Test
     void testDrawComponent() {
         checkBox.drawComponent(tuiManager);
-        Mockito.verify(screen, Mockito.times(1)).setText(Mockito.eq(1), Mockito.eq(1), Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.eq(1));
+        Mockito.verify(screen, Mockito.times(1)).setText(Mockito.eq(1), Mockito.eq(1), Mockito.anyString(), Mockito.anyInt(), Mockito.anyInt(), Mockito.eq(1));
     }
 
     @Test
@@ -72,14 +72,14 @@ class TUICheckBoxTest {
 //    @Test
 //    void testHighlightComponent() {
 //        checkBox.highlightComponent();
-//        assertEquals(Colors.BG_BRIGHT_BLUE.getCode(), checkBox.bgColor);
+//        assertEquals(Colors.BG_BRIGHT_BLUE.getColor(), checkBox.bgColor);
 //        Mockito.verify(tuiManager).refresh();
 //    }
 //
 //    @Test
 //    void testResetHighlightComponent() {
 //        checkBox.resetHighlightComponent();
-//        assertEquals(Colors.BG_BLUE.getCode(), checkBox.bgColor);
+//        assertEquals(Colors.BG_BLUE.getColor(), checkBox.bgColor);
 //        Mockito.verify(tuiManager).refresh();
 //    }
 
@@ -56,16 +56,16 @@ public class TUIDialogTest {
 
     @Test
     public void testSetAndResetColors() {
-        dialog.setBgColor(Colors.BG_GREEN.getCode());
-        dialog.setTextColor(Colors.TEXT_YELLOW.getCode());
+        dialog.setBgColor(Colors.BG_GREEN.getColor());
+        dialog.setTextColor(Colors.TEXT_YELLOW.getColor());
 
         dialog.highlightComponent();
-        assertEquals(Colors.BG_BRIGHT_MAGENTA.getCode(), dialog.getBgColor());
-        assertEquals(Colors.TEXT_BLACK.getCode(), dialog.getTextColor());
+        assertEquals(Colors.BG_BRIGHT_MAGENTA.getColor(), dialog.getBgColor());
+        assertEquals(Colors.TEXT_BLACK.getColor(), dialog.getTextColor());
 
         dialog.resetHighlightComponent();
-        assertEquals(Colors.BG_RED.getCode(), dialog.getBgColor());
-        assertEquals(Colors.TEXT_WHITE.getCode(), dialog.getTextColor());
+        assertEquals(Colors.BG_RED.getColor(), dialog.getBgColor());
+        assertEquals(Colors.TEXT_WHITE.getColor(), dialog.getTextColor());
     }
 
     @Test
@@ -97,4 +97,30 @@ public class TUIDialogTest {
         verify(tuiManager, times(2)).refresh();
         verify(screen, times(1)).render();
     }
+
+    @Test
+    public void testWindowResizedKeepsDialogInsideWindow() {
+        dialog.windowResized(40, 15);
+
+        assertEquals(39, dialog.getWidth());
+        assertEquals(14, dialog.getHeight());
+        assertEquals(0, dialog.getX());
+        assertEquals(0, dialog.getY());
+        assertEquals(dialog.getY() + dialog.getHeight() - 3, dialog.getButtons().get(0).getY());
+
+        dialog.windowResized(200, 60);
+
+        assertEquals(10, dialog.getX());
+        assertEquals(50, dialog.getWidth());
+    }
+
+    @Test
+    public void testReducedQualityLeavesOutShadow() {
+        when(tuiManager.isReducedQuality()).thenReturn(true);
+        dialog.drawComponent(tuiManager);
+
+        verify(screen, never()).setText(anyInt(), anyInt(), anyString(), anyInt(), eq(Colors.BG_BLACK.getColor()), anyInt());
+        verify(screen).clearCellAt(10 + 50, 10 + 1, 0);
+        verify(screen).clearCellAt(10, 10 + 20, 0);
+    }
 }
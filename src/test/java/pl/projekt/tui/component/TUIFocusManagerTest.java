@@ -0,0 +1,122 @@
+package pl.projekt.tui.component;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TUIFocusManagerTest {
+
+    private final List<TUIComponent> components = new ArrayList<>();
+    private TUIFocusManager focusManager;
+
+    private TUIComponent component(int x, int y, int width, int height, boolean interactable) {
+        TUIComponent component = mock(TUIComponent.class);
+        when(component.getX()).thenReturn(x);
+        when(component.getY()).thenReturn(y);
+        when(component.getWidth()).thenReturn(width);
+        when(component.getHeight()).thenReturn(height);
+        when(component.isInteractable()).thenReturn(interactable);
+        components.add(component);
+        return component;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        focusManager = new TUIFocusManager(components);
+    }
+
+    @Test
+    public void testRingSkipsNonInteractableComponents() {
+        component(0, 0, 10, 1, false);
+        TUIComponent first = component(0, 1, 10, 1, true);
+        TUIComponent second = component(0, 2, 10, 1, true);
+
+        focusManager.focusNext();
+        assertSame(first, focusManager.getFocused());
+        focusManager.focusNext();
+        assertSame(second, focusManager.getFocused());
+        focusManager.focusNext();
+        assertSame(first, focusManager.getFocused());
+        focusManager.focusPrevious();
+        assertSame(second, focusManager.getFocused());
+    }
+
+    @Test
+    public void testFocusChangeTouchesOnlyTwoComponents() {
+        List<TUIComponent> fields = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            fields.add(component(0, i, 10, 1, true));
+        }
+        focusManager.focus(fields.get(50));
+        clearInvocations(fields.toArray());
+
+        focusManager.focusNext();
+
+        verify(fields.get(50)).setActive(false);
+        verify(fields.get(50)).resetHighlightComponent();
+        verify(fields.get(51)).setActive(true);
+        verify(fields.get(51)).highlightComponent();
+        for (int i = 0; i < fields.size(); i++) {
+            if (i != 50 && i != 51) {
+                verify(fields.get(i), never()).setActive(anyBoolean());
+                verify(fields.get(i), never()).highlightComponent();
+                verify(fields.get(i), never()).resetHighlightComponent();
+            }
+        }
+    }
+
+    @Test
+    public void testSpatialNeighbours() {
+        TUIComponent topLeft = component(0, 0, 10, 1, true);
+        TUIComponent topRight = component(20, 0, 10, 1, true);
+        TUIComponent bottomRight = component(20, 5, 10, 1, true);
+
+        focusManager.focus(topLeft);
+        assertTrue(focusManager.focus(TUIFocusManager.Direction.RIGHT));
+        assertSame(topRight, focusManager.getFocused());
+        assertTrue(focusManager.focus(TUIFocusManager.Direction.DOWN));
+        assertSame(bottomRight, focusManager.getFocused());
+        assertFalse(focusManager.focus(TUIFocusManager.Direction.DOWN));
+        assertTrue(focusManager.focus(TUIFocusManager.Direction.UP));
+        assertSame(topRight, focusManager.getFocused());
+    }
+
+    @Test
+    public void testAlignedNeighbourIsPreferred() {
+        TUIComponent field = component(90, 7, 10, 1, true);
+        component(40, 9, 15, 3, true);
+        TUIComponent button = component(80, 10, 20, 3, true);
+
+        focusManager.focus(field);
+        focusManager.focus(TUIFocusManager.Direction.DOWN);
+
+        assertSame(button, focusManager.getFocused());
+    }
+
+    @Test
+    public void testInvalidateKeepsFocusedComponent() {
+        TUIComponent first = component(0, 0, 10, 1, true);
+        focusManager.focus(first);
+
+        component(0, 1, 10, 1, true);
+        focusManager.invalidate();
+        focusManager.focusPrevious();
+
+        assertNotSame(first, focusManager.getFocused());
+        focusManager.focusNext();
+        assertSame(first, focusManager.getFocused());
+    }
+
+    @Test
+    public void testNoFocusWithoutComponents() {
+        focusManager.focusNext();
+
+        assertNull(focusManager.getFocused());
+        assertFalse(focusManager.focus(TUIFocusManager.Direction.DOWN));
+    }
+}
@@ -15,7 +15,7 @@ public class TUILabelTest {
     @BeforeEach
     public void setUp() {
         tuiManager = mock(TUIManager.class);
-        label = new TUILabel("Test Label", 5, 10, 1, Colors.BG_WHITE.getCode(), tuiManager);
+        label = new TUILabel("Test Label", 5, 10, 1, Colors.BG_WHITE.getColor(), tuiManager);
     }
 
     @Test
@@ -24,13 +24,13 @@ public class TUILabelTest {
         assertEquals(5, label.getX());
         assertEquals(10, label.getY());
         assertEquals(1, label.getZIndex());
-        assertEquals(Colors.BG_WHITE.getCode(), label.getBackgroundColor());
+        assertEquals(Colors.BG_WHITE.getColor(), label.getBackgroundColor());
     }
 
     @Test
     public void testSetBgColor() {
-        label.setBgColor(Colors.BG_BLUE.getCode());
-        assertEquals(Colors.BG_BLUE.getCode(), label.getBackgroundColor());
+        label.setBgColor(Colors.BG_BLUE.getColor());
+        assertEquals(Colors.BG_BLUE.getColor(), label.getBackgroundColor());
     }
 
     @Test
@@ -46,7 +46,7 @@ public class TUILabelTest {
         when(tuiManager.getScreen()).thenReturn(screen);
 
         label.drawComponent(tuiManager);
-        verify(screen, times(1)).setText(5, 10, "Test Label", Colors.TEXT_BLACK.getCode(), Colors.BG_WHITE.getCode(), 1);
+        verify(screen, times(1)).setText(5, 10, "Test Label", Colors.TEXT_BLACK.getColor(), Colors.BG_WHITE.getColor(), 1);
     }
 
     @Test
@@ -70,4 +70,21 @@ public class TUILabelTest {
     public void testIsInteractable() {
         assertFalse(label.isInteractable());
     }
+
+    @Test
+    public void testSetBoundsWrapsText() {
+        TUIScreen screen = mock(TUIScreen.class);
+        when(tuiManager.getScreen()).thenReturn(screen);
+        label.setText("Amount of the loan, monthly");
+
+        assertEquals(3, label.getPreferredHeight(10));
+        assertEquals(1, label.getPreferredHeight(40));
+        label.setBounds(2, 4, 10, 1);
+        label.drawComponent(tuiManager);
+
+        assertEquals(3, label.getHeight());
+        verify(screen).setText(2, 4, "Amount of", Colors.TEXT_BLACK.getColor(), Colors.BG_WHITE.getColor(), 1);
+        verify(screen).setText(2, 5, "the loan,", Colors.TEXT_BLACK.getColor(), Colors.BG_WHITE.getColor(), 1);
+        verify(screen).setText(2, 6, "monthly", Colors.TEXT_BLACK.getColor(), Colors.BG_WHITE.getColor(), 1);
+    }
 }
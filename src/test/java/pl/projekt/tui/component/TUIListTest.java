@@ -4,6 +4,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import pl.projekt.tui.model.color.Colors;
+import pl.projekt.tui.model.keys.KeyInfo;
+import pl.projekt.tui.model.keys.KeyLabel;
 
 import java.util.Arrays;
 import java.util.List;
@@ -29,17 +31,17 @@ public class TUIListTest {
         assertEquals(10, tuiList.getX());
         assertEquals(5, tuiList.getY());
         assertEquals(1, tuiList.getZIndex());
-        assertEquals(Colors.BG_BLUE.getCode(), tuiList.getBgColor());
-        assertEquals(Colors.TEXT_BLACK.getCode(), tuiList.getTextColor());
+        assertEquals(Colors.BG_BLUE.getColor(), tuiList.getBgColor());
+        assertEquals(Colors.TEXT_BLACK.getColor(), tuiList.getTextColor());
     }
 
     @Test
     public void testDrawComponent() {
         tuiList.drawComponent(tuiManager);
 
-        verify(tuiScreen, times(1)).setText(10, 5, "| Item 1", Colors.TEXT_BLACK.getCode(), Colors.BG_BLUE.getCode(), 1);
-        verify(tuiScreen, times(1)).setText(10, 6, "| Item 2", Colors.TEXT_BLACK.getCode(), Colors.BG_BLUE.getCode(), 1);
-        verify(tuiScreen, times(1)).setText(10, 7, "| Item 3", Colors.TEXT_BLACK.getCode(), Colors.BG_BLUE.getCode(), 1);
+        verify(tuiScreen, times(1)).setText(10, 5, "| Item 1", Colors.TEXT_BLACK.getColor(), Colors.BG_BLUE.getColor(), 1);
+        verify(tuiScreen, times(1)).setText(10, 6, "| Item 2", Colors.TEXT_BLACK.getColor(), Colors.BG_BLUE.getColor(), 1);
+        verify(tuiScreen, times(1)).setText(10, 7, "| Item 3", Colors.TEXT_BLACK.getColor(), Colors.BG_BLUE.getColor(), 1);
     }
 
     @Test
@@ -69,4 +71,35 @@ public class TUIListTest {
     public void testIsInteractable() {
         assertFalse(tuiList.isInteractable());
     }
+
+    @Test
+    public void testScrollBy() {
+        tuiList.windowResized(40, 2);  // The list moves to the top and shows two of the three items
+        assertEquals(2, tuiList.getHeight());
+
+        assertTrue(tuiList.scrollBy(5));
+        assertEquals(1, tuiList.getFirstLine());
+        assertFalse(tuiList.scrollBy(1));
+        tuiList.drawComponent(tuiManager);
+
+        verify(tuiScreen).setText(10, 0, "| Item 2", Colors.TEXT_BLACK.getColor(), Colors.BG_BLUE.getColor(), 1);
+        verify(tuiScreen).setText(10, 1, "| Item 3", Colors.TEXT_BLACK.getColor(), Colors.BG_BLUE.getColor(), 1);
+        verify(tuiScreen, times(2)).setText(anyInt(), anyInt(), anyString(), anyInt(), anyInt(), anyInt());
+        verify(tuiManager).refresh();
+    }
+
+    @Test
+    public void testScrollKeys() {
+        tuiList.windowResized(40, 2);
+        assertFalse(tuiList.handleKey(new KeyInfo(KeyLabel.ARROW_DOWN)));  // Not active, the key bubbles
+
+        tuiList.show();
+        assertTrue(tuiList.handleKey(new KeyInfo(KeyLabel.PAGE_DOWN)));
+        assertEquals(1, tuiList.getFirstLine());
+        assertTrue(tuiList.handleKey(new KeyInfo(KeyLabel.ARROW_UP)));
+        assertEquals(0, tuiList.getFirstLine());
+
+        tuiList.windowResized(40, 10);  // Everything fits, arrows move the focus again
+        assertFalse(tuiList.handleKey(new KeyInfo(KeyLabel.ARROW_DOWN)));
+    }
 }
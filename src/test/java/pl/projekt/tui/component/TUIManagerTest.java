@@ -4,9 +4,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import pl.projekt.tui.model.keys.KeyInfo;
 import pl.projekt.tui.model.keys.KeyLabel;
+import pl.projekt.tui.model.keys.KeyboardHandler;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -36,7 +39,7 @@ class TUIManagerTest {
         // Verify that components are drawn and screen is refreshed
         verify(mockComponent1, times(1)).drawComponent(tuiManager);
         verify(mockComponent2, times(1)).drawComponent(tuiManager);
-        verify(mockScreen, times(1)).refresh(mockOutputStream);
+        verify(mockScreen, times(1)).refresh(mockOutputStream, tuiManager.getMetrics());
     }
 
     @Test
@@ -51,7 +54,7 @@ class TUIManagerTest {
         // Verify that screen and tab resize methods are called
         verify(mockScreen, times(1)).resize(width, height);
         verify(mockTab, times(1)).windowResized(width, height);
-        verify(mockScreen, times(1)).refresh(mockOutputStream);
+        verify(mockScreen, times(1)).refresh(mockOutputStream, tuiManager.getMetrics());
     }
 
     @Test
@@ -88,4 +91,129 @@ class TUIManagerTest {
         tuiManager.resizeUI(100, 50);
         verify(mockScreen, times(1)).resize(100, 50);
     }
+
+    @Test
+    void handleKeyboardInput_functionKeySwitchesTab() {
+        TUITab mockTab1 = mock(TUITab.class);
+        TUITab mockTab2 = mock(TUITab.class);
+        tuiManager.addTab(mockTab1);
+        tuiManager.addTab(mockTab2);
+
+        tuiManager.handleKeyboardInput(new KeyInfo(KeyLabel.F2));
+
+        assertEquals(1, tuiManager.getCurrentTab());
+        verify(mockTab1).setActive(false);
+        verify(mockTab2).setActive(true);
+    }
+
+    @Test
+    void handleKeyboardInput_keyConsumedByTabDoesNotSwitch() {
+        TUITab mockTab1 = mock(TUITab.class);
+        tuiManager.addTab(mockTab1);
+        tuiManager.addTab(mock(TUITab.class));
+        when(mockTab1.handleKeyboardInput(any())).thenReturn(true);
+
+        tuiManager.handleKeyboardInput(new KeyInfo(KeyLabel.F2));
+
+        assertEquals(0, tuiManager.getCurrentTab());
+    }
+
+    @Test
+    void selectNextTab_reachesTabsBeyondFunctionKeys() {
+        for (int i = 0; i < 14; i++)
+            tuiManager.addTab(mock(TUITab.class));
+        tuiManager.getKeyBindings().bind(KeyLabel.ESC, "nextTab");
+
+        tuiManager.handleKeyboardInput(new KeyInfo(KeyLabel.F12));
+        tuiManager.handleKeyboardInput(new KeyInfo(KeyLabel.ESC));
+        tuiManager.handleKeyboardInput(new KeyInfo(KeyLabel.ESC));
+        assertEquals(13, tuiManager.getCurrentTab());
+
+        tuiManager.handleKeyboardInput(new KeyInfo(KeyLabel.ESC));
+        assertEquals(0, tuiManager.getCurrentTab());
+    }
+
+    @Test
+    void render_recordsFramesAndCoalescedRefreshes() {
+        tuiManager.refresh();
+        tuiManager.render();
+        tuiManager.render();
+
+        assertEquals(1, tuiManager.getMetrics().getFramesRendered().getCount());
+        assertEquals(1, tuiManager.getMetrics().getFramesCoalesced().get());
+        assertEquals(1, tuiManager.getMetrics().getRenderTime().snapshot().getCount());
+    }
+
+    @Test
+    void render_frameRateLimitDelaysFrames() {
+        tuiManager.setFrameRateLimit(20);
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            tuiManager.refresh();
+            tuiManager.render();
+        }
+
+        assertEquals(3, tuiManager.getMetrics().getFramesRendered().getCount());
+        assertTrue(System.nanoTime() - start >= 2 * 50_000_000L);
+    }
+
+    @Test
+    void handleKeyboardInput_scrollKeysScrollActiveTable() {
+        TUITab mockTab = mock(TUITab.class);
+        tuiManager.addTab(mockTab);
+        List<String> cells = Arrays.asList("Year", "Return", "1", "100", "2", "200", "3", "300", "4", "400");
+        TUITable table = new TUITable(2, 3, 2, cells, 1, mockScreen, tuiManager);
+        table.windowResized(40, 6);  // 11 lines, 6 of them shown
+        table.show();
+
+        tuiManager.handleKeyboardInput(new KeyboardHandler().getKeyInfo(KeyboardHandler.toKeyCodes(new byte[]{27, '[', 'B'})));
+        assertEquals(2, table.getFirstLine());
+        tuiManager.handleKeyboardInput(new KeyboardHandler().getKeyInfo(KeyboardHandler.toKeyCodes(new byte[]{27, '[', '6', '~'})));
+        assertEquals(5, table.getFirstLine());  // A page, stopping with the last line at the bottom
+        tuiManager.handleKeyboardInput(new KeyInfo(KeyLabel.PAGE_UP));
+        assertEquals(1, table.getFirstLine());
+        tuiManager.handleKeyboardInput(new KeyInfo(KeyLabel.ARROW_UP));
+        assertEquals(0, table.getFirstLine());
+        verify(mockTab, never()).handleKeyboardInput(any());
+    }
+
+    @Test
+    void handleKeyboardInput_tableThatFitsLetsArrowsBubble() {
+        TUITab mockTab = mock(TUITab.class);
+        tuiManager.addTab(mockTab);
+        TUITable table = new TUITable(2, 3, 2, Arrays.asList("Year", "Return"), 1, mockScreen, tuiManager);
+        table.windowResized(40, 20);
+        table.show();
+        KeyInfo arrowDown = new KeyInfo(KeyLabel.ARROW_DOWN);
+
+        tuiManager.handleKeyboardInput(arrowDown);
+
+        assertEquals(0, table.getFirstLine());
+        verify(mockTab).handleKeyboardInput(arrowDown);
+    }
+
+    @Test
+    void handleKeyboardInput_slowLinkDefersFrame() {
+        when(mockScreen.getLastFrameBytes()).thenReturn(50_000);
+        when(mockScreen.getLastWriteNanos()).thenReturn(500_000_000L);  // 100 kB/s
+        tuiManager.render();
+        assertTrue(tuiManager.isReducedQuality());
+        assertTrue(tuiManager.nanosUntilFrame() > 0);
+
+        tuiManager.handleKeyboardInput(new KeyInfo(KeyLabel.ENTER));
+
+        assertEquals(1, tuiManager.getMetrics().getFramesRendered().getCount());
+        assertTrue(tuiManager.isFramePending());  // Redraws in reduced quality when the link is ready
+    }
+
+    @Test
+    void render_fastLinkIsNotPaced() {
+        when(mockScreen.getLastFrameBytes()).thenReturn(50_000);
+        when(mockScreen.getLastWriteNanos()).thenReturn(100_000L);
+        tuiManager.render();
+
+        assertFalse(tuiManager.isReducedQuality());
+        assertFalse(tuiManager.isFramePending());
+        assertEquals(0, tuiManager.nanosUntilFrame());
+    }
 }
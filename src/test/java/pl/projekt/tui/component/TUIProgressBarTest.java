@@ -2,6 +2,7 @@ package pl.projekt.tui.component;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import pl.projekt.tui.model.color.Colors;
 
@@ -38,6 +39,20 @@ public class TUIProgressBarTest {
 
 
 
+    @Test
+    public void testReducedQualityFillsSolid() {
+        when(tuiManager.getScreen()).thenReturn(tuiScreen);
+        when(tuiManager.isReducedQuality()).thenReturn(true);
+        progressBar.setProgress(0.5);
+        progressBar.drawComponent(tuiManager);
+
+        for (int i = 0; i < 8; i++) {  // The filled half up to the percentage text
+            ArgumentCaptor<TUIScreenCell> cell = ArgumentCaptor.forClass(TUIScreenCell.class);
+            verify(tuiScreen).addPixelToLayer(eq(10 + i), eq(5), eq(1), cell.capture());
+            assertEquals(Colors.BG_GREEN.getColor(), cell.getValue().getBackgroundColor());
+        }
+    }
+
     @Test
     public void testShow() {
         progressBar.show();
@@ -1,45 +1,47 @@
 package pl.projekt.tui.component;
 
 import org.junit.jupiter.api.Test;
+import pl.projekt.tui.model.color.Palette;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class TUIScreenCellTest {
 
     @Test
     public void testConstructorAndGetters() {
-        TUIScreenCell cell = new TUIScreenCell('A', "white", "black");
+        TUIScreenCell cell = new TUIScreenCell('A', Palette.WHITE, Palette.BLACK);
         assertEquals('A', cell.getCharacter());
-        assertEquals("white", cell.getTextColor());
-        assertEquals("black", cell.getBackgroundColor());
+        assertEquals(Palette.WHITE, cell.getTextColor());
+        assertEquals(Palette.BLACK, cell.getBackgroundColor());
     }
 
     @Test
-    public void testNonNullTextColor() {
-        assertThrows(NullPointerException.class, () -> {
-            new TUIScreenCell('A', null, "black");
+    public void testInvalidTextColor() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new TUIScreenCell('A', 256, Palette.BLACK);
         });
     }
 
     @Test
-    public void testNonNullBackgroundColor() {
-        assertThrows(NullPointerException.class, () -> {
-            new TUIScreenCell('A', "white", null);
+    public void testInvalidBackgroundColor() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new TUIScreenCell('A', Palette.WHITE, -2);
         });
     }
 
     @Test
     public void testToString() {
-        TUIScreenCell cell = new TUIScreenCell('A', "white", "black");
-        String expectedToString = "TUIScreenCell(character=A, textColor=white, backgroundColor=black)";
+        TUIScreenCell cell = new TUIScreenCell('A', Palette.WHITE, Palette.BLACK);
+        String expectedToString = "TUIScreenCell(character=A, textColor=7, backgroundColor=0)";
         assertEquals(expectedToString, cell.toString());
     }
 
 
     @Test
     public void testEqualsAndHashCode() {
-        TUIScreenCell cell1 = new TUIScreenCell('A', "white", "black");
-        TUIScreenCell cell2 = new TUIScreenCell('A', "white", "black");
-        TUIScreenCell cell3 = new TUIScreenCell('B', "white", "black");
+        TUIScreenCell cell1 = new TUIScreenCell('A', Palette.WHITE, Palette.BLACK);
+        TUIScreenCell cell2 = new TUIScreenCell('A', Palette.WHITE, Palette.BLACK);
+        TUIScreenCell cell3 = new TUIScreenCell('B', Palette.WHITE, Palette.BLACK);
 
         assertTrue(cell1.equals(cell2) && cell2.equals(cell1));
         assertEquals(cell1.hashCode(), cell2.hashCode());
@@ -50,34 +52,33 @@ public class TUIScreenCellTest {
 
     @Test
     public void testDifferentCharacters() {
-        TUIScreenCell cell1 = new TUIScreenCell('A', "white", "black");
-        TUIScreenCell cell2 = new TUIScreenCell('B', "white", "black");
+        TUIScreenCell cell1 = new TUIScreenCell('A', Palette.WHITE, Palette.BLACK);
+        TUIScreenCell cell2 = new TUIScreenCell('B', Palette.WHITE, Palette.BLACK);
 
         assertNotEquals(cell1, cell2);
     }
 
     @Test
     public void testDifferentTextColors() {
-        TUIScreenCell cell1 = new TUIScreenCell('A', "white", "black");
-        TUIScreenCell cell2 = new TUIScreenCell('A', "red", "black");
+        TUIScreenCell cell1 = new TUIScreenCell('A', Palette.WHITE, Palette.BLACK);
+        TUIScreenCell cell2 = new TUIScreenCell('A', Palette.RED, Palette.BLACK);
 
         assertNotEquals(cell1, cell2);
     }
 
     @Test
     public void testDifferentBackgroundColors() {
-        TUIScreenCell cell1 = new TUIScreenCell('A', "white", "black");
-        TUIScreenCell cell2 = new TUIScreenCell('A', "white", "blue");
+        TUIScreenCell cell1 = new TUIScreenCell('A', Palette.WHITE, Palette.BLACK);
+        TUIScreenCell cell2 = new TUIScreenCell('A', Palette.WHITE, Palette.BLUE);
 
         assertNotEquals(cell1, cell2);
     }
 
     @Test
-    public void testConstructorWithDefaultValues() {
-        TUIScreenCell cell = new TUIScreenCell(' ', "white", "black");
+    public void testRgbColors() {
+        TUIScreenCell cell = new TUIScreenCell(' ', Palette.DEFAULT, Palette.rgb(1, 2, 3));
 
-        assertEquals(' ', cell.getCharacter());
-        assertEquals("white", cell.getTextColor());
-        assertEquals("black", cell.getBackgroundColor());
+        assertEquals(Palette.DEFAULT, cell.getTextColor());
+        assertEquals(Palette.rgb(1, 2, 3), cell.getBackgroundColor());
     }
 }
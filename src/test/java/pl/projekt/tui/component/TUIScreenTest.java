@@ -2,7 +2,25 @@ package pl.projekt.tui.component;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import pl.projekt.tui.metrics.SessionMetrics;
+import pl.projekt.tui.metrics.Trace;
 import pl.projekt.tui.model.color.Colors;
+import pl.projekt.tui.terminal.TerminalCapabilities;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -28,29 +46,29 @@ public class TUIScreenTest {
 
     @Test
     public void testAddPixelToLayer() {
-        TUIScreenCell cell = new TUIScreenCell('X', Colors.TEXT_WHITE.getCode(), Colors.BG_BLACK.getCode());
+        TUIScreenCell cell = new TUIScreenCell('X', Colors.TEXT_WHITE.getColor(), Colors.BG_BLACK.getColor());
         screen.addPixelToLayer(10, 20, 0, cell);
-        assertEquals('X', screen.getLayers().get(0)[20][10].getCharacter());
+        assertEquals('X', screen.getLayers().get(0).get(10, 20).getCharacter());
     }
 
     @Test
     public void testSetText() {
-        screen.setText(5, 5, "Hello", Colors.TEXT_WHITE.getCode(), Colors.BG_BLACK.getCode(), 0);
-        assertEquals('H', screen.getLayers().get(0)[5][5].getCharacter());
-        assertEquals('o', screen.getLayers().get(0)[5][9].getCharacter());
+        screen.setText(5, 5, "Hello", Colors.TEXT_WHITE.getColor(), Colors.BG_BLACK.getColor(), 0);
+        assertEquals('H', screen.getLayers().get(0).get(5, 5).getCharacter());
+        assertEquals('o', screen.getLayers().get(0).get(9, 5).getCharacter());
     }
 
     @Test
     public void testSetBgColor() {
-        screen.setBgColor(Colors.BG_RED.getCode(), 0);
-        assertEquals(Colors.BG_RED.getCode(), screen.getLayers().get(0)[0][0].getBackgroundColor());
+        screen.setBgColor(Colors.BG_RED.getColor(), 0);
+        assertEquals(Colors.BG_RED.getColor(), screen.getLayers().get(0).get(0, 0).getBackgroundColor());
     }
 
     @Test
     public void testClearLayers() {
-        screen.addPixelToLayer(10, 20, 0, new TUIScreenCell('X', Colors.TEXT_WHITE.getCode(), Colors.BG_BLACK.getCode()));
+        screen.addPixelToLayer(10, 20, 0, new TUIScreenCell('X', Colors.TEXT_WHITE.getColor(), Colors.BG_BLACK.getColor()));
         screen.clearLayers();
-        assertNull(screen.getLayers().get(0)[20][10]);
+        assertNull(screen.getLayers().get(0).get(10, 20));
     }
 
     @Test
@@ -60,10 +78,151 @@ public class TUIScreenTest {
         assertEquals(100, screen.getHeight());
     }
 
+    @Test
+    public void testResizeKeepsContent() {
+        screen.setText(10, 20, "Hello", Colors.TEXT_WHITE.getColor(), Colors.BG_BLACK.getColor(), 0);
+        screen.setText(95, 45, "Edge", Colors.TEXT_WHITE.getColor(), Colors.BG_BLACK.getColor(), 0);
+
+        screen.resize(200, 100);
+        assertEquals('H', screen.getLayers().get(0).get(10, 20).getCharacter());
+        screen.resize(60, 30);
+        assertEquals('o', screen.getLayers().get(0).get(14, 20).getCharacter());
+        screen.resize(100, 50);
+        assertNull(screen.getLayers().get(0).get(95, 45));  // Dropped while it was outside the screen
+    }
+
+    @Test
+    public void testResizeKeepsTiles() {
+        screen.setText(10, 20, "Hello", Colors.TEXT_WHITE.getColor(), Colors.BG_BLACK.getColor(), 0);
+        screen.setText(90, 45, "Edge", Colors.TEXT_WHITE.getColor(), Colors.BG_BLACK.getColor(), 0);
+        assertEquals(2, screen.getLayers().get(0).getTileCount());
+
+        screen.resize(200, 100);
+        assertEquals(2, screen.getLayers().get(0).getTileCount());
+        screen.resize(60, 30);  // The tile of "Edge" is outside the screen
+        assertEquals(1, screen.getLayers().get(0).getTileCount());
+    }
+
+    @Test
+    public void testStorageAllocatedForFirstSize() {
+        TUIScreen session = new TUIScreen(1200, 800);
+        session.resize(80, 24);  // Before anything is drawn, e.g. with the size of the pty request
+        session.setBgColor(Colors.BG_RED.getColor(), 0);
+
+        assertEquals(5 * 3, session.getLayers().get(0).getTileCount());
+        assertTrue(session.render().contains(" "));
+    }
+
+    @Test
+    public void testLayersOnlyAllocateDrawnTiles() {
+        screen.addLayer(1);
+        screen.setText(40, 10, "Dialog", Colors.TEXT_WHITE.getColor(), Colors.BG_BLACK.getColor(), 1);
+        assertEquals(1, screen.getLayers().get(1).getTileCount());
+
+        screen.clearCellAt(0, 0, 1);  // Clearing an empty tile does not allocate it
+        assertEquals(1, screen.getLayers().get(1).getTileCount());
+    }
+
     @Test
     public void testClearCellAt() {
-        screen.addPixelToLayer(10, 20, 0, new TUIScreenCell('X', Colors.TEXT_WHITE.getCode(), Colors.BG_BLACK.getCode()));
+        screen.addPixelToLayer(10, 20, 0, new TUIScreenCell('X', Colors.TEXT_WHITE.getColor(), Colors.BG_BLACK.getColor()));
         screen.clearCellAt(10, 20, 0);
-        assertNull(screen.getLayers().get(0)[20][10]);
+        assertNull(screen.getLayers().get(0).get(10, 20));
+    }
+
+    @Test
+    public void testMergeCountsChangedCells() {
+        screen.addLayer(0);
+        assertEquals(0, screen.mergeLayers(true));
+
+        screen.setText(5, 5, "Hi", Colors.TEXT_WHITE.getColor(), Colors.BG_BLACK.getColor(), 0);
+        assertEquals(2, screen.mergeLayers(true));
+        assertEquals(0, screen.mergeLayers(true));
+        assertEquals(0, screen.mergeLayers(false));
+    }
+
+    @Test
+    public void testRefreshEmitsFlightRecorderEvents() throws IOException {
+        screen.setText(0, 0, "Hi", Colors.TEXT_WHITE.getColor(), Colors.BG_BLACK.getColor(), 0);
+        Path file = Files.createTempFile("tui", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String event : List.of("pl.projekt.tui.Merge", "pl.projekt.tui.Encode", "pl.projekt.tui.Write"))
+                recording.enable(event).withThreshold(Duration.ZERO);
+            recording.start();
+            screen.refresh(OutputStream.nullOutputStream(), new SessionMetrics());
+            recording.stop();
+            recording.dump(file);
+
+            Map<String, RecordedEvent> events = new HashMap<>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(file))
+                events.put(event.getEventType().getName(), event);
+            assertEquals(2, events.get("pl.projekt.tui.Merge").getInt("cellsChanged"));
+            assertEquals(100, events.get("pl.projekt.tui.Merge").getInt("width"));
+            assertEquals(screen.getLastFrameBytes(), events.get("pl.projekt.tui.Write").getLong("bytes"));
+            assertTrue(events.containsKey("pl.projekt.tui.Encode"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testOutOfBoundsCellsAreTraced() throws IOException {
+        Trace trace = new Trace(8);
+        screen.setTrace(trace);
+        screen.setText(98, 3, "Hello", Colors.TEXT_WHITE.getColor(), Colors.BG_BLACK.getColor(), 0);
+        screen.addPixelToLayer(100, 60, 0, new TUIScreenCell('X', Colors.TEXT_WHITE.getColor(), Colors.BG_BLACK.getColor()));
+
+        screen.refresh(OutputStream.nullOutputStream());
+        screen.refresh(OutputStream.nullOutputStream());
+
+        assertEquals(1, trace.getRecorded());
+        assertTrue(trace.dump().endsWith("1 cells out of bounds, first at 100,60\n"));
+    }
+
+    @Test
+    public void testFrameIsOneWriteAndFlush() throws IOException {
+        screen.setCapabilities(TerminalCapabilities.builder().cursorMovement(true).synchronizedOutput(true).build());
+        int[] calls = new int[2];  // Writes and flushes
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) {
+                calls[0]++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                calls[0]++;
+            }
+
+            @Override
+            public void flush() {
+                calls[1]++;
+            }
+        };
+
+        screen.refresh(out, new SessionMetrics());
+        assertArrayEquals(new int[]{1, 1}, calls);
+
+        screen.refresh(out, new SessionMetrics());  // Nothing changed
+        assertArrayEquals(new int[]{1, 1}, calls);
+
+        screen.setText(3, 3, "Hi", Colors.TEXT_WHITE.getColor(), Colors.BG_BLACK.getColor(), 0);
+        screen.refresh(out);
+        assertArrayEquals(new int[]{2, 2}, calls);
+    }
+
+    @Test
+    public void testRestoreTerminalShowsCursor() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        screen.refresh(out);
+        assertTrue(out.toString(StandardCharsets.UTF_8).startsWith("\033[?25l"));
+        out.reset();
+
+        screen.restoreTerminal(out);
+        assertEquals("\033[50H\033[0m\033[?25h", out.toString(StandardCharsets.UTF_8));
+        out.reset();
+
+        screen.refresh(out);
+        assertTrue(out.toString(StandardCharsets.UTF_8).startsWith("\033[?25l\033[H"));
     }
 }
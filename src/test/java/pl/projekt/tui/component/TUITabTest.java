@@ -4,8 +4,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import pl.projekt.tui.layout.AnchorLayout;
+import pl.projekt.tui.layout.ComponentNode;
+import pl.projekt.tui.layout.FlexLayout;
 import pl.projekt.tui.model.color.Colors;
-
+import pl.projekt.tui.model.keys.KeyInfo;
+import pl.projekt.tui.model.keys.KeyLabel;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -93,7 +97,7 @@ public class TUITabTest {
     public void testHighlightComponent() {
         tab.highlightComponent();
         assertTrue(tab.isComponentActive());
-        assertEquals(Colors.TEXT_RED.getCode(), tab.getTextColor());
+        assertEquals(Colors.TEXT_RED.getColor(), tab.getTextColor());
     }
 
     @Test
@@ -101,7 +105,7 @@ public class TUITabTest {
         tab.highlightComponent();
         tab.resetHighlightComponent();
         assertFalse(tab.isComponentActive());
-        assertEquals(Colors.TEXT_BLACK.getCode(), tab.getTextColor());
+        assertEquals(Colors.TEXT_BLACK.getColor(), tab.getTextColor());
     }
 
     @Test
@@ -122,6 +126,85 @@ public class TUITabTest {
         assertTrue(tab.isInteractable());
     }
 
+    @Test
+    public void testLayoutFollowsWindowSize() {
+        TUITextField field = new TUITextField(0, 0, 10, 1, 0, mockTUIManager);
+        tab.addComponent(field);
+        tab.setLayout(new AnchorLayout().add(new ComponentNode(field), AnchorLayout.Anchor.BOTTOM_RIGHT));
+
+        assertEquals(10, field.getX());
+        assertEquals(9, field.getY());
+
+        tab.windowResized(40, 20);
+
+        assertEquals(30, field.getX());
+        assertEquals(19, field.getY());
+    }
+
+    @Test
+    public void testLabelTextChangeMovesSiblings() {
+        when(mockTUIManager.getScreen()).thenReturn(new TUIScreen(20, 10));
+        TUILabel label = new TUILabel("Amount", 0, 0, 0, Colors.BG_WHITE.getColor(), mockTUIManager);
+        TUITextField field = new TUITextField(0, 0, 10, 1, 0, mockTUIManager);
+        tab.addComponent(label);
+        tab.addComponent(field);
+        tab.setLayout(FlexLayout.column().add(new ComponentNode(label)).add(new ComponentNode(field)));
+        tab.setActive(true);
+        assertEquals(7, field.getY());
+
+        label.setText("Amount\nof the loan");
+        tab.drawComponent(mockTUIManager);
+
+        assertEquals(6, label.getY());
+        assertEquals(8, field.getY());
+    }
+
+    @Test
+    public void testArrowKeysMoveFocus() {
+        TUITextField first = new TUITextField(0, 6, 10, 1, 0, mockTUIManager);
+        TUITextField second = new TUITextField(0, 7, 10, 1, 0, mockTUIManager);
+        tab.addComponent(first);
+        tab.addComponent(second);
+
+        tab.handleKeyboardInput(new KeyInfo(KeyLabel.ARROW_DOWN));
+        assertSame(first, tab.getFocusedComponent());
+        assertTrue(first.isComponentActive());
 
+        tab.handleKeyboardInput(new KeyInfo(KeyLabel.ARROW_DOWN));
+        assertSame(second, tab.getFocusedComponent());
+        assertFalse(first.isComponentActive());
+        assertEquals(Colors.BG_YELLOW.getColor(), second.getBackgroundColor());
+        assertEquals(Colors.BG_RED.getColor(), first.getBackgroundColor());
+
+        // Nothing below the last field, the focus wraps around the ring
+        tab.handleKeyboardInput(new KeyInfo(KeyLabel.ARROW_DOWN));
+        assertSame(first, tab.getFocusedComponent());
+    }
+
+    @Test
+    public void testFocusedComponentConsumesKeysFirst() {
+        TUITextField field = new TUITextField(0, 6, 10, 1, 0, mockTUIManager);
+        tab.addComponent(field);
+        tab.setActive(true);
+        tab.handleKeyboardInput(new KeyInfo(KeyLabel.ARROW_DOWN));
 
+        assertTrue(tab.handleKeyboardInput(new KeyInfo("7", KeyLabel.DIGIT_7)));
+        assertEquals("7", field.getTextContent().toString());
+        // Function keys are not consumed by the field nor the tab, they bubble to the manager
+        assertFalse(tab.handleKeyboardInput(new KeyInfo(KeyLabel.F2)));
+    }
+
+    @Test
+    public void testRebindTabKey() {
+        TUITextField first = new TUITextField(0, 6, 10, 1, 0, mockTUIManager);
+        TUITextField second = new TUITextField(20, 6, 10, 1, 0, mockTUIManager);
+        tab.addComponent(first);
+        tab.addComponent(second);
+
+        tab.getKeyBindings().bind(KeyLabel.F12, "focusNext");
+        tab.handleKeyboardInput(new KeyInfo(KeyLabel.F12));
+        tab.handleKeyboardInput(new KeyInfo(KeyLabel.F12));
+
+        assertSame(second, tab.getFocusedComponent());
+    }
 }
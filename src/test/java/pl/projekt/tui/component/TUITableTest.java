@@ -7,6 +7,8 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 public class TUITableTest {
@@ -56,10 +58,25 @@ public class TUITableTest {
         table.windowResized(20, 10);
 
         // Assert that the table is redrawn with the new dimensions
-        verify(mockTUIScreen, atLeastOnce()).setText(anyInt(), anyInt(), anyString(), anyString(), anyString(), anyInt());
+        verify(mockTUIScreen, atLeastOnce()).setText(anyInt(), anyInt(), anyString(), anyInt(), anyInt(), anyInt());
         // You can add specific assertions based on the new dimensions and expected rendering behavior
     }
 
+    @Test
+    void testSetCellsRendersNewCellsAndNotifiesLayout() {
+        TUITable table = new TUITable(2, 3, 2, Arrays.asList("A", "B"), 1, mockTUIScreen, mockTUIManager);
+        Runnable sizeListener = mock(Runnable.class);
+        table.setSizeListener(sizeListener);
+        assertEquals(9, table.getWidth());
+        assertEquals(3, table.getHeight());
+
+        table.setCells(Arrays.asList("Rate", "B", "C", "D"));
+
+        assertEquals(12, table.getWidth());
+        assertEquals(5, table.getHeight());
+        verify(sizeListener).run();
+    }
+
     @Test
     void testGetX() {
         List<String> cells = new ArrayList<>();
@@ -100,5 +117,22 @@ public class TUITableTest {
         assertEquals(5, table.getZIndex());
     }
 
-
+    @Test
+    void testScrollBy() {
+        List<String> cells = Arrays.asList("Year", "Return", "1", "100", "2", "200", "3", "300");
+        TUITable table = new TUITable(2, 3, 2, cells, 1, mockTUIScreen, mockTUIManager);
+        table.windowResized(40, 6);  // 9 lines, the table moves to the top and shows 6 of them
+
+        assertEquals(0, table.getY());
+        assertEquals(6, table.getHeight());
+        assertTrue(table.scrollBy(2));
+        assertTrue(table.scrollBy(2));
+        assertEquals(3, table.getFirstLine());  // Stops with the last line at the bottom
+        assertFalse(table.scrollBy(2));
+        assertTrue(table.scrollBy(-10));
+        assertEquals(0, table.getFirstLine());
+
+        table.drawComponent(mockTUIManager);
+        verify(mockTUIScreen, times(6)).setText(anyInt(), anyInt(), anyString(), anyInt(), anyInt(), anyInt());
+    }
 }
@@ -0,0 +1,78 @@
+package pl.projekt.tui.component;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.projekt.tui.model.color.Colors;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TUITemplateTest {
+
+    private TUITemplate template;
+
+    @BeforeEach
+    public void setUp() {
+        TUITemplate.Builder builder = TUITemplate.builder();
+        int first = builder.addTab("F1 First", 0, 0, 0);
+        int second = builder.addTab("F2 Second", 20, 0, 0);
+        builder.addStatic(first, new TUILabel("Hello", 2, 3, 0, Colors.BG_BRIGHT_YELLOW.getColor(), null));
+        builder.addStatic(second, new TUIBorder(1, 2, 10, 4, 0, null));
+        template = builder.build();
+    }
+
+    @Test
+    public void testTabCount() {
+        assertEquals(2, template.getTabCount());
+    }
+
+    @Test
+    public void testCellCount() {
+        // 5 label characters + border of 10x4 (2 * 10 + 2 * 2 cells)
+        assertEquals(5 + 24, template.getCellCount());
+    }
+
+    @Test
+    public void testInstantiateCreatesIndependentTabs() {
+        TUIScreen screen = new TUIScreen(40, 10);
+        TUIManager manager = new TUIManager(screen, null);
+        List<TUITab> firstSession = template.instantiate(manager, 40, 10);
+        List<TUITab> secondSession = template.instantiate(manager, 40, 10);
+
+        assertEquals("F1 First", firstSession.get(0).getTitle());
+        assertEquals(20, firstSession.get(1).getX());
+        assertNotSame(firstSession.get(0), secondSession.get(0));
+    }
+
+    @Test
+    public void testInstancesShareCells() {
+        TUIScreen firstScreen = new TUIScreen(40, 10);
+        TUIScreen secondScreen = new TUIScreen(40, 10);
+        TUIManager firstManager = new TUIManager(firstScreen, null);
+        TUIManager secondManager = new TUIManager(secondScreen, null);
+
+        TUITab firstTab = template.instantiate(firstManager, 40, 10).get(0);
+        TUITab secondTab = template.instantiate(secondManager, 40, 10).get(0);
+        firstTab.setActive(true);
+        secondTab.setActive(true);
+        firstTab.drawComponent(firstManager);
+        secondTab.drawComponent(secondManager);
+
+        TUIScreenCell first = firstScreen.getLayers().get(0).get(2, 3);
+        assertEquals('H', first.getCharacter());
+        assertSame(first, secondScreen.getLayers().get(0).get(2, 3));
+    }
+
+    @Test
+    public void testRasterizeKeepsPosition() {
+        List<TUIStaticImage> images = TUIStaticImage.rasterize(List.of(new TUILabel("Abc", 4, 2, 1, Colors.BG_BLUE.getColor(), null)));
+
+        assertEquals(1, images.size());
+        assertEquals(4, images.get(0).getX());
+        assertEquals(2, images.get(0).getY());
+        assertEquals(3, images.get(0).getWidth());
+        assertEquals(1, images.get(0).getZIndex());
+        assertFalse(images.get(0).isInteractable());
+    }
+}
@@ -34,8 +34,8 @@ public class TUITextFieldTest {
 
     @Test
     public void testSetTextColor() {
-        textField.setTextColor(Colors.TEXT_BLACK.getCode());
-        assertEquals(Colors.TEXT_BLACK.getCode(), textField.getTextColor());
+        textField.setTextColor(Colors.TEXT_BLACK.getColor());
+        assertEquals(Colors.TEXT_BLACK.getColor(), textField.getTextColor());
     }
 
     @Test
@@ -84,16 +84,16 @@ public class TUITextFieldTest {
     @Test
     public void testHighlightComponent() {
         textField.highlightComponent();
-        assertEquals(Colors.BG_YELLOW.getCode(), textField.getBackgroundColor());
-        assertEquals(Colors.TEXT_BLACK.getCode(), textField.getTextColor());
+        assertEquals(Colors.BG_YELLOW.getColor(), textField.getBackgroundColor());
+        assertEquals(Colors.TEXT_BLACK.getColor(), textField.getTextColor());
         verify(tuiManager, times(1)).refresh();
     }
 
     @Test
     public void testResetHighlightComponent() {
         textField.resetHighlightComponent();
-        assertEquals(Colors.BG_RED.getCode(), textField.getBackgroundColor());
-        assertEquals(Colors.TEXT_WHITE.getCode(), textField.getTextColor());
+        assertEquals(Colors.BG_RED.getColor(), textField.getBackgroundColor());
+        assertEquals(Colors.TEXT_WHITE.getColor(), textField.getTextColor());
         verify(tuiManager, times(1)).refresh();
     }
 
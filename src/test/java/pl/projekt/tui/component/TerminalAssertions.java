@@ -0,0 +1,62 @@
+package pl.projekt.tui.component;
+
+import pl.projekt.tui.model.color.Palette;
+import pl.projekt.tui.terminal.VirtualTerminal;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Compares what a {@link VirtualTerminal} shows with the merged layer of a {@link TUIScreen}, so a renderer can be
+ * checked by its effect on a terminal rather than by the exact bytes it writes.
+ */
+final class TerminalAssertions {
+
+    private static final int MAX_REPORTED = 10;
+
+    private TerminalAssertions() {
+    }
+
+    /**
+     * Fails if any cell of the terminal differs from the merged cell of the screen in character or colors.
+     *
+     * @param screen   Screen after a refresh.
+     * @param terminal Terminal that received the refreshes.
+     */
+    static void assertShows(TUIScreen screen, VirtualTerminal terminal) {
+        StringBuilder differences = new StringBuilder();
+        int count = 0;
+        for (int y = 0; y < screen.getHeight(); y++) {
+            for (int x = 0; x < screen.getWidth(); x++) {
+                TUIScreenCell expected = screen.getMergedCell(x, y);
+                VirtualTerminal.Cell actual = terminal.getCell(x, y);
+                String foreground = parameters(Palette.foreground(expected.getTextColor(), screen.getCapabilities().getColorMode()));
+                String background = parameters(Palette.background(expected.getBackgroundColor(), screen.getCapabilities().getColorMode()));
+                char character = screen.getCapabilities().isUnicode() ? expected.getCharacter() : FrameEncoder.toAscii(expected.getCharacter());
+                if (character != actual.getCodePoint()
+                        || !foreground.equals(actual.getForeground())
+                        || !background.equals(actual.getBackground())) {
+                    if (count++ < MAX_REPORTED) {
+                        differences.append(String.format("%n  %d,%d: expected '%c' %s/%s, was '%s' %s/%s", x, y,
+                                character, foreground, background,
+                                new String(Character.toChars(actual.getCodePoint())), actual.getForeground(), actual.getBackground()));
+                    }
+                }
+            }
+        }
+        if (count > 0) {
+            fail(count + " cells differ from the screen:" + differences);
+        }
+        if (!terminal.getUnsupported().isEmpty()) {
+            fail("Terminal received unsupported sequences: " + terminal.getUnsupported());
+        }
+    }
+
+    /**
+     * Strips an SGR sequence such as {@code "\033[31m"} to its parameters, {@code "31"}.
+     */
+    private static String parameters(byte[] sgr) {
+        return new String(sgr, 2, sgr.length - 3, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,66 @@
+package pl.projekt.tui.component;
+
+import org.junit.jupiter.api.Test;
+import pl.projekt.tui.model.color.Colors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TileLayerTest {
+
+    private static final TUIScreenCell CELL = new TUIScreenCell('X', Colors.TEXT_WHITE.getColor(), Colors.BG_BLACK.getColor());
+
+    @Test
+    public void testSetAllocatesOneTile() {
+        TileLayer layer = new TileLayer(100, 50);
+        layer.set(17, 9, CELL);
+
+        assertSame(CELL, layer.get(17, 9));
+        assertNull(layer.get(16, 9));
+        assertEquals(1, layer.getTileCount());
+        assertEquals(1L << 17, layer.occupied(1, 1, 0));  // Row 1, column 1 of the tile is bit 16 + 1
+    }
+
+    @Test
+    public void testClearKeepsTiles() {
+        TileLayer layer = new TileLayer(100, 50);
+        layer.set(3, 7, CELL);
+        layer.clear();
+
+        assertNull(layer.get(3, 7));
+        assertEquals(0, layer.occupied(0, 0, 1));
+        assertEquals(1, layer.getTileCount());
+    }
+
+    @Test
+    public void testOutsideIsEmpty() {
+        TileLayer layer = new TileLayer(20, 10);
+        assertNull(layer.get(-1, 0));
+        assertNull(layer.get(40, 0));
+        assertNull(layer.get(0, 20));
+    }
+
+    @Test
+    public void testMaskOfEdgeTile() {
+        // A 20x10 screen covers 4 columns and 2 rows of the tile at (1, 1)
+        assertEquals(0xFL | 0xFL << 16, TileLayer.mask(1, 1, 20, 10, 0));
+        assertEquals(0, TileLayer.mask(1, 1, 20, 10, 1));
+        assertEquals(-1L, TileLayer.mask(0, 0, 20, 10, 1));
+    }
+
+    @Test
+    public void testResizeClearsCellsOutside() {
+        TileLayer layer = new TileLayer(32, 16);
+        layer.set(5, 5, CELL);
+        layer.set(12, 5, CELL);
+        layer.set(20, 12, CELL);
+
+        layer.resize(10, 8);
+        assertSame(CELL, layer.get(5, 5));
+        assertNull(layer.get(12, 5));
+        assertEquals(1, layer.getTileCount());
+
+        layer.resize(32, 16);
+        assertNull(layer.get(12, 5));
+        assertNull(layer.get(20, 12));
+    }
+}
@@ -0,0 +1,68 @@
+package pl.projekt.tui.keys;
+
+import org.junit.jupiter.api.Test;
+import pl.projekt.tui.model.keys.KeyBindings;
+import pl.projekt.tui.model.keys.KeyInfo;
+import pl.projekt.tui.model.keys.KeyLabel;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeyBindingsTest {
+
+    @Test
+    public void testDispatchBoundKey() {
+        AtomicInteger calls = new AtomicInteger();
+        KeyBindings bindings = new KeyBindings().bind(KeyLabel.F1, keyInfo -> calls.incrementAndGet());
+
+        assertTrue(bindings.dispatch(new KeyInfo(KeyLabel.F1)));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testUnboundKeyIsNotHandled() {
+        KeyBindings bindings = new KeyBindings();
+
+        assertFalse(bindings.dispatch(new KeyInfo(KeyLabel.F1)));
+    }
+
+    @Test
+    public void testBindNamedAction() {
+        AtomicInteger calls = new AtomicInteger();
+        KeyBindings bindings = new KeyBindings().defineAction("count", keyInfo -> calls.incrementAndGet());
+        bindings.bind(KeyLabel.F2, "count");
+
+        bindings.dispatch(new KeyInfo(KeyLabel.F2));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testBindUnknownActionIsRejected() {
+        KeyBindings bindings = new KeyBindings();
+
+        assertThrows(IllegalArgumentException.class, () -> bindings.bind(KeyLabel.F2, "missing"));
+    }
+
+    @Test
+    public void testConfigureRebindsAndUnbinds() {
+        AtomicInteger calls = new AtomicInteger();
+        KeyBindings bindings = new KeyBindings()
+                .defineAction("count", keyInfo -> calls.incrementAndGet())
+                .bind(KeyLabel.F1, keyInfo -> fail("F1 should be unbound"));
+
+        bindings.configure(Map.of("F8", "count", "F1", ""));
+
+        assertTrue(bindings.dispatch(new KeyInfo(KeyLabel.F8)));
+        assertFalse(bindings.dispatch(new KeyInfo(KeyLabel.F1)));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testConfigureUnknownKeyIsRejected() {
+        KeyBindings bindings = new KeyBindings().defineAction("count", keyInfo -> { });
+
+        assertThrows(IllegalArgumentException.class, () -> bindings.configure(Map.of("F42", "count")));
+    }
+}
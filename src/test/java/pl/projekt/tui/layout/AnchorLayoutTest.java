@@ -0,0 +1,41 @@
+package pl.projekt.tui.layout;
+
+import org.junit.jupiter.api.Test;
+import pl.projekt.tui.component.TUITextField;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnchorLayoutTest {
+
+    @Test
+    public void testCenterAnchor() {
+        TUITextField field = new TUITextField(0, 0, 10, 2, 0, null);
+        AnchorLayout layout = new AnchorLayout().add(new ComponentNode(field), AnchorLayout.Anchor.CENTER);
+
+        layout.layout(0, 0, 80, 24);
+
+        assertEquals(35, field.getX());
+        assertEquals(11, field.getY());
+    }
+
+    @Test
+    public void testOffsetIsKeptInsideArea() {
+        TUITextField field = new TUITextField(0, 0, 10, 1, 0, null);
+        AnchorLayout layout = new AnchorLayout().add(new ComponentNode(field), AnchorLayout.Anchor.TOP_LEFT, 75, 0);
+
+        layout.layout(0, 0, 80, 24);
+
+        assertEquals(70, field.getX());
+    }
+
+    @Test
+    public void testChildLargerThanAreaIsShrunk() {
+        TUITextField field = new TUITextField(0, 0, 100, 1, 0, null);
+        AnchorLayout layout = new AnchorLayout().add(new ComponentNode(field), AnchorLayout.Anchor.TOP);
+
+        layout.layout(0, 0, 80, 24);
+
+        assertEquals(0, field.getX());
+        assertEquals(80, field.getWidth());
+    }
+}
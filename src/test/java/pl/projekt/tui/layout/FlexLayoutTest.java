@@ -0,0 +1,70 @@
+package pl.projekt.tui.layout;
+
+import org.junit.jupiter.api.Test;
+import pl.projekt.tui.component.TUITextField;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlexLayoutTest {
+
+    @Test
+    public void testRowPlacesChildrenWithGap() {
+        TUITextField first = new TUITextField(0, 0, 10, 1, 0, null);
+        TUITextField second = new TUITextField(0, 0, 5, 1, 0, null);
+        FlexLayout row = FlexLayout.row().setGap(2).add(new ComponentNode(first)).add(new ComponentNode(second));
+
+        row.layout(3, 4, 80, 1);
+
+        assertEquals(3, first.getX());
+        assertEquals(15, second.getX());
+        assertEquals(4, second.getY());
+        assertEquals(5, second.getWidth());
+    }
+
+    @Test
+    public void testFlexChildrenShareFreeSpace() {
+        TUITextField fixed = new TUITextField(0, 0, 10, 1, 0, null);
+        TUITextField one = new TUITextField(0, 0, 1, 1, 0, null);
+        TUITextField two = new TUITextField(0, 0, 1, 1, 0, null);
+        FlexLayout row = FlexLayout.row()
+                .add(new ComponentNode(fixed))
+                .add(new ComponentNode(one), 1)
+                .add(new ComponentNode(two), 2);
+
+        row.layout(0, 0, 40, 1);
+
+        assertEquals(10, one.getWidth());
+        assertEquals(20, two.getWidth());
+        assertEquals(20, two.getX());
+    }
+
+    @Test
+    public void testColumnStretchesCrossAxis() {
+        TUITextField field = new TUITextField(0, 0, 10, 1, 0, null);
+        FlexLayout column = FlexLayout.column().setAlignment(Alignment.STRETCH).add(new ComponentNode(field));
+
+        column.layout(0, 2, 30, 10);
+
+        assertEquals(30, field.getWidth());
+        assertEquals(2, field.getY());
+    }
+
+    @Test
+    public void testCenterAlignment() {
+        TUITextField field = new TUITextField(0, 0, 10, 1, 0, null);
+        FlexLayout column = FlexLayout.column().setAlignment(Alignment.CENTER).add(new ComponentNode(field));
+
+        column.layout(0, 0, 30, 10);
+
+        assertEquals(10, field.getX());
+    }
+
+    @Test
+    public void testMeasureSumsChildren() {
+        FlexLayout column = FlexLayout.column().setGap(1)
+                .add(new ComponentNode(new TUITextField(0, 0, 10, 1, 0, null)))
+                .add(new ComponentNode(new TUITextField(0, 0, 4, 2, 0, null)));
+
+        assertEquals(new Size(10, 4), column.measure(Constraints.loose(80, 24)));
+    }
+}
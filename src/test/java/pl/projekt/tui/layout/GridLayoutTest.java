@@ -0,0 +1,47 @@
+package pl.projekt.tui.layout;
+
+import org.junit.jupiter.api.Test;
+import pl.projekt.tui.component.TUILabel;
+import pl.projekt.tui.component.TUITextField;
+import pl.projekt.tui.model.color.Colors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GridLayoutTest {
+
+    @Test
+    public void testFormGrid() {
+        TUILabel shortLabel = new TUILabel("Age:", 0, 0, 0, Colors.BG_WHITE.getColor(), null);
+        TUILabel longLabel = new TUILabel("Annual income:", 0, 0, 0, Colors.BG_WHITE.getColor(), null);
+        TUITextField age = new TUITextField(0, 0, 10, 1, 0, null);
+        TUITextField income = new TUITextField(0, 0, 10, 1, 0, null);
+        GridLayout grid = new GridLayout(2).setGaps(1, 0)
+                .add(new ComponentNode(shortLabel)).add(new ComponentNode(age))
+                .add(new ComponentNode(longLabel)).add(new ComponentNode(income));
+
+        grid.layout(2, 5, 80, 2);
+
+        assertEquals(17, age.getX());
+        assertEquals(17, income.getX());
+        assertEquals(5, age.getY());
+        assertEquals(6, income.getY());
+        assertEquals(10, income.getWidth());
+    }
+
+    @Test
+    public void testStretchColumnTakesLeftoverWidth() {
+        TUILabel label = new TUILabel("Name:", 0, 0, 0, Colors.BG_WHITE.getColor(), null);
+        TUITextField field = new TUITextField(0, 0, 10, 1, 0, null);
+        GridLayout grid = new GridLayout(2).setStretchColumn(1)
+                .add(new ComponentNode(label)).add(new ComponentNode(field));
+
+        grid.layout(0, 0, 40, 1);
+
+        assertEquals(35, field.getWidth());
+    }
+
+    @Test
+    public void testGridNeedsColumns() {
+        assertThrows(IllegalArgumentException.class, () -> new GridLayout(0));
+    }
+}
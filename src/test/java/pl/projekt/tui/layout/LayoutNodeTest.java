@@ -0,0 +1,81 @@
+package pl.projekt.tui.layout;
+
+import org.junit.jupiter.api.Test;
+import pl.projekt.tui.component.TUILabel;
+import pl.projekt.tui.component.TUITextField;
+import pl.projekt.tui.model.color.Colors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LayoutNodeTest {
+
+    private static ComponentNode field(int width) {
+        return new ComponentNode(new TUITextField(0, 0, width, 1, 0, null));
+    }
+
+    @Test
+    public void testMeasureIsCachedForEqualConstraints() {
+        ComponentNode node = field(10);
+
+        node.measure(Constraints.loose(80, 24));
+        node.measure(Constraints.loose(80, 24));
+
+        assertEquals(1, node.measurePasses);
+        assertEquals(new Size(10, 1), node.getMeasuredSize());
+    }
+
+    @Test
+    public void testMeasureIsClampedToConstraints() {
+        assertEquals(new Size(5, 1), field(10).measure(Constraints.loose(5, 24)));
+    }
+
+    @Test
+    public void testArrangeSkipsUnchangedBounds() {
+        ComponentNode node = field(10);
+
+        node.layout(0, 0, 10, 1);
+        node.layout(0, 0, 10, 1);
+
+        assertEquals(1, node.arrangePasses);
+    }
+
+    @Test
+    public void testInvalidateRelayoutsOnlyAffectedPath() {
+        TUILabel label = new TUILabel("Name", 0, 0, 0, Colors.BG_WHITE.getColor(), null);
+        ComponentNode changed = new ComponentNode(label);
+        ComponentNode untouched = field(10);
+        FlexLayout left = FlexLayout.column().add(changed);
+        FlexLayout right = FlexLayout.column().add(untouched);
+        FlexLayout root = FlexLayout.row().add(left).add(right);
+        root.layout(0, 0, 80, 24);
+
+        changed.invalidate();
+        root.layout(0, 0, 80, 24);
+
+        assertEquals(2, changed.measurePasses);
+        assertEquals(1, untouched.measurePasses);
+        assertEquals(1, untouched.arrangePasses);
+    }
+
+    @Test
+    public void testResizeMovesComponent() {
+        TUITextField textField = new TUITextField(0, 0, 10, 1, 0, null);
+        AnchorLayout root = new AnchorLayout().add(new ComponentNode(textField), AnchorLayout.Anchor.BOTTOM_RIGHT);
+
+        root.layout(0, 0, 80, 24);
+        assertEquals(70, textField.getX());
+        assertEquals(23, textField.getY());
+
+        root.layout(0, 0, 40, 10);
+        assertEquals(30, textField.getX());
+        assertEquals(9, textField.getY());
+    }
+
+    @Test
+    public void testNodeCannotHaveTwoParents() {
+        ComponentNode node = field(10);
+        FlexLayout.row().add(node);
+
+        assertThrows(IllegalArgumentException.class, () -> FlexLayout.column().add(node));
+    }
+}
@@ -0,0 +1,50 @@
+package pl.projekt.tui.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HistogramTest {
+
+    @Test
+    public void testBucketsCoverValues() {
+        for (long value : new long[]{0, 1, 15, 16, 17, 31, 32, 1000, 123_456_789, Histogram.MAX_VALUE}) {
+            int bucket = Histogram.bucketOf(value);
+            assertTrue(bucket < Histogram.BUCKETS);
+            assertTrue(Histogram.highestValueOf(bucket) >= value, "value " + value);
+            assertTrue(bucket == 0 || Histogram.highestValueOf(bucket - 1) < value, "value " + value);
+        }
+    }
+
+    @Test
+    public void testPercentilesWithinPrecision() {
+        Histogram histogram = new Histogram();
+        for (long i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1000);
+        }
+        Histogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(10_000, snapshot.getCount());
+        assertEquals(10_000_000, snapshot.getMax());
+        assertEquals(5_000_000, snapshot.getPercentile(0.5), 5_000_000 * 0.07);
+        assertEquals(9_900_000, snapshot.getPercentile(0.99), 9_900_000 * 0.07);
+        assertEquals(10_000_000, snapshot.getPercentile(1.0));
+        assertEquals(5_000_500, snapshot.getMean(), 0.001);
+    }
+
+    @Test
+    public void testMerge() {
+        Histogram first = new Histogram();
+        Histogram second = new Histogram();
+        first.record(10);
+        second.record(1_000_000);
+        second.record(-5);
+
+        Histogram.Snapshot merged = first.snapshot().merge(second.snapshot());
+
+        assertEquals(3, merged.getCount());
+        assertEquals(1_000_000, merged.getMax());
+        assertEquals(0, merged.getPercentile(0.1));
+        assertEquals(0, Histogram.Snapshot.EMPTY.getPercentile(0.99));
+    }
+}
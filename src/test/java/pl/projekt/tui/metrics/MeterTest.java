@@ -0,0 +1,44 @@
+package pl.projekt.tui.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MeterTest {
+
+    @Test
+    public void testRateOfCompleteSeconds() {
+        AtomicLong now = new AtomicLong(100_000);
+        Meter meter = new Meter(now::get);
+
+        for (int i = 0; i < 6; i++) {
+            meter.mark();
+        }
+        now.addAndGet(1000);
+        for (int i = 0; i < 4; i++) {
+            meter.mark();
+        }
+        assertEquals(6.0, meter.getRate(1));  // The current second is still counting
+
+        now.addAndGet(1000);
+        assertEquals(4.0, meter.getRate(1));
+        assertEquals(5.0, meter.getRate(2));
+        assertEquals(10, meter.getCount());
+    }
+
+    @Test
+    public void testSlotsAreReused() {
+        AtomicLong now = new AtomicLong(100_000);
+        Meter meter = new Meter(now::get);
+        meter.mark();
+
+        now.addAndGet(60_000);  // Same slot, one minute later
+        meter.mark();
+        now.addAndGet(1000);
+
+        assertEquals(1.0, meter.getRate(1));
+        assertEquals(2, meter.getCount());
+    }
+}
@@ -0,0 +1,73 @@
+package pl.projekt.tui.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void testAggregateKeepsEndedSessions() {
+        MetricsRegistry registry = new MetricsRegistry();
+        SessionMetrics first = new SessionMetrics();
+        SessionMetrics second = new SessionMetrics();
+        registry.register(first);
+        registry.register(second);
+        first.getFramesRendered().mark(3);
+        first.getRenderTime().record(1000);
+        second.getFramesRendered().mark(2);
+        second.getBytesWritten().mark(500);
+
+        registry.unregister(first);
+        first.getFramesRendered().mark();  // Late writes of an ended session are not counted
+
+        SessionMetrics.Snapshot total = registry.aggregate();
+        assertEquals(1, registry.getActiveSessions().getValue());
+        assertEquals(2, total.getSessions());
+        assertEquals(5, total.getFramesRendered());
+        assertEquals(500, total.getBytesWritten());
+        assertEquals(1, total.getRenderTime().getCount());
+        assertEquals(2, registry.getConnects().getCount());
+    }
+
+    @Test
+    public void testRegisterTwiceCountsOneConnect() {
+        MetricsRegistry registry = new MetricsRegistry();
+        SessionMetrics session = new SessionMetrics();
+        registry.register(session);
+        registry.register(session);
+        registry.unregister(session);
+        registry.unregister(session);
+
+        assertEquals(1, registry.getConnects().getCount());
+        assertEquals(1, registry.aggregate().getSessions());
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        MetricsRegistry registry = new MetricsRegistry();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            SessionMetrics session = new SessionMetrics();
+            registry.register(session);
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    session.recordInput();
+                    session.getMergeTime().record(j);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        SessionMetrics.Snapshot total = registry.aggregate();
+        assertEquals(40_000, total.getInputEvents());
+        assertEquals(40_000, total.getMergeTime().getCount());
+        assertEquals(9_999, total.getMergeTime().getMax());
+    }
+}
@@ -0,0 +1,29 @@
+package pl.projekt.tui.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionStatsTest {
+
+    @Test
+    public void testLiveValues() {
+        SessionMetrics metrics = new SessionMetrics();
+        metrics.setTerminalSize(80, 24);
+        metrics.getRenderTime().record(2_000_000);
+        SessionStats stats = new SessionStats(metrics);
+
+        assertEquals("80x24", stats.getTerminalSize());
+        assertEquals(2.0, stats.getRenderTimeP99Millis(), 2.0 * 0.07);
+        assertEquals(0, stats.getIdleSeconds());
+        assertEquals(0, stats.getFrameRateLimit());
+    }
+
+    @Test
+    public void testControlIsRequired() {
+        SessionStats stats = new SessionStats(new SessionMetrics());
+
+        assertThrows(IllegalStateException.class, stats::disconnect);
+        assertThrows(IllegalStateException.class, () -> stats.setFrameRateLimit(5));
+    }
+}
@@ -0,0 +1,67 @@
+package pl.projekt.tui.metrics;
+
+import org.junit.jupiter.api.Test;
+import pl.projekt.tui.model.keys.KeyLabel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TraceTest {
+
+    @Test
+    public void testDumpOldestFirst() {
+        Trace trace = new Trace(8);
+        trace.record(TraceEvent.KEY_RECEIVED, 3, KeyLabel.ARROW_DOWN.ordinal());
+        trace.record(TraceEvent.TAB_SWITCHED, 0, 2);
+
+        String[] lines = trace.dump().split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].endsWith("key ARROW_DOWN (3 bytes)"));
+        assertTrue(lines[1].endsWith("tab 0 -> 2"));
+        assertTrue(lines[1].trim().startsWith("0.000 ms"));
+    }
+
+    @Test
+    public void testKeepsLastEvents() {
+        Trace trace = new Trace(5);  // Rounded up to 8
+        for (int i = 0; i < 20; i++) {
+            trace.record(TraceEvent.RESIZED, i, i);
+        }
+
+        String[] lines = trace.dump().split("\n");
+
+        assertEquals(20, trace.getRecorded());
+        assertEquals(8, lines.length);
+        assertTrue(lines[0].endsWith("resized to 12x12"));
+        assertTrue(lines[7].endsWith("resized to 19x19"));
+    }
+
+    @Test
+    public void testSizeOfOne() {
+        Trace trace = new Trace(1);
+        trace.record(TraceEvent.RESIZED, 1, 1);
+        trace.record(TraceEvent.RESIZED, 2, 2);
+
+        String[] lines = trace.dump().split("\n");
+
+        assertEquals(1, lines.length);
+        assertTrue(lines[0].endsWith("resized to 2x2"));
+    }
+
+    @Test
+    public void testInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new Trace(0));
+        assertThrows(IllegalArgumentException.class, () -> new Trace(-4));
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals("", new Trace().dump());
+    }
+
+    @Test
+    public void testOutOfBoundsPosition() {
+        long position = ((long) -3 << 32) | (7 & 0xFFFFFFFFL);
+        assertEquals("5 cells out of bounds, first at -3,7", TraceEvent.OUT_OF_BOUNDS.describe(5, position));
+    }
+}
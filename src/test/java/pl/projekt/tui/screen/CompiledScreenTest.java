@@ -0,0 +1,154 @@
+package pl.projekt.tui.screen;
+
+import org.junit.jupiter.api.Test;
+import pl.projekt.tui.component.TUIButton;
+import pl.projekt.tui.component.TUIComponent;
+import pl.projekt.tui.component.TUIManager;
+import pl.projekt.tui.component.TUIScreen;
+import pl.projekt.tui.component.TUITab;
+import pl.projekt.tui.component.TUITextField;
+import pl.projekt.tui.model.keys.KeyInfo;
+import pl.projekt.tui.model.keys.KeyLabel;
+import pl.projekt.tui.model.screen.TabDefinition;
+import pl.projekt.tui.model.screen.WidgetDefinition;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledScreenTest {
+
+    private static final String SCREEN = "{\"tabs\":["
+            + "{\"title\":\"F1 First\",\"widgets\":[{\"type\":\"label\",\"text\":\"Amount\",\"x\":1,\"y\":1},"
+            + "{\"type\":\"textField\",\"id\":\"amount\",\"x\":10,\"y\":1,\"width\":5,\"numeric\":true},"
+            + "{\"type\":\"button\",\"id\":\"ok\",\"text\":\"OK\",\"x\":10,\"y\":3,\"width\":6,\"height\":3,\"action\":\"calculate\"}]},"
+            + "{\"title\":\"F2 Second\",\"x\":20,\"widgets\":[{\"type\":\"checkBox\",\"id\":\"a\",\"text\":\"A\",\"value\":\"a\",\"group\":\"choice\",\"x\":1,\"y\":1,\"height\":3}]}]}";
+
+    private static CompiledScreen compile(String json) throws IOException {
+        return CompiledScreen.compile(new ScreenParser().parse("test", new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    public void testStaticWidgetsAreRasterized() throws IOException {
+        CompiledScreen screen = compile(SCREEN);
+
+        assertEquals(2, screen.getTemplate().getTabCount());
+        assertEquals(6, screen.getTemplate().getCellCount());
+    }
+
+    @Test
+    public void testInstantiateCreatesInteractiveComponents() throws IOException {
+        CompiledScreen screen = compile(SCREEN);
+        TUIManager manager = new TUIManager(new TUIScreen(40, 10), null);
+        AtomicReference<String> performed = new AtomicReference<>();
+
+        ScreenInstance instance = screen.instantiate(manager, 40, 10, (action, source, session) -> performed.set(action));
+
+        assertEquals(2, instance.getTabs().size());
+        assertInstanceOf(TUITextField.class, instance.getComponent("amount"));
+        assertEquals("none", instance.getSelectedValue("choice", "none"));
+
+        ((TUIButton) instance.getComponent("ok")).performAction();
+        assertEquals("calculate", performed.get());
+    }
+
+    @Test
+    public void testSessionsGetOwnComponents() throws IOException {
+        CompiledScreen screen = compile(SCREEN);
+        TUIManager manager = new TUIManager(new TUIScreen(40, 10), null);
+
+        ScreenInstance first = screen.instantiate(manager, 40, 10, (action, source, session) -> { });
+        ScreenInstance second = screen.instantiate(manager, 40, 10, (action, source, session) -> { });
+
+        assertNotSame(first.getComponent("amount"), second.getComponent("amount"));
+    }
+
+    @Test
+    public void testDuplicateIdIsRejected() {
+        String json = "{\"tabs\":[{\"title\":\"T\",\"widgets\":[{\"type\":\"textField\",\"id\":\"a\"},{\"type\":\"textField\",\"id\":\"a\"}]}]}";
+
+        assertThrows(IOException.class, () -> compile(json));
+    }
+
+    @Test
+    public void testBundledScreenCompiles() throws IOException {
+        CompiledScreen screen = ScreenRepository.fromClasspath(ScreenRepository.DEFAULT_RESOURCE).current();
+
+        assertEquals(7, screen.getTemplate().getTabCount());
+        assertEquals("F7 Pension", screen.getDefinition().getTabs().get(6).getTitle());
+    }
+
+    @Test
+    public void testBundledScreenFitsSmallTerminal() throws IOException {
+        CompiledScreen screen = ScreenRepository.fromClasspath(ScreenRepository.DEFAULT_RESOURCE).current();
+        TUIManager manager = new TUIManager(new TUIScreen(140, 30), OutputStream.nullOutputStream());
+        ScreenInstance instance = screen.instantiate(manager, 140, 30, (action, source, session) -> { });
+        instance.getTabs().forEach(manager::addTab);
+        manager.initialize();
+
+        manager.resizeUI(80, 24);
+
+        int headerRows = 0;
+        for (TUITab tab : instance.getTabs()) {
+            assertTrue(tab.getX() + tab.getHeaderWidth() <= 80, tab.getTitle() + " header outside the screen");
+            headerRows = Math.max(headerRows, tab.getY() + 1);
+        }
+        KeyLabel[] keys = {KeyLabel.F1, KeyLabel.F2, KeyLabel.F3, KeyLabel.F4, KeyLabel.F5, KeyLabel.F6, KeyLabel.F7};
+        for (int i = 0; i < keys.length; i++) {
+            manager.handleKeyboardInput(new KeyInfo(keys[i]));
+            manager.render();
+            TabDefinition tab = screen.getDefinition().getTabs().get(i);
+            for (WidgetDefinition widget : tab.getWidgets()) {
+                TUIComponent component = instance.getComponent(widget.getId());
+                String where = widget.getId() + " of " + tab.getTitle();
+                assertTrue(component.getX() >= 0 && component.getX() + component.getWidth() <= 80, where + " outside the screen");
+                assertTrue(component.getY() >= headerRows && component.getY() + component.getHeight() <= 24, where + " outside the tab");
+            }
+        }
+        assertFalse(manager.getMetrics().getTrace().dump().contains("out of bounds"), manager.getMetrics().getTrace().dump());
+    }
+
+    @Test
+    public void testLayoutPlacesWidgets() throws IOException {
+        CompiledScreen screen = compile("{\"tabs\":[{\"title\":\"F1 First\",\"widgets\":["
+                + "{\"type\":\"label\",\"id\":\"label\",\"text\":\"Amount\",\"x\":1,\"y\":1},"
+                + "{\"type\":\"textField\",\"id\":\"amount\",\"x\":10,\"y\":1,\"width\":5}],"
+                + "\"layout\":{\"type\":\"row\",\"gap\":2,\"children\":[\"label\",{\"widget\":\"amount\",\"weight\":1}]}}]}");
+        TUIManager manager = new TUIManager(new TUIScreen(40, 10), null);
+
+        ScreenInstance instance = screen.instantiate(manager, 40, 10, (action, source, session) -> { });
+
+        assertEquals(0, screen.getTemplate().getCellCount());  // The placed label is created per session
+        assertEquals(1, instance.getComponent("label").getY());
+        assertEquals(8, instance.getComponent("amount").getX());
+        assertEquals(32, instance.getComponent("amount").getWidth());
+    }
+
+    @Test
+    public void testLayoutOfUnknownWidgetIsRejected() {
+        String json = "{\"tabs\":[{\"title\":\"T\",\"widgets\":[],\"layout\":{\"type\":\"column\",\"children\":[\"missing\"]}}]}";
+
+        assertThrows(IOException.class, () -> compile(json));
+    }
+
+    @Test
+    public void testUnknownKeyActionIsRejected() {
+        assertThrows(IOException.class, () -> compile("{\"keys\":{\"F8\":\"explode\"},\"tabs\":[]}"));
+    }
+
+    @Test
+    public void testInstantiateAppliesKeyBindings() throws IOException {
+        CompiledScreen screen = compile("{\"keys\":{\"F8\":\"nextTab\"},\"tabs\":[{\"title\":\"A\"},{\"title\":\"B\"}]}");
+        TUIManager manager = new TUIManager(new TUIScreen(40, 10), null);
+        ScreenInstance instance = screen.instantiate(manager, 40, 10, (action, source, session) -> { });
+        instance.getTabs().forEach(manager::addTab);
+
+        manager.handleKeyboardInput(new KeyInfo(KeyLabel.F8));
+
+        assertEquals(1, manager.getCurrentTab());
+    }
+}
@@ -0,0 +1,121 @@
+package pl.projekt.tui.screen;
+
+import org.junit.jupiter.api.Test;
+import pl.projekt.tui.layout.Alignment;
+import pl.projekt.tui.layout.AnchorLayout;
+import pl.projekt.tui.model.color.Colors;
+import pl.projekt.tui.model.color.Palette;
+import pl.projekt.tui.model.screen.LayoutDefinition;
+import pl.projekt.tui.model.screen.LayoutType;
+import pl.projekt.tui.model.screen.ScreenDefinition;
+import pl.projekt.tui.model.screen.WidgetDefinition;
+import pl.projekt.tui.model.screen.WidgetType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScreenParserTest {
+
+    private final ScreenParser parser = new ScreenParser();
+
+    private ScreenDefinition parse(String json) throws IOException {
+        return parser.parse("test", new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testParseWidgets() throws IOException {
+        ScreenDefinition definition = parse("{\"tabs\":[{\"title\":\"F1 Main\",\"x\":5,\"widgets\":["
+                + "{\"type\":\"label\",\"text\":\"Hi\",\"x\":1,\"y\":2,\"backgroundColor\":\"BG_RED\"},"
+                + "{\"type\":\"textField\",\"id\":\"amount\",\"x\":3,\"width\":10,\"numeric\":true},"
+                + "{\"type\":\"button\",\"id\":\"ok\",\"text\":\"OK\",\"action\":\"credit\",\"dialog\":{\"title\":\"Result\",\"x\":30,\"y\":15}}]}]}");
+
+        assertEquals(1, definition.getTabs().size());
+        assertEquals(5, definition.getTabs().get(0).getX());
+
+        WidgetDefinition label = definition.getTabs().get(0).getWidgets().get(0);
+        assertEquals(WidgetType.LABEL, label.getType());
+        assertEquals(Colors.BG_RED.getColor(), label.getBackgroundColor());
+
+        WidgetDefinition field = definition.getTabs().get(0).getWidgets().get(1);
+        assertEquals(WidgetType.TEXT_FIELD, field.getType());
+        assertTrue(field.isNumeric());
+        assertEquals(1, field.getHeight());
+
+        WidgetDefinition button = definition.getTabs().get(0).getWidgets().get(2);
+        assertEquals("credit", button.getAction());
+        assertEquals("Result", button.getDialog().getTitle());
+        assertEquals(40, button.getDialog().getWidth());
+    }
+
+    @Test
+    public void testUnknownTypeIsRejected() {
+        assertThrows(IOException.class, () -> parse("{\"tabs\":[{\"title\":\"T\",\"widgets\":[{\"type\":\"slider\"}]}]}"));
+    }
+
+    @Test
+    public void testUnknownColorIsRejected() {
+        assertThrows(IOException.class, () -> parse("{\"tabs\":[{\"title\":\"T\",\"widgets\":[{\"type\":\"label\",\"textColor\":\"PINK\"}]}]}"));
+    }
+
+    @Test
+    public void testRgbAndIndexedColors() throws IOException {
+        ScreenDefinition definition = parse("{\"tabs\":[{\"title\":\"T\",\"widgets\":["
+                + "{\"type\":\"label\",\"text\":\"Hi\",\"textColor\":\"#FF8000\",\"backgroundColor\":\"236\"}]}]}");
+
+        WidgetDefinition label = definition.getTabs().get(0).getWidgets().get(0);
+        assertEquals(Palette.rgb(255, 128, 0), label.getTextColor());
+        assertEquals(Palette.indexed(236), label.getBackgroundColor());
+    }
+
+    @Test
+    public void testInteractiveWidgetNeedsId() {
+        assertThrows(IOException.class, () -> parse("{\"tabs\":[{\"title\":\"T\",\"widgets\":[{\"type\":\"button\",\"text\":\"OK\"}]}]}"));
+    }
+
+    @Test
+    public void testMissingTabsIsRejected() {
+        assertThrows(IOException.class, () -> parse("{}"));
+    }
+
+    @Test
+    public void testParseKeys() throws IOException {
+        ScreenDefinition definition = parse("{\"keys\":{\"F8\":\"nextTab\",\"F1\":\"\"},\"tabs\":[]}");
+
+        assertEquals("nextTab", definition.getKeys().get("F8"));
+        assertEquals("", definition.getKeys().get("F1"));
+        assertTrue(definition.getTabKeys().isEmpty());
+    }
+
+    @Test
+    public void testUnknownKeyIsRejected() {
+        assertThrows(IOException.class, () -> parse("{\"keys\":{\"HOME\":\"nextTab\"},\"tabs\":[]}"));
+    }
+
+    @Test
+    public void testParseLayout() throws IOException {
+        ScreenDefinition definition = parse("{\"tabs\":[{\"title\":\"T\",\"widgets\":[],\"layout\":"
+                + "{\"type\":\"column\",\"gap\":1,\"align\":\"stretch\",\"children\":[\"title\","
+                + "{\"type\":\"anchor\",\"weight\":2,\"children\":[{\"widget\":\"ok\",\"anchor\":\"bottomRight\",\"dx\":-3}]}]}}]}");
+
+        LayoutDefinition layout = definition.getTabs().get(0).getLayout();
+        assertEquals(LayoutType.COLUMN, layout.getType());
+        assertEquals(Alignment.STRETCH, layout.getAlignment());
+        assertEquals("title", layout.getChildren().get(0).getWidget());
+        assertEquals(2, layout.getChildren().get(1).getWeight());
+
+        LayoutDefinition button = layout.getChildren().get(1).getChildren().get(0);
+        assertEquals(LayoutType.WIDGET, button.getType());
+        assertEquals(AnchorLayout.Anchor.BOTTOM_RIGHT, button.getAnchor());
+        assertEquals(-3, button.getDx());
+    }
+
+    @Test
+    public void testInvalidLayoutIsRejected() {
+        assertThrows(IOException.class, () -> parse("{\"tabs\":[{\"title\":\"T\",\"layout\":{\"type\":\"stack\"}}]}"));
+        assertThrows(IOException.class, () -> parse("{\"tabs\":[{\"title\":\"T\",\"layout\":{\"type\":\"grid\"}}]}"));
+        assertThrows(IOException.class, () -> parse("{\"tabs\":[{\"title\":\"T\",\"layout\":{\"type\":\"row\",\"align\":\"middle\"}}]}"));
+    }
+}
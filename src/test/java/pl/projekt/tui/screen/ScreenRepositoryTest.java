@@ -0,0 +1,58 @@
+package pl.projekt.tui.screen;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScreenRepositoryTest {
+
+    private static final String ONE_TAB = "{\"tabs\":[{\"title\":\"F1 One\"}]}";
+    private static final String TWO_TABS = "{\"tabs\":[{\"title\":\"F1 One\"},{\"title\":\"F2 Two\",\"x\":20}]}";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testReloadSwapsScreen() throws IOException {
+        Path file = directory.resolve("screen.json");
+        Files.writeString(file, ONE_TAB);
+        ScreenRepository repository = ScreenRepository.fromFile(file);
+        CompiledScreen before = repository.current();
+
+        Files.writeString(file, TWO_TABS);
+
+        assertTrue(repository.reload());
+        assertEquals(1, before.getTemplate().getTabCount());
+        assertEquals(2, repository.current().getTemplate().getTabCount());
+    }
+
+    @Test
+    public void testInvalidReloadKeepsPreviousScreen() throws IOException {
+        Path file = directory.resolve("screen.json");
+        Files.writeString(file, ONE_TAB);
+        ScreenRepository repository = ScreenRepository.fromFile(file);
+        CompiledScreen before = repository.current();
+
+        Files.writeString(file, "{\"tabs\":[{\"widgets\":[]}]}");
+
+        assertFalse(repository.reload());
+        assertSame(before, repository.current());
+    }
+
+    @Test
+    public void testClasspathRepositoryIsNotReloaded() throws IOException {
+        ScreenRepository repository = ScreenRepository.fromClasspath(ScreenRepository.DEFAULT_RESOURCE);
+
+        assertFalse(repository.reload());
+    }
+
+    @Test
+    public void testMissingResource() {
+        assertThrows(IOException.class, () -> ScreenRepository.fromClasspath("/screens/missing.json"));
+    }
+}
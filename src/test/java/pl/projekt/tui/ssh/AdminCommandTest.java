@@ -0,0 +1,74 @@
+package pl.projekt.tui.ssh;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.projekt.tui.metrics.MetricsRegistry;
+import pl.projekt.tui.metrics.SessionControl;
+import pl.projekt.tui.metrics.SessionMetrics;
+import pl.projekt.tui.metrics.TraceEvent;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class AdminCommandTest {
+
+    private MetricsRegistry registry;
+    private SessionMetrics session;
+    private SessionControl control;
+    private AdminCommand command;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new MetricsRegistry();
+        session = new SessionMetrics();
+        control = mock(SessionControl.class);
+        session.setClient("alice@/127.0.0.1:50000");
+        session.setTerminalSize(140, 40);
+        session.setControl(control);
+        registry.register(session);
+        command = new AdminCommand(registry);
+    }
+
+    @Test
+    public void testSessionsListsLiveSessions() {
+        String answer = command.execute("sessions");
+
+        assertTrue(answer.startsWith("ID"));
+        assertTrue(answer.contains("alice@/127.0.0.1:50000"));
+        assertTrue(answer.contains("140x40"));
+    }
+
+    @Test
+    public void testStats() {
+        registry.getAuthFailures().increment();
+
+        String answer = command.execute("stats");
+
+        assertTrue(answer.contains("activeSessions=1\n"));
+        assertTrue(answer.contains("authFailures=1\n"));
+    }
+
+    @Test
+    public void testDisconnectAndThrottle() {
+        command.execute("disconnect " + session.getId());
+        command.execute("throttle " + session.getId() + " 10");
+
+        verify(control).disconnect();
+        verify(control).setFrameRateLimit(10);
+    }
+
+    @Test
+    public void testInvalidCommands() {
+        assertTrue(command.execute("disconnect 999999").startsWith("Error: No session"));
+        assertTrue(command.execute("throttle " + session.getId()).startsWith("Error: Commands"));
+        assertTrue(command.execute("throttle x 1").startsWith("Error:"));
+        assertTrue(command.execute("help").startsWith("Commands"));
+    }
+
+    @Test
+    public void testTrace() {
+        session.getTrace().record(TraceEvent.TAB_SWITCHED, 0, 1);
+
+        assertTrue(command.execute("trace " + session.getId()).endsWith("tab 0 -> 1\n"));
+    }
+}
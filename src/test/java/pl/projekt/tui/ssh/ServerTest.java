@@ -0,0 +1,57 @@
+package pl.projekt.tui.ssh;
+
+import org.junit.jupiter.api.Test;
+import pl.projekt.tui.metrics.MetricsRegistry;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ServerTest {
+
+    private static final long TIMEOUT_MILLIS = 5_000;
+
+    @Test
+    public void testClosedTelnetClientEndsSession() throws Exception {
+        MetricsRegistry registry = MetricsRegistry.getDefault();
+        try (ServerSocket server = Server.startTelnetServer(0)) {
+            Socket client = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort());
+            assertTrue(await(() -> registry.getSessions().size() == 1), "session not registered");
+
+            client.close();  // Without CTRL+C, like a closed terminal window
+
+            assertTrue(await(() -> registry.getSessions().isEmpty()), "session still registered");
+        }
+    }
+
+    @Test
+    public void testDisconnectRestoresTerminal() throws Exception {
+        MetricsRegistry registry = MetricsRegistry.getDefault();
+        try (ServerSocket server = Server.startTelnetServer(0);
+             Socket client = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort())) {
+            client.setSoTimeout((int) TIMEOUT_MILLIS);
+            assertTrue(await(() -> registry.getSessions().size() == 1), "session not registered");
+
+            registry.getSessions().iterator().next().getControl().disconnect();
+            String output = new String(client.getInputStream().readAllBytes(), StandardCharsets.ISO_8859_1);
+
+            assertTrue(output.endsWith("\u001B[0m\u001B[?25h"), "cursor not shown at the end of the session");
+            assertTrue(await(() -> registry.getSessions().isEmpty()), "session still registered");
+        }
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
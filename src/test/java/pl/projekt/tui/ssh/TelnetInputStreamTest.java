@@ -0,0 +1,85 @@
+package pl.projekt.tui.ssh;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TelnetInputStreamTest {
+
+    private final List<int[]> sizes = new ArrayList<>();
+
+    private TelnetInputStream stream(InputStream in) {
+        return new TelnetInputStream(in, (width, height) -> sizes.add(new int[]{width, height}));
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+    @Test
+    public void testStripsNegotiationAndReportsWindowSize() throws IOException {
+        // WILL NAWS, NAWS 200x50, then the key 'a'
+        TelnetInputStream in = stream(new ByteArrayInputStream(bytes(255, 251, 31, 255, 250, 31, 0, 200, 0, 50, 255, 240, 'a')));
+
+        assertEquals('a', in.read());
+        assertEquals(-1, in.read());
+        assertEquals(1, sizes.size());
+        assertArrayEquals(new int[]{200, 50}, sizes.get(0));
+    }
+
+    @Test
+    public void testCommandSplitAcrossReads() throws IOException {
+        // Every read returns a single byte, as a command split over several segments would arrive
+        InputStream oneByteAtATime = new ByteArrayInputStream(bytes('x', 255, 250, 31, 1, 44, 0, 40, 255, 240, 'y')) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+        TelnetInputStream in = stream(oneByteAtATime);
+
+        byte[] buf = new byte[16];
+        assertEquals(1, in.read(buf, 0, buf.length));
+        assertEquals('x', buf[0]);
+        assertEquals(1, in.read(buf, 0, buf.length));
+        assertEquals('y', buf[0]);
+        assertArrayEquals(new int[]{300, 40}, sizes.get(0));
+    }
+
+    @Test
+    public void testEscapedBytes() throws IOException {
+        // IAC IAC is a data byte, and a size of 255 is escaped inside the subnegotiation
+        TelnetInputStream in = stream(new ByteArrayInputStream(bytes(255, 255, 255, 250, 31, 0, 255, 255, 0, 24, 255, 240)));
+
+        assertEquals(255, in.read());
+        assertEquals(-1, in.read());
+        assertArrayEquals(new int[]{255, 24}, sizes.get(0));
+    }
+
+    @Test
+    public void testIgnoresOtherSubnegotiations() throws IOException {
+        // Terminal type subnegotiation and a NOP
+        TelnetInputStream in = stream(new ByteArrayInputStream(bytes(255, 250, 24, 0, 'x', 't', 'e', 'r', 'm', 255, 240, 255, 241, 'q')));
+
+        assertEquals('q', in.read());
+        assertTrue(sizes.isEmpty());
+    }
+
+    @Test
+    public void testRequestWindowSize() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TelnetInputStream.requestWindowSize(out);
+        assertArrayEquals(bytes(255, 253, 31), out.toByteArray());
+    }
+}
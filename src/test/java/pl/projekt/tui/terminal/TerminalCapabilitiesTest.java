@@ -0,0 +1,76 @@
+package pl.projekt.tui.terminal;
+
+import org.junit.jupiter.api.Test;
+import pl.projekt.tui.model.color.ColorMode;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TerminalCapabilitiesTest {
+
+    @Test
+    public void testNoTermKeepsDefault() {
+        assertSame(TerminalCapabilities.DEFAULT, TerminalCapabilities.detect(Map.of()));
+    }
+
+    @Test
+    public void testXterm256() {
+        TerminalCapabilities capabilities = TerminalCapabilities.detect(Map.of("TERM", "xterm-256color", "LANG", "pl_PL.UTF-8"));
+
+        assertEquals(ColorMode.INDEXED_256, capabilities.getColorMode());
+        assertTrue(capabilities.isUnicode());
+        assertTrue(capabilities.isBackgroundColorErase());
+        assertTrue(capabilities.isRepeat());
+        assertTrue(capabilities.isCursorMovement());
+        assertFalse(capabilities.isSynchronizedOutput());
+    }
+
+    @Test
+    public void testColorTermSelectsTruecolor() {
+        TerminalCapabilities capabilities = TerminalCapabilities.detect(Map.of("TERM", "xterm-256color", "COLORTERM", "truecolor"));
+
+        assertEquals(ColorMode.TRUECOLOR, capabilities.getColorMode());
+    }
+
+    @Test
+    public void testKitty() {
+        TerminalCapabilities capabilities = TerminalCapabilities.detect(Map.of("TERM", "xterm-kitty"));
+
+        assertEquals(ColorMode.TRUECOLOR, capabilities.getColorMode());
+        assertTrue(capabilities.isSynchronizedOutput());
+        assertTrue(capabilities.isRepeat());
+    }
+
+    @Test
+    public void testScreenWithoutBce() {
+        TerminalCapabilities capabilities = TerminalCapabilities.detect(Map.of("TERM", "screen-256color"));
+
+        assertEquals(ColorMode.INDEXED_256, capabilities.getColorMode());
+        assertFalse(capabilities.isBackgroundColorErase());
+        assertFalse(capabilities.isRepeat());
+    }
+
+    @Test
+    public void testOldTerminalsGetAscii() {
+        assertFalse(TerminalCapabilities.detect(Map.of("TERM", "vt100")).isUnicode());
+        assertFalse(TerminalCapabilities.detect(Map.of("TERM", "xterm", "LANG", "C")).isUnicode());
+        assertFalse(TerminalCapabilities.detect(Map.of("TERM", "dumb")).isCursorMovement());
+        assertFalse(TerminalCapabilities.detect(Map.of("TERM", "dumb")).isScrollRegion());
+        assertTrue(TerminalCapabilities.detect(Map.of("TERM", "vt100")).isScrollRegion());
+        assertEquals(ColorMode.ANSI_16, TerminalCapabilities.detect(Map.of("TERM", "linux")).getColorMode());
+    }
+
+    @Test
+    public void testOverride() {
+        TerminalCapabilities capabilities = TerminalCapabilities.detect(Map.of("TERM", "xterm-256color",
+                TerminalCapabilities.OVERRIDE_VARIABLE, "truecolor, -rep, sync, ascii, -scroll, bogus"));
+
+        assertEquals(ColorMode.TRUECOLOR, capabilities.getColorMode());
+        assertFalse(capabilities.isRepeat());
+        assertTrue(capabilities.isSynchronizedOutput());
+        assertFalse(capabilities.isUnicode());
+        assertTrue(capabilities.isBackgroundColorErase());
+        assertFalse(capabilities.isScrollRegion());
+    }
+}
@@ -0,0 +1,423 @@
+package pl.projekt.tui.terminal;
+
+import lombok.Getter;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Headless terminal emulator implementing the subset of VT100/xterm the server emits, so tests can check what a
+ * client actually sees. Bytes are decoded as UTF-8 and interpreted as:
+ * <ul>
+ *     <li>printable characters, with xterm's delayed auto-wrap at the right margin and scrolling at the bottom</li>
+ *     <li>CR, LF, BS and ESC M (RI)</li>
+ *     <li>CSI H/f (CUP), A/B/C/D (cursor moves), E/F (next/previous line), G (column), J, K and X (erase)</li>
+ *     <li>CSI b (REP), repeating the last printed character</li>
+ *     <li>CSI m (SGR) with 0, 30-37, 39, 40-47, 49, 90-97, 100-107 and the 256-color and RGB forms of 38/48</li>
+ *     <li>CSI r (scroll region) and CSI S/T (scroll up/down)</li>
+ *     <li>CSI ? h/l private modes, which are only remembered</li>
+ * </ul>
+ * Colors are kept as canonical SGR parameters, e.g. {@code "31"} or {@code "38;5;196"}, so a cell can be compared
+ * with the {@code Colors} code that produced it. Anything else is counted in {@link #getUnsupported()}.
+ */
+public class VirtualTerminal {
+
+    /**
+     * Default foreground, SGR 39.
+     */
+    public static final String DEFAULT_FOREGROUND = "39";
+
+    /**
+     * Default background, SGR 49.
+     */
+    public static final String DEFAULT_BACKGROUND = "49";
+
+    private enum State { GROUND, ESCAPE, CSI }
+
+    @Getter
+    private final int width;
+    @Getter
+    private final int height;
+    private final Cell[][] grid;
+    private final Set<Integer> privateModes = new HashSet<>();
+    private final List<String> unsupported = new ArrayList<>();
+
+    private State state = State.GROUND;
+    private final StringBuilder params = new StringBuilder();
+    private int utf8Remaining;  // Continuation bytes still expected
+    private int utf8CodePoint;
+
+    @Getter
+    private int cursorX;
+    @Getter
+    private int cursorY;
+    private boolean wrapPending;  // Last column written, the next character wraps first
+    private int lastPrinted = -1;  // Character REP repeats, -1 after anything but a character
+    private String foreground = DEFAULT_FOREGROUND;
+    private String background = DEFAULT_BACKGROUND;
+    private int scrollTop;
+    private int scrollBottom;
+    @Getter
+    private long bytesReceived;
+
+    public VirtualTerminal(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.grid = new Cell[height][width];
+        this.scrollBottom = height - 1;
+        for (int y = 0; y < height; y++) {
+            clearRow(y, 0, width);
+        }
+    }
+
+    /**
+     * Interprets bytes sent to the terminal. Sequences may be split across calls.
+     *
+     * @param data The bytes.
+     */
+    public void feed(byte[] data) {
+        feed(data, 0, data.length);
+    }
+
+    /**
+     * Interprets part of an array of bytes sent to the terminal.
+     *
+     * @param data   The bytes.
+     * @param offset Index of the first byte.
+     * @param length Number of bytes.
+     */
+    public void feed(byte[] data, int offset, int length) {
+        bytesReceived += length;
+        for (int i = offset; i < offset + length; i++) {
+            int b = data[i] & 0xFF;
+            if (utf8Remaining > 0) {
+                if ((b & 0xC0) == 0x80) {
+                    utf8CodePoint = (utf8CodePoint << 6) | (b & 0x3F);
+                    if (--utf8Remaining == 0) {
+                        print(utf8CodePoint);
+                    }
+                    continue;
+                }
+                utf8Remaining = 0;
+                unsupported.add("truncated UTF-8 sequence");
+            }
+            if (b >= 0xC0 && state == State.GROUND) {
+                utf8Remaining = b >= 0xF0 ? 3 : b >= 0xE0 ? 2 : 1;
+                utf8CodePoint = b & (0x3F >> utf8Remaining);
+                continue;
+            }
+            process(b);
+        }
+    }
+
+    private void process(int b) {
+        switch (state) {
+            case GROUND:
+                if (b == 0x1B) {
+                    state = State.ESCAPE;
+                } else if (b == '\r') {
+                    moveTo(0, cursorY);
+                } else if (b == '\n') {
+                    lineFeed();
+                } else if (b == '\b') {
+                    moveTo(Math.max(0, cursorX - 1), cursorY);
+                } else if (b >= 0x20 && b != 0x7F) {
+                    print(b);
+                }
+                break;
+            case ESCAPE:
+                if (b == '[') {
+                    state = State.CSI;
+                    params.setLength(0);
+                } else if (b == 'M') {
+                    reverseIndex();
+                    state = State.GROUND;
+                } else {
+                    unsupported.add("ESC " + (char) b);
+                    state = State.GROUND;
+                }
+                break;
+            case CSI:
+                if (b >= 0x40 && b <= 0x7E) {
+                    state = State.GROUND;
+                    csi((char) b, params.toString());
+                } else {
+                    params.append((char) b);
+                }
+                break;
+        }
+    }
+
+    private void print(int codePoint) {
+        if (wrapPending) {
+            wrapPending = false;
+            cursorX = 0;
+            lineFeed();
+        }
+        grid[cursorY][cursorX] = new Cell(codePoint, foreground, background);
+        lastPrinted = codePoint;
+        if (cursorX == width - 1) {
+            wrapPending = true;
+        } else {
+            cursorX++;
+        }
+    }
+
+    private void reverseIndex() {
+        if (cursorY == scrollTop) {
+            scroll(-1);
+        } else if (cursorY > 0) {
+            cursorY--;
+        }
+        wrapPending = false;
+    }
+
+    private void lineFeed() {
+        if (cursorY == scrollBottom) {
+            scroll(1);
+        } else if (cursorY < height - 1) {
+            cursorY++;
+        }
+        wrapPending = false;
+    }
+
+    private void csi(char command, String raw) {
+        int repeated = lastPrinted;
+        lastPrinted = -1;
+        if (raw.startsWith("?")) {
+            int[] modes = parse(raw.substring(1), 0);
+            for (int mode : modes) {
+                if (command == 'h') {
+                    privateModes.add(mode);
+                } else if (command == 'l') {
+                    privateModes.remove(mode);
+                } else {
+                    unsupported.add("CSI ?" + raw.substring(1) + command);
+                }
+            }
+            return;
+        }
+        int[] p = parse(raw, 0);
+        int n = Math.max(1, param(p, 0, 1));
+        switch (command) {
+            case 'H':
+            case 'f':
+                moveTo(param(p, 1, 1) - 1, param(p, 0, 1) - 1);
+                break;
+            case 'A':
+                moveTo(cursorX, cursorY - n);
+                break;
+            case 'B':
+                moveTo(cursorX, cursorY + n);
+                break;
+            case 'C':
+                moveTo(cursorX + n, cursorY);
+                break;
+            case 'D':
+                moveTo(cursorX - n, cursorY);
+                break;
+            case 'E':
+                moveTo(0, cursorY + n);
+                break;
+            case 'F':
+                moveTo(0, cursorY - n);
+                break;
+            case 'G':
+                moveTo(n - 1, cursorY);
+                break;
+            case 'J':
+                eraseDisplay(param(p, 0, 0));
+                break;
+            case 'K':
+                eraseLine(param(p, 0, 0));
+                break;
+            case 'X':
+                clearRow(cursorY, cursorX, Math.min(width, cursorX + n));
+                break;
+            case 'b':
+                if (repeated < 0) {
+                    unsupported.add("REP without a preceding character");
+                }
+                for (int i = 0; i < n && repeated >= 0; i++) {
+                    print(repeated);
+                }
+                break;
+            case 'm':
+                sgr(raw);
+                break;
+            case 'r':
+                scrollTop = Math.max(0, param(p, 0, 1) - 1);
+                scrollBottom = Math.min(height - 1, param(p, 1, height) - 1);
+                if (scrollTop >= scrollBottom) {
+                    scrollTop = 0;
+                    scrollBottom = height - 1;
+                }
+                moveTo(0, 0);
+                break;
+            case 'S':
+                scroll(n);
+                break;
+            case 'T':
+                scroll(-n);
+                break;
+            default:
+                unsupported.add("CSI " + raw + command);
+        }
+    }
+
+    private void moveTo(int x, int y) {
+        cursorX = Math.max(0, Math.min(width - 1, x));
+        cursorY = Math.max(0, Math.min(height - 1, y));
+        wrapPending = false;
+    }
+
+    private void sgr(String raw) {
+        int[] p = parse(raw, 0);
+        if (p.length == 0) {
+            p = new int[]{0};
+        }
+        for (int i = 0; i < p.length; i++) {
+            int code = p[i];
+            if (code == 0) {
+                foreground = DEFAULT_FOREGROUND;
+                background = DEFAULT_BACKGROUND;
+            } else if ((code >= 30 && code <= 37) || (code >= 90 && code <= 97) || code == 39) {
+                foreground = String.valueOf(code);
+            } else if ((code >= 40 && code <= 47) || (code >= 100 && code <= 107) || code == 49) {
+                background = String.valueOf(code);
+            } else if ((code == 38 || code == 48) && i + 2 < p.length && p[i + 1] == 5) {
+                String color = code + ";5;" + p[i + 2];
+                if (code == 38) foreground = color; else background = color;
+                i += 2;
+            } else if ((code == 38 || code == 48) && i + 4 < p.length && p[i + 1] == 2) {
+                String color = code + ";2;" + p[i + 2] + ";" + p[i + 3] + ";" + p[i + 4];
+                if (code == 38) foreground = color; else background = color;
+                i += 4;
+            } else {
+                unsupported.add("SGR " + code);
+            }
+        }
+    }
+
+    private void eraseDisplay(int mode) {
+        if (mode == 0) {
+            clearRow(cursorY, cursorX, width);
+            for (int y = cursorY + 1; y < height; y++) clearRow(y, 0, width);
+        } else if (mode == 1) {
+            for (int y = 0; y < cursorY; y++) clearRow(y, 0, width);
+            clearRow(cursorY, 0, cursorX + 1);
+        } else {
+            for (int y = 0; y < height; y++) clearRow(y, 0, width);
+        }
+    }
+
+    private void eraseLine(int mode) {
+        if (mode == 0) {
+            clearRow(cursorY, cursorX, width);
+        } else if (mode == 1) {
+            clearRow(cursorY, 0, cursorX + 1);
+        } else {
+            clearRow(cursorY, 0, width);
+        }
+    }
+
+    /**
+     * Scrolls the scroll region, positive counts move the content up.
+     */
+    private void scroll(int count) {
+        int lines = Math.min(Math.abs(count), scrollBottom - scrollTop + 1);
+        for (int i = 0; i < lines; i++) {
+            if (count > 0) {
+                Cell[] first = grid[scrollTop];
+                System.arraycopy(grid, scrollTop + 1, grid, scrollTop, scrollBottom - scrollTop);
+                grid[scrollBottom] = first;
+                clearRow(scrollBottom, 0, width);
+            } else {
+                Cell[] last = grid[scrollBottom];
+                System.arraycopy(grid, scrollTop, grid, scrollTop + 1, scrollBottom - scrollTop);
+                grid[scrollTop] = last;
+                clearRow(scrollTop, 0, width);
+            }
+        }
+    }
+
+    private void clearRow(int y, int from, int to) {
+        Cell blank = new Cell(' ', foreground, background);  // Erasing uses the current background, like xterm
+        for (int x = from; x < to; x++) {
+            grid[y][x] = blank;
+        }
+    }
+
+    private static int[] parse(String raw, int defaultValue) {
+        if (raw.isEmpty()) {
+            return new int[0];
+        }
+        String[] parts = raw.split(";", -1);
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = parts[i].isEmpty() ? defaultValue : Integer.parseInt(parts[i]);
+        }
+        return values;
+    }
+
+    private static int param(int[] p, int index, int defaultValue) {
+        return index < p.length && p[index] != 0 ? p[index] : defaultValue;
+    }
+
+    /**
+     * Returns the cell at a position.
+     *
+     * @param x Column, from 0.
+     * @param y Row, from 0.
+     * @return The cell.
+     */
+    public Cell getCell(int x, int y) {
+        return grid[y][x];
+    }
+
+    /**
+     * Returns the characters of a row.
+     *
+     * @param y Row, from 0.
+     * @return The text of the row.
+     */
+    public String getLine(int y) {
+        StringBuilder sb = new StringBuilder();
+        for (Cell cell : grid[y]) {
+            sb.appendCodePoint(cell.getCodePoint());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns whether a private mode, e.g. 2026 for synchronized output, is set.
+     *
+     * @param mode The mode number.
+     * @return True if the last CSI ? h/l for the mode set it.
+     */
+    public boolean isPrivateModeSet(int mode) {
+        return privateModes.contains(mode);
+    }
+
+    /**
+     * Returns the sequences the emulator does not implement, in the order they were received.
+     *
+     * @return Descriptions of the unsupported sequences.
+     */
+    public List<String> getUnsupported() {
+        return unsupported;
+    }
+
+    /**
+     * One character cell of the terminal.
+     */
+    @Value
+    public static class Cell {
+        int codePoint;
+        String foreground;  // SGR parameters, e.g. "31"
+        String background;  // SGR parameters, e.g. "47"
+    }
+}
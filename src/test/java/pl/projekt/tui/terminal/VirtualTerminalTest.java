@@ -0,0 +1,123 @@
+package pl.projekt.tui.terminal;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VirtualTerminalTest {
+
+    private static void feed(VirtualTerminal terminal, String text) {
+        terminal.feed(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testCursorPositionAndColors() {
+        VirtualTerminal terminal = new VirtualTerminal(10, 3);
+        feed(terminal, "\033[2;4H\033[41m\033[97mAb\033[0mc");
+
+        assertEquals("   Abc    ", terminal.getLine(1));
+        assertEquals(new VirtualTerminal.Cell('A', "97", "41"), terminal.getCell(3, 1));
+        assertEquals(new VirtualTerminal.Cell('c', "39", "49"), terminal.getCell(5, 1));
+        assertEquals(6, terminal.getCursorX());
+    }
+
+    @Test
+    public void testDelayedWrapAndNextLine() {
+        VirtualTerminal terminal = new VirtualTerminal(3, 3);
+        feed(terminal, "\033[Habc\033[Edef\033[Eghi\033[E");
+
+        assertEquals("abc", terminal.getLine(0));
+        assertEquals("def", terminal.getLine(1));
+        assertEquals("ghi", terminal.getLine(2));
+        assertEquals(0, terminal.getCursorX());
+        assertEquals(2, terminal.getCursorY());
+    }
+
+    @Test
+    public void testAutoWrapScrollsAtBottom() {
+        VirtualTerminal terminal = new VirtualTerminal(2, 2);
+        feed(terminal, "abcdef");
+
+        assertEquals("cd", terminal.getLine(0));
+        assertEquals("ef", terminal.getLine(1));
+    }
+
+    @Test
+    public void testUtf8SplitAcrossFeeds() {
+        VirtualTerminal terminal = new VirtualTerminal(4, 1);
+        byte[] bytes = "│ż".getBytes(StandardCharsets.UTF_8);
+        terminal.feed(bytes, 0, 2);
+        terminal.feed(bytes, 2, bytes.length - 2);
+
+        assertEquals("│ż  ", terminal.getLine(0));
+        assertEquals(bytes.length, terminal.getBytesReceived());
+    }
+
+    @Test
+    public void testExtendedColors() {
+        VirtualTerminal terminal = new VirtualTerminal(2, 1);
+        feed(terminal, "\033[38;5;196;48;2;1;2;3mx");
+
+        assertEquals(new VirtualTerminal.Cell('x', "38;5;196", "48;2;1;2;3"), terminal.getCell(0, 0));
+    }
+
+    @Test
+    public void testEraseUsesCurrentBackground() {
+        VirtualTerminal terminal = new VirtualTerminal(4, 2);
+        feed(terminal, "abcd\033[2;1Hefgh\033[1;3H\033[44m\033[K");
+
+        assertEquals("ab  ", terminal.getLine(0));
+        assertEquals("44", terminal.getCell(3, 0).getBackground());
+        feed(terminal, "\033[2J");
+        assertEquals("    ", terminal.getLine(1));
+    }
+
+    @Test
+    public void testRepeatAndEraseCharacters() {
+        VirtualTerminal terminal = new VirtualTerminal(8, 1);
+        feed(terminal, "ab\033[3bcd\033[1;2H\033[42m\033[2X");
+
+        assertEquals("a  bbcd ", terminal.getLine(0));
+        assertEquals("42", terminal.getCell(2, 0).getBackground());
+        assertEquals(1, terminal.getCursorX());
+        feed(terminal, "\033[H\033[2b");
+        assertEquals(1, terminal.getUnsupported().size());
+    }
+
+    @Test
+    public void testScrollRegion() {
+        VirtualTerminal terminal = new VirtualTerminal(1, 4);
+        feed(terminal, "\033[1;1Ha\033[2;1Hb\033[3;1Hc\033[4;1Hd\033[2;3r\033[S");
+
+        assertEquals("a", terminal.getLine(0));
+        assertEquals("c", terminal.getLine(1));
+        assertEquals(" ", terminal.getLine(2));
+        assertEquals("d", terminal.getLine(3));
+    }
+
+    @Test
+    public void testReverseIndexScrollsDownAtTop() {
+        VirtualTerminal terminal = new VirtualTerminal(1, 4);
+        feed(terminal, "\033[1;1Ha\033[2;1Hb\033[3;1Hc\033[4;1Hd\033[2;4r\033[2H\033M\033[r\033[3H\033M");
+
+        assertEquals("a", terminal.getLine(0));
+        assertEquals(" ", terminal.getLine(1));
+        assertEquals("b", terminal.getLine(2));
+        assertEquals("c", terminal.getLine(3));
+        assertEquals(1, terminal.getCursorY());
+        assertTrue(terminal.getUnsupported().isEmpty());
+    }
+
+    @Test
+    public void testPrivateModesAndUnsupported() {
+        VirtualTerminal terminal = new VirtualTerminal(2, 1);
+        feed(terminal, "\033[?2026h\033[5n");
+
+        assertTrue(terminal.isPrivateModeSet(2026));
+        assertEquals(1, terminal.getUnsupported().size());
+        feed(terminal, "\033[?2026l");
+        assertFalse(terminal.isPrivateModeSet(2026));
+    }
+}